@@ -0,0 +1,71 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.SOAPMessage;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Garancy SOAP response parsing
+ *
+ * Measures the DOM parsers used by the list operations against the StAX
+ * stream parser, over synthetic responses of 10k, 100k and 1M rows. Each
+ * invocation parses the raw response bytes, as a real call would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class GarancyResponseParsingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private GarancyAPIClient apiClient;
+    private MessageFactory messageFactory;
+    private byte[] userResponse;
+    private byte[] connectionResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        apiClient = new GarancyAPIClient("http://localhost", "bench", "bench", 30000, 1);
+        messageFactory = MessageFactory.newInstance();
+        userResponse = SyntheticGarancyPayloads.listUserResponse(rows);
+        connectionResponse = SyntheticGarancyPayloads.listRoleUserConnectionResponse(rows, 2000);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> parseUserResponse() throws Exception {
+        return apiClient.parseUserResponse(toMessage(userResponse));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> parseRoleUserConnectionResponse() throws Exception {
+        return apiClient.parseRoleUserConnectionResponse(toMessage(connectionResponse));
+    }
+
+    @Benchmark
+    public long streamRoleUserConnections(final Blackhole blackhole) throws Exception {
+        long[] delivered = new long[1];
+        GarancyAPIClient.parseRoleUserConnectionStream(new ByteArrayInputStream(connectionResponse),
+            new GarancyAPIClient.RoleUserConnectionHandler() {
+                @Override
+                public void onConnection(String userId, String roleId, String status) {
+                    blackhole.consume(userId);
+                    blackhole.consume(roleId);
+                }
+            }, delivered);
+        return delivered[0];
+    }
+
+    private SOAPMessage toMessage(byte[] response) throws Exception {
+        return messageFactory.createMessage(null, new ByteArrayInputStream(response));
+    }
+}
@@ -0,0 +1,65 @@
+package com.sailpoint.connector.accessio.racf;
+
+import com.sailpoint.connector.accessio.racf.security.InputValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for InputValidator checks
+ *
+ * Runs the validators over a mix of valid identifiers and inputs that are
+ * rejected, since rejected input takes the exception path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InputValidatorBenchmark {
+
+    private static final String[] INPUTS = {
+        "U100042", "RACF_USER_BASIC", "john.doe@accessio.com", "Quarterly access review for finance",
+        "x' OR '1'='1", "<script>alert(1)</script>", "../../etc/passwd", "FINANCIAL_APPROVER_12"
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void sanitizeInput(Blackhole blackhole) {
+        for (String input : INPUTS) {
+            try {
+                blackhole.consume(InputValidator.sanitizeInput(input, "field"));
+            } catch (IllegalArgumentException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void validateUserId(Blackhole blackhole) {
+        for (String input : INPUTS) {
+            try {
+                InputValidator.validateUserId(input);
+                blackhole.consume(true);
+            } catch (IllegalArgumentException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void validateEmail(Blackhole blackhole) {
+        for (String input : INPUTS) {
+            try {
+                InputValidator.validateEmail(input);
+                blackhole.consume(true);
+            } catch (IllegalArgumentException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
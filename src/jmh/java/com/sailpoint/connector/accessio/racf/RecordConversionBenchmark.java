@@ -0,0 +1,70 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for per-record conversion and role classification
+ *
+ * Covers the work done once per user or role during aggregation and role
+ * catalog loading: building ResourceObjects, enriching role records and
+ * classifying high-privilege roles.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordConversionBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    private AccessioRACFConnector connector;
+    private RACFRoleManager roleManager;
+    private List<Map<String, Object>> users;
+    private List<Map<String, Object>> roles;
+    private String[] roleIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connector = new AccessioRACFConnector();
+        roleManager = new RACFRoleManager(null, null);
+        users = new ArrayList<>(RECORDS);
+        roles = new ArrayList<>(RECORDS);
+        roleIds = new String[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            users.add(SyntheticGarancyPayloads.user(i));
+            roles.add(SyntheticGarancyPayloads.role(i));
+            roleIds[i] = SyntheticGarancyPayloads.roleId(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void convertUserToResourceObject(Blackhole blackhole) {
+        for (Map<String, Object> user : users) {
+            blackhole.consume(connector.convertUserToResourceObject(user));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void enrichRoleData(Blackhole blackhole) {
+        for (Map<String, Object> role : roles) {
+            roleManager.enrichRoleData(role);
+            blackhole.consume(role);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void isHighPrivilegeRole(Blackhole blackhole) {
+        for (String roleId : roleIds) {
+            blackhole.consume(roleManager.isHighPrivilegeRole(roleId));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for Segregation of Duties evaluation
+ *
+ * Evaluates role requests against a compiled conflict matrix, for a single
+ * request against a user's current roles and for one user's complete role
+ * set as done by the whole-population scan.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SoDEvaluationBenchmark {
+
+    @Param({"100", "1000"})
+    public int ruleCount;
+
+    private SoDConflictMatrix matrix;
+    private List<String> currentRoles;
+    private List<String> requestedRoles;
+    private BitSet heldRoles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, List<String>> rules = new LinkedHashMap<>();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.put(SyntheticGarancyPayloads.roleId(random.nextInt(ruleCount * 2)),
+                      Collections.singletonList(SyntheticGarancyPayloads.roleId(random.nextInt(ruleCount * 2))));
+        }
+        matrix = new SoDConflictMatrix(rules);
+
+        currentRoles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            currentRoles.add(SyntheticGarancyPayloads.roleId(random.nextInt(ruleCount * 2)));
+        }
+        requestedRoles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requestedRoles.add(SyntheticGarancyPayloads.roleId(random.nextInt(ruleCount * 2)));
+        }
+
+        heldRoles = new BitSet(matrix.getRoleCount());
+        for (String role : currentRoles) {
+            int index = matrix.indexOf(role);
+            if (index >= 0) {
+                heldRoles.set(index);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean hasConflict() {
+        return matrix.hasConflict(currentRoles, requestedRoles);
+    }
+
+    @Benchmark
+    public List<SoDConflictMatrix.Violation> findRequestViolations() {
+        return matrix.findViolations(currentRoles, requestedRoles);
+    }
+
+    @Benchmark
+    public List<SoDConflictMatrix.Rule> findHeldRoleViolations() {
+        return matrix.findViolations(heldRoles);
+    }
+}
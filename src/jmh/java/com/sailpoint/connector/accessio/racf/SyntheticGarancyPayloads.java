@@ -0,0 +1,87 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Synthetic Garancy data for benchmarks
+ *
+ * Builds SOAP response bodies and record maps shaped like real listUser,
+ * listRole and listRoleToUserConnection results. Generation is seeded so
+ * every run measures the same data.
+ */
+final class SyntheticGarancyPayloads {
+
+    private static final String ENVELOPE_START =
+        "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>";
+    private static final String ENVELOPE_END = "</soapenv:Body></soapenv:Envelope>";
+
+    private static final String[] ROLE_PREFIXES = {
+        "RACF_USER", "RACF_IT", "FINANCIAL", "BACKUP", "RESTORE", "SECURITY_ADMIN", "ISO_GUARDIAN", "MON_BATCH"
+    };
+
+    private SyntheticGarancyPayloads() {
+    }
+
+    static String userId(int i) {
+        return "U" + (100000 + i);
+    }
+
+    static String roleId(int i) {
+        return ROLE_PREFIXES[i % ROLE_PREFIXES.length] + "_" + (i / ROLE_PREFIXES.length);
+    }
+
+    static byte[] listUserResponse(int rows) {
+        StringBuilder xml = new StringBuilder(rows * 400);
+        xml.append(ENVELOPE_START).append("<listUserResponse>");
+        for (int i = 0; i < rows; i++) {
+            xml.append("<User>")
+               .append("<BASEUS_SAM_ID>").append(userId(i)).append("</BASEUS_SAM_ID>")
+               .append("<BASEORG_ID>$F").append(i % 500).append("UDF</BASEORG_ID>")
+               .append("<BASEUS_C_C01_001>").append(i % 10 == 0 ? "T" : "A").append("</BASEUS_C_C01_001>")
+               .append("<BASEUS_C_C01_009>").append("Employee ").append(i).append("</BASEUS_C_C01_009>")
+               .append("<BASEUS_C_C01_010>ACTIVE</BASEUS_C_C01_010>")
+               .append("<BASEUS_C_C01_011>2024-01-15</BASEUS_C_C01_011>")
+               .append("<BASEUS_C_C01_004>2024-06-01</BASEUS_C_C01_004>")
+               .append("</User>");
+        }
+        xml.append("</listUserResponse>").append(ENVELOPE_END);
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] listRoleUserConnectionResponse(int rows, int roleCount) {
+        StringBuilder xml = new StringBuilder(rows * 200);
+        xml.append(ENVELOPE_START).append("<listRoleToUserConnectionResponse>");
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            xml.append("<Connection>")
+               .append("<BASEUS_SAM_ID>").append(userId(i / 5)).append("</BASEUS_SAM_ID>")
+               .append("<BASEUSRC_ROLE>").append(roleId(random.nextInt(roleCount))).append("</BASEUSRC_ROLE>")
+               .append("<CONNECTION_STATUS>ACTIVE</CONNECTION_STATUS>")
+               .append("<ASSIGNED_DATE>2024-03-01</ASSIGNED_DATE>")
+               .append("</Connection>");
+        }
+        xml.append("</listRoleToUserConnectionResponse>").append(ENVELOPE_END);
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Map<String, Object> user(int i) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("BASEUS_SAM_ID", userId(i));
+        user.put("BASEORG_ID", "$F" + (i % 500) + "UDF");
+        user.put("BASEUS_C_C01_001", i % 10 == 0 ? "T" : "A");
+        user.put("BASEUS_C_C01_009", "Employee " + i);
+        user.put("BASEUS_C_C01_010", "ACTIVE");
+        user.put("BASEUS_C_C01_011", "2024-01-15");
+        user.put("BASEUS_C_C01_004", "2024-06-01");
+        return user;
+    }
+
+    static Map<String, Object> role(int i) {
+        Map<String, Object> role = new HashMap<>();
+        role.put("BASEUSRC_ROLE", roleId(i));
+        role.put("TECHDSP_NAME", roleId(i) + " Role");
+        role.put("BASEUS_C_C_78_001", "owner" + (i % 50) + "@accessio.com");
+        return role;
+    }
+}
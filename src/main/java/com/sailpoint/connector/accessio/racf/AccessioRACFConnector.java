@@ -1,5 +1,15 @@
 package com.sailpoint.connector.accessio.racf;
 
+import com.sailpoint.connector.accessio.racf.metrics.AggregationProgress;
+import com.sailpoint.connector.accessio.racf.metrics.CompositeMetricsRegistry;
+import com.sailpoint.connector.accessio.racf.metrics.GarancyClientMetrics;
+import com.sailpoint.connector.accessio.racf.metrics.GarancyMetricsRegistry;
+import com.sailpoint.connector.accessio.racf.tracing.FileSpanExporter;
+import com.sailpoint.connector.accessio.racf.tracing.RingBufferSpanExporter;
+import com.sailpoint.connector.accessio.racf.tracing.Span;
+import com.sailpoint.connector.accessio.racf.tracing.SpanExporter;
+import com.sailpoint.connector.accessio.racf.tracing.Tracer;
+
 import sailpoint.connector.AbstractConnector;
 import sailpoint.connector.ConnectorException;
 import sailpoint.connector.Connector;
@@ -10,6 +20,7 @@ import sailpoint.tools.xml.XMLObjectFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.lang.reflect.Method;
 import java.util.*;
 
 /**
@@ -41,6 +52,38 @@ public class AccessioRACFConnector extends AbstractConnector {
     public static final String CONFIG_RETRY_ATTEMPTS = "retryAttempts";
     public static final String CONFIG_DEFAULT_ORG_UNIT = "defaultOrgUnit";
     public static final String CONFIG_API_VERSION = "apiVersion";
+    public static final String CONFIG_SECURITY_OFFICER = "securityOfficer";
+    public static final String CONFIG_ORG_UNIT_CATALOG_CACHE_SECONDS = "orgUnitCatalogCacheSeconds";
+    public static final String CONFIG_METRICS_ENABLED = "metricsEnabled";
+    public static final String CONFIG_METRICS_REGISTRY_CLASS = "metricsRegistryClass";
+    public static final String CONFIG_PROGRESS_INTERVAL_MILLIS = "progressIntervalMillis";
+    public static final String CONFIG_TRACING_SAMPLE_RATE = "tracingSampleRate";
+    public static final String CONFIG_TRACING_FILE = "tracingFile";
+    public static final String CONFIG_TRACING_BUFFER_SIZE = "tracingBufferSize";
+    public static final String CONFIG_ASYNC_MAX_IN_FLIGHT = "asyncMaxInFlight";
+    public static final String CONFIG_VIRTUAL_THREADS = "virtualThreads";
+    public static final String CONFIG_REQUEST_DEDUPLICATION = "requestDeduplication";
+    
+    // Configuration entries the shared components are built from; only a change
+    // to one of these rebuilds them
+    static final List<String> COMPONENT_CONFIGURATION_KEYS = Collections.unmodifiableList(Arrays.asList(
+        CONFIG_SERVER_URL, CONFIG_USERNAME, CONFIG_PASSWORD, CONFIG_TIMEOUT, CONFIG_RETRY_ATTEMPTS,
+        CONFIG_DEFAULT_ORG_UNIT, CONFIG_ORG_UNIT_CATALOG_CACHE_SECONDS, CONFIG_ASYNC_MAX_IN_FLIGHT,
+        CONFIG_VIRTUAL_THREADS, CONFIG_REQUEST_DEDUPLICATION, CONFIG_METRICS_ENABLED,
+        CONFIG_METRICS_REGISTRY_CLASS, CONFIG_TRACING_SAMPLE_RATE, CONFIG_TRACING_FILE,
+        CONFIG_TRACING_BUFFER_SIZE,
+        RACFUserManager.CONFIG_USER_DIRECTORY_CACHE_SECONDS,
+        RACFRoleManager.CONFIG_ROLE_CATALOG_CACHE_SECONDS, RACFRoleManager.CONFIG_SOD_SCAN_PARALLELISM,
+        SoDConflictMatrix.CONFIG_SOD_CONFLICT_RULES,
+        RecertificationManager.CONFIG_JOURNAL_DIRECTORY, RecertificationManager.CONFIG_JOURNAL_SYNC,
+        RecertificationManager.CONFIG_JOURNAL_COMPACTION_THRESHOLD,
+        RevocationEngine.CONFIG_REVOCATION_RATE, RevocationEngine.CONFIG_REVOCATION_BURST,
+        RevocationEngine.CONFIG_REVOCATION_BATCH_SIZE
+    ));
+    
+    // Iteration option: receives aggregation progress strings; an AggregationProgress.Listener
+    // or any object with an updateProgress(String) method, such as a task monitor
+    public static final String OPTION_PROGRESS_MONITOR = "progressMonitor";
     
     // Default values
     public static final String DEFAULT_ORG_UNIT = "$F000UDF";
@@ -53,12 +96,9 @@ public class AccessioRACFConnector extends AbstractConnector {
     public static final String USER_TYPE_STC = "B";
     public static final String USER_TYPE_TECHNICAL = "T";
     
-    // API clients and managers
-    private GarancyAPIClient apiClient;
-    private RACFUserManager userManager;
-    private RACFRoleManager roleManager;
-    private ApprovalWorkflowHandler workflowHandler;
-    private RecertificationManager recertificationManager;
+    // API client and managers, published once fully built
+    private final Object componentsLock = new Object();
+    private volatile ConnectorComponents components;
     
     /**
      * Default constructor
@@ -82,7 +122,7 @@ public class AccessioRACFConnector extends AbstractConnector {
         log.info("Testing Accessio RACF connector configuration");
         
         try {
-            initializeComponents();
+            GarancyAPIClient apiClient = initializeComponents().getApiClient();
             
             // Test API connectivity
             boolean connected = apiClient.testConnection();
@@ -167,10 +207,21 @@ public class AccessioRACFConnector extends AbstractConnector {
         log.info("Creating " + objectType + " with attributes: " + attributes.getKeys());
         
         try {
-            initializeComponents();
+            ConnectorComponents current = initializeComponents();
+            RACFUserManager userManager = current.getUserManager();
             
             if (ObjectConfig.TYPE_ACCOUNT.equals(objectType)) {
-                return userManager.createUser(attributes, options);
+                Span span = current.getApiClient().getTracer().startSpan("connector.create");
+                try {
+                    Result result = userManager.createUser(attributes, options);
+                    span.setAttribute("status", result.getStatus());
+                    return result;
+                } catch (Exception e) {
+                    span.setError(e);
+                    throw e;
+                } finally {
+                    span.end();
+                }
             } else {
                 throw new ConnectorException("Create operation not supported for object type: " + objectType);
             }
@@ -191,10 +242,22 @@ public class AccessioRACFConnector extends AbstractConnector {
         log.info("Updating " + objectType + " " + identity + " with attributes: " + attributes.getKeys());
         
         try {
-            initializeComponents();
+            ConnectorComponents current = initializeComponents();
+            RACFUserManager userManager = current.getUserManager();
             
             if (ObjectConfig.TYPE_ACCOUNT.equals(objectType)) {
-                return userManager.updateUser(identity, attributes, options);
+                Span span = current.getApiClient().getTracer().startSpan("connector.update");
+                span.setAttribute("identity", identity);
+                try {
+                    Result result = userManager.updateUser(identity, attributes, options);
+                    span.setAttribute("status", result.getStatus());
+                    return result;
+                } catch (Exception e) {
+                    span.setError(e);
+                    throw e;
+                } finally {
+                    span.end();
+                }
             } else {
                 throw new ConnectorException("Update operation not supported for object type: " + objectType);
             }
@@ -215,10 +278,22 @@ public class AccessioRACFConnector extends AbstractConnector {
         log.info("Deleting " + objectType + " " + identity);
         
         try {
-            initializeComponents();
+            ConnectorComponents current = initializeComponents();
+            RACFUserManager userManager = current.getUserManager();
             
             if (ObjectConfig.TYPE_ACCOUNT.equals(objectType)) {
-                return userManager.deleteUser(identity, options);
+                Span span = current.getApiClient().getTracer().startSpan("connector.delete");
+                span.setAttribute("identity", identity);
+                try {
+                    Result result = userManager.deleteUser(identity, options);
+                    span.setAttribute("status", result.getStatus());
+                    return result;
+                } catch (Exception e) {
+                    span.setError(e);
+                    throw e;
+                } finally {
+                    span.end();
+                }
             } else {
                 throw new ConnectorException("Delete operation not supported for object type: " + objectType);
             }
@@ -239,10 +314,22 @@ public class AccessioRACFConnector extends AbstractConnector {
         log.info("Enabling " + objectType + " " + identity);
         
         try {
-            initializeComponents();
+            ConnectorComponents current = initializeComponents();
+            RACFUserManager userManager = current.getUserManager();
             
             if (ObjectConfig.TYPE_ACCOUNT.equals(objectType)) {
-                return userManager.enableUser(identity, options);
+                Span span = current.getApiClient().getTracer().startSpan("connector.enable");
+                span.setAttribute("identity", identity);
+                try {
+                    Result result = userManager.enableUser(identity, options);
+                    span.setAttribute("status", result.getStatus());
+                    return result;
+                } catch (Exception e) {
+                    span.setError(e);
+                    throw e;
+                } finally {
+                    span.end();
+                }
             } else {
                 throw new ConnectorException("Enable operation not supported for object type: " + objectType);
             }
@@ -260,10 +347,22 @@ public class AccessioRACFConnector extends AbstractConnector {
         log.info("Disabling " + objectType + " " + identity);
         
         try {
-            initializeComponents();
+            ConnectorComponents current = initializeComponents();
+            RACFUserManager userManager = current.getUserManager();
             
             if (ObjectConfig.TYPE_ACCOUNT.equals(objectType)) {
-                return userManager.disableUser(identity, options);
+                Span span = current.getApiClient().getTracer().startSpan("connector.disable");
+                span.setAttribute("identity", identity);
+                try {
+                    Result result = userManager.disableUser(identity, options);
+                    span.setAttribute("status", result.getStatus());
+                    return result;
+                } catch (Exception e) {
+                    span.setError(e);
+                    throw e;
+                } finally {
+                    span.end();
+                }
             } else {
                 throw new ConnectorException("Disable operation not supported for object type: " + objectType);
             }
@@ -286,40 +385,179 @@ public class AccessioRACFConnector extends AbstractConnector {
     }
     
     /**
-     * Initialize connector components
+     * Initialize connector components, reusing the components already built
+     * for this application and configuration if the registry has them.
+     * The component set is published once through a volatile field, so
+     * concurrent partitions and provisioning threads see either nothing
+     * or a fully built set. The connector keeps its components until close(),
+     * even if the registry replaces them in the meantime.
      */
-    private void initializeComponents() throws ConnectorException {
-        if (apiClient == null) {
-            log.debug("Initializing Accessio RACF connector components");
-            
-            // Get configuration
-            String serverUrl = getConfiguration().getString(CONFIG_SERVER_URL);
-            String username = getConfiguration().getString(CONFIG_USERNAME);
-            String password = getConfiguration().getString(CONFIG_PASSWORD);
-            int timeout = getConfiguration().getInt(CONFIG_TIMEOUT, DEFAULT_TIMEOUT);
-            int retryAttempts = getConfiguration().getInt(CONFIG_RETRY_ATTEMPTS, DEFAULT_RETRY_ATTEMPTS);
-            
-            if (Util.isNullOrEmpty(serverUrl)) {
-                throw new ConnectorException("Server URL is required");
-            }
-            if (Util.isNullOrEmpty(username)) {
-                throw new ConnectorException("Username is required");
-            }
-            if (Util.isNullOrEmpty(password)) {
-                throw new ConnectorException("Password is required");
+    private ConnectorComponents initializeComponents() throws ConnectorException {
+        ConnectorComponents current = components;
+        if (current == null) {
+            synchronized (componentsLock) {
+                current = components;
+                if (current == null) {
+                    String configurationHash = ConnectorComponentRegistry.hashConfiguration(
+                            getConfiguration().getAttributes(), COMPONENT_CONFIGURATION_KEYS);
+                    current = ConnectorComponentRegistry.getComponents(getApplicationKey(), configurationHash,
+                            new ConnectorComponentRegistry.ComponentFactory() {
+                                @Override
+                                public ConnectorComponents create(String hash) throws ConnectorException {
+                                    return createComponents(hash);
+                                }
+                            });
+                    components = current;
+                }
             }
+        }
+        return current;
+    }
+    
+    /**
+     * Build the API client and managers for the current configuration
+     */
+    private ConnectorComponents createComponents(String configurationHash) throws ConnectorException {
+        log.debug("Initializing Accessio RACF connector components");
+        
+        // Get configuration
+        String serverUrl = getConfiguration().getString(CONFIG_SERVER_URL);
+        String username = getConfiguration().getString(CONFIG_USERNAME);
+        String password = getConfiguration().getString(CONFIG_PASSWORD);
+        int timeout = getConfiguration().getInt(CONFIG_TIMEOUT, DEFAULT_TIMEOUT);
+        int retryAttempts = getConfiguration().getInt(CONFIG_RETRY_ATTEMPTS, DEFAULT_RETRY_ATTEMPTS);
+        
+        if (Util.isNullOrEmpty(serverUrl)) {
+            throw new ConnectorException("Server URL is required");
+        }
+        if (Util.isNullOrEmpty(username)) {
+            throw new ConnectorException("Username is required");
+        }
+        if (Util.isNullOrEmpty(password)) {
+            throw new ConnectorException("Password is required");
+        }
+        
+        // Initialize API client
+        GarancyAPIClient client = new GarancyAPIClient(serverUrl, username, password, timeout, retryAttempts);
+        client.setOrgUnitCatalogCacheSeconds(getConfiguration().getInt(
+                CONFIG_ORG_UNIT_CATALOG_CACHE_SECONDS, GarancyAPIClient.DEFAULT_ORG_UNIT_CATALOG_CACHE_SECONDS));
+        client.setAsyncMaxInFlight(getConfiguration().getInt(
+                CONFIG_ASYNC_MAX_IN_FLIGHT, GarancyAPIClient.DEFAULT_ASYNC_MAX_IN_FLIGHT));
+        client.setAsyncVirtualThreads(Boolean.parseBoolean(getConfiguration().getString(CONFIG_VIRTUAL_THREADS)));
+        client.setRequestDeduplication(isRequestDeduplication());
+        client.setMetricsRegistry(createMetricsRegistry());
+        client.setTracer(createTracer());
+        
+        // Initialize managers; one workflow handler serves the connector and the user manager,
+        // and recertification shares the role manager's catalog and connection index
+        ApprovalWorkflowHandler workflowHandler = new ApprovalWorkflowHandler(client, getConfiguration());
+        RACFRoleManager roleManager = new RACFRoleManager(client, getConfiguration());
+        ConnectorComponents components = new ConnectorComponents(configurationHash, client,
+                new RACFUserManager(client, getConfiguration(), workflowHandler),
+                roleManager,
+                workflowHandler,
+                new RecertificationManager(client, roleManager, getConfiguration()));
+        
+        log.debug("Connector components initialized successfully");
+        return components;
+    }
+    
+    /**
+     * Build the registry receiving API client metrics: the client metrics published
+     * over JMX, plus an instance of the configured registry class if one is set
+     */
+    private GarancyMetricsRegistry createMetricsRegistry() throws ConnectorException {
+        if (!isMetricsEnabled()) {
+            log.debug("API client metrics disabled");
+            return GarancyMetricsRegistry.NOOP;
+        }
+        
+        GarancyClientMetrics clientMetrics = new GarancyClientMetrics();
+        clientMetrics.registerMBeans(getApplicationKey());
+        
+        String registryClass = getConfiguration().getString(CONFIG_METRICS_REGISTRY_CLASS);
+        if (Util.isNullOrEmpty(registryClass)) {
+            return clientMetrics;
+        }
+        
+        try {
+            GarancyMetricsRegistry customRegistry =
+                    (GarancyMetricsRegistry) Class.forName(registryClass).newInstance();
+            return new CompositeMetricsRegistry(clientMetrics, customRegistry);
             
-            // Initialize API client
-            apiClient = new GarancyAPIClient(serverUrl, username, password, timeout, retryAttempts);
-            
-            // Initialize managers
-            userManager = new RACFUserManager(apiClient, getConfiguration());
-            roleManager = new RACFRoleManager(apiClient, getConfiguration());
-            workflowHandler = new ApprovalWorkflowHandler(apiClient, getConfiguration());
-            recertificationManager = new RecertificationManager(apiClient, getConfiguration());
-            
-            log.debug("Connector components initialized successfully");
+        } catch (Exception e) {
+            clientMetrics.close();
+            throw new ConnectorException("Cannot create metrics registry " + registryClass + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Build the tracer for connector, manager and API client spans. Off unless a
+     * sample rate is configured; spans go to the configured file or, without one,
+     * to an in-memory ring buffer reachable through getTracer().
+     */
+    private Tracer createTracer() throws ConnectorException {
+        String sampleRate = getConfiguration().getString(CONFIG_TRACING_SAMPLE_RATE);
+        double rate;
+        try {
+            rate = Util.isNullOrEmpty(sampleRate) ? 0.0 : Double.parseDouble(sampleRate.trim());
+        } catch (NumberFormatException e) {
+            throw new ConnectorException("Invalid " + CONFIG_TRACING_SAMPLE_RATE + ": " + sampleRate);
+        }
+        if (rate <= 0.0) {
+            log.debug("Tracing disabled");
+            return Tracer.DISABLED;
+        }
+        
+        SpanExporter exporter;
+        String tracingFile = getConfiguration().getString(CONFIG_TRACING_FILE);
+        if (Util.isNotNullOrEmpty(tracingFile)) {
+            try {
+                exporter = new FileSpanExporter(new java.io.File(tracingFile));
+            } catch (java.io.IOException e) {
+                throw new ConnectorException("Cannot open trace file " + tracingFile + ": " + e.getMessage());
+            }
+        } else {
+            exporter = new RingBufferSpanExporter(getConfiguration().getInt(
+                    CONFIG_TRACING_BUFFER_SIZE, RingBufferSpanExporter.DEFAULT_CAPACITY));
+        }
+        
+        log.info("Tracing " + (rate * 100) + "% of operations");
+        return new Tracer(rate, exporter);
+    }
+    
+    /**
+     * Get the tracer of this connector's components
+     */
+    public Tracer getTracer() throws ConnectorException {
+        return initializeComponents().getApiClient().getTracer();
+    }
+    
+    /**
+     * Whether metrics are collected and published over JMX; on unless disabled
+     */
+    private boolean isMetricsEnabled() {
+        String enabled = getConfiguration().getString(CONFIG_METRICS_ENABLED);
+        return enabled == null || Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * Whether concurrent identical list calls share one request; on unless disabled
+     */
+    private boolean isRequestDeduplication() {
+        String enabled = getConfiguration().getString(CONFIG_REQUEST_DEDUPLICATION);
+        return enabled == null || Boolean.parseBoolean(enabled);
+    }
+    
+    /**
+     * Key identifying this connector's application in the component registry
+     */
+    private String getApplicationKey() {
+        Application application = getApplication();
+        if (application != null && Util.isNotNullOrEmpty(application.getName())) {
+            return application.getName();
         }
+        return getConfiguration().getString(CONFIG_SERVER_URL) + "|" + getConfiguration().getString(CONFIG_USERNAME);
     }
     
     /**
@@ -399,22 +637,20 @@ public class AccessioRACFConnector extends AbstractConnector {
             throws ConnectorException {
         
         log.debug("Iterating RACF user accounts");
+        AggregationProgress progress = startAggregationProgress(ObjectConfig.TYPE_ACCOUNT, options);
         
         try {
-            List<Map<String, Object>> users = apiClient.listUsers();
-            List<ResourceObject> accounts = new ArrayList<>();
+            List<Map<String, Object>> users = initializeComponents().getApiClient().listUsers(progress);
             
-            for (Map<String, Object> user : users) {
-                ResourceObject account = convertUserToResourceObject(user);
-                if (account != null && (filter == null || filter.matches(account))) {
-                    accounts.add(account);
+            return new ConvertingIterator(users, filter, progress) {
+                @Override
+                ResourceObject convert(Map<String, Object> user) {
+                    return convertUserToResourceObject(user);
                 }
-            }
-            
-            log.info("Retrieved " + accounts.size() + " user accounts");
-            return accounts.iterator();
+            };
             
         } catch (Exception e) {
+            progress.failed(e);
             log.error("Failed to iterate accounts", e);
             throw new ConnectorException("Failed to iterate accounts: " + e.getMessage(), e);
         }
@@ -427,31 +663,143 @@ public class AccessioRACFConnector extends AbstractConnector {
             throws ConnectorException {
         
         log.debug("Iterating RACF roles");
+        AggregationProgress progress = startAggregationProgress(ObjectConfig.TYPE_GROUP, options);
         
         try {
-            List<Map<String, Object>> roles = apiClient.listRoles();
-            List<ResourceObject> entitlements = new ArrayList<>();
+            List<Map<String, Object>> roles = initializeComponents().getApiClient().listRoles(progress);
             
-            for (Map<String, Object> role : roles) {
-                ResourceObject entitlement = convertRoleToResourceObject(role);
-                if (entitlement != null && (filter == null || filter.matches(entitlement))) {
-                    entitlements.add(entitlement);
+            return new ConvertingIterator(roles, filter, progress) {
+                @Override
+                ResourceObject convert(Map<String, Object> role) {
+                    return convertRoleToResourceObject(role);
                 }
-            }
-            
-            log.info("Retrieved " + entitlements.size() + " roles");
-            return entitlements.iterator();
+            };
             
         } catch (Exception e) {
+            progress.failed(e);
             log.error("Failed to iterate roles", e);
             throw new ConnectorException("Failed to iterate roles: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Create the progress tracker of an aggregation run, published over JMX when
+     * metrics are enabled and reporting to the progress monitor passed in the options
+     */
+    private AggregationProgress startAggregationProgress(String objectType, Map<String, Object> options) {
+        Object monitor = options != null ? options.get(OPTION_PROGRESS_MONITOR) : null;
+        AggregationProgress progress = new AggregationProgress(objectType, toProgressListener(monitor),
+                getConfiguration().getInt(CONFIG_PROGRESS_INTERVAL_MILLIS,
+                        (int) AggregationProgress.DEFAULT_REPORT_INTERVAL_MILLIS));
+        
+        if (isMetricsEnabled()) {
+            progress.registerMBean(getApplicationKey());
+        }
+        return progress;
+    }
+    
+    /**
+     * Adapt a progress monitor option to a listener
+     */
+    private static AggregationProgress.Listener toProgressListener(final Object monitor) {
+        if (monitor == null) {
+            return null;
+        }
+        if (monitor instanceof AggregationProgress.Listener) {
+            return (AggregationProgress.Listener) monitor;
+        }
+        
+        try {
+            final Method updateProgress = monitor.getClass().getMethod("updateProgress", String.class);
+            return new AggregationProgress.Listener() {
+                @Override
+                public void progressUpdated(String progress) {
+                    try {
+                        updateProgress.invoke(monitor, progress);
+                    } catch (Exception e) {
+                        log.debug("Failed to update task progress: " + e.getMessage());
+                    }
+                }
+            };
+            
+        } catch (NoSuchMethodException e) {
+            log.warn("Progress monitor " + monitor.getClass().getName() + " has no updateProgress(String) method");
+            return null;
+        }
+    }
+    
+    /**
+     * Converts and filters Garancy records as IdentityIQ consumes them, so the first
+     * account is handed over without waiting for the whole list to be converted
+     */
+    private abstract static class ConvertingIterator implements Iterator<ResourceObject> {
+        private final Iterator<Map<String, Object>> records;
+        private final Filter filter;
+        private final AggregationProgress progress;
+        private ResourceObject next;
+        private boolean done;
+        
+        ConvertingIterator(List<Map<String, Object>> records, Filter filter, AggregationProgress progress) {
+            this.records = records.iterator();
+            this.filter = filter;
+            this.progress = progress;
+        }
+        
+        abstract ResourceObject convert(Map<String, Object> record);
+        
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !done) {
+                    if (!records.hasNext()) {
+                        done = true;
+                        progress.completed();
+                        break;
+                    }
+                    
+                    ResourceObject object = convert(records.next());
+                    if (object == null) {
+                        progress.recordFiltered();
+                        continue;
+                    }
+                    progress.recordConverted();
+                    
+                    if (filter == null || filter.matches(object)) {
+                        next = object;
+                    } else {
+                        progress.recordFiltered();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A record that cannot be converted or filtered ends the aggregation
+                done = true;
+                progress.failed(e);
+                throw e;
+            }
+            return next != null;
+        }
+        
+        @Override
+        public ResourceObject next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ResourceObject object = next;
+            next = null;
+            progress.recordDelivered();
+            return object;
+        }
+        
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+    
     /**
      * Convert user data to ResourceObject
      */
-    private ResourceObject convertUserToResourceObject(Map<String, Object> user) {
+    ResourceObject convertUserToResourceObject(Map<String, Object> user) {
         if (user == null) return null;
         
         ResourceObject account = new ResourceObject();
@@ -477,7 +825,7 @@ public class AccessioRACFConnector extends AbstractConnector {
     /**
      * Convert role data to ResourceObject
      */
-    private ResourceObject convertRoleToResourceObject(Map<String, Object> role) {
+    ResourceObject convertRoleToResourceObject(Map<String, Object> role) {
         if (role == null) return null;
         
         ResourceObject entitlement = new ResourceObject();
@@ -502,6 +850,102 @@ public class AccessioRACFConnector extends AbstractConnector {
         return entitlement;
     }
     
+    /**
+     * Get the Garancy API client
+     */
+    public GarancyAPIClient getGarancyAPIClient() throws ConnectorException {
+        return initializeComponents().getApiClient();
+    }
+    
+    /**
+     * Get the user manager
+     */
+    public RACFUserManager getUserManager() throws ConnectorException {
+        return initializeComponents().getUserManager();
+    }
+    
+    /**
+     * Get the role manager
+     */
+    public RACFRoleManager getRoleManager() throws ConnectorException {
+        return initializeComponents().getRoleManager();
+    }
+    
+    /**
+     * Get the approval workflow handler
+     */
+    public ApprovalWorkflowHandler getApprovalWorkflowHandler() throws ConnectorException {
+        return initializeComponents().getWorkflowHandler();
+    }
+    
+    /**
+     * Get the recertification manager
+     */
+    public RecertificationManager getRecertificationManager() throws ConnectorException {
+        return initializeComponents().getRecertificationManager();
+    }
+    
+    /**
+     * Get the owner approving for an org unit (primary owner, else deputy),
+     * or null if the org unit is unknown or has no owner maintained
+     */
+    public String getOrgUnitOwner(String orgUnitId) throws ConnectorException {
+        if (Util.isNullOrEmpty(orgUnitId)) {
+            return null;
+        }
+        
+        GarancyAPIClient apiClient = initializeComponents().getApiClient();
+        try {
+            return apiClient.getOrgUnitCatalog().getOwner(orgUnitId);
+        } catch (Exception e) {
+            log.error("Failed to get owner for org unit " + orgUnitId, e);
+            throw new ConnectorException("Failed to get org unit owner: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Get the owner approving for an account. AARID accounts are owned by the
+     * person themselves; STC and Technical accounts by the owner of the org unit
+     * the account belongs to. Returns null if the account is not known yet.
+     */
+    public String getAccountOwner(String accountId, String userType) throws ConnectorException {
+        if (Util.isNullOrEmpty(accountId)) {
+            return null;
+        }
+        if (USER_TYPE_AARID.equals(userType) || "AARID".equals(userType)) {
+            return accountId;
+        }
+        
+        ConnectorComponents current = initializeComponents();
+        try {
+            Map<String, Object> account = current.getUserManager().getUser(accountId);
+            if (account == null) {
+                log.debug("No account " + accountId + " found, account owner unknown");
+                return null;
+            }
+            return current.getApiClient().getOrgUnitCatalog().getOwner((String) account.get("BASEORG_ID"));
+        } catch (Exception e) {
+            log.error("Failed to get owner for account " + accountId, e);
+            throw new ConnectorException("Failed to get account owner: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Get the configured security officer approving Guardian, Monitor and
+     * high-privilege role requests
+     *
+     * @throws ConnectorException if no security officer is configured, so that
+     *         those requests are never submitted without their approver
+     */
+    public String getSecurityOfficer() throws ConnectorException {
+        String securityOfficer = getConfiguration().getString(CONFIG_SECURITY_OFFICER);
+        if (Util.isNullOrEmpty(securityOfficer)) {
+            throw new ConnectorException("No security officer configured (" + CONFIG_SECURITY_OFFICER +
+                                         "); requests needing security officer approval cannot be routed");
+        }
+        return securityOfficer;
+    }
+    
     /**
      * Get connector version
      */
@@ -510,18 +954,21 @@ public class AccessioRACFConnector extends AbstractConnector {
     }
     
     /**
-     * Clean up resources
+     * Clean up resources. Shared components stay open for other connector
+     * instances; they are closed once replaced or invalidated and released
+     * by every connector using them.
      */
     @Override
     public void close() {
         log.debug("Closing Accessio RACF connector");
         
-        if (apiClient != null) {
-            try {
-                apiClient.close();
-            } catch (Exception e) {
-                log.warn("Error closing API client", e);
-            }
+        ConnectorComponents released;
+        synchronized (componentsLock) {
+            released = components;
+            components = null;
+        }
+        if (released != null) {
+            released.release();
         }
         
         super.close();
@@ -260,10 +260,8 @@ public class ApprovalWorkflowHandler {
             userAttributes.put(key, workflow.getAttributes().get(key));
         }
         
-        Map<String, Object> result = apiClient.createUser(userAttributes);
-        workflow.setExecutionResult(result);
-        
-        log.info("User created successfully: " + workflow.getTargetId());
+        GarancyOutcome outcome = apiClient.createUser(userAttributes);
+        recordOutcome(workflow, outcome, "User created: " + workflow.getTargetId());
     }
     
     /**
@@ -275,20 +273,16 @@ public class ApprovalWorkflowHandler {
             userAttributes.put(key, workflow.getAttributes().get(key));
         }
         
-        Map<String, Object> result = apiClient.modifyUser(workflow.getTargetId(), userAttributes);
-        workflow.setExecutionResult(result);
-        
-        log.info("User modified successfully: " + workflow.getTargetId());
+        GarancyOutcome outcome = apiClient.modifyUser(workflow.getTargetId(), userAttributes);
+        recordOutcome(workflow, outcome, "User modified: " + workflow.getTargetId());
     }
     
     /**
      * Execute user deletion
      */
     private void executeUserDeletion(WorkflowInstance workflow) throws Exception {
-        Map<String, Object> result = apiClient.deleteUser(workflow.getTargetId());
-        workflow.setExecutionResult(result);
-        
-        log.info("User deleted successfully: " + workflow.getTargetId());
+        GarancyOutcome outcome = apiClient.deleteUser(workflow.getTargetId());
+        recordOutcome(workflow, outcome, "User deleted: " + workflow.getTargetId());
     }
     
     /**
@@ -296,10 +290,8 @@ public class ApprovalWorkflowHandler {
      */
     private void executeRoleAddition(WorkflowInstance workflow) throws Exception {
         String roleId = workflow.getAttributes().getString("roleId");
-        Map<String, Object> result = apiClient.addRoleConnection(workflow.getTargetId(), roleId);
-        workflow.setExecutionResult(result);
-        
-        log.info("Role added successfully: " + roleId + " to user " + workflow.getTargetId());
+        GarancyOutcome outcome = apiClient.addRoleConnection(workflow.getTargetId(), roleId);
+        recordOutcome(workflow, outcome, "Role added: " + roleId + " to user " + workflow.getTargetId());
     }
     
     /**
@@ -307,10 +299,22 @@ public class ApprovalWorkflowHandler {
      */
     private void executeRoleRemoval(WorkflowInstance workflow) throws Exception {
         String roleId = workflow.getAttributes().getString("roleId");
-        Map<String, Object> result = apiClient.removeRoleConnection(workflow.getTargetId(), roleId);
-        workflow.setExecutionResult(result);
-        
-        log.info("Role removed successfully: " + roleId + " from user " + workflow.getTargetId());
+        GarancyOutcome outcome = apiClient.removeRoleConnection(workflow.getTargetId(), roleId);
+        recordOutcome(workflow, outcome, "Role removed: " + roleId + " from user " + workflow.getTargetId());
+    }
+    
+    /**
+     * Record the Garancy outcome of an approved operation on the workflow
+     */
+    private void recordOutcome(WorkflowInstance workflow, GarancyOutcome outcome, String operation) {
+        workflow.setExecutionResult(outcome.toMap());
+        
+        if (outcome.isSuccess()) {
+            log.info(operation);
+        } else {
+            workflow.setExecutionError(outcome.getMessage());
+            log.warn("Approved operation failed (" + outcome.getKind() + "): " + operation + " - " + outcome.getMessage());
+        }
     }
     
     /**
@@ -0,0 +1,184 @@
+package com.sailpoint.connector.accessio.racf;
+
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+import sailpoint.connector.ConnectorException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Connector Component Registry for Accessio RACF Integration
+ *
+ * Process-wide registry of initialized connector components, keyed by
+ * application. Provisioning rules and workflows obtain a fresh connector
+ * through ConnectorFactory on every call; the registry lets those connectors
+ * pick up the already built client and managers, so caches, indexes and
+ * in-flight workflows survive across rule invocations.
+ *
+ * Each entry remembers a hash of the configuration it was built from. When
+ * the application configuration changes the hash no longer matches and new
+ * components are built; the old ones are retired and closed once the last
+ * connector using them has released them.
+ *
+ * Components are built under a lock per application, so building one
+ * application's components never blocks connectors of another.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class ConnectorComponentRegistry {
+
+    private static final ConnectorLog log = ConnectorLog.getLog(ConnectorComponentRegistry.class);
+
+    private static final ConcurrentMap<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    // Per-process salt, so configuration hashes reveal nothing about the secrets hashed into them
+    private static final byte[] HASH_SALT = new byte[16];
+
+    static {
+        new SecureRandom().nextBytes(HASH_SALT);
+    }
+
+    private ConnectorComponentRegistry() {
+    }
+
+    /**
+     * Get the components registered for an application, building them with the
+     * factory if none are registered or they were built from another configuration.
+     * The caller holds a reference to the returned components until it calls
+     * ConnectorComponents.release().
+     */
+    public static ConnectorComponents getComponents(String applicationKey, String configurationHash,
+                                                    ComponentFactory factory) throws ConnectorException {
+        while (true) {
+            Registration registration = registrations.get(applicationKey);
+            if (registration == null) {
+                Registration created = new Registration();
+                registration = registrations.putIfAbsent(applicationKey, created);
+                if (registration == null) {
+                    registration = created;
+                }
+            }
+
+            ConnectorComponents registered = registration.components;
+            if (registered != null && registered.getConfigurationHash().equals(configurationHash)
+                    && registered.acquire()) {
+                return registered;
+            }
+
+            ConnectorComponents built;
+            synchronized (registration) {
+                if (registration.removed) {
+                    // Invalidated while we waited; start over with a new registration
+                    continue;
+                }
+
+                registered = registration.components;
+                if (registered != null && registered.getConfigurationHash().equals(configurationHash)
+                        && registered.acquire()) {
+                    return registered;
+                }
+
+                if (registered != null) {
+                    log.info("Configuration of {} changed, rebuilding connector components", applicationKey);
+                }
+                built = factory.create(configurationHash);
+                built.acquire();
+                registration.components = built;
+            }
+
+            if (registered != null) {
+                registered.retire();
+            }
+            return built;
+        }
+    }
+
+    /**
+     * Remove the components registered for an application; they are closed
+     * once no connector uses them anymore
+     */
+    public static void invalidate(String applicationKey) {
+        Registration registration = registrations.remove(applicationKey);
+        if (registration != null && retire(registration)) {
+            log.info("Invalidated connector components for {}", applicationKey);
+        }
+    }
+
+    /**
+     * Remove all registered components; each is closed once no connector uses it anymore
+     */
+    public static void clear() {
+        for (String applicationKey : new ArrayList<>(registrations.keySet())) {
+            Registration registration = registrations.remove(applicationKey);
+            if (registration != null) {
+                retire(registration);
+            }
+        }
+    }
+
+    private static boolean retire(Registration registration) {
+        ConnectorComponents removed;
+        synchronized (registration) {
+            registration.removed = true;
+            removed = registration.components;
+            registration.components = null;
+        }
+        if (removed == null) {
+            return false;
+        }
+        removed.retire();
+        return true;
+    }
+
+    /**
+     * Hash the given configuration entries so that a change to any of them yields
+     * a different value. Entries not listed, such as state written back to the
+     * application by aggregation, do not affect the hash.
+     * Entries are hashed in key order; values are compared by their string form.
+     */
+    public static String hashConfiguration(Map<String, Object> attributes, Collection<String> keys) {
+        SortedSet<String> sortedKeys = new TreeSet<>(keys);
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(HASH_SALT);
+            for (String key : sortedKeys) {
+                Object value = attributes != null ? attributes.get(key) : null;
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+                if (value != null) {
+                    digest.update((byte) '=');
+                    digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) '\n');
+            }
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Current components of one application; also the lock their builds run under
+     */
+    private static final class Registration {
+        volatile ConnectorComponents components;
+        boolean removed;
+    }
+
+    /**
+     * Builds the components for an application when the registry has none
+     */
+    public interface ComponentFactory {
+        ConnectorComponents create(String configurationHash) throws ConnectorException;
+    }
+}
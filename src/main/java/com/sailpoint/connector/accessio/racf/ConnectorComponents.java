@@ -0,0 +1,129 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Connector Components for Accessio RACF Integration
+ *
+ * Immutable set of the API client and managers built for one application
+ * configuration. Instances are shared through ConnectorComponentRegistry, so
+ * every connector instance for the same application works against the same
+ * client, caches and indexes.
+ *
+ * The registry counts the connectors using the components. Once retired,
+ * because the configuration changed or the application was invalidated, the
+ * components are closed when the last of those connectors releases them.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class ConnectorComponents {
+
+    private static final Log log = LogFactory.getLog(ConnectorComponents.class);
+
+    private final String configurationHash;
+    private final GarancyAPIClient apiClient;
+    private final RACFUserManager userManager;
+    private final RACFRoleManager roleManager;
+    private final ApprovalWorkflowHandler workflowHandler;
+    private final RecertificationManager recertificationManager;
+
+    // Connectors holding the components, and whether the registry has dropped them
+    private int users;
+    private boolean retired;
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param configurationHash hash of the configuration the components were built from
+     */
+    public ConnectorComponents(String configurationHash, GarancyAPIClient apiClient, RACFUserManager userManager,
+                               RACFRoleManager roleManager, ApprovalWorkflowHandler workflowHandler,
+                               RecertificationManager recertificationManager) {
+        this.configurationHash = configurationHash;
+        this.apiClient = apiClient;
+        this.userManager = userManager;
+        this.roleManager = roleManager;
+        this.workflowHandler = workflowHandler;
+        this.recertificationManager = recertificationManager;
+    }
+
+    public String getConfigurationHash() { return configurationHash; }
+    public GarancyAPIClient getApiClient() { return apiClient; }
+    public RACFUserManager getUserManager() { return userManager; }
+    public RACFRoleManager getRoleManager() { return roleManager; }
+    public ApprovalWorkflowHandler getWorkflowHandler() { return workflowHandler; }
+    public RecertificationManager getRecertificationManager() { return recertificationManager; }
+
+    /**
+     * Register another user; fails once the components are retired
+     */
+    synchronized boolean acquire() {
+        if (retired) {
+            return false;
+        }
+        users++;
+        return true;
+    }
+
+    /**
+     * Give up a reference obtained from ConnectorComponentRegistry.getComponents,
+     * closing the components if they are retired and this was the last user
+     */
+    public void release() {
+        synchronized (this) {
+            if (users > 0) {
+                users--;
+            }
+            if (!retired || users > 0 || closed) {
+                return;
+            }
+            closed = true;
+        }
+        close();
+    }
+
+    /**
+     * Mark the components as replaced; they are closed now if unused, or when the last user releases them
+     */
+    void retire() {
+        synchronized (this) {
+            retired = true;
+            if (users > 0 || closed) {
+                return;
+            }
+            closed = true;
+        }
+        close();
+    }
+
+    /**
+     * Whether the registry no longer hands out these components
+     */
+    public synchronized boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * Release the resources held by the components
+     */
+    public void close() {
+        if (recertificationManager != null) {
+            try {
+                recertificationManager.shutdown();
+            } catch (Exception e) {
+                log.warn("Error shutting down recertification manager", e);
+            }
+        }
+
+        if (apiClient != null) {
+            try {
+                apiClient.close();
+            } catch (Exception e) {
+                log.warn("Error closing API client", e);
+            }
+        }
+    }
+}
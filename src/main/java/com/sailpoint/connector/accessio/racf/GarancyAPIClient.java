@@ -1,7 +1,11 @@
 package com.sailpoint.connector.accessio.racf;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+import com.sailpoint.connector.accessio.racf.metrics.AggregationProgress;
+import com.sailpoint.connector.accessio.racf.metrics.CountingInputStream;
+import com.sailpoint.connector.accessio.racf.metrics.GarancyMetricsRegistry;
+import com.sailpoint.connector.accessio.racf.tracing.Span;
+import com.sailpoint.connector.accessio.racf.tracing.Tracer;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -9,11 +13,22 @@ import org.w3c.dom.NodeList;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.soap.*;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Garancy API Client for Accessio RACF Integration
@@ -33,7 +48,7 @@ import java.util.*;
  */
 public class GarancyAPIClient {
     
-    private static final Log log = LogFactory.getLog(GarancyAPIClient.class);
+    private static final ConnectorLog log = ConnectorLog.getLog(GarancyAPIClient.class);
     
     // API endpoints
     private static final String ENDPOINT_LIST_ORGUNIT = "/listOrgUnit";
@@ -48,10 +63,25 @@ public class GarancyAPIClient {
     private static final String ENDPOINT_ADD_ROLE_CONNECTION = "/addRoleConnection";
     private static final String ENDPOINT_REMOVE_ROLE_CONNECTION = "/removeRoleConnection";
     
+    // Request parameters never written to the log
+    private static final Set<String> SENSITIVE_PARAMETERS = new HashSet<>(Arrays.asList(
+        "password",
+        "Password",
+        "BASEUS_PASSWORD",
+        "BASEUS_C_C_78_002", // Deputy password field
+        "BASEUS_C_C_78_004"  // Owner password field
+    ));
+    
     // SOAP namespaces
     private static final String SOAP_NAMESPACE = "http://schemas.xmlsoap.org/soap/envelope/";
     private static final String GARANCY_NAMESPACE = "http://garancy.api.accessio.com/";
     
+    // CONNECTION_STATUS of a role-user connection that grants its role
+    public static final String CONNECTION_STATUS_ACTIVE = "ACTIVE";
+
+    // Fault string prefix older gateways send for throttled requests without HTTP 429/503
+    static final String LEGACY_THROTTLED_FAULT_PREFIX = "Throttled";
+
     // Configuration
     private final String serverUrl;
     private final String username;
@@ -60,9 +90,43 @@ public class GarancyAPIClient {
     private final int retryAttempts;
     
     // Connection management
-    private SOAPConnectionFactory connectionFactory;
     private MessageFactory messageFactory;
     
+    // Request metrics, reported per HTTP attempt
+    private volatile GarancyMetricsRegistry metricsRegistry = GarancyMetricsRegistry.NOOP;
+    
+    // Tracer shared with the managers, which start their spans through getTracer()
+    private volatile Tracer tracer = Tracer.DISABLED;
+    
+    // Org unit catalog cached for existence and ownership checks
+    public static final int DEFAULT_ORG_UNIT_CATALOG_CACHE_SECONDS = 300;
+    private final Object orgUnitCatalogLock = new Object();
+    private volatile long orgUnitCatalogTtlNanos =
+            java.util.concurrent.TimeUnit.SECONDS.toNanos(DEFAULT_ORG_UNIT_CATALOG_CACHE_SECONDS);
+    private volatile OrgUnitCatalogSnapshot cachedOrgUnitCatalog;
+    private volatile long orgUnitCatalogExpiresAt;
+    
+    // Executor for the asynchronous operations, created on first use
+    public static final int DEFAULT_ASYNC_MAX_IN_FLIGHT = 16;
+    private final Object asyncExecutorLock = new Object();
+    private int asyncMaxInFlight = DEFAULT_ASYNC_MAX_IN_FLIGHT;
+    private boolean asyncVirtualThreads;
+    private GarancyAsyncExecutor asyncExecutor;
+    private boolean closed;
+    
+    // Concurrent identical list calls share one request; each caller gets its own copy of the records
+    private final SingleFlight<List<Map<String, Object>>> listRequests =
+            new SingleFlight<>(new SingleFlight.Copier<List<Map<String, Object>>>() {
+                @Override
+                public List<Map<String, Object>> copy(List<Map<String, Object>> records) {
+                    return copyRecords(records);
+                }
+            });
+    private volatile boolean requestDeduplication = true;
+    
+    // Role connection changes sent through this client, so cached connection views can tell they are stale
+    private final AtomicLong roleConnectionChanges = new AtomicLong();
+    
     /**
      * Constructor
      */
@@ -74,7 +138,6 @@ public class GarancyAPIClient {
         this.retryAttempts = retryAttempts;
         
         try {
-            this.connectionFactory = SOAPConnectionFactory.newInstance();
             this.messageFactory = MessageFactory.newInstance();
         } catch (Exception e) {
             log.error("Failed to initialize SOAP factories", e);
@@ -82,6 +145,114 @@ public class GarancyAPIClient {
         }
     }
     
+    /**
+     * Set the registry receiving request metrics; null disables metrics
+     */
+    public void setMetricsRegistry(GarancyMetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry != null ? metricsRegistry : GarancyMetricsRegistry.NOOP;
+    }
+    
+    /**
+     * Get the registry receiving request metrics
+     */
+    public GarancyMetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+    
+    /**
+     * Set the tracer recording request spans; null disables tracing
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer != null ? tracer : Tracer.DISABLED;
+    }
+    
+    /**
+     * Get the tracer recording request spans
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+    
+    /**
+     * Set how many asynchronous requests may be in flight at once; values below 1 keep the default
+     */
+    public void setAsyncMaxInFlight(int maxInFlight) {
+        synchronized (asyncExecutorLock) {
+            asyncMaxInFlight = maxInFlight > 0 ? maxInFlight : DEFAULT_ASYNC_MAX_IN_FLIGHT;
+            if (asyncExecutor != null) {
+                asyncExecutor.setMaxInFlight(asyncMaxInFlight);
+            }
+        }
+    }
+    
+    public int getAsyncMaxInFlight() {
+        synchronized (asyncExecutorLock) {
+            return asyncMaxInFlight;
+        }
+    }
+    
+    /**
+     * Run asynchronous requests on virtual threads instead of a platform thread pool.
+     * Only honoured on Java 21+ runtimes loading the multi-release jar, and only before
+     * the first asynchronous request; the in-flight limit applies in both modes.
+     */
+    public void setAsyncVirtualThreads(boolean virtualThreads) {
+        synchronized (asyncExecutorLock) {
+            if (asyncExecutor != null && asyncExecutor.isVirtualThreads() != virtualThreads) {
+                log.warn("Async execution mode can only be changed before the first asynchronous request");
+            }
+            asyncVirtualThreads = virtualThreads;
+        }
+    }
+    
+    /**
+     * Whether asynchronous requests run on virtual threads
+     */
+    public boolean isAsyncVirtualThreads() {
+        synchronized (asyncExecutorLock) {
+            if (asyncExecutor != null) {
+                return asyncExecutor.isVirtualThreads();
+            }
+            return asyncVirtualThreads && VirtualThreads.isAvailable();
+        }
+    }
+    
+    /**
+     * Get the number of asynchronous requests being sent right now
+     */
+    public int getAsyncInFlight() {
+        synchronized (asyncExecutorLock) {
+            return asyncExecutor != null ? asyncExecutor.getInFlight() : 0;
+        }
+    }
+    
+    /**
+     * Get the number of asynchronous requests waiting for a free slot
+     */
+    public int getAsyncQueued() {
+        synchronized (asyncExecutorLock) {
+            return asyncExecutor != null ? asyncExecutor.getQueued() : 0;
+        }
+    }
+    
+    /**
+     * Let concurrent identical list calls share one request instead of each downloading the same data
+     */
+    public void setRequestDeduplication(boolean requestDeduplication) {
+        this.requestDeduplication = requestDeduplication;
+    }
+    
+    public boolean isRequestDeduplication() {
+        return requestDeduplication;
+    }
+    
+    /**
+     * Get the number of list calls answered by joining an identical call already in flight
+     */
+    public long getDeduplicatedRequestCount() {
+        return listRequests.getSharedCount();
+    }
+    
     /**
      * Test connection to Garancy API
      */
@@ -91,7 +262,7 @@ public class GarancyAPIClient {
         try {
             // Try to list org units as a connectivity test
             List<Map<String, Object>> orgUnits = listOrgUnits();
-            log.info("Connection test successful - retrieved " + orgUnits.size() + " org units");
+            log.info("Connection test successful - retrieved {} org units", orgUnits.size());
             return true;
             
         } catch (Exception e) {
@@ -104,6 +275,15 @@ public class GarancyAPIClient {
      * List all organizational units
      */
     public List<Map<String, Object>> listOrgUnits() throws Exception {
+        return sharedList(ENDPOINT_LIST_ORGUNIT, null, new Callable<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> call() throws Exception {
+                return fetchOrgUnits();
+            }
+        });
+    }
+    
+    private List<Map<String, Object>> fetchOrgUnits() throws Exception {
         log.debug("Listing organizational units");
         
         SOAPMessage request = createSOAPRequest("listOrgUnit", new HashMap<>());
@@ -112,34 +292,129 @@ public class GarancyAPIClient {
         return parseOrgUnitResponse(response);
     }
     
+    /**
+     * Get the org unit catalog, reusing a recent snapshot instead of downloading it again
+     */
+    public OrgUnitCatalogSnapshot getOrgUnitCatalog() throws Exception {
+        OrgUnitCatalogSnapshot catalog = cachedOrgUnitCatalog;
+        if (catalog != null && System.nanoTime() - orgUnitCatalogExpiresAt < 0) {
+            return catalog;
+        }
+        
+        synchronized (orgUnitCatalogLock) {
+            if (cachedOrgUnitCatalog == null || System.nanoTime() - orgUnitCatalogExpiresAt >= 0) {
+                cachedOrgUnitCatalog = new OrgUnitCatalogSnapshot(listOrgUnits());
+                orgUnitCatalogExpiresAt = System.nanoTime() + orgUnitCatalogTtlNanos;
+            }
+            return cachedOrgUnitCatalog;
+        }
+    }
+    
+    /**
+     * Check whether an organizational unit exists
+     */
+    public boolean orgUnitExists(String orgUnitId) throws Exception {
+        return getOrgUnitCatalog().containsOrgUnit(orgUnitId);
+    }
+    
+    /**
+     * Discard the cached org unit catalog so the next lookup sees fresh data
+     */
+    public void invalidateOrgUnitCatalog() {
+        synchronized (orgUnitCatalogLock) {
+            cachedOrgUnitCatalog = null;
+        }
+    }
+    
+    /**
+     * Set how long the org unit catalog is reused; values below 1 keep the default
+     */
+    public void setOrgUnitCatalogCacheSeconds(int cacheSeconds) {
+        this.orgUnitCatalogTtlNanos = java.util.concurrent.TimeUnit.SECONDS.toNanos(
+                cacheSeconds > 0 ? cacheSeconds : DEFAULT_ORG_UNIT_CATALOG_CACHE_SECONDS);
+    }
+    
     /**
      * List all roles
      */
     public List<Map<String, Object>> listRoles() throws Exception {
+        return listRoles(null);
+    }
+    
+    /**
+     * List all roles, reporting download and parse progress
+     */
+    public List<Map<String, Object>> listRoles(final AggregationProgress progress) throws Exception {
+        return sharedList(ENDPOINT_LIST_ROLE, progress, new Callable<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> call() throws Exception {
+                return fetchRoles(progress);
+            }
+        });
+    }
+    
+    private List<Map<String, Object>> fetchRoles(AggregationProgress progress) throws Exception {
         log.debug("Listing roles");
         
         SOAPMessage request = createSOAPRequest("listRole", new HashMap<>());
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_LIST_ROLE, request);
+        SOAPMessage response = sendSOAPRequest(ENDPOINT_LIST_ROLE, request, progress);
         
-        return parseRoleResponse(response);
+        if (progress == null) {
+            return parseRoleResponse(response);
+        }
+        progress.parseStarted();
+        List<Map<String, Object>> roles = parseRoleResponse(response);
+        progress.parseCompleted(roles.size());
+        return roles;
     }
     
     /**
      * List all users
      */
     public List<Map<String, Object>> listUsers() throws Exception {
+        return listUsers(null);
+    }
+    
+    /**
+     * List all users, reporting download and parse progress
+     */
+    public List<Map<String, Object>> listUsers(final AggregationProgress progress) throws Exception {
+        return sharedList(ENDPOINT_LIST_USER, progress, new Callable<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> call() throws Exception {
+                return fetchUsers(progress);
+            }
+        });
+    }
+    
+    private List<Map<String, Object>> fetchUsers(AggregationProgress progress) throws Exception {
         log.debug("Listing users");
         
         SOAPMessage request = createSOAPRequest("listUser", new HashMap<>());
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_LIST_USER, request);
+        SOAPMessage response = sendSOAPRequest(ENDPOINT_LIST_USER, request, progress);
         
-        return parseUserResponse(response);
+        if (progress == null) {
+            return parseUserResponse(response);
+        }
+        progress.parseStarted();
+        List<Map<String, Object>> users = parseUserResponse(response);
+        progress.parseCompleted(users.size());
+        return users;
     }
     
     /**
      * List role to user connections
      */
     public List<Map<String, Object>> listRoleUserConnections() throws Exception {
+        return sharedList(ENDPOINT_LIST_ROLE_USER_CONNECTION, null, new Callable<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> call() throws Exception {
+                return fetchRoleUserConnections();
+            }
+        });
+    }
+    
+    private List<Map<String, Object>> fetchRoleUserConnections() throws Exception {
         log.debug("Listing role to user connections");
         
         SOAPMessage request = createSOAPRequest("listRoleToUserConnection", new HashMap<>());
@@ -149,107 +424,419 @@ public class GarancyAPIClient {
     }
     
     /**
-     * Create a new user
+     * Run a list call, or join the identical call already in flight.
+     * A caller that joins downloads and parses nothing itself, so its progress
+     * reports the shared records without any bytes read.
      */
-    public Map<String, Object> createUser(Map<String, Object> userAttributes) throws Exception {
-        log.debug("Creating user: " + userAttributes.get("BASEUS_SAM_ID"));
-        
-        SOAPMessage request = createSOAPRequest("createUser", userAttributes);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_CREATE_USER, request);
+    private List<Map<String, Object>> sharedList(String endpoint, AggregationProgress progress,
+                                                 Callable<List<Map<String, Object>>> fetch) throws Exception {
+        if (!requestDeduplication) {
+            return fetch.call();
+        }
         
-        return parseOperationResponse(response);
+        SingleFlight.Result<List<Map<String, Object>>> result = listRequests.execute(endpoint, fetch);
+        if (result.isShared()) {
+            log.debug("Shared in-flight {} request", operationName(endpoint));
+            if (progress != null) {
+                progress.fetchStarted();
+                progress.parseStarted();
+                progress.parseCompleted(result.getValue().size());
+            }
+        }
+        return result.getValue();
+    }
+    
+    private static List<Map<String, Object>> copyRecords(List<Map<String, Object>> records) {
+        List<Map<String, Object>> copy = new ArrayList<>(records.size());
+        for (Map<String, Object> record : records) {
+            copy.add(new HashMap<>(record));
+        }
+        return copy;
     }
     
     /**
-     * Modify an existing user
+     * Stream role to user connections to a handler as they are parsed.
+     * 
+     * Unlike listRoleUserConnections this never holds the whole response in memory: the
+     * HTTP body is read with a StAX parser and each connection is handed over without
+     * building a map per row. A failed request is retried only if no connection has been
+     * delivered yet.
+     * 
+     * @return number of connections delivered
      */
-    public Map<String, Object> modifyUser(String userId, Map<String, Object> userAttributes) throws Exception {
-        log.debug("Modifying user: " + userId);
+    public long streamRoleUserConnections(RoleUserConnectionHandler handler) throws Exception {
+        Span span = tracer.startSpan("garancy." + operationName(ENDPOINT_LIST_ROLE_USER_CONNECTION));
+        try {
+            long delivered = streamRoleUserConnections(handler, span);
+            span.setAttribute("records", delivered);
+            return delivered;
+        } catch (Exception e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    private long streamRoleUserConnections(RoleUserConnectionHandler handler, Span span) throws Exception {
+        log.debug("Streaming role to user connections");
         
-        Map<String, Object> parameters = new HashMap<>(userAttributes);
-        parameters.put("BASEUS_SAM_ID", userId);
+        SOAPMessage request = createSOAPRequest("listRoleToUserConnection", new HashMap<>());
+        ByteArrayOutputStream requestBytes = new ByteArrayOutputStream();
+        request.writeTo(requestBytes);
         
-        SOAPMessage request = createSOAPRequest("modifyUser", parameters);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_MODIFY_USER, request);
+        long[] delivered = new long[1];
+        String operation = operationName(ENDPOINT_LIST_ROLE_USER_CONNECTION);
+        GarancyMetricsRegistry metrics = metricsRegistry;
         
-        return parseOperationResponse(response);
+        for (int attempt = 1; ; attempt++) {
+            span.setAttribute("attempts", attempt);
+            GarancyOutcome outcome = streamOnce(requestBytes, handler, delivered, operation, metrics, span);
+            if (outcome.isSuccess()) {
+                log.debug("Streamed {} role-user connections", delivered[0]);
+                return delivered[0];
+            }
+            
+            log.warn("Streaming request attempt {} failed: {}", attempt, outcome.getMessage());
+            span.setAttribute("outcome", outcome.getKind().name());
+            
+            if (delivered[0] > 0) {
+                // The handler has already seen part of the data; a retry would deliver duplicates
+                throw new Exception("Connection stream failed after " + delivered[0] + " records",
+                                    outcome.toException());
+            }
+            if (!outcome.isRetryable()) {
+                throw new Exception("Request failed: " + outcome.getMessage(), outcome.toException());
+            }
+            if (attempt >= retryAttempts) {
+                throw new Exception("All " + attempt + " attempts failed", outcome.toException());
+            }
+            
+            metrics.retryScheduled(operation, attempt);
+            try {
+                Thread.sleep(Math.max(1000L * attempt, outcome.getRetryAfterMillis()));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new Exception("Request interrupted", ie);
+            }
+        }
     }
     
     /**
-     * Suspend a user
+     * Perform a single streaming attempt; transport errors and faults are returned, not thrown
      */
-    public Map<String, Object> suspendUser(String userId) throws Exception {
-        log.debug("Suspending user: " + userId);
+    private GarancyOutcome streamOnce(ByteArrayOutputStream requestBytes, RoleUserConnectionHandler handler,
+                                      long[] delivered, String operation, GarancyMetricsRegistry metrics, Span span) {
+        metrics.requestStarted(operation);
+        long startNanos = System.nanoTime();
+        try {
+            log.debug("Sending streaming SOAP request to {}", ENDPOINT_LIST_ROLE_USER_CONNECTION);
+            
+            HttpURLConnection connection = openSOAPConnection(ENDPOINT_LIST_ROLE_USER_CONNECTION, requestBytes);
+            try {
+                int status = connection.getResponseCode();
+                long retryAfterMillis = parseRetryAfter(connection.getHeaderField("Retry-After"));
+                InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                if (in == null) {
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+                    return classifyHttpStatus(status, retryAfterMillis,
+                                              "HTTP " + status + " from " + ENDPOINT_LIST_ROLE_USER_CONNECTION);
+                }
+                
+                CountingInputStream counted = new CountingInputStream(in);
+                try {
+                    parseRoleUserConnectionStream(new BufferedInputStream(counted, 64 * 1024), handler, delivered);
+                } catch (GarancyFaultException e) {
+                    // Raised once per response by the parser; it ends the attempt rather than steering a loop
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, true);
+                    return classifyFault(status, e.getFaultCode(), e.getFaultString(), retryAfterMillis);
+                } catch (XMLStreamException e) {
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+                    return classifyHttpStatus(Math.max(status, 500), retryAfterMillis,
+                                              "Unreadable connection stream: " + e.getMessage());
+                } finally {
+                    counted.close();
+                }
+                
+                if (status >= 400) {
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+                    return classifyHttpStatus(status, retryAfterMillis,
+                                              "HTTP " + status + " from " + ENDPOINT_LIST_ROLE_USER_CONNECTION);
+                }
+                
+                metrics.requestCompleted(operation, System.nanoTime() - startNanos,
+                                         requestBytes.size(), counted.getCount());
+                span.setAttribute("responseBytes", counted.getCount());
+                return GarancyOutcome.success(null, null, null);
+                
+            } finally {
+                connection.disconnect();
+            }
+            
+        } catch (IOException e) {
+            metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+            return GarancyOutcome.retryableFault(null, String.valueOf(e.getMessage()), 0, e);
+        } catch (RuntimeException e) {
+            // Thrown by the handler; not a Garancy failure, so it is not retried
+            metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+            throw e;
+        }
+    }
+    
+    /**
+     * Create a new user
+     */
+    public GarancyOutcome createUser(Map<String, Object> userAttributes) {
+        log.debug("Creating user: {}", userAttributes.get("BASEUS_SAM_ID"));
         
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("BASEUS_SAM_ID", userId);
+        return executeOperation("createUser", ENDPOINT_CREATE_USER, userAttributes);
+    }
+    
+    /**
+     * Modify an existing user
+     */
+    public GarancyOutcome modifyUser(String userId, Map<String, Object> userAttributes) {
+        log.debug("Modifying user: {}", userId);
         
-        SOAPMessage request = createSOAPRequest("suspendUser", parameters);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_SUSPEND_USER, request);
+        return executeOperation("modifyUser", ENDPOINT_MODIFY_USER, modifyUserParameters(userId, userAttributes));
+    }
+    
+    /**
+     * Suspend a user
+     */
+    public GarancyOutcome suspendUser(String userId) {
+        log.debug("Suspending user: {}", userId);
         
-        return parseOperationResponse(response);
+        return executeOperation("suspendUser", ENDPOINT_SUSPEND_USER, userParameters(userId));
     }
     
     /**
      * Resume a user
      */
-    public Map<String, Object> resumeUser(String userId) throws Exception {
-        log.debug("Resuming user: " + userId);
-        
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("BASEUS_SAM_ID", userId);
+    public GarancyOutcome resumeUser(String userId) {
+        log.debug("Resuming user: {}", userId);
         
-        SOAPMessage request = createSOAPRequest("resumeUser", parameters);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_RESUME_USER, request);
-        
-        return parseOperationResponse(response);
+        return executeOperation("resumeUser", ENDPOINT_RESUME_USER, userParameters(userId));
     }
     
     /**
      * Delete a user
      */
-    public Map<String, Object> deleteUser(String userId) throws Exception {
-        log.debug("Deleting user: " + userId);
-        
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("BASEUS_SAM_ID", userId);
+    public GarancyOutcome deleteUser(String userId) {
+        log.debug("Deleting user: {}", userId);
         
-        SOAPMessage request = createSOAPRequest("deleteUser", parameters);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_DELETE_USER, request);
-        
-        return parseOperationResponse(response);
+        return executeOperation("deleteUser", ENDPOINT_DELETE_USER, userParameters(userId));
     }
     
     /**
      * Add role connection to user
      */
-    public Map<String, Object> addRoleConnection(String userId, String roleId) throws Exception {
-        log.debug("Adding role " + roleId + " to user " + userId);
+    public GarancyOutcome addRoleConnection(String userId, String roleId) {
+        log.debug("Adding role {} to user {}", roleId, userId);
         
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("BASEUS_SAM_ID", userId);
-        parameters.put("BASEUSRC_ROLE", roleId);
-        
-        SOAPMessage request = createSOAPRequest("addRoleConnection", parameters);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_ADD_ROLE_CONNECTION, request);
-        
-        return parseOperationResponse(response);
+        GarancyOutcome outcome =
+                executeOperation("addRoleConnection", ENDPOINT_ADD_ROLE_CONNECTION, roleConnectionParameters(userId, roleId));
+        roleConnectionChanges.incrementAndGet();
+        return outcome;
     }
     
     /**
      * Remove role connection from user
      */
-    public Map<String, Object> removeRoleConnection(String userId, String roleId) throws Exception {
-        log.debug("Removing role " + roleId + " from user " + userId);
+    public GarancyOutcome removeRoleConnection(String userId, String roleId) {
+        log.debug("Removing role {} from user {}", roleId, userId);
+        
+        GarancyOutcome outcome =
+                executeOperation("removeRoleConnection", ENDPOINT_REMOVE_ROLE_CONNECTION, roleConnectionParameters(userId, roleId));
+        roleConnectionChanges.incrementAndGet();
+        return outcome;
+    }
+    
+    /**
+     * Get the number of role connection changes sent through this client. Any change,
+     * including one that failed after reaching Garancy, makes connection views built
+     * before it stale.
+     */
+    public long getRoleConnectionChangeCount() {
+        return roleConnectionChanges.get();
+    }
+    
+    /**
+     * Test connection to Garancy API without blocking the caller
+     */
+    public CompletableFuture<Boolean> testConnectionAsync() {
+        return listOrgUnitsAsync().handle(new BiFunction<List<Map<String, Object>>, Throwable, Boolean>() {
+            @Override
+            public Boolean apply(List<Map<String, Object>> orgUnits, Throwable failure) {
+                if (failure != null) {
+                    log.error("Connection test failed", failure);
+                    return false;
+                }
+                log.info("Connection test successful - retrieved {} org units", orgUnits.size());
+                return true;
+            }
+        });
+    }
+    
+    /**
+     * List all organizational units without blocking the caller
+     */
+    public CompletableFuture<List<Map<String, Object>>> listOrgUnitsAsync() {
+        return listAsync("listOrgUnit", ENDPOINT_LIST_ORGUNIT, new ResponseParser<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> parse(SOAPMessage response) throws Exception {
+                return parseOrgUnitResponse(response);
+            }
+        });
+    }
+    
+    /**
+     * List all roles without blocking the caller
+     */
+    public CompletableFuture<List<Map<String, Object>>> listRolesAsync() {
+        return listAsync("listRole", ENDPOINT_LIST_ROLE, new ResponseParser<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> parse(SOAPMessage response) throws Exception {
+                return parseRoleResponse(response);
+            }
+        });
+    }
+    
+    /**
+     * List all users without blocking the caller
+     */
+    public CompletableFuture<List<Map<String, Object>>> listUsersAsync() {
+        return listAsync("listUser", ENDPOINT_LIST_USER, new ResponseParser<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> parse(SOAPMessage response) throws Exception {
+                return parseUserResponse(response);
+            }
+        });
+    }
+    
+    /**
+     * List role to user connections without blocking the caller
+     */
+    public CompletableFuture<List<Map<String, Object>>> listRoleUserConnectionsAsync() {
+        return listAsync("listRoleToUserConnection", ENDPOINT_LIST_ROLE_USER_CONNECTION,
+                         new ResponseParser<List<Map<String, Object>>>() {
+            @Override
+            public List<Map<String, Object>> parse(SOAPMessage response) throws Exception {
+                return parseRoleUserConnectionResponse(response);
+            }
+        });
+    }
+    
+    /**
+     * Stream role to user connections without blocking the caller. The handler is called
+     * on an async worker, and the stream holds that worker for its whole download.
+     * 
+     * @return future of the number of connections delivered
+     */
+    public CompletableFuture<Long> streamRoleUserConnectionsAsync(final RoleUserConnectionHandler handler) {
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        Runnable stream = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.complete(streamRoleUserConnections(handler));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        };
         
+        GarancyAsyncExecutor executor = getAsyncExecutor();
+        if (executor != null) {
+            try {
+                executor.execute(stream);
+                return result;
+            } catch (RejectedExecutionException e) {
+                // Closed concurrently
+            }
+        }
+        result.completeExceptionally(new Exception("Garancy API client is closed"));
+        return result;
+    }
+    
+    /**
+     * Create a new user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> createUserAsync(Map<String, Object> userAttributes) {
+        return executeOperationAsync("createUser", ENDPOINT_CREATE_USER, userAttributes);
+    }
+    
+    /**
+     * Modify an existing user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> modifyUserAsync(String userId, Map<String, Object> userAttributes) {
+        return executeOperationAsync("modifyUser", ENDPOINT_MODIFY_USER, modifyUserParameters(userId, userAttributes));
+    }
+    
+    /**
+     * Suspend a user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> suspendUserAsync(String userId) {
+        return executeOperationAsync("suspendUser", ENDPOINT_SUSPEND_USER, userParameters(userId));
+    }
+    
+    /**
+     * Resume a user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> resumeUserAsync(String userId) {
+        return executeOperationAsync("resumeUser", ENDPOINT_RESUME_USER, userParameters(userId));
+    }
+    
+    /**
+     * Delete a user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> deleteUserAsync(String userId) {
+        return executeOperationAsync("deleteUser", ENDPOINT_DELETE_USER, userParameters(userId));
+    }
+    
+    /**
+     * Add role connection to user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> addRoleConnectionAsync(String userId, String roleId) {
+        return recordRoleConnectionChange(executeOperationAsync("addRoleConnection", ENDPOINT_ADD_ROLE_CONNECTION,
+                                                                roleConnectionParameters(userId, roleId)));
+    }
+    
+    /**
+     * Remove role connection from user without blocking the caller
+     */
+    public CompletableFuture<GarancyOutcome> removeRoleConnectionAsync(String userId, String roleId) {
+        return recordRoleConnectionChange(executeOperationAsync("removeRoleConnection", ENDPOINT_REMOVE_ROLE_CONNECTION,
+                                                                roleConnectionParameters(userId, roleId)));
+    }
+    
+    private CompletableFuture<GarancyOutcome> recordRoleConnectionChange(CompletableFuture<GarancyOutcome> request) {
+        return request.thenApply(new Function<GarancyOutcome, GarancyOutcome>() {
+            @Override
+            public GarancyOutcome apply(GarancyOutcome outcome) {
+                roleConnectionChanges.incrementAndGet();
+                return outcome;
+            }
+        });
+    }
+    
+    private static Map<String, Object> userParameters(String userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("BASEUS_SAM_ID", userId);
+        return parameters;
+    }
+    
+    private static Map<String, Object> modifyUserParameters(String userId, Map<String, Object> userAttributes) {
+        Map<String, Object> parameters = new HashMap<>(userAttributes);
+        parameters.put("BASEUS_SAM_ID", userId);
+        return parameters;
+    }
+    
+    private static Map<String, Object> roleConnectionParameters(String userId, String roleId) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("BASEUS_SAM_ID", userId);
         parameters.put("BASEUSRC_ROLE", roleId);
-        
-        SOAPMessage request = createSOAPRequest("removeRoleConnection", parameters);
-        SOAPMessage response = sendSOAPRequest(ENDPOINT_REMOVE_ROLE_CONNECTION, request);
-        
-        return parseOperationResponse(response);
+        return parameters;
     }
     
     /**
@@ -296,66 +883,417 @@ public class GarancyAPIClient {
      * Log operation safely without exposing sensitive data
      */
     private void logSafeOperation(String operation, Map<String, Object> parameters) {
-        Map<String, Object> safeParams = new HashMap<>(parameters);
-        // Remove sensitive fields that could contain passwords or PII
-        safeParams.remove("password");
-        safeParams.remove("Password");
-        safeParams.remove("BASEUS_PASSWORD");
-        safeParams.remove("BASEUS_C_C_78_002"); // Deputy password field
-        safeParams.remove("BASEUS_C_C_78_004"); // Owner password field
+        if (!log.isDebugEnabled()) {
+            return;
+        }
         
-        log.debug("SOAP operation: " + operation + " for user: " + username + " with parameters: " + safeParams.keySet());
+        // Leave out sensitive fields that could contain passwords or PII
+        StringBuilder safeParams = new StringBuilder("[");
+        for (String key : parameters.keySet()) {
+            if (!SENSITIVE_PARAMETERS.contains(key)) {
+                if (safeParams.length() > 1) {
+                    safeParams.append(", ");
+                }
+                safeParams.append(key);
+            }
+        }
+        safeParams.append(']');
+        
+        log.debug("SOAP operation: {} for user: {} with parameters: {}", operation, username, safeParams);
     }
     
     /**
      * Send SOAP request with retry logic
      */
     private SOAPMessage sendSOAPRequest(String endpoint, SOAPMessage request) throws Exception {
-        Exception lastException = null;
+        return sendSOAPRequest(endpoint, request, null);
+    }
+    
+    /**
+     * Send SOAP request with retry logic, reporting the response bytes read to the progress.
+     * Faults are turned into an exception here, at the API boundary of the list operations.
+     */
+    private SOAPMessage sendSOAPRequest(String endpoint, SOAPMessage request, AggregationProgress progress) throws Exception {
+        GarancyOutcome outcome = exchange(endpoint, request, progress);
+        if (outcome.isSuccess()) {
+            return outcome.getResponse();
+        }
+        throw requestFailure(outcome);
+    }
+    
+    /**
+     * Exception thrown by the list operations for a request that ended in a fault
+     */
+    private static Exception requestFailure(GarancyOutcome outcome) {
+        if (outcome.isRetryable()) {
+            return new Exception("All " + outcome.getAttempts() + " attempts failed", outcome.toException());
+        }
+        return new Exception("Request failed: " + outcome.getMessage(), outcome.toException());
+    }
+    
+    /**
+     * Send an operation request and read its Result
+     */
+    private GarancyOutcome executeOperation(String operation, String endpoint, Map<String, Object> parameters) {
+        SOAPMessage request;
+        try {
+            request = createSOAPRequest(operation, parameters);
+        } catch (Exception e) {
+            return GarancyOutcome.fatalFault(null, "Invalid " + operation + " request: " + e.getMessage(), e);
+        }
+        return operationResult(operation, exchange(endpoint, request, null));
+    }
+    
+    /**
+     * Send an operation request on the async executor and read its Result
+     */
+    private CompletableFuture<GarancyOutcome> executeOperationAsync(final String operation, String endpoint,
+                                                                    Map<String, Object> parameters) {
+        SOAPMessage request;
+        try {
+            request = createSOAPRequest(operation, parameters);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(
+                    GarancyOutcome.fatalFault(null, "Invalid " + operation + " request: " + e.getMessage(), e));
+        }
+        return exchangeAsync(endpoint, request).thenApply(new Function<GarancyOutcome, GarancyOutcome>() {
+            @Override
+            public GarancyOutcome apply(GarancyOutcome outcome) {
+                return operationResult(operation, outcome);
+            }
+        });
+    }
+    
+    /**
+     * Send a list request on the async executor and parse the response
+     */
+    private <T> CompletableFuture<T> listAsync(String operation, String endpoint, final ResponseParser<T> parser) {
+        log.debug("Sending {} asynchronously", operation);
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        
+        SOAPMessage request;
+        try {
+            request = createSOAPRequest(operation, new HashMap<String, Object>());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        
+        exchangeAsync(endpoint, request).thenAccept(new Consumer<GarancyOutcome>() {
+            @Override
+            public void accept(GarancyOutcome outcome) {
+                if (!outcome.isSuccess()) {
+                    result.completeExceptionally(requestFailure(outcome));
+                    return;
+                }
+                try {
+                    result.complete(parser.parse(outcome.getResponse()));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Read the Result of an operation whose request went through
+     */
+    private GarancyOutcome operationResult(String operation, GarancyOutcome outcome) {
+        if (outcome.isSuccess()) {
+            try {
+                outcome = parseOperationResponse(outcome.getResponse()).withAttempts(outcome.getAttempts());
+            } catch (SOAPException e) {
+                outcome = GarancyOutcome.fatalFault(null, "Unreadable " + operation + " response: " + e.getMessage(), e);
+            }
+        }
+        
+        if (!outcome.isSuccess()) {
+            log.debug("{} did not succeed: {}", operation, outcome);
+        }
+        return outcome;
+    }
+    
+    /**
+     * Send SOAP request, retrying only faults that are classified as retryable
+     */
+    private GarancyOutcome exchange(String endpoint, SOAPMessage request, AggregationProgress progress) {
+        Span span = tracer.startSpan("garancy." + operationName(endpoint));
+        GarancyOutcome outcome = null;
+        try {
+            try {
+                ByteArrayOutputStream requestBytes = new ByteArrayOutputStream();
+                request.writeTo(requestBytes);
+                outcome = exchange(endpoint, requestBytes, progress, span);
+            } catch (SOAPException | IOException e) {
+                outcome = GarancyOutcome.fatalFault(null, "Could not serialize request: " + e.getMessage(), e);
+            }
+            
+            return outcome;
+            
+        } finally {
+            endSpan(span, outcome);
+        }
+    }
+    
+    /**
+     * Send SOAP request on the async executor; the future always completes with an outcome
+     */
+    private CompletableFuture<GarancyOutcome> exchangeAsync(String endpoint, SOAPMessage request) {
+        Span span = tracer.startDetachedSpan("garancy." + operationName(endpoint));
+        ByteArrayOutputStream requestBytes = new ByteArrayOutputStream();
+        try {
+            request.writeTo(requestBytes);
+        } catch (SOAPException | IOException e) {
+            GarancyOutcome outcome = GarancyOutcome.fatalFault(null, "Could not serialize request: " + e.getMessage(), e);
+            endSpan(span, outcome);
+            return CompletableFuture.completedFuture(outcome);
+        }
+        
+        AsyncExchange exchange = new AsyncExchange(endpoint, requestBytes, span);
+        exchange.submit(1);
+        return exchange.future;
+    }
+    
+    private static void endSpan(Span span, GarancyOutcome outcome) {
+        if (outcome != null) {
+            span.setAttribute("outcome", outcome.getKind().name());
+            if (outcome.isFault()) {
+                span.setAttribute("error", outcome.getMessage());
+            }
+        }
+        span.end();
+    }
+    
+    /**
+     * Get the async executor, creating it on first use; null once the client is closed
+     */
+    private GarancyAsyncExecutor getAsyncExecutor() {
+        synchronized (asyncExecutorLock) {
+            if (asyncExecutor == null && !closed) {
+                boolean virtualThreads = asyncVirtualThreads && VirtualThreads.isAvailable();
+                if (asyncVirtualThreads && !virtualThreads) {
+                    log.info("Virtual threads are not available on Java {}, using a thread pool for async requests",
+                             System.getProperty("java.specification.version"));
+                }
+                asyncExecutor = new GarancyAsyncExecutor(asyncMaxInFlight, virtualThreads);
+                log.debug("Async requests run on {} with at most {} in flight",
+                          virtualThreads ? "virtual threads" : "a thread pool", asyncMaxInFlight);
+            }
+            return asyncExecutor;
+        }
+    }
+    
+    private GarancyOutcome exchange(String endpoint, ByteArrayOutputStream requestBytes, AggregationProgress progress,
+                                    Span span) {
+        String operation = operationName(endpoint);
+        GarancyMetricsRegistry metrics = metricsRegistry;
         
-        for (int attempt = 1; attempt <= retryAttempts; attempt++) {
+        for (int attempt = 1; ; attempt++) {
+            span.setAttribute("attempts", attempt);
+            GarancyOutcome outcome = sendOnce(endpoint, operation, requestBytes, progress, metrics, span);
+            if (outcome.isSuccess()) {
+                return outcome.withAttempts(attempt);
+            }
+            
+            log.warn("Request attempt {} failed: {}", attempt, outcome.getMessage());
+            if (!outcome.isRetryable() || attempt >= retryAttempts) {
+                return outcome.withAttempts(attempt);
+            }
+            
+            metrics.retryScheduled(operation, attempt);
+            try {
+                Thread.sleep(Math.max(1000L * attempt, outcome.getRetryAfterMillis())); // Linear backoff
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return GarancyOutcome.fatalFault(null, "Request interrupted", ie).withAttempts(attempt);
+            }
+        }
+    }
+    
+    /**
+     * Perform a single request attempt; transport errors and faults are returned, not thrown
+     */
+    private GarancyOutcome sendOnce(String endpoint, String operation, ByteArrayOutputStream requestBytes,
+                                    AggregationProgress progress, GarancyMetricsRegistry metrics, Span span) {
+        metrics.requestStarted(operation);
+        long startNanos = System.nanoTime();
+        GarancyOutcome outcome;
+        try {
+            log.debug("Sending SOAP request to {}", endpoint);
+            if (progress != null) {
+                progress.fetchStarted();
+            }
+            
+            HttpURLConnection connection = openSOAPConnection(endpoint, requestBytes);
             try {
-                log.debug("Sending SOAP request to " + endpoint + " (attempt " + attempt + ")");
+                int status = connection.getResponseCode();
+                long retryAfterMillis = parseRetryAfter(connection.getHeaderField("Retry-After"));
+                InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                if (in == null) {
+                    outcome = classifyHttpStatus(status, retryAfterMillis, "HTTP " + status + " from " + endpoint);
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+                    return outcome;
+                }
                 
-                SOAPConnection connection = connectionFactory.createConnection();
+                ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
                 try {
-                    String fullUrl = serverUrl + endpoint;
-                    SOAPMessage response = connection.call(request, fullUrl);
-                    
-                    // Check for SOAP faults
-                    if (response.getSOAPBody().hasFault()) {
-                        SOAPFault fault = response.getSOAPBody().getFault();
-                        throw new Exception("SOAP Fault: " + fault.getFaultString());
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        responseBytes.write(buffer, 0, n);
+                        if (progress != null) {
+                            progress.addBytesRead(n);
+                        }
                     }
-                    
-                    return response;
-                    
                 } finally {
-                    connection.close();
+                    in.close();
                 }
                 
-            } catch (Exception e) {
-                lastException = e;
-                log.warn("Request attempt " + attempt + " failed: " + e.getMessage());
+                MimeHeaders headers = new MimeHeaders();
+                String contentType = connection.getContentType();
+                headers.addHeader("Content-Type", contentType != null ? contentType : "text/xml; charset=utf-8");
                 
-                if (attempt < retryAttempts) {
-                    try {
-                        Thread.sleep(1000 * attempt); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new Exception("Request interrupted", ie);
-                    }
+                SOAPMessage response;
+                SOAPBody body;
+                try {
+                    response = messageFactory.createMessage(headers,
+                            new ByteArrayInputStream(responseBytes.toByteArray()));
+                    body = response.getSOAPBody();
+                } catch (SOAPException e) {
+                    outcome = classifyHttpStatus(status, retryAfterMillis,
+                                                 "HTTP " + status + " from " + endpoint + " with unreadable body");
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+                    return outcome;
+                }
+                
+                if (body.hasFault()) {
+                    SOAPFault soapFault = body.getFault();
+                    outcome = classifyFault(status, soapFault.getFaultCode(), soapFault.getFaultString(), retryAfterMillis);
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, true);
+                    return outcome;
                 }
+                
+                if (status >= 400) {
+                    outcome = classifyHttpStatus(status, retryAfterMillis, "HTTP " + status + " from " + endpoint);
+                    metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+                    return outcome;
+                }
+                
+                metrics.requestCompleted(operation, System.nanoTime() - startNanos,
+                                         requestBytes.size(), responseBytes.size());
+                span.setAttribute("responseBytes", responseBytes.size());
+                return GarancyOutcome.response(response);
+                
+            } finally {
+                connection.disconnect();
             }
+            
+        } catch (IOException e) {
+            metrics.requestFailed(operation, System.nanoTime() - startNanos, false);
+            return GarancyOutcome.retryableFault(null, String.valueOf(e.getMessage()), 0, e);
+        }
+    }
+    
+    /**
+     * Classify a SOAP fault. Throttling and server faults may succeed on a later attempt;
+     * client faults such as failed authentication or a malformed request never will.
+     *
+     * Throttling is recognised by HTTP 429 or 503 or a Retry-After header. Older Garancy
+     * gateways answer throttled requests with a plain HTTP 500 fault whose fault string
+     * starts with "Throttled", so that prefix is only checked when none of these signals
+     * is present.
+     *
+     * @param faultCode fault code, e.g. "soapenv:Server"; may be null
+     * @param retryAfterMillis delay from a Retry-After header, 0 if there was none
+     */
+    static GarancyOutcome classifyFault(int httpStatus, String faultCode, String faultString, long retryAfterMillis) {
+        String message = faultString != null ? faultString : "SOAP fault " + faultCode;
+        if (httpStatus == 429 || httpStatus == 503 || retryAfterMillis > 0) {
+            return GarancyOutcome.retryableFault(faultCode, message, retryAfterMillis, null);
         }
         
-        throw new Exception("All " + retryAttempts + " attempts failed", lastException);
+        String localCode = faultCode;
+        if (localCode != null && localCode.indexOf(':') >= 0) {
+            localCode = localCode.substring(localCode.indexOf(':') + 1);
+        }
+        if ("Client".equals(localCode) || "Sender".equals(localCode) ||
+            "VersionMismatch".equals(localCode) || "MustUnderstand".equals(localCode)) {
+            if (faultString != null && faultString.startsWith(LEGACY_THROTTLED_FAULT_PREFIX)) {
+                return GarancyOutcome.retryableFault(faultCode, message, 0, null);
+            }
+            return GarancyOutcome.fatalFault(faultCode, message, null);
+        }
+        return GarancyOutcome.retryableFault(faultCode, message, retryAfterMillis, null);
+    }
+    
+    /**
+     * Classify an HTTP error that came without a SOAP fault
+     */
+    static GarancyOutcome classifyHttpStatus(int httpStatus, long retryAfterMillis, String message) {
+        if (httpStatus >= 500 || httpStatus == 408 || httpStatus == 429 || retryAfterMillis > 0) {
+            return GarancyOutcome.retryableFault(null, message, retryAfterMillis, null);
+        }
+        return GarancyOutcome.fatalFault(null, message, null);
+    }
+    
+    /**
+     * Parse a Retry-After header given in seconds; HTTP dates and invalid values are ignored
+     */
+    static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        String seconds = retryAfter.trim();
+        if (seconds.isEmpty() || seconds.length() > 6) {
+            return 0;
+        }
+        for (int i = 0; i < seconds.length(); i++) {
+            if (seconds.charAt(i) < '0' || seconds.charAt(i) > '9') {
+                return 0;
+            }
+        }
+        return Long.parseLong(seconds) * 1000;
+    }
+    
+    /**
+     * Open a connection to an endpoint and post a serialized SOAP request
+     */
+    private HttpURLConnection openSOAPConnection(String endpoint, ByteArrayOutputStream requestBytes) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(serverUrl + endpoint).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
+            connection.setRequestProperty("SOAPAction", "\"\"");
+            
+            OutputStream out = connection.getOutputStream();
+            try {
+                requestBytes.writeTo(out);
+            } finally {
+                out.close();
+            }
+            return connection;
+            
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+    
+    /**
+     * Operation name reported in metrics, e.g. "listUser" for "/listUser"
+     */
+    private static String operationName(String endpoint) {
+        return endpoint.startsWith("/") ? endpoint.substring(1) : endpoint;
     }
     
     /**
      * Parse organizational unit response
      */
-    private List<Map<String, Object>> parseOrgUnitResponse(SOAPMessage response) throws Exception {
+    List<Map<String, Object>> parseOrgUnitResponse(SOAPMessage response) throws Exception {
         List<Map<String, Object>> orgUnits = new ArrayList<>();
         
         Document doc = response.getSOAPBody().extractContentAsDocument();
@@ -375,14 +1313,14 @@ public class GarancyAPIClient {
             orgUnits.add(orgUnit);
         }
         
-        log.debug("Parsed " + orgUnits.size() + " organizational units");
+        log.debug("Parsed {} organizational units", orgUnits.size());
         return orgUnits;
     }
     
     /**
      * Parse role response
      */
-    private List<Map<String, Object>> parseRoleResponse(SOAPMessage response) throws Exception {
+    List<Map<String, Object>> parseRoleResponse(SOAPMessage response) throws Exception {
         List<Map<String, Object>> roles = new ArrayList<>();
         
         Document doc = response.getSOAPBody().extractContentAsDocument();
@@ -404,14 +1342,14 @@ public class GarancyAPIClient {
             roles.add(role);
         }
         
-        log.debug("Parsed " + roles.size() + " roles");
+        log.debug("Parsed {} roles", roles.size());
         return roles;
     }
     
     /**
      * Parse user response
      */
-    private List<Map<String, Object>> parseUserResponse(SOAPMessage response) throws Exception {
+    List<Map<String, Object>> parseUserResponse(SOAPMessage response) throws Exception {
         List<Map<String, Object>> users = new ArrayList<>();
         
         Document doc = response.getSOAPBody().extractContentAsDocument();
@@ -432,14 +1370,14 @@ public class GarancyAPIClient {
             users.add(user);
         }
         
-        log.debug("Parsed " + users.size() + " users");
+        log.debug("Parsed {} users", users.size());
         return users;
     }
     
     /**
      * Parse role-user connection response
      */
-    private List<Map<String, Object>> parseRoleUserConnectionResponse(SOAPMessage response) throws Exception {
+    List<Map<String, Object>> parseRoleUserConnectionResponse(SOAPMessage response) throws Exception {
         List<Map<String, Object>> connections = new ArrayList<>();
         
         Document doc = response.getSOAPBody().extractContentAsDocument();
@@ -457,29 +1395,83 @@ public class GarancyAPIClient {
             connections.add(connection);
         }
         
-        log.debug("Parsed " + connections.size() + " role-user connections");
+        log.debug("Parsed {} role-user connections", connections.size());
         return connections;
     }
     
     /**
-     * Parse operation response
+     * Parse a role-user connection response incrementally, handing each connection to the handler
      */
-    private Map<String, Object> parseOperationResponse(SOAPMessage response) throws Exception {
-        Map<String, Object> result = new HashMap<>();
+    static void parseRoleUserConnectionStream(InputStream in, RoleUserConnectionHandler handler, long[] delivered)
+            throws XMLStreamException, GarancyFaultException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
         
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+        try {
+            boolean inConnection = false;
+            String userId = null;
+            String roleId = null;
+            String status = null;
+            String faultCode = null;
+            
+            while (reader.hasNext()) {
+                int event = reader.next();
+                
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    
+                    if ("Connection".equals(name)) {
+                        inConnection = true;
+                        userId = null;
+                        roleId = null;
+                        status = null;
+                    } else if (inConnection && "BASEUS_SAM_ID".equals(name)) {
+                        userId = reader.getElementText();
+                    } else if (inConnection && "BASEUSRC_ROLE".equals(name)) {
+                        roleId = reader.getElementText();
+                    } else if (inConnection && "CONNECTION_STATUS".equals(name)) {
+                        status = reader.getElementText();
+                    } else if ("faultcode".equals(name)) {
+                        faultCode = reader.getElementText();
+                    } else if ("faultstring".equals(name)) {
+                        throw new GarancyFaultException(faultCode, reader.getElementText());
+                    }
+                    
+                } else if (event == XMLStreamConstants.END_ELEMENT && "Connection".equals(reader.getLocalName())) {
+                    inConnection = false;
+                    handler.onConnection(userId, roleId, status);
+                    delivered[0]++;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+    
+    /**
+     * Parse operation response; a Result without status SUCCESS is a business rejection
+     */
+    private GarancyOutcome parseOperationResponse(SOAPMessage response) throws SOAPException {
         Document doc = response.getSOAPBody().extractContentAsDocument();
         NodeList resultNodes = doc.getElementsByTagName("Result");
         
-        if (resultNodes.getLength() > 0) {
-            Element resultElement = (Element) resultNodes.item(0);
-            
-            result.put("status", getElementText(resultElement, "Status"));
-            result.put("message", getElementText(resultElement, "Message"));
-            result.put("requestId", getElementText(resultElement, "RequestId"));
-            result.put("timestamp", getElementText(resultElement, "Timestamp"));
+        if (resultNodes.getLength() == 0) {
+            return GarancyOutcome.rejected("Response contains no Result", null, null);
         }
         
-        return result;
+        Element resultElement = (Element) resultNodes.item(0);
+        String status = getElementText(resultElement, "Status");
+        String message = getElementText(resultElement, "Message");
+        String requestId = getElementText(resultElement, "RequestId");
+        String timestamp = getElementText(resultElement, "Timestamp");
+        
+        if (GarancyOutcome.STATUS_SUCCESS.equals(status)) {
+            return GarancyOutcome.success(message, requestId, timestamp);
+        }
+        return GarancyOutcome.rejected(message, requestId, timestamp);
     }
     
     /**
@@ -498,6 +1490,147 @@ public class GarancyAPIClient {
      */
     public void close() {
         log.debug("Closing Garancy API client");
-        // Cleanup any resources if needed
+        
+        GarancyAsyncExecutor executor;
+        synchronized (asyncExecutorLock) {
+            closed = true;
+            executor = asyncExecutor;
+            asyncExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        
+        metricsRegistry.close();
+        tracer.close();
+    }
+    
+    /**
+     * One asynchronous request, sent attempt by attempt on the async executor
+     */
+    private class AsyncExchange {
+        private final String endpoint;
+        private final String operation;
+        private final ByteArrayOutputStream requestBytes;
+        private final Span span;
+        private final GarancyMetricsRegistry metrics = metricsRegistry;
+        private final CompletableFuture<GarancyOutcome> future = new CompletableFuture<>();
+        
+        AsyncExchange(String endpoint, ByteArrayOutputStream requestBytes, Span span) {
+            this.endpoint = endpoint;
+            this.operation = operationName(endpoint);
+            this.requestBytes = requestBytes;
+            this.span = span;
+        }
+        
+        void submit(final int attempt) {
+            GarancyAsyncExecutor executor = getAsyncExecutor();
+            if (executor != null) {
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            send(attempt);
+                        }
+                    });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Closed concurrently
+                }
+            }
+            complete(GarancyOutcome.fatalFault(null, "Garancy API client is closed", null)
+                                   .withAttempts(Math.max(1, attempt - 1)));
+        }
+        
+        private void send(final int attempt) {
+            span.setAttribute("attempts", attempt);
+            GarancyOutcome outcome;
+            try {
+                outcome = sendOnce(endpoint, operation, requestBytes, null, metrics, span);
+            } catch (RuntimeException e) {
+                outcome = GarancyOutcome.fatalFault(null, "Request failed: " + e.getMessage(), e);
+            }
+            
+            if (outcome.isSuccess()) {
+                complete(outcome.withAttempts(attempt));
+                return;
+            }
+            
+            log.warn("Request attempt {} failed: {}", attempt, outcome.getMessage());
+            if (!outcome.isRetryable() || attempt >= retryAttempts) {
+                complete(outcome.withAttempts(attempt));
+                return;
+            }
+            
+            metrics.retryScheduled(operation, attempt);
+            GarancyAsyncExecutor executor = getAsyncExecutor();
+            if (executor != null) {
+                try {
+                    executor.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            submit(attempt + 1);
+                        }
+                    }, Math.max(1000L * attempt, outcome.getRetryAfterMillis()));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Closed while this attempt was running
+                }
+            }
+            complete(outcome.withAttempts(attempt));
+        }
+        
+        private void complete(GarancyOutcome outcome) {
+            endSpan(span, outcome);
+            future.complete(outcome);
+        }
+    }
+    
+    /**
+     * Parser applied to the response of an asynchronous list request
+     */
+    private interface ResponseParser<T> {
+        T parse(SOAPMessage response) throws Exception;
+    }
+    
+    /**
+     * Callback receiving role-user connections from streamRoleUserConnections
+     */
+    public interface RoleUserConnectionHandler {
+        void onConnection(String userId, String roleId, String status);
+    }
+    
+    /**
+     * Check whether a role-user connection grants its role
+     *
+     * Responses without a CONNECTION_STATUS are treated as active so that a
+     * missing status never hides a connection from SoD checks.
+     */
+    public static boolean isActiveConnection(String status) {
+        return status == null || status.isEmpty() || CONNECTION_STATUS_ACTIVE.equalsIgnoreCase(status);
+    }
+    
+    /**
+     * Garancy answered with a SOAP fault
+     */
+    static class GarancyFaultException extends Exception {
+        private static final long serialVersionUID = 1L;
+        
+        private final String faultCode;
+        private final String faultString;
+        
+        GarancyFaultException(String faultCode, String faultString) {
+            super("SOAP Fault: " + faultString);
+            this.faultCode = faultCode;
+            this.faultString = faultString;
+        }
+        
+        String getFaultCode() {
+            return faultCode;
+        }
+        
+        String getFaultString() {
+            return faultString;
+        }
     }
 }
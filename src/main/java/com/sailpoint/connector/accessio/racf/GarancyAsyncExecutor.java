@@ -0,0 +1,204 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Runs requests for the asynchronous GarancyAPIClient operations
+ *
+ * Requests are queued without blocking the caller, and at most maxInFlight
+ * of them are sent to Garancy at once. Two execution modes are supported:
+ * - Platform threads: a fixed pool of maxInFlight worker threads
+ * - Virtual threads (Java 21+): a virtual thread per request, admitted by a
+ *   fair semaphore with maxInFlight permits, so waiting requests cost no
+ *   platform thread and the limit can be raised without sizing a pool
+ *
+ * A retry waits on a timer rather than sleeping on a worker, so backoff
+ * never takes capacity away from other requests.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+final class GarancyAsyncExecutor {
+
+    // Exactly one of the worker executors is set, depending on the mode
+    private final ThreadPoolExecutor platformWorkers;
+    private final ExecutorService virtualWorkers;
+    private final ConcurrencyLimit concurrencyLimit;
+    private final ScheduledThreadPoolExecutor timer;
+    // Delayed tasks not yet run; each is removed by whichever of the timer or shutdown runs it
+    private final Set<Runnable> pendingTasks = Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>());
+
+    /**
+     * @param maxInFlight maximum number of requests sent at once
+     * @param virtualThreads run requests on virtual threads; requires VirtualThreads.isAvailable()
+     */
+    GarancyAsyncExecutor(int maxInFlight, boolean virtualThreads) {
+        if (virtualThreads) {
+            this.platformWorkers = null;
+            this.virtualWorkers = VirtualThreads.newThreadPerTaskExecutor("accessio-racf-async-");
+            this.concurrencyLimit = new ConcurrencyLimit(maxInFlight);
+        } else {
+            this.platformWorkers = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60L, TimeUnit.SECONDS,
+                                                          new LinkedBlockingQueue<Runnable>(),
+                                                          new DaemonThreadFactory("accessio-racf-async-"));
+            this.platformWorkers.allowCoreThreadTimeOut(true);
+            this.virtualWorkers = null;
+            this.concurrencyLimit = null;
+        }
+        this.timer = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("accessio-racf-async-retry-"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queue a request attempt
+     *
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    void execute(final Runnable attempt) {
+        if (platformWorkers != null) {
+            platformWorkers.execute(attempt);
+            return;
+        }
+
+        virtualWorkers.execute(new Runnable() {
+            @Override
+            public void run() {
+                // Blocking here parks only this virtual thread
+                concurrencyLimit.acquireUninterruptibly();
+                try {
+                    attempt.run();
+                } finally {
+                    concurrencyLimit.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Run a task on the timer thread after a delay; the task should only queue the next attempt
+     *
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    void schedule(final Runnable task, long delayMillis) {
+        Runnable pending = new Runnable() {
+            @Override
+            public void run() {
+                if (pendingTasks.remove(this)) {
+                    task.run();
+                }
+            }
+        };
+        pendingTasks.add(pending);
+        try {
+            timer.schedule(pending, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingTasks.remove(pending);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether requests run on virtual threads
+     */
+    boolean isVirtualThreads() {
+        return virtualWorkers != null;
+    }
+
+    /**
+     * Change the number of requests allowed in flight
+     */
+    void setMaxInFlight(int maxInFlight) {
+        if (concurrencyLimit != null) {
+            concurrencyLimit.setLimit(maxInFlight);
+        } else if (maxInFlight > platformWorkers.getMaximumPoolSize()) {
+            platformWorkers.setMaximumPoolSize(maxInFlight);
+            platformWorkers.setCorePoolSize(maxInFlight);
+        } else {
+            platformWorkers.setCorePoolSize(maxInFlight);
+            platformWorkers.setMaximumPoolSize(maxInFlight);
+        }
+    }
+
+    int getMaxInFlight() {
+        return concurrencyLimit != null ? concurrencyLimit.getLimit() : platformWorkers.getMaximumPoolSize();
+    }
+
+    /**
+     * Number of requests currently being sent
+     */
+    int getInFlight() {
+        if (concurrencyLimit != null) {
+            return Math.max(0, concurrencyLimit.getLimit() - concurrencyLimit.availablePermits());
+        }
+        return platformWorkers.getActiveCount();
+    }
+
+    /**
+     * Number of requests waiting for a free slot
+     */
+    int getQueued() {
+        return concurrencyLimit != null ? concurrencyLimit.getQueueLength() : platformWorkers.getQueue().size();
+    }
+
+    /**
+     * Stop accepting requests. Queued requests still run; pending retries run at once
+     * so they find the executor closed and complete their futures instead of hanging.
+     */
+    void shutdown() {
+        if (platformWorkers != null) {
+            platformWorkers.shutdown();
+        } else {
+            virtualWorkers.shutdown();
+        }
+        timer.shutdownNow();
+        for (Runnable pending : new ArrayList<>(pendingTasks)) {
+            pending.run();
+        }
+    }
+
+    /**
+     * Fair semaphore whose number of permits can be changed while in use
+     */
+    private static class ConcurrencyLimit extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        private int limit;
+
+        ConcurrencyLimit(int limit) {
+            super(limit, true);
+            this.limit = limit;
+        }
+
+        synchronized void setLimit(int newLimit) {
+            if (newLimit > limit) {
+                release(newLimit - limit);
+            } else if (newLimit < limit) {
+                reducePermits(limit - newLimit);
+            }
+            limit = newLimit;
+        }
+
+        synchronized int getLimit() {
+            return limit;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private int count;
+
+        DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public synchronized Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + (++count));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
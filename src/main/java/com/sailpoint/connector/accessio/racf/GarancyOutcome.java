@@ -0,0 +1,172 @@
+package com.sailpoint.connector.accessio.racf;
+
+import javax.xml.soap.SOAPMessage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a Garancy API call
+ *
+ * Distinguishes the four ways a call can end without using exceptions:
+ * - SUCCESS: Garancy carried out the operation
+ * - REJECTED: Garancy answered but refused the operation, e.g. unknown user
+ * - RETRYABLE_FAULT: transport error, throttling or server fault; retrying may succeed
+ * - FATAL_FAULT: authentication or request fault; retrying cannot succeed
+ *
+ * Outcomes are plain immutable values with no stack trace, so building one
+ * for every rejected operation or failed attempt costs next to nothing.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public final class GarancyOutcome {
+
+    public enum Kind { SUCCESS, REJECTED, RETRYABLE_FAULT, FATAL_FAULT }
+
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final Kind kind;
+    private final String message;
+    private final String requestId;
+    private final String timestamp;
+    private final String faultCode;
+    private final long retryAfterMillis;
+    private final Throwable cause;
+    private final int attempts;
+    private final SOAPMessage response;
+
+    private GarancyOutcome(Kind kind, String message, String requestId, String timestamp, String faultCode,
+                           long retryAfterMillis, Throwable cause, int attempts, SOAPMessage response) {
+        this.kind = kind;
+        this.message = message;
+        this.requestId = requestId;
+        this.timestamp = timestamp;
+        this.faultCode = faultCode;
+        this.retryAfterMillis = retryAfterMillis;
+        this.cause = cause;
+        this.attempts = attempts;
+        this.response = response;
+    }
+
+    public static GarancyOutcome success(String message, String requestId, String timestamp) {
+        return new GarancyOutcome(Kind.SUCCESS, message, requestId, timestamp, null, 0, null, 1, null);
+    }
+
+    public static GarancyOutcome rejected(String message, String requestId, String timestamp) {
+        return new GarancyOutcome(Kind.REJECTED, message, requestId, timestamp, null, 0, null, 1, null);
+    }
+
+    /**
+     * @param faultCode SOAP fault code, or null for transport errors
+     * @param retryAfterMillis delay requested by the server, 0 if none
+     * @param cause underlying transport exception, or null
+     */
+    public static GarancyOutcome retryableFault(String faultCode, String message, long retryAfterMillis, Throwable cause) {
+        return new GarancyOutcome(Kind.RETRYABLE_FAULT, message, null, null, faultCode,
+                                  Math.max(0, retryAfterMillis), cause, 1, null);
+    }
+
+    /**
+     * @param faultCode SOAP fault code, or null for errors outside the SOAP exchange
+     * @param cause underlying exception, or null
+     */
+    public static GarancyOutcome fatalFault(String faultCode, String message, Throwable cause) {
+        return new GarancyOutcome(Kind.FATAL_FAULT, message, null, null, faultCode, 0, cause, 1, null);
+    }
+
+    /**
+     * Successful transport-level exchange carrying the response still to be parsed
+     */
+    static GarancyOutcome response(SOAPMessage response) {
+        return new GarancyOutcome(Kind.SUCCESS, null, null, null, null, 0, null, 1, response);
+    }
+
+    /**
+     * Copy of this outcome reporting the number of attempts it took
+     */
+    GarancyOutcome withAttempts(int attempts) {
+        if (attempts == this.attempts) {
+            return this;
+        }
+        return new GarancyOutcome(kind, message, requestId, timestamp, faultCode, retryAfterMillis, cause,
+                                  attempts, response);
+    }
+
+    public Kind getKind() { return kind; }
+    public String getMessage() { return message; }
+    public String getRequestId() { return requestId; }
+    public String getTimestamp() { return timestamp; }
+    public String getFaultCode() { return faultCode; }
+    public long getRetryAfterMillis() { return retryAfterMillis; }
+    public Throwable getCause() { return cause; }
+    public int getAttempts() { return attempts; }
+
+    SOAPMessage getResponse() {
+        return response;
+    }
+
+    public boolean isSuccess() {
+        return kind == Kind.SUCCESS;
+    }
+
+    public boolean isRejected() {
+        return kind == Kind.REJECTED;
+    }
+
+    public boolean isFault() {
+        return kind == Kind.RETRYABLE_FAULT || kind == Kind.FATAL_FAULT;
+    }
+
+    public boolean isRetryable() {
+        return kind == Kind.RETRYABLE_FAULT;
+    }
+
+    /**
+     * Get the Garancy status: SUCCESS, or FAILED for rejections and faults
+     */
+    public String getStatus() {
+        return isSuccess() ? STATUS_SUCCESS : STATUS_FAILED;
+    }
+
+    /**
+     * Get the outcome as the status/message/requestId/timestamp map of earlier client versions
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("status", getStatus());
+        map.put("message", message);
+        map.put("requestId", requestId);
+        map.put("timestamp", timestamp);
+        return map;
+    }
+
+    /**
+     * Build an exception describing a fault, for callers whose contract is to throw;
+     * the transport exception if there was one, otherwise the SOAP fault
+     */
+    Exception toException() {
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        return new GarancyAPIClient.GarancyFaultException(faultCode, message);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("GarancyOutcome{").append(kind);
+        if (faultCode != null) {
+            text.append(", faultCode=").append(faultCode);
+        }
+        if (message != null) {
+            text.append(", message=").append(message);
+        }
+        if (requestId != null) {
+            text.append(", requestId=").append(requestId);
+        }
+        if (attempts > 1) {
+            text.append(", attempts=").append(attempts);
+        }
+        return text.append('}').toString();
+    }
+}
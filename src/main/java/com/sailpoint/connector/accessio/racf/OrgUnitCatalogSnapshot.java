@@ -0,0 +1,104 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.*;
+
+/**
+ * Org Unit Catalog Snapshot for Accessio RACF Integration
+ *
+ * Immutable point-in-time view of the Garancy organizational units, built
+ * from a single listOrgUnit download. Provisioning rules and approval
+ * workflows check org unit existence and ownership on every request, so
+ * these lookups are served from the snapshot instead of a full download.
+ *
+ * Provides:
+ * - Org unit lookup by ID
+ * - Owner lookup (primary owner BASEORG_C_C32_05, deputy BASEORG_C_C78_01)
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class OrgUnitCatalogSnapshot {
+
+    private final Map<String, Map<String, Object>> orgUnitsById;
+    private final Map<String, List<String>> ownersByOrgUnit;
+    private final Date snapshotDate;
+
+    /**
+     * Constructor
+     *
+     * @param orgUnits org unit records as returned by GarancyAPIClient.listOrgUnits()
+     */
+    public OrgUnitCatalogSnapshot(List<Map<String, Object>> orgUnits) {
+        Map<String, Map<String, Object>> byId = new HashMap<>(orgUnits.size() * 2);
+        Map<String, List<String>> owners = new HashMap<>(orgUnits.size() * 2);
+
+        for (Map<String, Object> orgUnit : orgUnits) {
+            String orgUnitId = (String) orgUnit.get("BASEORG_ID");
+            if (orgUnitId == null) {
+                continue;
+            }
+
+            byId.put(orgUnitId, orgUnit);
+
+            List<String> orgUnitOwners = new ArrayList<>(2);
+            addOwner(orgUnitOwners, (String) orgUnit.get("BASEORG_C_C32_05"));
+            addOwner(orgUnitOwners, (String) orgUnit.get("BASEORG_C_C78_01"));
+            owners.put(orgUnitId, Collections.unmodifiableList(orgUnitOwners));
+        }
+
+        this.orgUnitsById = Collections.unmodifiableMap(byId);
+        this.ownersByOrgUnit = Collections.unmodifiableMap(owners);
+        this.snapshotDate = new Date();
+    }
+
+    /**
+     * Get org unit by ID
+     */
+    public Map<String, Object> getOrgUnit(String orgUnitId) {
+        return orgUnitId != null ? orgUnitsById.get(orgUnitId) : null;
+    }
+
+    /**
+     * Check whether an org unit exists in the snapshot
+     */
+    public boolean containsOrgUnit(String orgUnitId) {
+        return orgUnitId != null && orgUnitsById.containsKey(orgUnitId);
+    }
+
+    /**
+     * Get the owners of an org unit, primary owner first, then deputy
+     */
+    public List<String> getOwners(String orgUnitId) {
+        List<String> owners = orgUnitId != null ? ownersByOrgUnit.get(orgUnitId) : null;
+        return owners != null ? owners : Collections.<String>emptyList();
+    }
+
+    /**
+     * Get the owner approving for an org unit: the primary owner, or the deputy
+     * if no primary owner is maintained
+     */
+    public String getOwner(String orgUnitId) {
+        List<String> owners = getOwners(orgUnitId);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    /**
+     * Get number of org units in the snapshot
+     */
+    public int size() {
+        return orgUnitsById.size();
+    }
+
+    /**
+     * Get the time the snapshot was taken
+     */
+    public Date getSnapshotDate() {
+        return new Date(snapshotDate.getTime());
+    }
+
+    private static void addOwner(List<String> owners, String owner) {
+        if (owner != null && !owner.trim().isEmpty() && !owners.contains(owner)) {
+            owners.add(owner);
+        }
+    }
+}
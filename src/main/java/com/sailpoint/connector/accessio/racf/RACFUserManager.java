@@ -5,8 +5,9 @@ import sailpoint.object.Configuration;
 import sailpoint.object.Result;
 import sailpoint.tools.Util;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+import com.sailpoint.connector.accessio.racf.tracing.Span;
+import com.sailpoint.connector.accessio.racf.tracing.Tracer;
 
 import java.util.*;
 
@@ -29,7 +30,7 @@ import java.util.*;
  */
 public class RACFUserManager {
     
-    private static final Log log = LogFactory.getLog(RACFUserManager.class);
+    private static final ConnectorLog log = ConnectorLog.getLog(RACFUserManager.class);
     
     // User status constants
     public static final String STATUS_ACTIVE = "ACTIVE";
@@ -42,17 +43,83 @@ public class RACFUserManager {
     public static final String RESULT_PENDING_APPROVAL = "PENDING_APPROVAL";
     public static final String RESULT_FAILED = "FAILED";
     
+    // Configuration key: seconds a user directory download is reused for lookups
+    public static final String CONFIG_USER_DIRECTORY_CACHE_SECONDS = "userDirectoryCacheSeconds";
+    public static final int DEFAULT_USER_DIRECTORY_CACHE_SECONDS = 60;
+    
     private final GarancyAPIClient apiClient;
     private final Configuration configuration;
     private final ApprovalWorkflowHandler workflowHandler;
     
+    // User directory cached for user and owner lookups, dropped after every write
+    private final long userDirectoryTtlNanos;
+    private final Object userDirectoryLock = new Object();
+    private volatile Map<String, Map<String, Object>> cachedUsersById;
+    private volatile long userDirectoryExpiresAt;
+    
     /**
      * Constructor
+     *
+     * @param workflowHandler the connector's approval workflow handler; approvals submitted
+     *                        here must be visible to everyone using the connector's handler
      */
-    public RACFUserManager(GarancyAPIClient apiClient, Configuration configuration) {
+    public RACFUserManager(GarancyAPIClient apiClient, Configuration configuration,
+                           ApprovalWorkflowHandler workflowHandler) {
         this.apiClient = apiClient;
         this.configuration = configuration;
-        this.workflowHandler = new ApprovalWorkflowHandler(apiClient, configuration);
+        this.workflowHandler = workflowHandler;
+        
+        int cacheSeconds = configuration != null ?
+                configuration.getInt(CONFIG_USER_DIRECTORY_CACHE_SECONDS, DEFAULT_USER_DIRECTORY_CACHE_SECONDS) : 0;
+        this.userDirectoryTtlNanos = java.util.concurrent.TimeUnit.SECONDS.toNanos(
+                cacheSeconds > 0 ? cacheSeconds : DEFAULT_USER_DIRECTORY_CACHE_SECONDS);
+    }
+    
+    /**
+     * Get a user by ID from the cached user directory, or null if the user does not exist
+     */
+    public Map<String, Object> getUser(String userId) throws Exception {
+        if (Util.isNullOrEmpty(userId)) {
+            return null;
+        }
+        
+        Span span = startSpan("user.lookup");
+        try {
+            Map<String, Map<String, Object>> users = cachedUsersById;
+            boolean cacheHit = true;
+            if (users == null || System.nanoTime() - userDirectoryExpiresAt >= 0) {
+                synchronized (userDirectoryLock) {
+                    if (cachedUsersById == null || System.nanoTime() - userDirectoryExpiresAt >= 0) {
+                        cacheHit = false;
+                        List<Map<String, Object>> userList = apiClient.listUsers();
+                        Map<String, Map<String, Object>> byId = new HashMap<>(userList.size() * 2);
+                        for (Map<String, Object> user : userList) {
+                            String id = (String) user.get("BASEUS_SAM_ID");
+                            if (id != null) {
+                                byId.put(id, user);
+                            }
+                        }
+                        cachedUsersById = Collections.unmodifiableMap(byId);
+                        userDirectoryExpiresAt = System.nanoTime() + userDirectoryTtlNanos;
+                    }
+                    users = cachedUsersById;
+                }
+            }
+            span.setAttribute("cacheHit", cacheHit);
+            
+            return users.get(userId);
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Discard the cached user directory so the next lookup sees fresh data
+     */
+    public void invalidateUserDirectory() {
+        synchronized (userDirectoryLock) {
+            cachedUsersById = null;
+        }
     }
     
     /**
@@ -91,21 +158,30 @@ public class RACFUserManager {
             // Check if approval is required
             if (requiresApproval(userType, "CREATE", attributes)) {
                 log.debug("User creation requires approval");
+                Span span = startSpan("user.approvalRouting");
+                try {
+                    // Submit for approval workflow
+                    String workflowId = workflowHandler.submitForApproval(
+                        "CREATE_USER", userId, attributes, getApprovers(userType, "CREATE", attributes)
+                    );
                 
-                // Submit for approval workflow
-                String workflowId = workflowHandler.submitForApproval(
-                    "CREATE_USER", userId, attributes, getApprovers(userType, "CREATE", attributes)
-                );
-                
-                Result result = new Result();
-                result.setStatus(RESULT_PENDING_APPROVAL);
-                result.setAttribute("workflowId", workflowId);
-                result.setAttribute("message", "User creation submitted for approval");
-                return result;
+                    Result result = new Result();
+                    result.setStatus(RESULT_PENDING_APPROVAL);
+                    result.setAttribute("workflowId", workflowId);
+                    result.setAttribute("message", "User creation submitted for approval");
+                    return result;
+                } finally {
+                    span.end();
+                }
                 
             } else {
                 // Create user directly
-                return executeUserCreation(attributes);
+                Span span = startSpan("user.write");
+                try {
+                    return executeUserCreation(attributes);
+                } finally {
+                    span.end();
+                }
             }
             
         } catch (Exception e) {
@@ -118,7 +194,7 @@ public class RACFUserManager {
      * Update an existing RACF user account
      */
     public Result updateUser(String identity, Attributes attributes, Map<String, Object> options) {
-        log.info("Updating RACF user account: " + identity);
+        log.info("Updating RACF user account: {}", identity);
         
         try {
             // Get current user data
@@ -141,27 +217,36 @@ public class RACFUserManager {
             // Check if approval is required
             if (requiresApproval(userType, "MODIFY", attributes) || isOrgUnitTransfer) {
                 log.debug("User modification requires approval");
+                Span span = startSpan("user.approvalRouting");
+                try {
+                    // For org unit transfers, need approval from both current and new org unit owners
+                    List<String> approvers = getApprovers(userType, "MODIFY", attributes);
+                    if (isOrgUnitTransfer) {
+                        approvers.addAll(getOrgUnitOwners(currentOrgUnit));
+                        approvers.addAll(getOrgUnitOwners(newOrgUnit));
+                    }
                 
-                // For org unit transfers, need approval from both current and new org unit owners
-                List<String> approvers = getApprovers(userType, "MODIFY", attributes);
-                if (isOrgUnitTransfer) {
-                    approvers.addAll(getOrgUnitOwners(currentOrgUnit));
-                    approvers.addAll(getOrgUnitOwners(newOrgUnit));
-                }
-                
-                String workflowId = workflowHandler.submitForApproval(
-                    "MODIFY_USER", identity, attributes, approvers
-                );
+                    String workflowId = workflowHandler.submitForApproval(
+                        "MODIFY_USER", identity, attributes, approvers
+                    );
                 
-                Result result = new Result();
-                result.setStatus(RESULT_PENDING_APPROVAL);
-                result.setAttribute("workflowId", workflowId);
-                result.setAttribute("message", "User modification submitted for approval");
-                return result;
+                    Result result = new Result();
+                    result.setStatus(RESULT_PENDING_APPROVAL);
+                    result.setAttribute("workflowId", workflowId);
+                    result.setAttribute("message", "User modification submitted for approval");
+                    return result;
+                } finally {
+                    span.end();
+                }
                 
             } else {
                 // Update user directly
-                return executeUserModification(identity, attributes);
+                Span span = startSpan("user.write");
+                try {
+                    return executeUserModification(identity, attributes);
+                } finally {
+                    span.end();
+                }
             }
             
         } catch (Exception e) {
@@ -174,7 +259,7 @@ public class RACFUserManager {
      * Delete a RACF user account
      */
     public Result deleteUser(String identity, Map<String, Object> options) {
-        log.info("Deleting RACF user account: " + identity);
+        log.info("Deleting RACF user account: {}", identity);
         
         try {
             // Get current user data
@@ -189,22 +274,31 @@ public class RACFUserManager {
             // Check if approval is required
             if (requiresApproval(userType, "DELETE", null)) {
                 log.debug("User deletion requires approval");
+                Span span = startSpan("user.approvalRouting");
+                try {
+                    List<String> approvers = getOrgUnitOwners(orgUnitId);
                 
-                List<String> approvers = getOrgUnitOwners(orgUnitId);
-                
-                String workflowId = workflowHandler.submitForApproval(
-                    "DELETE_USER", identity, new Attributes(), approvers
-                );
+                    String workflowId = workflowHandler.submitForApproval(
+                        "DELETE_USER", identity, new Attributes(), approvers
+                    );
                 
-                Result result = new Result();
-                result.setStatus(RESULT_PENDING_APPROVAL);
-                result.setAttribute("workflowId", workflowId);
-                result.setAttribute("message", "User deletion submitted for approval");
-                return result;
+                    Result result = new Result();
+                    result.setStatus(RESULT_PENDING_APPROVAL);
+                    result.setAttribute("workflowId", workflowId);
+                    result.setAttribute("message", "User deletion submitted for approval");
+                    return result;
+                } finally {
+                    span.end();
+                }
                 
             } else {
                 // Delete user directly
-                return executeUserDeletion(identity);
+                Span span = startSpan("user.write");
+                try {
+                    return executeUserDeletion(identity);
+                } finally {
+                    span.end();
+                }
             }
             
         } catch (Exception e) {
@@ -217,19 +311,20 @@ public class RACFUserManager {
      * Enable (resume) a RACF user account
      */
     public Result enableUser(String identity, Map<String, Object> options) {
-        log.info("Enabling RACF user account: " + identity);
+        log.info("Enabling RACF user account: {}", identity);
         
         try {
-            Map<String, Object> result = apiClient.resumeUser(identity);
+            GarancyOutcome result = apiClient.resumeUser(identity);
+            invalidateUserDirectory();
             
-            if (RESULT_SUCCESS.equals(result.get("status"))) {
+            if (result.isSuccess()) {
                 Result enableResult = new Result();
                 enableResult.setStatus(RESULT_SUCCESS);
                 enableResult.setAttribute("message", "User enabled successfully");
-                enableResult.setAttribute("requestId", result.get("requestId"));
+                enableResult.setAttribute("requestId", result.getRequestId());
                 return enableResult;
             } else {
-                return Result.failed("Failed to enable user: " + result.get("message"));
+                return Result.failed("Failed to enable user: " + result.getMessage());
             }
             
         } catch (Exception e) {
@@ -242,19 +337,20 @@ public class RACFUserManager {
      * Disable (suspend) a RACF user account
      */
     public Result disableUser(String identity, Map<String, Object> options) {
-        log.info("Disabling RACF user account: " + identity);
+        log.info("Disabling RACF user account: {}", identity);
         
         try {
-            Map<String, Object> result = apiClient.suspendUser(identity);
+            GarancyOutcome result = apiClient.suspendUser(identity);
+            invalidateUserDirectory();
             
-            if (RESULT_SUCCESS.equals(result.get("status"))) {
+            if (result.isSuccess()) {
                 Result disableResult = new Result();
                 disableResult.setStatus(RESULT_SUCCESS);
                 disableResult.setAttribute("message", "User disabled successfully");
-                disableResult.setAttribute("requestId", result.get("requestId"));
+                disableResult.setAttribute("requestId", result.getRequestId());
                 return disableResult;
             } else {
-                return Result.failed("Failed to disable user: " + result.get("message"));
+                return Result.failed("Failed to disable user: " + result.getMessage());
             }
             
         } catch (Exception e) {
@@ -267,7 +363,7 @@ public class RACFUserManager {
      * Add role to user
      */
     public Result addRole(String userId, String roleId, Map<String, Object> options) {
-        log.info("Adding role " + roleId + " to user " + userId);
+        log.info("Adding role {} to user {}", roleId, userId);
         
         try {
             // Get user and role information
@@ -281,25 +377,34 @@ public class RACFUserManager {
             // Check if approval is required for role assignment
             if (requiresApproval(userType, "ADD_ROLE", null)) {
                 log.debug("Role assignment requires approval");
+                Span span = startSpan("user.approvalRouting");
+                try {
+                    Attributes attributes = new Attributes();
+                    attributes.put("roleId", roleId);
                 
-                Attributes attributes = new Attributes();
-                attributes.put("roleId", roleId);
+                    List<String> approvers = getApprovers(userType, "ADD_ROLE", attributes);
                 
-                List<String> approvers = getApprovers(userType, "ADD_ROLE", attributes);
+                    String workflowId = workflowHandler.submitForApproval(
+                        "ADD_ROLE", userId, attributes, approvers
+                    );
                 
-                String workflowId = workflowHandler.submitForApproval(
-                    "ADD_ROLE", userId, attributes, approvers
-                );
-                
-                Result result = new Result();
-                result.setStatus(RESULT_PENDING_APPROVAL);
-                result.setAttribute("workflowId", workflowId);
-                result.setAttribute("message", "Role assignment submitted for approval");
-                return result;
+                    Result result = new Result();
+                    result.setStatus(RESULT_PENDING_APPROVAL);
+                    result.setAttribute("workflowId", workflowId);
+                    result.setAttribute("message", "Role assignment submitted for approval");
+                    return result;
+                } finally {
+                    span.end();
+                }
                 
             } else {
                 // Add role directly
-                return executeRoleAddition(userId, roleId);
+                Span span = startSpan("user.write");
+                try {
+                    return executeRoleAddition(userId, roleId);
+                } finally {
+                    span.end();
+                }
             }
             
         } catch (Exception e) {
@@ -312,7 +417,7 @@ public class RACFUserManager {
      * Remove role from user
      */
     public Result removeRole(String userId, String roleId, Map<String, Object> options) {
-        log.info("Removing role " + roleId + " from user " + userId);
+        log.info("Removing role {} from user {}", roleId, userId);
         
         try {
             // Get user information
@@ -326,25 +431,34 @@ public class RACFUserManager {
             // Check if approval is required for role removal
             if (requiresApproval(userType, "REMOVE_ROLE", null)) {
                 log.debug("Role removal requires approval");
+                Span span = startSpan("user.approvalRouting");
+                try {
+                    Attributes attributes = new Attributes();
+                    attributes.put("roleId", roleId);
                 
-                Attributes attributes = new Attributes();
-                attributes.put("roleId", roleId);
+                    List<String> approvers = getApprovers(userType, "REMOVE_ROLE", attributes);
                 
-                List<String> approvers = getApprovers(userType, "REMOVE_ROLE", attributes);
+                    String workflowId = workflowHandler.submitForApproval(
+                        "REMOVE_ROLE", userId, attributes, approvers
+                    );
                 
-                String workflowId = workflowHandler.submitForApproval(
-                    "REMOVE_ROLE", userId, attributes, approvers
-                );
-                
-                Result result = new Result();
-                result.setStatus(RESULT_PENDING_APPROVAL);
-                result.setAttribute("workflowId", workflowId);
-                result.setAttribute("message", "Role removal submitted for approval");
-                return result;
+                    Result result = new Result();
+                    result.setStatus(RESULT_PENDING_APPROVAL);
+                    result.setAttribute("workflowId", workflowId);
+                    result.setAttribute("message", "Role removal submitted for approval");
+                    return result;
+                } finally {
+                    span.end();
+                }
                 
             } else {
                 // Remove role directly
-                return executeRoleRemoval(userId, roleId);
+                Span span = startSpan("user.write");
+                try {
+                    return executeRoleRemoval(userId, roleId);
+                } finally {
+                    span.end();
+                }
             }
             
         } catch (Exception e) {
@@ -364,16 +478,17 @@ public class RACFUserManager {
             userAttributes.put(key, attributes.get(key));
         }
         
-        Map<String, Object> result = apiClient.createUser(userAttributes);
+        GarancyOutcome result = apiClient.createUser(userAttributes);
+        invalidateUserDirectory();
         
-        if (RESULT_SUCCESS.equals(result.get("status"))) {
+        if (result.isSuccess()) {
             Result createResult = new Result();
             createResult.setStatus(RESULT_SUCCESS);
             createResult.setAttribute("message", "User created successfully");
-            createResult.setAttribute("requestId", result.get("requestId"));
+            createResult.setAttribute("requestId", result.getRequestId());
             return createResult;
         } else {
-            return Result.failed("Failed to create user: " + result.get("message"));
+            return Result.failed("Failed to create user: " + result.getMessage());
         }
     }
     
@@ -388,16 +503,17 @@ public class RACFUserManager {
             userAttributes.put(key, attributes.get(key));
         }
         
-        Map<String, Object> result = apiClient.modifyUser(identity, userAttributes);
+        GarancyOutcome result = apiClient.modifyUser(identity, userAttributes);
+        invalidateUserDirectory();
         
-        if (RESULT_SUCCESS.equals(result.get("status"))) {
+        if (result.isSuccess()) {
             Result modifyResult = new Result();
             modifyResult.setStatus(RESULT_SUCCESS);
             modifyResult.setAttribute("message", "User modified successfully");
-            modifyResult.setAttribute("requestId", result.get("requestId"));
+            modifyResult.setAttribute("requestId", result.getRequestId());
             return modifyResult;
         } else {
-            return Result.failed("Failed to modify user: " + result.get("message"));
+            return Result.failed("Failed to modify user: " + result.getMessage());
         }
     }
     
@@ -407,16 +523,17 @@ public class RACFUserManager {
     private Result executeUserDeletion(String identity) throws Exception {
         log.debug("Executing user deletion");
         
-        Map<String, Object> result = apiClient.deleteUser(identity);
+        GarancyOutcome result = apiClient.deleteUser(identity);
+        invalidateUserDirectory();
         
-        if (RESULT_SUCCESS.equals(result.get("status"))) {
+        if (result.isSuccess()) {
             Result deleteResult = new Result();
             deleteResult.setStatus(RESULT_SUCCESS);
             deleteResult.setAttribute("message", "User deleted successfully");
-            deleteResult.setAttribute("requestId", result.get("requestId"));
+            deleteResult.setAttribute("requestId", result.getRequestId());
             return deleteResult;
         } else {
-            return Result.failed("Failed to delete user: " + result.get("message"));
+            return Result.failed("Failed to delete user: " + result.getMessage());
         }
     }
     
@@ -426,16 +543,16 @@ public class RACFUserManager {
     private Result executeRoleAddition(String userId, String roleId) throws Exception {
         log.debug("Executing role addition");
         
-        Map<String, Object> result = apiClient.addRoleConnection(userId, roleId);
+        GarancyOutcome result = apiClient.addRoleConnection(userId, roleId);
         
-        if (RESULT_SUCCESS.equals(result.get("status"))) {
+        if (result.isSuccess()) {
             Result addResult = new Result();
             addResult.setStatus(RESULT_SUCCESS);
             addResult.setAttribute("message", "Role added successfully");
-            addResult.setAttribute("requestId", result.get("requestId"));
+            addResult.setAttribute("requestId", result.getRequestId());
             return addResult;
         } else {
-            return Result.failed("Failed to add role: " + result.get("message"));
+            return Result.failed("Failed to add role: " + result.getMessage());
         }
     }
     
@@ -445,16 +562,16 @@ public class RACFUserManager {
     private Result executeRoleRemoval(String userId, String roleId) throws Exception {
         log.debug("Executing role removal");
         
-        Map<String, Object> result = apiClient.removeRoleConnection(userId, roleId);
+        GarancyOutcome result = apiClient.removeRoleConnection(userId, roleId);
         
-        if (RESULT_SUCCESS.equals(result.get("status"))) {
+        if (result.isSuccess()) {
             Result removeResult = new Result();
             removeResult.setStatus(RESULT_SUCCESS);
             removeResult.setAttribute("message", "Role removed successfully");
-            removeResult.setAttribute("requestId", result.get("requestId"));
+            removeResult.setAttribute("requestId", result.getRequestId());
             return removeResult;
         } else {
-            return Result.failed("Failed to remove role: " + result.get("message"));
+            return Result.failed("Failed to remove role: " + result.getMessage());
         }
     }
     
@@ -462,15 +579,7 @@ public class RACFUserManager {
      * Get current user data from API
      */
     private Map<String, Object> getCurrentUser(String userId) throws Exception {
-        List<Map<String, Object>> users = apiClient.listUsers();
-        
-        for (Map<String, Object> user : users) {
-            if (userId.equals(user.get("BASEUS_SAM_ID"))) {
-                return user;
-            }
-        }
-        
-        return null;
+        return getUser(userId);
     }
     
     /**
@@ -522,34 +631,23 @@ public class RACFUserManager {
         return approvers;
     }
     
+    /**
+     * Start a span on the API client's tracer
+     */
+    private Span startSpan(String name) {
+        Tracer tracer = apiClient != null ? apiClient.getTracer() : null;
+        return tracer != null ? tracer.startSpan(name) : Span.NOOP;
+    }
+    
     /**
      * Get org unit owners for approval
      */
     private List<String> getOrgUnitOwners(String orgUnitId) {
-        List<String> owners = new ArrayList<>();
-        
         try {
-            List<Map<String, Object>> orgUnits = apiClient.listOrgUnits();
-            
-            for (Map<String, Object> orgUnit : orgUnits) {
-                if (orgUnitId.equals(orgUnit.get("BASEORG_ID"))) {
-                    String primaryOwner = (String) orgUnit.get("BASEORG_C_C32_05");
-                    String secondaryOwner = (String) orgUnit.get("BASEORG_C_C78_01");
-                    
-                    if (!Util.isNullOrEmpty(primaryOwner)) {
-                        owners.add(primaryOwner);
-                    }
-                    if (!Util.isNullOrEmpty(secondaryOwner)) {
-                        owners.add(secondaryOwner);
-                    }
-                    break;
-                }
-            }
-            
+            return new ArrayList<>(apiClient.getOrgUnitCatalog().getOwners(orgUnitId));
         } catch (Exception e) {
-            log.warn("Failed to get org unit owners for " + orgUnitId, e);
+            log.warn("Failed to get org unit owners for {}", orgUnitId, e);
+            return new ArrayList<>();
         }
-        
-        return owners;
     }
 }
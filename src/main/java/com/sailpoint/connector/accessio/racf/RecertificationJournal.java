@@ -0,0 +1,584 @@
+package com.sailpoint.connector.accessio.racf;
+
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Recertification Journal for Accessio RACF Integration
+ *
+ * Local write-ahead persistence for RecertificationManager state so that a
+ * task-server restart mid-campaign does not lose decisions:
+ * - Append-only journal of campaign and item state changes
+ * - Periodic compacted snapshots of the full state
+ * - Replay of snapshot plus journal on startup
+ *
+ * Files are kept in generations. Snapshot N contains the full state at the
+ * time journal N was started, so recovery reads the newest snapshot and the
+ * journal of the same generation. Each record is length-prefixed and CRC
+ * checked; a torn record at the end of the journal (crash mid-write) is
+ * discarded and the file truncated back to the last complete record.
+ * Strings are stored as length-prefixed UTF-8, so comments and exception
+ * reasons are not limited to the 64 KB of DataOutputStream.writeUTF.
+ *
+ * An append either commits all of its records or none: when a write or
+ * commit fails, the records it buffered are discarded and the journal file
+ * is truncated back to the last commit, so a later append cannot persist
+ * them by accident.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class RecertificationJournal implements Closeable {
+
+    private static final ConnectorLog log = ConnectorLog.getLog(RecertificationJournal.class);
+
+    private static final String SNAPSHOT_PREFIX = "recert-snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    private static final String JOURNAL_PREFIX = "recert-journal-";
+    private static final String JOURNAL_SUFFIX = ".log";
+
+    // Record types
+    private static final byte RECORD_CAMPAIGN = 'C';
+    private static final byte RECORD_ITEM = 'I';
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final File directory;
+    private final boolean syncOnWrite;
+    private final int compactionThreshold;
+
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(512);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+    private final CRC32 crc = new CRC32();
+
+    private long generation;
+    private FileOutputStream journalFile;
+    private DataOutputStream journalOut;
+    private long committedLength;
+    private IOException failure;
+    private long recordsSinceSnapshot;
+
+    /**
+     * Constructor
+     *
+     * @param directory directory holding snapshot and journal files
+     * @param syncOnWrite force journal writes to disk before returning
+     * @param compactionThreshold journal records after which a snapshot is due
+     */
+    public RecertificationJournal(File directory, boolean syncOnWrite, int compactionThreshold) throws IOException {
+        this.directory = directory;
+        this.syncOnWrite = syncOnWrite;
+        this.compactionThreshold = compactionThreshold;
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create recertification journal directory: " + directory);
+        }
+    }
+
+    /**
+     * Replay the newest snapshot and its journal, then open the journal for appending
+     */
+    public synchronized RecoveredState recover() throws IOException {
+        long startTime = System.currentTimeMillis();
+
+        generation = findLatestGeneration();
+        RecoveredState state = new RecoveredState();
+
+        File snapshot = snapshotFile(generation);
+        if (snapshot.exists()) {
+            replay(snapshot, state, false);
+        }
+
+        File journal = journalFile(generation);
+        if (journal.exists()) {
+            recordsSinceSnapshot = replay(journal, state, true);
+        }
+
+        deleteOlderGenerations(generation);
+        openJournal();
+
+        if (log.isInfoEnabled()) {
+            log.info("Recovered {} recertification campaigns and {} items (generation {}) in {} ms",
+                     state.getCampaigns().size(), state.getItems().size(), generation,
+                     System.currentTimeMillis() - startTime);
+        }
+        return state;
+    }
+
+    /**
+     * Journal a new campaign together with all of its items
+     */
+    public synchronized void appendCampaign(RecertificationManager.RecertificationCampaign campaign) throws IOException {
+        List<byte[]> records = new ArrayList<>(campaign.getItems().size() + 1);
+        records.add(encodeCampaign(campaign));
+        for (RecertificationManager.RecertificationItem item : campaign.getItems()) {
+            records.add(encodeItem(item));
+        }
+        append(records);
+    }
+
+    /**
+     * Journal a change to campaign status
+     */
+    public synchronized void appendCampaignUpdate(RecertificationManager.RecertificationCampaign campaign) throws IOException {
+        append(Collections.singletonList(encodeCampaign(campaign)));
+    }
+
+    /**
+     * Journal the current state of one item
+     */
+    public synchronized void appendItem(RecertificationManager.RecertificationItem item) throws IOException {
+        append(Collections.singletonList(encodeItem(item)));
+    }
+
+    /**
+     * Journal the current state of several items with a single commit.
+     * Every record is encoded and size checked before any is written, so an
+     * item that cannot be journaled leaves nothing of the batch behind.
+     */
+    public synchronized void appendItems(Collection<RecertificationManager.RecertificationItem> items) throws IOException {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> records = new ArrayList<>(items.size());
+        for (RecertificationManager.RecertificationItem item : items) {
+            records.add(encodeItem(item));
+        }
+        append(records);
+    }
+
+    /**
+     * Check whether enough journal records have accumulated to warrant a snapshot
+     */
+    public synchronized boolean isCompactionDue() {
+        return compactionThreshold > 0 && recordsSinceSnapshot >= compactionThreshold;
+    }
+
+    /**
+     * Write a compacted snapshot of the full state and start a new journal generation.
+     * The caller must ensure the state does not change while the snapshot is written.
+     */
+    public synchronized void compact(Collection<RecertificationManager.RecertificationCampaign> campaigns) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long nextGeneration = generation + 1;
+
+        File temp = new File(directory, SNAPSHOT_PREFIX + nextGeneration + ".tmp");
+        int records = 0;
+
+        FileOutputStream snapshotFile = new FileOutputStream(temp);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(snapshotFile, BUFFER_SIZE));
+            for (RecertificationManager.RecertificationCampaign campaign : campaigns) {
+                writeRecord(out, encodeCampaign(campaign));
+                records++;
+
+                for (RecertificationManager.RecertificationItem item : campaign.getItems()) {
+                    writeRecord(out, encodeItem(item));
+                    records++;
+                }
+            }
+            out.flush();
+            snapshotFile.getFD().sync();
+        } finally {
+            snapshotFile.close();
+        }
+
+        Files.move(temp.toPath(), snapshotFile(nextGeneration).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        closeJournal();
+        generation = nextGeneration;
+        recordsSinceSnapshot = 0;
+        openJournal();
+        deleteOlderGenerations(generation);
+
+        log.info("Recertification journal compacted into snapshot {} with {} records in {} ms",
+                 generation, records, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Close the journal
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeJournal();
+    }
+
+    /**
+     * Write and commit encoded records; on failure none of them stays in the journal
+     */
+    private void append(List<byte[]> records) throws IOException {
+        if (journalOut == null) {
+            throw new IOException("Recertification journal is unavailable", failure);
+        }
+        try {
+            for (byte[] record : records) {
+                writeRecord(journalOut, record);
+            }
+            commit();
+        } catch (IOException e) {
+            discardUncommitted(e);
+            throw e;
+        }
+        recordsSinceSnapshot += records.size();
+    }
+
+    private void commit() throws IOException {
+        journalOut.flush();
+        if (syncOnWrite) {
+            sync(journalFile);
+        }
+        committedLength = journalFile.getChannel().position();
+    }
+
+    /**
+     * Force journal writes to disk
+     */
+    void sync(FileOutputStream file) throws IOException {
+        file.getFD().sync();
+    }
+
+    /**
+     * Drop records buffered since the last commit and truncate the journal back to it.
+     * If the journal cannot be reopened every later append fails.
+     */
+    private void discardUncommitted(IOException cause) {
+        FileOutputStream file = journalFile;
+        journalOut = null;
+        journalFile = null;
+        try {
+            // Closing the file rather than the buffered stream, which would write out the buffer
+            file.close();
+        } catch (IOException e) {
+            log.debug("Failed to close recertification journal after write failure: {}", e.getMessage());
+        }
+
+        try {
+            FileChannel channel = new RandomAccessFile(journalFile(generation), "rw").getChannel();
+            try {
+                channel.truncate(committedLength);
+            } finally {
+                channel.close();
+            }
+            openJournal();
+            log.warn("Discarded uncommitted recertification journal records after write failure", cause);
+        } catch (IOException e) {
+            failure = e;
+            log.error("Recertification journal unavailable after write failure", e);
+        }
+    }
+
+    private void openJournal() throws IOException {
+        journalFile = new FileOutputStream(journalFile(generation), true);
+        journalOut = new DataOutputStream(new BufferedOutputStream(journalFile, BUFFER_SIZE));
+        committedLength = journalFile.getChannel().size();
+        failure = null;
+    }
+
+    private void closeJournal() throws IOException {
+        if (journalOut != null) {
+            try {
+                commit();
+            } finally {
+                journalOut.close();
+                journalOut = null;
+                journalFile = null;
+            }
+        }
+    }
+
+    private void writeRecord(DataOutputStream out, byte[] payload) throws IOException {
+        crc.reset();
+        crc.update(payload, 0, payload.length);
+
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+    }
+
+    /**
+     * Replay a snapshot or journal file into the recovered state
+     *
+     * @return number of records applied
+     */
+    private long replay(File file, RecoveredState state, boolean truncateTornTail) throws IOException {
+        long validLength = 0;
+        long records = 0;
+        boolean torn = false;
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
+        try {
+            byte[] payload = new byte[1024];
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (length < 0 || length > MAX_RECORD_SIZE) {
+                    torn = true;
+                    break;
+                }
+
+                int expectedCrc;
+                try {
+                    expectedCrc = in.readInt();
+                    if (payload.length < length) {
+                        payload = new byte[Math.max(length, payload.length * 2)];
+                    }
+                    in.readFully(payload, 0, length);
+                } catch (EOFException e) {
+                    torn = true;
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != expectedCrc) {
+                    torn = true;
+                    break;
+                }
+
+                applyRecord(new DataInputStream(new ByteArrayInputStream(payload, 0, length)), state);
+                validLength += 8 + length;
+                records++;
+            }
+        } finally {
+            in.close();
+        }
+
+        if (torn) {
+            if (!truncateTornTail) {
+                throw new IOException("Corrupt recertification snapshot: " + file);
+            }
+
+            log.warn("Discarding torn record at end of {} after {} records", file.getName(), records);
+            FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            try {
+                channel.truncate(validLength);
+            } finally {
+                channel.close();
+            }
+        }
+
+        return records;
+    }
+
+    private void applyRecord(DataInputStream in, RecoveredState state) throws IOException {
+        byte type = in.readByte();
+
+        if (type == RECORD_CAMPAIGN) {
+            String campaignId = readString(in);
+            RecertificationManager.RecertificationCampaign campaign = state.campaigns.get(campaignId);
+            if (campaign == null) {
+                campaign = new RecertificationManager.RecertificationCampaign();
+                campaign.setCampaignId(campaignId);
+                campaign.setItems(new ArrayList<RecertificationManager.RecertificationItem>());
+                state.campaigns.put(campaignId, campaign);
+            }
+            campaign.setCampaignType(readString(in));
+            campaign.setDescription(readString(in));
+            campaign.setStartDate(readDate(in));
+            campaign.setDueDate(readDate(in));
+            campaign.setCompletionDate(readDate(in));
+            campaign.setStatus(readString(in));
+
+        } else if (type == RECORD_ITEM) {
+            String itemId = readString(in);
+            RecertificationManager.RecertificationItem item = state.items.get(itemId);
+            boolean created = item == null;
+            if (created) {
+                item = new RecertificationManager.RecertificationItem();
+                item.setItemId(itemId);
+                state.items.put(itemId, item);
+            }
+            item.setCampaignId(readString(in));
+            item.setUserId(readString(in));
+            item.setRoleId(readString(in));
+            item.setRecertificationType(readString(in));
+            item.setStatus(readString(in));
+            item.setCreatedDate(readDate(in));
+            item.setDueDate(readDate(in));
+            item.setNextRecertificationDate(readDate(in));
+            item.setRevocationDate(readDate(in));
+            item.setCertifierId(readString(in));
+            item.setExceptionReason(readString(in));
+
+            if (in.readBoolean()) {
+                RecertificationManager.RecertificationDecision decision = new RecertificationManager.RecertificationDecision();
+                decision.setCertifierId(readString(in));
+                decision.setCertified(in.readBoolean());
+                decision.setComments(readString(in));
+                decision.setDecisionDate(readDate(in));
+                item.setDecision(decision);
+            } else {
+                item.setDecision(null);
+            }
+
+            if (created) {
+                RecertificationManager.RecertificationCampaign campaign =
+                        item.getCampaignId() != null ? state.campaigns.get(item.getCampaignId()) : null;
+                if (campaign != null) {
+                    campaign.getItems().add(item);
+                }
+            }
+
+        } else {
+            throw new IOException("Unknown recertification journal record type: " + type);
+        }
+    }
+
+    private byte[] encodeCampaign(RecertificationManager.RecertificationCampaign campaign) throws IOException {
+        recordBuffer.reset();
+        recordOut.writeByte(RECORD_CAMPAIGN);
+        writeString(recordOut, campaign.getCampaignId());
+        writeString(recordOut, campaign.getCampaignType());
+        writeString(recordOut, campaign.getDescription());
+        writeDate(recordOut, campaign.getStartDate());
+        writeDate(recordOut, campaign.getDueDate());
+        writeDate(recordOut, campaign.getCompletionDate());
+        writeString(recordOut, campaign.getStatus());
+        return encodedRecord();
+    }
+
+    private byte[] encodeItem(RecertificationManager.RecertificationItem item) throws IOException {
+        recordBuffer.reset();
+        recordOut.writeByte(RECORD_ITEM);
+        writeString(recordOut, item.getItemId());
+        writeString(recordOut, item.getCampaignId());
+        writeString(recordOut, item.getUserId());
+        writeString(recordOut, item.getRoleId());
+        writeString(recordOut, item.getRecertificationType());
+        writeString(recordOut, item.getStatus());
+        writeDate(recordOut, item.getCreatedDate());
+        writeDate(recordOut, item.getDueDate());
+        writeDate(recordOut, item.getNextRecertificationDate());
+        writeDate(recordOut, item.getRevocationDate());
+        writeString(recordOut, item.getCertifierId());
+        writeString(recordOut, item.getExceptionReason());
+
+        RecertificationManager.RecertificationDecision decision = item.getDecision();
+        recordOut.writeBoolean(decision != null);
+        if (decision != null) {
+            writeString(recordOut, decision.getCertifierId());
+            recordOut.writeBoolean(decision.isCertified());
+            writeString(recordOut, decision.getComments());
+            writeDate(recordOut, decision.getDecisionDate());
+        }
+        return encodedRecord();
+    }
+
+    private byte[] encodedRecord() throws IOException {
+        recordOut.flush();
+        if (recordBuffer.size() > MAX_RECORD_SIZE) {
+            // Replay would take a record this large for a torn tail and discard it
+            throw new IOException("Recertification journal record of " + recordBuffer.size() + " bytes exceeds " +
+                                  MAX_RECORD_SIZE);
+        }
+        return recordBuffer.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_RECORD_SIZE) {
+            throw new IOException("Corrupt recertification journal string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutputStream out, Date value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new Date(in.readLong()) : null;
+    }
+
+    private long findLatestGeneration() {
+        long latest = 0;
+        for (long candidate : listGenerations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            latest = Math.max(latest, candidate);
+        }
+        return latest;
+    }
+
+    private void deleteOlderGenerations(long current) {
+        for (long candidate : listGenerations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (candidate < current && !snapshotFile(candidate).delete()) {
+                log.warn("Could not delete obsolete snapshot {}", snapshotFile(candidate));
+            }
+        }
+        for (long candidate : listGenerations(JOURNAL_PREFIX, JOURNAL_SUFFIX)) {
+            if (candidate < current && !journalFile(candidate).delete()) {
+                log.warn("Could not delete obsolete journal {}", journalFile(candidate));
+            }
+        }
+    }
+
+    private List<Long> listGenerations(String prefix, String suffix) {
+        List<Long> generations = new ArrayList<>();
+        String[] names = directory.list();
+        if (names == null) {
+            return generations;
+        }
+
+        for (String name : names) {
+            if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                try {
+                    generations.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring unrecognised file in journal directory: {}", name);
+                }
+            }
+        }
+        return generations;
+    }
+
+    private File snapshotFile(long gen) {
+        return new File(directory, SNAPSHOT_PREFIX + gen + SNAPSHOT_SUFFIX);
+    }
+
+    private File journalFile(long gen) {
+        return new File(directory, JOURNAL_PREFIX + gen + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Recovered State inner class - campaigns and items rebuilt from disk
+     */
+    public static class RecoveredState {
+        private final Map<String, RecertificationManager.RecertificationCampaign> campaigns = new LinkedHashMap<>();
+        private final Map<String, RecertificationManager.RecertificationItem> items = new LinkedHashMap<>();
+
+        public Map<String, RecertificationManager.RecertificationCampaign> getCampaigns() { return campaigns; }
+
+        public Map<String, RecertificationManager.RecertificationItem> getItems() { return items; }
+    }
+}
@@ -1,9 +1,10 @@
 package com.sailpoint.connector.accessio.racf;
 
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
 import sailpoint.object.Configuration;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.text.SimpleDateFormat;
@@ -24,7 +25,7 @@ import java.text.ParseException;
  */
 public class RecertificationManager {
     
-    private static final Log log = LogFactory.getLog(RecertificationManager.class);
+    private static final ConnectorLog log = ConnectorLog.getLog(RecertificationManager.class);
     
     // Recertification status constants
     public static final String STATUS_PENDING = "PENDING";
@@ -46,6 +47,12 @@ public class RecertificationManager {
     private static final int DEFAULT_MONITOR_CYCLE = 90;   // 3 months
     private static final int DEFAULT_HIGH_PRIV_CYCLE = 90; // 3 months
     
+    // Journal configuration keys; persistence is disabled when no directory is configured
+    public static final String CONFIG_JOURNAL_DIRECTORY = "recertificationJournalDirectory";
+    public static final String CONFIG_JOURNAL_SYNC = "recertificationJournalSync";
+    public static final String CONFIG_JOURNAL_COMPACTION_THRESHOLD = "recertificationJournalCompactionThreshold";
+    private static final int DEFAULT_JOURNAL_COMPACTION_THRESHOLD = 100000;
+    
     private final GarancyAPIClient apiClient;
     private final RACFRoleManager roleManager;
     private final Configuration configuration;
@@ -54,20 +61,72 @@ public class RecertificationManager {
     private final Map<String, RecertificationCampaign> activeCampaigns = new ConcurrentHashMap<>();
     private final Map<String, RecertificationItem> recertificationItems = new ConcurrentHashMap<>();
     
+    // Incrementally maintained indexes (certifier -> pending item IDs, campaign -> status counters)
+    private final Map<String, Set<String>> pendingItemsByCertifier = new ConcurrentHashMap<>();
+    private final Map<String, CampaignStatistics> campaignStatistics = new ConcurrentHashMap<>();
+    
+    // Guards item status transitions so bulk decisions apply atomically
+    private final Object decisionLock = new Object();
+    
+    // Background, rate-limited execution of bulk revocations
+    private final RevocationEngine revocationEngine;
+    
+    // Write-ahead journal of campaign and item state, null when persistence is disabled
+    private final RecertificationJournal journal;
+    
     /**
      * Constructor
      */
     public RecertificationManager(GarancyAPIClient apiClient, RACFRoleManager roleManager, Configuration configuration) {
+        this(apiClient, roleManager, configuration, openJournal(configuration));
+    }
+    
+    /**
+     * Constructor with the journal to persist state to, or null to hold state in memory only
+     */
+    RecertificationManager(GarancyAPIClient apiClient, RACFRoleManager roleManager, Configuration configuration,
+                           RecertificationJournal journal) {
         this.apiClient = apiClient;
         this.roleManager = roleManager;
         this.configuration = configuration;
+        this.revocationEngine = new RevocationEngine(apiClient, configuration, new RevocationEngine.RevocationListener() {
+            @Override
+            public void onRevoked(RecertificationItem item) {
+                log.info("Access revoked for user {}, role {}", item.getUserId(), item.getRoleId());
+            }
+            
+            @Override
+            public void onRevocationFailed(RecertificationItem item, String reason) {
+                transitionItem(item, STATUS_EXCEPTION);
+                item.setExceptionReason(reason);
+            }
+            
+            @Override
+            public void onBatchCompleted(List<RecertificationItem> batch) {
+                // Checkpoint revocation outcomes once per batch; after a crash at most one batch is replayed
+                try {
+                    journalItems(batch);
+                } catch (IOException e) {
+                    log.error("Failed to checkpoint revocation batch of {} items", batch.size(), e);
+                }
+            }
+        });
+        this.journal = journal;
+        
+        if (journal != null) {
+            try {
+                restoreState(journal.recover());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to recover recertification state", e);
+            }
+        }
     }
     
     /**
      * Start a new recertification campaign
      */
     public String startRecertificationCampaign(String campaignType, String description, Date dueDate) throws Exception {
-        log.info("Starting recertification campaign: " + campaignType);
+        log.info("Starting recertification campaign: {}", campaignType);
         
         String campaignId = generateCampaignId();
         
@@ -79,21 +138,35 @@ public class RecertificationManager {
         campaign.setDueDate(dueDate);
         campaign.setStatus(STATUS_PENDING);
         
+        // Use the role manager's shared catalog and connection index so item generation
+        // resolves roles, owners and holders in memory
+        RoleCatalogSnapshot roleCatalog = roleManager.getRoleCatalog();
+        RoleConnectionIndex connectionIndex = roleManager.getRoleConnectionIndex();
+        
         // Generate recertification items based on campaign type
-        List<RecertificationItem> items = generateRecertificationItems(campaignType);
+        List<RecertificationItem> items = generateRecertificationItems(campaignType, roleCatalog, connectionIndex);
         campaign.setItems(items);
         
-        // Store items in tracking map
+        // Store items in tracking map and seed the indexes
+        CampaignStatistics statistics = new CampaignStatistics(items.size());
         for (RecertificationItem item : items) {
+            item.setCampaignId(campaignId);
             recertificationItems.put(item.getItemId(), item);
+            indexPendingItem(item);
         }
         
+        campaignStatistics.put(campaignId, statistics);
         activeCampaigns.put(campaignId, campaign);
         
+        if (journal != null) {
+            journal.appendCampaign(campaign);
+            compactJournalIfDue();
+        }
+        
         // Send notifications to certifiers
         sendCampaignNotifications(campaign);
         
-        log.info("Recertification campaign started with " + items.size() + " items: " + campaignId);
+        log.info("Recertification campaign started with {} items: {}", items.size(), campaignId);
         return campaignId;
     }
     
@@ -101,16 +174,15 @@ public class RecertificationManager {
      * Process recertification decision
      */
     public boolean processRecertificationDecision(String itemId, String certifierId, boolean certified, String comments) throws Exception {
-        log.info("Processing recertification decision for item " + itemId + " by " + certifierId + ": " + certified);
+        log.info("Processing recertification decision for item {} by {}: {}", itemId, certifierId, certified);
         
-        RecertificationItem item = recertificationItems.get(itemId);
+        RecertificationItem item = itemId != null ? recertificationItems.get(itemId) : null;
         if (item == null) {
-            log.warn("Recertification item not found: " + itemId);
+            log.warn("Recertification item not found: {}", itemId);
             return false;
         }
-        
-        if (!STATUS_PENDING.equals(item.getStatus())) {
-            log.warn("Recertification item is not in pending status: " + itemId);
+        if (certifierId == null || !certifierId.equals(item.getCertifierId())) {
+            log.warn("Recertification item {} is not assigned to certifier {}", itemId, certifierId);
             return false;
         }
         
@@ -121,21 +193,33 @@ public class RecertificationManager {
         decision.setComments(comments);
         decision.setDecisionDate(new Date());
         
-        item.setDecision(decision);
+        RecertificationDecision previousDecision = item.getDecision();
+        Date previousNextRecertificationDate = item.getNextRecertificationDate();
+        if (!transitionPendingItem(item, certified ? STATUS_CERTIFIED : STATUS_REVOKED)) {
+            log.warn("Recertification item is not in pending status: {}", itemId);
+            return false;
+        }
         
+        item.setDecision(decision);
         if (certified) {
-            item.setStatus(STATUS_CERTIFIED);
             item.setNextRecertificationDate(calculateNextRecertificationDate(item.getRecertificationType()));
-            
-            log.info("Access certified for user " + item.getUserId() + ", role " + item.getRoleId());
+        }
+        
+        try {
+            journalItem(item);
+        } catch (IOException e) {
+            revertDecision(item, previousDecision, previousNextRecertificationDate);
+            throw e;
+        }
+        
+        if (certified) {
+            log.info("Access certified for user {}, role {}", item.getUserId(), item.getRoleId());
             
         } else {
-            item.setStatus(STATUS_REVOKED);
+            // The decision is journaled before queueing so a revocation interrupted by a restart is resumed
+            submitRevocations(Collections.singletonList(item));
             
-            // Execute revocation
-            executeAccessRevocation(item);
-            
-            log.info("Access revoked for user " + item.getUserId() + ", role " + item.getRoleId());
+            log.info("Access revocation queued for user {}, role {}", item.getUserId(), item.getRoleId());
         }
         
         // Update campaign progress
@@ -144,15 +228,158 @@ public class RecertificationManager {
         return true;
     }
     
+    /**
+     * Process many recertification decisions at once.
+     * 
+     * All decisions are validated and applied to the in-memory state under a single lock; if any
+     * item is unknown, no longer pending or assigned to another certifier, none are applied. Campaign progress is updated once per
+     * affected campaign and revocations are handed to the rate-limited revocation engine.
+     * A null or empty list applies nothing; a decision without an item id is rejected.
+     */
+    public BulkDecisionResult processBulkRecertificationDecisions(String certifierId, List<ItemDecision> decisions) {
+        if (decisions == null || decisions.isEmpty()) {
+            return new BulkDecisionResult();
+        }
+        log.info("Processing {} bulk recertification decisions by {}", decisions.size(), certifierId);
+        
+        BulkDecisionResult result = new BulkDecisionResult();
+        List<RecertificationItem> revocations = new ArrayList<>();
+        Set<String> affectedCampaigns = new HashSet<>();
+        Date decisionDate = new Date();
+        
+        synchronized (decisionLock) {
+            // Validate the whole batch before changing anything
+            List<RecertificationItem> items = new ArrayList<>(decisions.size());
+            Set<String> seenItemIds = new HashSet<>();
+            for (ItemDecision itemDecision : decisions) {
+                String itemId = itemDecision != null ? itemDecision.getItemId() : null;
+                RecertificationItem item = itemId != null ? recertificationItems.get(itemId) : null;
+                if (item == null || !STATUS_PENDING.equals(item.getStatus()) ||
+                    certifierId == null || !certifierId.equals(item.getCertifierId()) ||
+                    !seenItemIds.add(itemId)) {
+                    result.addRejectedItem(itemId);
+                }
+                items.add(item);
+            }
+            
+            if (!result.getRejectedItemIds().isEmpty()) {
+                log.warn("Bulk decision rejected, {} items not pending for this certifier", result.getRejectedItemIds().size());
+                return result;
+            }
+            
+            // Apply all decisions, keeping what they replace in case the journal write fails
+            List<RecertificationDecision> previousDecisions = new ArrayList<>(items.size());
+            List<Date> previousNextRecertificationDates = new ArrayList<>(items.size());
+            for (int i = 0; i < decisions.size(); i++) {
+                ItemDecision itemDecision = decisions.get(i);
+                RecertificationItem item = items.get(i);
+                previousDecisions.add(item.getDecision());
+                previousNextRecertificationDates.add(item.getNextRecertificationDate());
+                
+                RecertificationDecision decision = new RecertificationDecision();
+                decision.setCertifierId(certifierId);
+                decision.setCertified(itemDecision.isCertified());
+                decision.setComments(itemDecision.getComments());
+                decision.setDecisionDate(decisionDate);
+                
+                transitionItem(item, itemDecision.isCertified() ? STATUS_CERTIFIED : STATUS_REVOKED);
+                item.setDecision(decision);
+                
+                if (itemDecision.isCertified()) {
+                    item.setNextRecertificationDate(calculateNextRecertificationDate(item.getRecertificationType()));
+                    result.incrementCertified();
+                } else {
+                    revocations.add(item);
+                    result.incrementRevoked();
+                }
+                
+                if (item.getCampaignId() != null) {
+                    affectedCampaigns.add(item.getCampaignId());
+                }
+            }
+            
+            try {
+                journalItems(items);
+            } catch (IOException e) {
+                for (int i = 0; i < items.size(); i++) {
+                    revertDecision(items.get(i), previousDecisions.get(i), previousNextRecertificationDates.get(i));
+                }
+                throw new IllegalStateException("Failed to journal bulk recertification decisions", e);
+            }
+        }
+        
+        submitRevocations(revocations);
+        
+        for (String campaignId : affectedCampaigns) {
+            updateCampaignProgress(campaignId);
+        }
+        
+        log.info("Bulk decision applied: {} certified, {} revoked", result.getCertifiedCount(), result.getRevokedCount());
+        return result;
+    }
+    
+    /**
+     * Certify every item still pending for a certifier
+     */
+    public BulkDecisionResult certifyAllRemaining(String certifierId, String comments) {
+        synchronized (decisionLock) {
+            List<ItemDecision> decisions = new ArrayList<>();
+            for (RecertificationItem item : getPendingRecertifications(certifierId)) {
+                decisions.add(new ItemDecision(item.getItemId(), true, comments));
+            }
+            
+            return processBulkRecertificationDecisions(certifierId, decisions);
+        }
+    }
+    
+    /**
+     * Get the engine executing bulk revocations
+     */
+    public RevocationEngine getRevocationEngine() {
+        return revocationEngine;
+    }
+    
+    /**
+     * Write a compacted snapshot of all campaigns and start a new journal
+     */
+    public void compactJournal() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        synchronized (decisionLock) {
+            journal.compact(activeCampaigns.values());
+        }
+    }
+    
+    /**
+     * Stop background revocations and close the journal
+     */
+    public void shutdown() {
+        revocationEngine.shutdown();
+        
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                log.error("Failed to close recertification journal", e);
+            }
+        }
+    }
+    
     /**
      * Get pending recertification items for certifier
      */
     public List<RecertificationItem> getPendingRecertifications(String certifierId) {
         List<RecertificationItem> pendingItems = new ArrayList<>();
         
-        for (RecertificationItem item : recertificationItems.values()) {
-            if (STATUS_PENDING.equals(item.getStatus()) && 
-                certifierId.equals(item.getCertifierId())) {
+        Set<String> itemIds = pendingItemsByCertifier.get(certifierId);
+        if (itemIds == null) {
+            return pendingItems;
+        }
+        
+        for (String itemId : itemIds) {
+            RecertificationItem item = recertificationItems.get(itemId);
+            if (item != null && STATUS_PENDING.equals(item.getStatus())) {
                 pendingItems.add(item);
             }
         }
@@ -167,6 +394,14 @@ public class RecertificationManager {
         return activeCampaigns.get(campaignId);
     }
     
+    /**
+     * Get status counters for a campaign
+     */
+    public CampaignStatistics getCampaignStatistics(String campaignId) {
+        CampaignStatistics statistics = campaignStatistics.get(campaignId);
+        return statistics != null ? statistics : new CampaignStatistics(0);
+    }
+    
     /**
      * Get all active campaigns
      */
@@ -175,42 +410,60 @@ public class RecertificationManager {
     }
     
     /**
-     * Process expired recertifications
+     * Process expired recertifications.
+     * 
+     * Expired high-privilege access is handed to the rate-limited revocation engine rather than
+     * revoked inline, so a mass expiry does not fire thousands of back-to-back Garancy calls.
      */
     public void processExpiredRecertifications() throws Exception {
         log.info("Processing expired recertifications");
         
         Date now = new Date();
-        int expiredCount = 0;
+        List<RecertificationItem> expiredItems = new ArrayList<>();
+        List<RecertificationItem> revocations = new ArrayList<>();
+        Set<String> affectedCampaigns = new HashSet<>();
         
         for (RecertificationItem item : recertificationItems.values()) {
             if (STATUS_PENDING.equals(item.getStatus()) && 
-                item.getDueDate().before(now)) {
+                item.getDueDate().before(now) &&
+                transitionPendingItem(item, STATUS_EXPIRED)) {
                 
-                item.setStatus(STATUS_EXPIRED);
+                expiredItems.add(item);
+                if (item.getCampaignId() != null) {
+                    affectedCampaigns.add(item.getCampaignId());
+                }
                 
                 // Auto-revoke expired high-privilege access
-                if (TYPE_GUARDIAN.equals(item.getRecertificationType()) ||
-                    TYPE_MONITOR.equals(item.getRecertificationType()) ||
-                    TYPE_HIGH_PRIVILEGE.equals(item.getRecertificationType())) {
-                    
-                    executeAccessRevocation(item);
-                    log.warn("Auto-revoked expired high-privilege access: " + 
-                            item.getUserId() + " - " + item.getRoleId());
+                if (requiresRevocation(item)) {
+                    revocations.add(item);
+                    log.warn("Auto-revoking expired high-privilege access: {} - {}", item.getUserId(), item.getRoleId());
                 }
-                
-                expiredCount++;
             }
         }
         
-        log.info("Processed " + expiredCount + " expired recertifications");
+        // Journal the expiries before queueing so the revocations survive a restart
+        try {
+            journalItems(expiredItems);
+        } catch (IOException e) {
+            for (RecertificationItem item : expiredItems) {
+                revertDecision(item, item.getDecision(), item.getNextRecertificationDate());
+            }
+            throw e;
+        }
+        submitRevocations(revocations);
+        
+        for (String campaignId : affectedCampaigns) {
+            updateCampaignProgress(campaignId);
+        }
+        
+        log.info("Processed {} expired recertifications, {} revocations queued", expiredItems.size(), revocations.size());
     }
     
     /**
      * Generate compliance report
      */
     public Map<String, Object> generateComplianceReport(String campaignId) {
-        log.info("Generating compliance report for campaign: " + campaignId);
+        log.info("Generating compliance report for campaign: {}", campaignId);
         
         RecertificationCampaign campaign = activeCampaigns.get(campaignId);
         if (campaign == null) {
@@ -223,29 +476,13 @@ public class RecertificationManager {
         report.put("startDate", campaign.getStartDate());
         report.put("dueDate", campaign.getDueDate());
         
-        // Calculate statistics
-        int totalItems = campaign.getItems().size();
-        int certifiedItems = 0;
-        int revokedItems = 0;
-        int pendingItems = 0;
-        int expiredItems = 0;
-        
-        for (RecertificationItem item : campaign.getItems()) {
-            switch (item.getStatus()) {
-                case STATUS_CERTIFIED:
-                    certifiedItems++;
-                    break;
-                case STATUS_REVOKED:
-                    revokedItems++;
-                    break;
-                case STATUS_PENDING:
-                    pendingItems++;
-                    break;
-                case STATUS_EXPIRED:
-                    expiredItems++;
-                    break;
-            }
-        }
+        // Read statistics from the maintained campaign counters
+        CampaignStatistics statistics = getCampaignStatistics(campaignId);
+        int totalItems = statistics.getTotalItems();
+        int certifiedItems = statistics.getCount(STATUS_CERTIFIED);
+        int revokedItems = statistics.getCount(STATUS_REVOKED);
+        int pendingItems = statistics.getCount(STATUS_PENDING);
+        int expiredItems = statistics.getCount(STATUS_EXPIRED);
         
         report.put("totalItems", totalItems);
         report.put("certifiedItems", certifiedItems);
@@ -270,7 +507,7 @@ public class RecertificationManager {
         }
         report.put("riskLevel", riskLevel);
         
-        log.info("Compliance report generated: " + report);
+        log.info("Compliance report generated: {}", report);
         return report;
     }
     
@@ -306,27 +543,114 @@ public class RecertificationManager {
         log.info("Automatic campaigns scheduled");
     }
     
+    /**
+     * Recertification task entry point: expire overdue items, then start one
+     * campaign per requested type that is due. Types may be given as TYPE_*
+     * constants or as the task's display names (Periodic, Guardian, Monitor,
+     * High-Privilege). A type is skipped while a campaign of that type still
+     * has pending items, or until its cycle has passed since the last one started.
+     *
+     * @return campaign type to started campaign ID
+     */
+    public Map<String, String> runRecertificationCycle(Collection<String> campaignTypes) throws Exception {
+        log.info("Running recertification cycle for {}", campaignTypes);
+        
+        processExpiredRecertifications();
+        
+        Date now = new Date();
+        Map<String, String> startedCampaigns = new LinkedHashMap<>();
+        for (String requestedType : campaignTypes) {
+            String campaignType = toCampaignType(requestedType);
+            if (campaignType == null) {
+                log.warn("Skipping unknown recertification campaign type: {}", requestedType);
+                continue;
+            }
+            
+            String notDueReason = getNotDueReason(campaignType, now);
+            if (notDueReason != null) {
+                log.info("Skipping {} recertification campaign: {}", campaignType, notDueReason);
+                continue;
+            }
+            
+            String campaignId = startRecertificationCampaign(campaignType,
+                    requestedType + " Access Recertification", calculateDueDate(campaignType));
+            startedCampaigns.put(campaignType, campaignId);
+        }
+        
+        return startedCampaigns;
+    }
+    
+    /**
+     * Get why no campaign of the type is due, or null if one should start
+     */
+    private String getNotDueReason(String campaignType, Date now) {
+        RecertificationCampaign latest = null;
+        for (RecertificationCampaign campaign : activeCampaigns.values()) {
+            if (!campaignType.equals(campaign.getCampaignType())) {
+                continue;
+            }
+            if (getCampaignStatistics(campaign.getCampaignId()).getCount(STATUS_PENDING) > 0) {
+                return "campaign " + campaign.getCampaignId() + " is still open";
+            }
+            if (latest == null || campaign.getStartDate().after(latest.getStartDate())) {
+                latest = campaign;
+            }
+        }
+        
+        // Emergency campaigns are started on demand and have no cycle
+        if (latest == null || TYPE_EMERGENCY.equals(campaignType)) {
+            return null;
+        }
+        
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(latest.getStartDate());
+        cal.add(Calendar.DAY_OF_YEAR, getCycleDays(campaignType));
+        return cal.getTime().after(now) ? "next campaign due " + cal.getTime() : null;
+    }
+    
+    /**
+     * Map a campaign type name from task configuration to a TYPE_* constant, or null if unknown
+     */
+    public static String toCampaignType(String name) {
+        if (name == null) {
+            return null;
+        }
+        
+        String normalized = name.trim().toUpperCase().replace('-', '_').replace(' ', '_');
+        switch (normalized) {
+            case TYPE_PERIODIC:
+            case TYPE_GUARDIAN:
+            case TYPE_MONITOR:
+            case TYPE_HIGH_PRIVILEGE:
+            case TYPE_EMERGENCY:
+                return normalized;
+            default:
+                return null;
+        }
+    }
+    
     /**
      * Generate recertification items based on campaign type
      */
-    private List<RecertificationItem> generateRecertificationItems(String campaignType) throws Exception {
+    private List<RecertificationItem> generateRecertificationItems(String campaignType, RoleCatalogSnapshot roleCatalog,
+                                                                   RoleConnectionIndex connectionIndex) {
         List<RecertificationItem> items = new ArrayList<>();
         
         switch (campaignType) {
             case TYPE_PERIODIC:
-                items.addAll(generatePeriodicItems());
+                items.addAll(generatePeriodicItems(roleCatalog, connectionIndex));
                 break;
             case TYPE_GUARDIAN:
-                items.addAll(generateGuardianItems());
+                items.addAll(generateGuardianItems(roleCatalog, connectionIndex));
                 break;
             case TYPE_MONITOR:
-                items.addAll(generateMonitorItems());
+                items.addAll(generateMonitorItems(roleCatalog, connectionIndex));
                 break;
             case TYPE_HIGH_PRIVILEGE:
-                items.addAll(generateHighPrivilegeItems());
+                items.addAll(generateHighPrivilegeItems(roleCatalog, connectionIndex));
                 break;
             default:
-                log.warn("Unknown campaign type: " + campaignType);
+                log.warn("Unknown campaign type: {}", campaignType);
         }
         
         return items;
@@ -335,18 +659,13 @@ public class RecertificationManager {
     /**
      * Generate periodic recertification items
      */
-    private List<RecertificationItem> generatePeriodicItems() throws Exception {
+    private List<RecertificationItem> generatePeriodicItems(RoleCatalogSnapshot roleCatalog, RoleConnectionIndex connectionIndex) {
         List<RecertificationItem> items = new ArrayList<>();
         
-        // Get all role-user connections
-        List<Map<String, Object>> connections = apiClient.listRoleUserConnections();
-        
-        for (Map<String, Object> connection : connections) {
-            String userId = (String) connection.get("BASEUS_SAM_ID");
-            String roleId = (String) connection.get("BASEUSRC_ROLE");
-            
-            if (userId != null && roleId != null) {
-                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_PERIODIC);
+        // Every role-user connection
+        for (Map.Entry<String, List<String>> entry : connectionIndex.getUsersByRole().entrySet()) {
+            for (String userId : entry.getValue()) {
+                RecertificationItem item = createRecertificationItem(userId, entry.getKey(), TYPE_PERIODIC, roleCatalog);
                 items.add(item);
             }
         }
@@ -357,17 +676,17 @@ public class RecertificationManager {
     /**
      * Generate Guardian role recertification items
      */
-    private List<RecertificationItem> generateGuardianItems() throws Exception {
+    private List<RecertificationItem> generateGuardianItems(RoleCatalogSnapshot roleCatalog, RoleConnectionIndex connectionIndex) {
         List<RecertificationItem> items = new ArrayList<>();
         
-        List<Map<String, Object>> guardianRoles = roleManager.getRolesByType(RACFRoleManager.ROLE_TYPE_GUARDIAN);
+        List<Map<String, Object>> guardianRoles = roleCatalog.getRolesByType(RACFRoleManager.ROLE_TYPE_GUARDIAN);
         
         for (Map<String, Object> role : guardianRoles) {
             String roleId = (String) role.get("BASEUSRC_ROLE");
-            List<String> users = roleManager.getUsersForRole(roleId);
+            List<String> users = connectionIndex.getUsersForRole(roleId);
             
             for (String userId : users) {
-                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_GUARDIAN);
+                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_GUARDIAN, roleCatalog);
                 items.add(item);
             }
         }
@@ -378,17 +697,17 @@ public class RecertificationManager {
     /**
      * Generate Monitor role recertification items
      */
-    private List<RecertificationItem> generateMonitorItems() throws Exception {
+    private List<RecertificationItem> generateMonitorItems(RoleCatalogSnapshot roleCatalog, RoleConnectionIndex connectionIndex) {
         List<RecertificationItem> items = new ArrayList<>();
         
-        List<Map<String, Object>> monitorRoles = roleManager.getRolesByType(RACFRoleManager.ROLE_TYPE_MONITOR);
+        List<Map<String, Object>> monitorRoles = roleCatalog.getRolesByType(RACFRoleManager.ROLE_TYPE_MONITOR);
         
         for (Map<String, Object> role : monitorRoles) {
             String roleId = (String) role.get("BASEUSRC_ROLE");
-            List<String> users = roleManager.getUsersForRole(roleId);
+            List<String> users = connectionIndex.getUsersForRole(roleId);
             
             for (String userId : users) {
-                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_MONITOR);
+                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_MONITOR, roleCatalog);
                 items.add(item);
             }
         }
@@ -399,17 +718,17 @@ public class RecertificationManager {
     /**
      * Generate high-privilege recertification items
      */
-    private List<RecertificationItem> generateHighPrivilegeItems() throws Exception {
+    private List<RecertificationItem> generateHighPrivilegeItems(RoleCatalogSnapshot roleCatalog, RoleConnectionIndex connectionIndex) {
         List<RecertificationItem> items = new ArrayList<>();
         
-        List<Map<String, Object>> highPrivRoles = roleManager.getRolesRequiringRecertification();
+        List<Map<String, Object>> highPrivRoles = roleCatalog.getRolesRequiringRecertification();
         
         for (Map<String, Object> role : highPrivRoles) {
             String roleId = (String) role.get("BASEUSRC_ROLE");
-            List<String> users = roleManager.getUsersForRole(roleId);
+            List<String> users = connectionIndex.getUsersForRole(roleId);
             
             for (String userId : users) {
-                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_HIGH_PRIVILEGE);
+                RecertificationItem item = createRecertificationItem(userId, roleId, TYPE_HIGH_PRIVILEGE, roleCatalog);
                 items.add(item);
             }
         }
@@ -420,7 +739,8 @@ public class RecertificationManager {
     /**
      * Create recertification item
      */
-    private RecertificationItem createRecertificationItem(String userId, String roleId, String recertificationType) throws Exception {
+    private RecertificationItem createRecertificationItem(String userId, String roleId, String recertificationType,
+                                                          RoleCatalogSnapshot roleCatalog) {
         RecertificationItem item = new RecertificationItem();
         item.setItemId(generateItemId());
         item.setUserId(userId);
@@ -430,62 +750,259 @@ public class RecertificationManager {
         item.setCreatedDate(new Date());
         item.setDueDate(calculateDueDate(recertificationType));
         
-        // Determine certifier based on role ownership
-        Map<String, Object> roleOwnership = roleManager.getRoleOwnership(roleId);
-        if (roleOwnership != null) {
-            String ownerEmail = (String) roleOwnership.get("ownerEmail");
-            if (ownerEmail != null) {
-                item.setCertifierId(ownerEmail);
-            }
+        // Determine certifier based on role ownership from the campaign's catalog snapshot
+        String ownerEmail = roleCatalog.getCertifier(roleId);
+        if (ownerEmail != null) {
+            item.setCertifierId(ownerEmail);
         }
         
         return item;
     }
     
     /**
-     * Execute access revocation
+     * Check whether an item's decided status calls for its access to be removed
      */
-    private void executeAccessRevocation(RecertificationItem item) throws Exception {
-        log.info("Executing access revocation for user " + item.getUserId() + ", role " + item.getRoleId());
+    private boolean requiresRevocation(RecertificationItem item) {
+        if (STATUS_REVOKED.equals(item.getStatus())) {
+            return true;
+        }
+        return STATUS_EXPIRED.equals(item.getStatus()) &&
+               (TYPE_GUARDIAN.equals(item.getRecertificationType()) ||
+                TYPE_MONITOR.equals(item.getRecertificationType()) ||
+                TYPE_HIGH_PRIVILEGE.equals(item.getRecertificationType()));
+    }
+    
+    /**
+     * Open the journal if a directory is configured
+     */
+    private static RecertificationJournal openJournal(Configuration configuration) {
+        String directory = configuration != null ? configuration.getString(CONFIG_JOURNAL_DIRECTORY) : null;
+        if (directory == null || directory.trim().isEmpty()) {
+            log.debug("Recertification journal not configured, state is held in memory only");
+            return null;
+        }
+        
+        int threshold = configuration.getInt(CONFIG_JOURNAL_COMPACTION_THRESHOLD, DEFAULT_JOURNAL_COMPACTION_THRESHOLD);
+        String sync = configuration.getString(CONFIG_JOURNAL_SYNC);
+        boolean syncOnWrite = sync == null || Boolean.parseBoolean(sync);
         
         try {
-            apiClient.removeRoleConnection(item.getUserId(), item.getRoleId());
-            item.setRevocationDate(new Date());
+            return new RecertificationJournal(new File(directory), syncOnWrite,
+                    threshold > 0 ? threshold : DEFAULT_JOURNAL_COMPACTION_THRESHOLD);
             
-        } catch (Exception e) {
-            log.error("Failed to revoke access", e);
-            item.setStatus(STATUS_EXCEPTION);
-            item.setExceptionReason(e.getMessage());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open recertification journal in " + directory, e);
         }
     }
     
     /**
-     * Update campaign progress
+     * Rebuild the in-memory maps, indexes and counters from recovered state and
+     * resume revocations that had been decided but not yet executed
      */
-    private void updateCampaignProgress(String campaignId) {
-        RecertificationCampaign campaign = activeCampaigns.get(campaignId);
-        if (campaign == null) {
-            return;
+    private void restoreState(RecertificationJournal.RecoveredState state) {
+        List<RecertificationItem> interruptedRevocations = new ArrayList<>();
+        
+        for (RecertificationItem item : state.getItems().values()) {
+            recertificationItems.put(item.getItemId(), item);
+            if (STATUS_PENDING.equals(item.getStatus())) {
+                indexPendingItem(item);
+            } else if (requiresRevocation(item) && item.getRevocationDate() == null) {
+                interruptedRevocations.add(item);
+            }
         }
         
-        int totalItems = campaign.getItems().size();
-        int completedItems = 0;
+        for (RecertificationCampaign campaign : state.getCampaigns().values()) {
+            CampaignStatistics statistics = new CampaignStatistics(campaign.getItems().size());
+            for (RecertificationItem item : campaign.getItems()) {
+                if (!STATUS_PENDING.equals(item.getStatus())) {
+                    statistics.recordTransition(STATUS_PENDING, item.getStatus());
+                }
+            }
+            campaignStatistics.put(campaign.getCampaignId(), statistics);
+            activeCampaigns.put(campaign.getCampaignId(), campaign);
+            
+            int totalItems = statistics.getTotalItems();
+            int completedItems = totalItems - statistics.getCount(STATUS_PENDING);
+            campaign.setCompletedItems(completedItems);
+            campaign.setProgress(totalItems > 0 ? (double) completedItems / totalItems * 100 : 100.0);
+        }
         
-        for (RecertificationItem item : campaign.getItems()) {
+        if (!interruptedRevocations.isEmpty()) {
+            log.warn("Resuming {} revocations interrupted by restart", interruptedRevocations.size());
+            revocationEngine.submit(interruptedRevocations);
+        }
+    }
+    
+    /**
+     * Queue journaled revocations. Once the engine has been shut down the decisions stay
+     * committed and the journal resumes the revocations on the next start.
+     */
+    private void submitRevocations(List<RecertificationItem> revocations) {
+        try {
+            revocationEngine.submit(revocations);
+        } catch (IllegalStateException e) {
+            if (journal != null) {
+                log.warn("Revocation engine shut down, {} revocations resume after restart", revocations.size());
+            } else {
+                log.error("Revocation engine shut down, {} revocations not executed", revocations.size());
+            }
+        }
+    }
+    
+    /**
+     * Append the current state of an item to the journal
+     */
+    private void journalItem(RecertificationItem item) throws IOException {
+        if (journal != null) {
+            journal.appendItem(item);
+            compactJournalIfDue();
+        }
+    }
+    
+    /**
+     * Append the current state of several items to the journal with a single commit
+     */
+    private void journalItems(Collection<RecertificationItem> items) throws IOException {
+        if (journal != null && !items.isEmpty()) {
+            journal.appendItems(items);
+            compactJournalIfDue();
+        }
+    }
+    
+    /**
+     * Write a compacted snapshot once enough journal records have accumulated.
+     * The records are already committed, so a failed snapshot is only logged and
+     * retried after the next write.
+     */
+    private void compactJournalIfDue() {
+        if (journal.isCompactionDue()) {
+            synchronized (decisionLock) {
+                if (journal.isCompactionDue()) {
+                    try {
+                        journal.compact(activeCampaigns.values());
+                    } catch (IOException e) {
+                        log.warn("Failed to compact recertification journal", e);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Atomically move a pending item to a decided status, updating the indexes.
+     * Returns false if the item was no longer pending.
+     */
+    private boolean transitionPendingItem(RecertificationItem item, String newStatus) {
+        synchronized (decisionLock) {
             if (!STATUS_PENDING.equals(item.getStatus())) {
-                completedItems++;
+                return false;
             }
+            transitionItem(item, newStatus);
+            return true;
+        }
+    }
+    
+    /**
+     * Put a decided item back to pending after its decision could not be journaled
+     */
+    private void revertDecision(RecertificationItem item, RecertificationDecision previousDecision,
+                                Date previousNextRecertificationDate) {
+        synchronized (decisionLock) {
+            transitionItem(item, STATUS_PENDING);
+            item.setDecision(previousDecision);
+            item.setNextRecertificationDate(previousNextRecertificationDate);
+        }
+    }
+    
+    /**
+     * Change item status and keep the certifier and campaign indexes in step
+     */
+    private void transitionItem(RecertificationItem item, String newStatus) {
+        synchronized (decisionLock) {
+            String oldStatus = item.getStatus();
+            if (newStatus.equals(oldStatus)) {
+                return;
+            }
+            
+            item.setStatus(newStatus);
+            
+            if (STATUS_PENDING.equals(oldStatus)) {
+                unindexPendingItem(item);
+            } else if (STATUS_PENDING.equals(newStatus)) {
+                indexPendingItem(item);
+            }
+            
+            CampaignStatistics statistics = item.getCampaignId() != null ?
+                    campaignStatistics.get(item.getCampaignId()) : null;
+            if (statistics != null) {
+                statistics.recordTransition(oldStatus, newStatus);
+            }
+        }
+    }
+    
+    /**
+     * Add a pending item to the certifier index
+     */
+    private void indexPendingItem(RecertificationItem item) {
+        if (item.getCertifierId() == null) {
+            return;
+        }
+        
+        Set<String> itemIds = pendingItemsByCertifier.get(item.getCertifierId());
+        if (itemIds == null) {
+            Set<String> created = ConcurrentHashMap.newKeySet();
+            itemIds = pendingItemsByCertifier.putIfAbsent(item.getCertifierId(), created);
+            if (itemIds == null) {
+                itemIds = created;
+            }
+        }
+        itemIds.add(item.getItemId());
+    }
+    
+    /**
+     * Remove an item from the certifier index once it leaves pending status
+     */
+    private void unindexPendingItem(RecertificationItem item) {
+        if (item.getCertifierId() == null) {
+            return;
         }
         
+        Set<String> itemIds = pendingItemsByCertifier.get(item.getCertifierId());
+        if (itemIds != null) {
+            itemIds.remove(item.getItemId());
+        }
+    }
+    
+    /**
+     * Update campaign progress
+     */
+    private void updateCampaignProgress(String campaignId) {
+        RecertificationCampaign campaign = campaignId != null ? activeCampaigns.get(campaignId) : null;
+        if (campaign == null) {
+            return;
+        }
+        
+        CampaignStatistics statistics = getCampaignStatistics(campaignId);
+        int totalItems = statistics.getTotalItems();
+        int completedItems = totalItems - statistics.getCount(STATUS_PENDING);
+        
         campaign.setCompletedItems(completedItems);
-        campaign.setProgress((double) completedItems / totalItems * 100);
+        campaign.setProgress(totalItems > 0 ? (double) completedItems / totalItems * 100 : 100.0);
         
         // Check if campaign is complete
-        if (completedItems == totalItems) {
+        if (completedItems == totalItems && !STATUS_CERTIFIED.equals(campaign.getStatus())) {
             campaign.setStatus(STATUS_CERTIFIED);
             campaign.setCompletionDate(new Date());
             
-            log.info("Campaign completed: " + campaignId);
+            if (journal != null) {
+                try {
+                    journal.appendCampaignUpdate(campaign);
+                } catch (IOException e) {
+                    log.error("Failed to journal completion of campaign {}", campaignId, e);
+                }
+            }
+            
+            log.info("Campaign completed: {}", campaignId);
             sendCampaignCompletionNotifications(campaign);
         }
     }
@@ -494,7 +1011,7 @@ public class RecertificationManager {
      * Send campaign notifications
      */
     private void sendCampaignNotifications(RecertificationCampaign campaign) {
-        log.debug("Sending campaign notifications for: " + campaign.getCampaignId());
+        log.debug("Sending campaign notifications for: {}", campaign.getCampaignId());
         
         Set<String> certifiers = new HashSet<>();
         for (RecertificationItem item : campaign.getItems()) {
@@ -513,7 +1030,7 @@ public class RecertificationManager {
      * Send campaign completion notifications
      */
     private void sendCampaignCompletionNotifications(RecertificationCampaign campaign) {
-        log.debug("Sending completion notifications for campaign: " + campaign.getCampaignId());
+        log.debug("Sending completion notifications for campaign: {}", campaign.getCampaignId());
         
         // Send to compliance team
         sendNotification("compliance@company.com", "Campaign Completed", 
@@ -525,7 +1042,7 @@ public class RecertificationManager {
      */
     private void sendNotification(String recipient, String subject, String message) {
         // In production, integrate with email system or notification service
-        log.info("Notification sent to " + recipient + ": " + subject);
+        log.info("Notification sent to {}: {}", recipient, subject);
     }
     
     /**
@@ -556,22 +1073,24 @@ public class RecertificationManager {
      */
     private Date calculateNextRecertificationDate(String recertificationType) {
         Calendar cal = Calendar.getInstance();
-        
+        cal.add(Calendar.DAY_OF_YEAR, getCycleDays(recertificationType));
+        return cal.getTime();
+    }
+    
+    /**
+     * Get the number of days between recertifications of a type
+     */
+    private static int getCycleDays(String recertificationType) {
         switch (recertificationType) {
             case TYPE_GUARDIAN:
-                cal.add(Calendar.DAY_OF_YEAR, DEFAULT_GUARDIAN_CYCLE);
-                break;
+                return DEFAULT_GUARDIAN_CYCLE;
             case TYPE_MONITOR:
-                cal.add(Calendar.DAY_OF_YEAR, DEFAULT_MONITOR_CYCLE);
-                break;
+                return DEFAULT_MONITOR_CYCLE;
             case TYPE_HIGH_PRIVILEGE:
-                cal.add(Calendar.DAY_OF_YEAR, DEFAULT_HIGH_PRIV_CYCLE);
-                break;
+                return DEFAULT_HIGH_PRIV_CYCLE;
             default:
-                cal.add(Calendar.DAY_OF_YEAR, DEFAULT_PERIODIC_CYCLE);
+                return DEFAULT_PERIODIC_CYCLE;
         }
-        
-        return cal.getTime();
     }
     
     /**
@@ -638,6 +1157,78 @@ public class RecertificationManager {
         public void setProgress(double progress) { this.progress = progress; }
     }
     
+    /**
+     * Campaign Statistics inner class - per-status counters updated on each transition
+     */
+    public static class CampaignStatistics {
+        private final int totalItems;
+        private final Map<String, Integer> statusCounts = new HashMap<>();
+        
+        public CampaignStatistics(int totalItems) {
+            this.totalItems = totalItems;
+            if (totalItems > 0) {
+                statusCounts.put(STATUS_PENDING, totalItems);
+            }
+        }
+        
+        public int getTotalItems() { return totalItems; }
+        
+        public synchronized int getCount(String status) {
+            Integer count = statusCounts.get(status);
+            return count != null ? count : 0;
+        }
+        
+        public synchronized Map<String, Integer> getStatusCounts() {
+            return new HashMap<>(statusCounts);
+        }
+        
+        synchronized void recordTransition(String fromStatus, String toStatus) {
+            if (fromStatus != null) {
+                statusCounts.put(fromStatus, getCount(fromStatus) - 1);
+            }
+            statusCounts.put(toStatus, getCount(toStatus) + 1);
+        }
+    }
+    
+    /**
+     * Item Decision inner class - one entry of a bulk decision request
+     */
+    public static class ItemDecision {
+        private final String itemId;
+        private final boolean certified;
+        private final String comments;
+        
+        public ItemDecision(String itemId, boolean certified, String comments) {
+            this.itemId = itemId;
+            this.certified = certified;
+            this.comments = comments;
+        }
+        
+        public String getItemId() { return itemId; }
+        public boolean isCertified() { return certified; }
+        public String getComments() { return comments; }
+    }
+    
+    /**
+     * Bulk Decision Result inner class
+     */
+    public static class BulkDecisionResult {
+        private int certifiedCount;
+        private int revokedCount;
+        private final List<String> rejectedItemIds = new ArrayList<>();
+        
+        public boolean isApplied() { return rejectedItemIds.isEmpty(); }
+        
+        public int getCertifiedCount() { return certifiedCount; }
+        void incrementCertified() { certifiedCount++; }
+        
+        public int getRevokedCount() { return revokedCount; }
+        void incrementRevoked() { revokedCount++; }
+        
+        public List<String> getRejectedItemIds() { return rejectedItemIds; }
+        void addRejectedItem(String itemId) { rejectedItemIds.add(itemId); }
+    }
+    
     /**
      * Recertification Item inner class
      */
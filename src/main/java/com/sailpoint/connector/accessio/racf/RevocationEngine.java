@@ -0,0 +1,307 @@
+package com.sailpoint.connector.accessio.racf;
+
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+import sailpoint.object.Configuration;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revocation Engine for Accessio RACF Recertification
+ *
+ * Executes removeRoleConnection calls for revoked recertification items
+ * in the background instead of on the caller's thread:
+ * - Revocations are queued and drained in batches
+ * - Calls are rate limited with a token bucket so mass revocations
+ *   do not trip Garancy throttling
+ * - The calls of a batch are sent concurrently through the client's
+ *   asynchronous operations, up to its in-flight limit, so slow
+ *   responses do not hold the revocation rate below the configured one
+ * - Outcomes are reported back through a listener, item by item and
+ *   once per batch so callers can checkpoint progress
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class RevocationEngine {
+
+    private static final ConnectorLog log = ConnectorLog.getLog(RevocationEngine.class);
+
+    // Configuration keys
+    public static final String CONFIG_REVOCATION_RATE = "revocationRatePerSecond";
+    public static final String CONFIG_REVOCATION_BURST = "revocationBurst";
+    public static final String CONFIG_REVOCATION_BATCH_SIZE = "revocationBatchSize";
+
+    // Default values
+    public static final int DEFAULT_REVOCATION_RATE = 5;
+    public static final int DEFAULT_REVOCATION_BURST = 10;
+    public static final int DEFAULT_REVOCATION_BATCH_SIZE = 50;
+
+    private final GarancyAPIClient apiClient;
+    private final TokenBucket rateLimiter;
+    private final int ratePerSecond;
+    private final int batchSize;
+    private final RevocationListener listener;
+
+    private final BlockingQueue<RecertificationManager.RecertificationItem> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final Object workerLock = new Object();
+    private Thread worker;
+    private volatile boolean running = true;
+    private long outstanding;
+
+    /**
+     * Constructor
+     */
+    public RevocationEngine(GarancyAPIClient apiClient, Configuration configuration, RevocationListener listener) {
+        this.apiClient = apiClient;
+        this.listener = listener;
+
+        int rate = getPositiveInt(configuration, CONFIG_REVOCATION_RATE, DEFAULT_REVOCATION_RATE);
+        int burst = getPositiveInt(configuration, CONFIG_REVOCATION_BURST, DEFAULT_REVOCATION_BURST);
+        this.batchSize = getPositiveInt(configuration, CONFIG_REVOCATION_BATCH_SIZE, DEFAULT_REVOCATION_BATCH_SIZE);
+        this.ratePerSecond = rate;
+        this.rateLimiter = new TokenBucket(rate, burst);
+    }
+
+    /**
+     * Queue items for revocation
+     */
+    public void submit(Collection<RecertificationManager.RecertificationItem> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        if (!running) {
+            throw new IllegalStateException("Revocation engine has been shut down");
+        }
+
+        synchronized (workerLock) {
+            outstanding += items.size();
+        }
+        queue.addAll(items);
+        submittedCount.addAndGet(items.size());
+        ensureWorkerStarted();
+
+        log.info("Queued {} revocations ({} waiting)", items.size(), queue.size());
+    }
+
+    /**
+     * Wait until all queued revocations have been executed
+     *
+     * @return true if the queue drained before the timeout
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (workerLock) {
+            while (outstanding > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(workerLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get number of revocations waiting to be executed
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Get number of revocations submitted but not yet finished, including the batch in progress
+     */
+    public long getOutstandingCount() {
+        synchronized (workerLock) {
+            return outstanding;
+        }
+    }
+    
+    /**
+     * Get revocation statistics
+     */
+    public Map<String, Object> getStatistics() {
+        long remaining = getOutstandingCount();
+        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("submitted", submittedCount.get());
+        stats.put("completed", completedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("pending", queue.size());
+        stats.put("outstanding", remaining);
+        stats.put("ratePerSecond", ratePerSecond);
+        stats.put("estimatedSecondsRemaining", (remaining + ratePerSecond - 1) / ratePerSecond);
+        return stats;
+    }
+
+    /**
+     * Stop the worker; queued revocations that have not started are left in the queue
+     */
+    public void shutdown() {
+        running = false;
+
+        synchronized (workerLock) {
+            if (worker != null) {
+                worker.interrupt();
+            }
+            workerLock.notifyAll();
+        }
+    }
+
+    private void ensureWorkerStarted() {
+        synchronized (workerLock) {
+            if (worker == null || !worker.isAlive()) {
+                worker = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        processQueue();
+                    }
+                }, "accessio-racf-revocation");
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+    }
+
+    private void processQueue() {
+        List<RecertificationManager.RecertificationItem> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                RecertificationManager.RecertificationItem first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.clear();
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                executeBatch(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void executeBatch(List<RecertificationManager.RecertificationItem> batch) throws InterruptedException {
+        log.debug("Executing revocation batch of {} items", batch.size());
+
+        // The batch stays outstanding until its checkpoint ran, so awaitCompletion covers the checkpoint too
+        int failures = 0;
+        try {
+            List<CompletableFuture<GarancyOutcome>> requests = new ArrayList<>(batch.size());
+            for (RecertificationManager.RecertificationItem item : batch) {
+                rateLimiter.acquire();
+                requests.add(apiClient.removeRoleConnectionAsync(item.getUserId(), item.getRoleId()));
+            }
+
+            // Outcomes are handled on this thread, in batch order, so the listener is never called concurrently
+            for (int i = 0; i < batch.size(); i++) {
+                RecertificationManager.RecertificationItem item = batch.get(i);
+                GarancyOutcome outcome = awaitOutcome(requests.get(i));
+                if (outcome.isSuccess()) {
+                    item.setRevocationDate(new Date());
+                    completedCount.incrementAndGet();
+                    notifyRevoked(item);
+
+                } else {
+                    failures++;
+                    failedCount.incrementAndGet();
+                    log.error("Failed to revoke role {} from user {}: {}", item.getRoleId(), item.getUserId(), outcome);
+                    notifyRevocationFailed(item, outcome.getMessage());
+                }
+            }
+
+            if (listener != null) {
+                try {
+                    listener.onBatchCompleted(batch);
+                } catch (RuntimeException e) {
+                    log.error("Revocation checkpoint failed", e);
+                }
+            }
+        } finally {
+            synchronized (workerLock) {
+                outstanding -= batch.size();
+                workerLock.notifyAll();
+            }
+        }
+        
+        long submitted = submittedCount.get();
+        long finished = completedCount.get() + failedCount.get();
+        if (log.isInfoEnabled()) {
+            log.info("Revocation batch completed: {} revoked, {} failed; progress {}/{}, {} remaining",
+                     batch.size() - failures, failures, finished, submitted, queue.size());
+        }
+    }
+
+    /**
+     * Report a revocation; a failing listener must not stop the worker with the rest of the batch outstanding
+     */
+    private void notifyRevoked(RecertificationManager.RecertificationItem item) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onRevoked(item);
+        } catch (RuntimeException e) {
+            log.error("Failed to record revocation of item {}", item.getItemId(), e);
+        }
+    }
+
+    private void notifyRevocationFailed(RecertificationManager.RecertificationItem item, String reason) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onRevocationFailed(item, reason);
+        } catch (RuntimeException e) {
+            log.error("Failed to record failed revocation of item {}", item.getItemId(), e);
+        }
+    }
+
+    private static int getPositiveInt(Configuration configuration, String key, int defaultValue) {
+        if (configuration == null) {
+            return defaultValue;
+        }
+        int value = configuration.getInt(key, defaultValue);
+        return value > 0 ? value : defaultValue;
+    }
+
+    private static GarancyOutcome awaitOutcome(CompletableFuture<GarancyOutcome> request) throws InterruptedException {
+        try {
+            return request.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return GarancyOutcome.fatalFault(null, String.valueOf(cause.getMessage()), cause);
+        }
+    }
+
+    /**
+     * Callback for revocation outcomes
+     */
+    public interface RevocationListener {
+        void onRevoked(RecertificationManager.RecertificationItem item);
+
+        void onRevocationFailed(RecertificationManager.RecertificationItem item, String reason);
+        
+        /**
+         * Called after every item of a batch has been attempted; the natural point to checkpoint progress
+         */
+        void onBatchCompleted(List<RecertificationManager.RecertificationItem> batch);
+    }
+}
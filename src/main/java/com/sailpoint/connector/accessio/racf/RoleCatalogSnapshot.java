@@ -0,0 +1,152 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.*;
+
+/**
+ * Role Catalog Snapshot for Accessio RACF Integration
+ *
+ * Immutable point-in-time view of the Garancy role catalog, built from a
+ * single listRole download. Used where many lookups are made against the
+ * same catalog (e.g. recertification campaign generation) so each lookup
+ * is an in-memory read instead of a full catalog fetch.
+ *
+ * Provides:
+ * - Role lookup by ID
+ * - Role ownership lookup
+ * - Precomputed roleId to certifier mapping
+ * - Roles grouped by role type
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class RoleCatalogSnapshot {
+
+    private final Map<String, Map<String, Object>> rolesById;
+    private final Map<String, Map<String, Object>> ownershipByRole;
+    private final Map<String, String> certifierByRole;
+    private final Map<String, List<Map<String, Object>>> rolesByType;
+    private final List<Map<String, Object>> rolesRequiringRecertification;
+    private final Date snapshotDate;
+
+    /**
+     * Constructor
+     *
+     * @param roles enriched role records as returned by RACFRoleManager.getAllRoles()
+     */
+    public RoleCatalogSnapshot(List<Map<String, Object>> roles) {
+        Map<String, Map<String, Object>> byId = new HashMap<>(roles.size() * 2);
+        Map<String, Map<String, Object>> ownership = new HashMap<>(roles.size() * 2);
+        Map<String, String> certifiers = new HashMap<>(roles.size() * 2);
+        Map<String, List<Map<String, Object>>> byType = new HashMap<>();
+        List<Map<String, Object>> recertification = new ArrayList<>();
+
+        for (Map<String, Object> role : roles) {
+            String roleId = (String) role.get("BASEUSRC_ROLE");
+            if (roleId == null) {
+                continue;
+            }
+
+            byId.put(roleId, role);
+
+            Map<String, Object> roleOwnership = RACFRoleManager.buildRoleOwnership(roleId, role);
+            ownership.put(roleId, roleOwnership);
+
+            String ownerEmail = (String) roleOwnership.get("ownerEmail");
+            if (ownerEmail != null) {
+                certifiers.put(roleId, ownerEmail);
+            }
+
+            String roleType = (String) role.get("roleType");
+            if (roleType != null) {
+                List<Map<String, Object>> typed = byType.get(roleType);
+                if (typed == null) {
+                    typed = new ArrayList<>();
+                    byType.put(roleType, typed);
+                }
+                typed.add(role);
+            }
+
+            if (Boolean.TRUE.equals(role.get("requiresRecertification"))) {
+                recertification.add(role);
+            }
+        }
+
+        this.rolesById = Collections.unmodifiableMap(byId);
+        this.ownershipByRole = Collections.unmodifiableMap(ownership);
+        this.certifierByRole = Collections.unmodifiableMap(certifiers);
+        this.rolesByType = Collections.unmodifiableMap(byType);
+        this.rolesRequiringRecertification = Collections.unmodifiableList(recertification);
+        this.snapshotDate = new Date();
+    }
+
+    /**
+     * Get role by ID
+     */
+    public Map<String, Object> getRole(String roleId) {
+        return roleId != null ? rolesById.get(roleId) : null;
+    }
+
+    /**
+     * Check whether a role exists in the snapshot
+     */
+    public boolean containsRole(String roleId) {
+        return roleId != null && rolesById.containsKey(roleId);
+    }
+
+    /**
+     * Get role ownership information
+     */
+    public Map<String, Object> getRoleOwnership(String roleId) {
+        return roleId != null ? ownershipByRole.get(roleId) : null;
+    }
+
+    /**
+     * Get certifier (role owner email) for a role
+     */
+    public String getCertifier(String roleId) {
+        return roleId != null ? certifierByRole.get(roleId) : null;
+    }
+
+    /**
+     * Get precomputed roleId to certifier mapping
+     */
+    public Map<String, String> getCertifierMap() {
+        return certifierByRole;
+    }
+
+    /**
+     * Get roles by type (Guardian, Monitor, Standard)
+     */
+    public List<Map<String, Object>> getRolesByType(String roleType) {
+        List<Map<String, Object>> roles = rolesByType.get(roleType);
+        return roles != null ? Collections.unmodifiableList(roles) : Collections.<Map<String, Object>>emptyList();
+    }
+
+    /**
+     * Get roles requiring recertification
+     */
+    public List<Map<String, Object>> getRolesRequiringRecertification() {
+        return rolesRequiringRecertification;
+    }
+
+    /**
+     * Get all roles in the snapshot
+     */
+    public Collection<Map<String, Object>> getAllRoles() {
+        return rolesById.values();
+    }
+
+    /**
+     * Get number of roles in the snapshot
+     */
+    public int size() {
+        return rolesById.size();
+    }
+
+    /**
+     * Get the time the snapshot was taken
+     */
+    public Date getSnapshotDate() {
+        return new Date(snapshotDate.getTime());
+    }
+}
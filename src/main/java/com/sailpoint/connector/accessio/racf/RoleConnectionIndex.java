@@ -0,0 +1,133 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.*;
+
+/**
+ * Role Connection Index for Accessio RACF Integration
+ *
+ * Immutable point-in-time index of the active Garancy role-user connections,
+ * built from a single streamed listRoleToUserConnection call. Campaign generation
+ * asks for the holders of many roles in a row; with the index each of those
+ * is a map lookup instead of another full connection download.
+ *
+ * Provides:
+ * - Users holding a role
+ * - Roles held by a user
+ * - All connections grouped by role
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class RoleConnectionIndex {
+
+    private final Map<String, List<String>> usersByRole;
+    private final Map<String, List<String>> rolesByUser;
+    private final long connectionCount;
+    private final Date snapshotDate;
+
+    private RoleConnectionIndex(Map<String, List<String>> usersByRole, Map<String, List<String>> rolesByUser,
+                                long connectionCount) {
+        this.usersByRole = Collections.unmodifiableMap(usersByRole);
+        this.rolesByUser = Collections.unmodifiableMap(rolesByUser);
+        this.connectionCount = connectionCount;
+        this.snapshotDate = new Date();
+    }
+
+    /**
+     * Build the index by streaming every role-user connection from Garancy
+     */
+    public static RoleConnectionIndex build(GarancyAPIClient apiClient) throws Exception {
+        Builder builder = new Builder();
+        apiClient.streamRoleUserConnections(builder);
+        return builder.build();
+    }
+
+    /**
+     * Build the index from connection records as returned by GarancyAPIClient.listRoleUserConnections()
+     */
+    public static RoleConnectionIndex fromConnections(List<Map<String, Object>> connections) {
+        Builder builder = new Builder();
+        for (Map<String, Object> connection : connections) {
+            builder.onConnection((String) connection.get("BASEUS_SAM_ID"),
+                                 (String) connection.get("BASEUSRC_ROLE"),
+                                 (String) connection.get("CONNECTION_STATUS"));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the users holding a role
+     */
+    public List<String> getUsersForRole(String roleId) {
+        List<String> users = roleId != null ? usersByRole.get(roleId) : null;
+        return users != null ? users : Collections.<String>emptyList();
+    }
+
+    /**
+     * Get the roles held by a user
+     */
+    public List<String> getRolesForUser(String userId) {
+        List<String> roles = userId != null ? rolesByUser.get(userId) : null;
+        return roles != null ? roles : Collections.<String>emptyList();
+    }
+
+    /**
+     * Get all connections as role -> holders
+     */
+    public Map<String, List<String>> getUsersByRole() {
+        return usersByRole;
+    }
+
+    /**
+     * Get the number of connections indexed
+     */
+    public long getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * Get the time the index was built
+     */
+    public Date getSnapshotDate() {
+        return new Date(snapshotDate.getTime());
+    }
+
+    /**
+     * Collects streamed connections; the lists are frozen when the index is built
+     */
+    private static class Builder implements GarancyAPIClient.RoleUserConnectionHandler {
+        private final Map<String, List<String>> usersByRole = new HashMap<>();
+        private final Map<String, List<String>> rolesByUser = new HashMap<>();
+        private long connectionCount;
+
+        @Override
+        public void onConnection(String userId, String roleId, String status) {
+            if (userId == null || roleId == null || !GarancyAPIClient.isActiveConnection(status)) {
+                return;
+            }
+            add(usersByRole, roleId, userId);
+            add(rolesByUser, userId, roleId);
+            connectionCount++;
+        }
+
+        RoleConnectionIndex build() {
+            return new RoleConnectionIndex(freeze(usersByRole), freeze(rolesByUser), connectionCount);
+        }
+
+        private static void add(Map<String, List<String>> index, String key, String value) {
+            List<String> values = index.get(key);
+            if (values == null) {
+                values = new ArrayList<>(2);
+                index.put(key, values);
+            }
+            values.add(value);
+        }
+
+        private static Map<String, List<String>> freeze(Map<String, List<String>> index) {
+            for (Map.Entry<String, List<String>> entry : index.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses concurrent identical calls into one
+ *
+ * The first caller for a key runs the call; callers arriving with the same
+ * key while it is in flight wait for it and share its result instead of
+ * running their own. Nothing is cached: once the call completes, the next
+ * caller starts a new one.
+ *
+ * Callers may modify what they get back, so each caller that shared a call
+ * receives its own copy made by the Copier, and the leader keeps the
+ * original only if nobody joined.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+final class SingleFlight<V> {
+
+    /**
+     * Makes the independent copy handed to each caller of a shared call
+     */
+    interface Copier<V> {
+        V copy(V value);
+    }
+
+    private final ConcurrentMap<String, Call<V>> calls = new ConcurrentHashMap<>();
+    private final Copier<V> copier;
+    private final AtomicLong sharedCount = new AtomicLong();
+
+    SingleFlight(Copier<V> copier) {
+        this.copier = copier;
+    }
+
+    /**
+     * Run the call, or wait for the identical call already in flight
+     *
+     * @throws Exception the exception of the call; callers that joined get it as the cause
+     * @throws InterruptedException if interrupted while waiting for another caller's call
+     */
+    Result<V> execute(String key, Callable<V> callable) throws Exception {
+        while (true) {
+            Call<V> call = new Call<>();
+            Call<V> inFlight = calls.putIfAbsent(key, call);
+            if (inFlight == null) {
+                return new Result<>(lead(key, call, callable), false);
+            }
+            if (inFlight.join()) {
+                sharedCount.incrementAndGet();
+                return new Result<>(follow(key, inFlight), true);
+            }
+            // That call finished while we were joining; start a new one
+        }
+    }
+
+    /**
+     * Get the number of calls answered by sharing another caller's call
+     */
+    long getSharedCount() {
+        return sharedCount.get();
+    }
+
+    private V lead(String key, Call<V> call, Callable<V> callable) throws Exception {
+        V value = null;
+        Throwable failure = null;
+        try {
+            value = callable.call();
+        } catch (Exception | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // No caller can join once the call is removed and closed
+            calls.remove(key, call);
+            call.finish(value, failure);
+        }
+        return call.getFollowers() > 0 ? copier.copy(value) : value;
+    }
+
+    private V follow(String key, Call<V> call) throws Exception {
+        call.await();
+        Throwable failure = call.getFailure();
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new Exception("Shared " + key + " call failed: " + failure.getMessage(), failure);
+        }
+        return copier.copy(call.getValue());
+    }
+
+    /**
+     * Value of a call and whether it came from another caller's call
+     */
+    static final class Result<V> {
+        private final V value;
+        private final boolean shared;
+
+        Result(V value, boolean shared) {
+            this.value = value;
+            this.shared = shared;
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        boolean isShared() {
+            return shared;
+        }
+    }
+
+    private static final class Call<V> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int followers;
+        private boolean finished;
+        private V value;
+        private Throwable failure;
+
+        synchronized boolean join() {
+            if (finished) {
+                return false;
+            }
+            followers++;
+            return true;
+        }
+
+        void finish(V value, Throwable failure) {
+            synchronized (this) {
+                this.finished = true;
+                this.value = value;
+                this.failure = failure;
+            }
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            done.await();
+        }
+
+        synchronized int getFollowers() {
+            return followers;
+        }
+
+        synchronized V getValue() {
+            return value;
+        }
+
+        synchronized Throwable getFailure() {
+            return failure;
+        }
+    }
+}
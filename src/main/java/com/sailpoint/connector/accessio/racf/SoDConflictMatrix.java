@@ -0,0 +1,305 @@
+package com.sailpoint.connector.accessio.racf;
+
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+import sailpoint.object.Configuration;
+
+import java.util.*;
+
+/**
+ * Segregation of Duties Conflict Matrix for Accessio RACF Integration
+ *
+ * Compiled, immutable form of the SoD conflict rules:
+ * - Rules are loaded once from configuration (or the built-in defaults)
+ * - Every role named in a rule is interned to a dense index
+ * - Each role has a BitSet row of the roles it conflicts with, kept
+ *   symmetric so the direction a rule was written in does not matter
+ *
+ * Checking a proposed set of roles against a user's current roles is one
+ * BitSet intersection per proposed role. Roles that appear in no rule are
+ * never interned and cannot conflict.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class SoDConflictMatrix {
+
+    private static final ConnectorLog log = ConnectorLog.getLog(SoDConflictMatrix.class);
+
+    // Configuration key: map of role -> conflicting roles (list or comma separated string)
+    public static final String CONFIG_SOD_CONFLICT_RULES = "sodConflictRules";
+
+    private final Map<String, Integer> roleIndex = new HashMap<>();
+    private final List<String> roleNames = new ArrayList<>();
+    private final List<BitSet> conflictRows = new ArrayList<>();
+    private final Map<Long, Rule> rulesByPair = new HashMap<>();
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param conflictRules role -> roles it must not be combined with
+     */
+    public SoDConflictMatrix(Map<String, ? extends Collection<String>> conflictRules) {
+        for (Map.Entry<String, ? extends Collection<String>> entry : conflictRules.entrySet()) {
+            for (String conflictingRole : entry.getValue()) {
+                addRule(entry.getKey(), conflictingRole);
+            }
+        }
+
+        log.debug("Compiled SoD conflict matrix: {} rules over {} roles", rules.size(), roleNames.size());
+    }
+
+    /**
+     * Build the matrix from connector configuration, falling back to the default rules
+     */
+    public static SoDConflictMatrix fromConfiguration(Configuration configuration) {
+        Object configured = configuration != null ? configuration.get(CONFIG_SOD_CONFLICT_RULES) : null;
+
+        if (configured instanceof Map) {
+            Map<String, List<String>> conflictRules = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) configured).entrySet()) {
+                conflictRules.put(String.valueOf(entry.getKey()), toRoleList(entry.getValue()));
+            }
+            return new SoDConflictMatrix(conflictRules);
+        }
+
+        if (configured != null) {
+            log.warn("Ignoring {} of unexpected type {}, using default SoD rules",
+                     CONFIG_SOD_CONFLICT_RULES, configured.getClass().getName());
+        }
+        return new SoDConflictMatrix(getDefaultConflictRules());
+    }
+
+    /**
+     * Default Segregation of Duties conflict rules
+     */
+    public static Map<String, List<String>> getDefaultConflictRules() {
+        Map<String, List<String>> conflictRules = new LinkedHashMap<>();
+
+        // Example SoD rules - customize based on organization requirements
+        conflictRules.put("FINANCIAL_APPROVER", Arrays.asList("FINANCIAL_PROCESSOR", "PAYMENT_PROCESSOR"));
+        conflictRules.put("SECURITY_ADMIN", Arrays.asList("AUDIT_REVIEWER", "COMPLIANCE_CHECKER"));
+        conflictRules.put("BACKUP_OPERATOR", Arrays.asList("RESTORE_OPERATOR"));
+
+        return conflictRules;
+    }
+
+    /**
+     * Check whether two roles conflict
+     */
+    public boolean conflicts(String role1, String role2) {
+        Integer index1 = role1 != null ? roleIndex.get(role1) : null;
+        Integer index2 = role2 != null ? roleIndex.get(role2) : null;
+        return index1 != null && index2 != null && conflictRows.get(index1).get(index2);
+    }
+
+    /**
+     * Check whether adding the proposed roles to the current roles violates any rule,
+     * including conflicts among the proposed roles themselves
+     */
+    public boolean hasConflict(Collection<String> currentRoles, Collection<String> proposedRoles) {
+        BitSet held = toBitSet(currentRoles);
+
+        for (String proposedRole : proposedRoles) {
+            Integer index = proposedRole != null ? roleIndex.get(proposedRole) : null;
+            if (index == null) {
+                continue;
+            }
+            if (conflictRows.get(index).intersects(held)) {
+                return true;
+            }
+            held.set(index);
+        }
+
+        return false;
+    }
+
+    /**
+     * Find every rule violated by adding the proposed roles to the current roles
+     */
+    public List<Violation> findViolations(Collection<String> currentRoles, Collection<String> proposedRoles) {
+        List<Violation> violations = new ArrayList<>();
+        BitSet held = toBitSet(currentRoles);
+        BitSet current = (BitSet) held.clone();
+
+        for (String proposedRole : proposedRoles) {
+            Integer index = proposedRole != null ? roleIndex.get(proposedRole) : null;
+            if (index == null || held.get(index)) {
+                continue;
+            }
+
+            BitSet hits = (BitSet) conflictRows.get(index).clone();
+            hits.and(held);
+            for (int other = hits.nextSetBit(0); other >= 0; other = hits.nextSetBit(other + 1)) {
+                violations.add(new Violation(rulesByPair.get(pairKey(index, other)),
+                                             proposedRole, roleNames.get(other), current.get(other)));
+            }
+            held.set(index);
+        }
+
+        return violations;
+    }
+
+    /**
+     * Find every rule violated within one user's complete set of roles, given as
+     * a BitSet over the indexes returned by indexOf
+     */
+    public List<Rule> findViolations(BitSet roles) {
+        List<Rule> violated = new ArrayList<>();
+
+        for (int index = roles.nextSetBit(0); index >= 0; index = roles.nextSetBit(index + 1)) {
+            BitSet row = conflictRows.get(index);
+            if (!row.intersects(roles)) {
+                continue;
+            }
+            // Report each pair once, from its lower index
+            for (int other = row.nextSetBit(index + 1); other >= 0; other = row.nextSetBit(other + 1)) {
+                if (roles.get(other)) {
+                    violated.add(rulesByPair.get(pairKey(index, other)));
+                }
+            }
+        }
+
+        return violated;
+    }
+
+    /**
+     * Get the interned index of a role, or -1 if the role takes part in no rule
+     */
+    public int indexOf(String roleId) {
+        Integer index = roleId != null ? roleIndex.get(roleId) : null;
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Get the number of roles that take part in at least one rule
+     */
+    public int getRoleCount() {
+        return roleNames.size();
+    }
+
+    /**
+     * Get all compiled rules
+     */
+    public List<Rule> getRules() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Check whether a role takes part in any rule
+     */
+    public boolean isGoverned(String roleId) {
+        return roleId != null && roleIndex.containsKey(roleId);
+    }
+
+    private BitSet toBitSet(Collection<String> roles) {
+        BitSet bits = new BitSet(roleNames.size());
+        if (roles != null) {
+            for (String role : roles) {
+                Integer index = role != null ? roleIndex.get(role) : null;
+                if (index != null) {
+                    bits.set(index);
+                }
+            }
+        }
+        return bits;
+    }
+
+    private void addRule(String role1, String role2) {
+        if (role1 == null || role2 == null || role1.equals(role2)) {
+            return;
+        }
+
+        int index1 = intern(role1);
+        int index2 = intern(role2);
+        Long key = pairKey(index1, index2);
+        if (rulesByPair.containsKey(key)) {
+            return;
+        }
+
+        conflictRows.get(index1).set(index2);
+        conflictRows.get(index2).set(index1);
+
+        Rule rule = new Rule(role1, role2);
+        rulesByPair.put(key, rule);
+        rules.add(rule);
+    }
+
+    private int intern(String roleId) {
+        Integer index = roleIndex.get(roleId);
+        if (index == null) {
+            index = roleNames.size();
+            roleIndex.put(roleId, index);
+            roleNames.add(roleId);
+            conflictRows.add(new BitSet());
+        }
+        return index;
+    }
+
+    private static long pairKey(int index1, int index2) {
+        int low = Math.min(index1, index2);
+        int high = Math.max(index1, index2);
+        return ((long) low << 32) | high;
+    }
+
+    private static List<String> toRoleList(Object value) {
+        List<String> roles = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object role : (Collection<?>) value) {
+                if (role != null && !role.toString().trim().isEmpty()) {
+                    roles.add(role.toString().trim());
+                }
+            }
+        } else if (value != null) {
+            for (String role : value.toString().split(",")) {
+                if (!role.trim().isEmpty()) {
+                    roles.add(role.trim());
+                }
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Rule inner class - one pair of mutually exclusive roles
+     */
+    public static class Rule {
+        private final String role1;
+        private final String role2;
+
+        public Rule(String role1, String role2) {
+            this.role1 = role1;
+            this.role2 = role2;
+        }
+
+        public String getRuleId() { return role1 + "/" + role2; }
+        public String getRole1() { return role1; }
+        public String getRole2() { return role2; }
+    }
+
+    /**
+     * Violation inner class - a rule broken by a proposed role
+     */
+    public static class Violation {
+        private final Rule rule;
+        private final String proposedRole;
+        private final String conflictingRole;
+        private final boolean conflictingRoleHeld;
+
+        public Violation(Rule rule, String proposedRole, String conflictingRole, boolean conflictingRoleHeld) {
+            this.rule = rule;
+            this.proposedRole = proposedRole;
+            this.conflictingRole = conflictingRole;
+            this.conflictingRoleHeld = conflictingRoleHeld;
+        }
+
+        public Rule getRule() { return rule; }
+        public String getProposedRole() { return proposedRole; }
+        public String getConflictingRole() { return conflictingRole; }
+
+        /**
+         * True if the conflicting role is already assigned, false if it is also being requested
+         */
+        public boolean isConflictingRoleHeld() { return conflictingRoleHeld; }
+    }
+}
@@ -0,0 +1,92 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.*;
+
+/**
+ * SoD Violation Report for Accessio RACF Integration
+ *
+ * Result of a whole-population SoD scan: the users holding conflicting
+ * roles, the rules they break, and summary counts for audit.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class SoDViolationReport {
+
+    private final Date scanDate;
+    private final long connectionsScanned;
+    private final int governedUsers;
+    private final List<UserViolation> violations;
+    private final long durationMillis;
+
+    /**
+     * Constructor
+     */
+    public SoDViolationReport(Date scanDate, long connectionsScanned, int governedUsers,
+                              List<UserViolation> violations, long durationMillis) {
+        this.scanDate = scanDate;
+        this.connectionsScanned = connectionsScanned;
+        this.governedUsers = governedUsers;
+        this.violations = Collections.unmodifiableList(new ArrayList<>(violations));
+        this.durationMillis = durationMillis;
+    }
+
+    public Date getScanDate() { return scanDate; }
+
+    public long getConnectionsScanned() { return connectionsScanned; }
+
+    /**
+     * Number of users holding at least one role that takes part in a rule
+     */
+    public int getGovernedUsers() { return governedUsers; }
+
+    public List<UserViolation> getViolations() { return violations; }
+
+    public int getUsersInViolation() { return violations.size(); }
+
+    public long getDurationMillis() { return durationMillis; }
+
+    /**
+     * Count users in violation per rule
+     */
+    public Map<String, Integer> getViolationCountsByRule() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (UserViolation violation : violations) {
+            for (SoDConflictMatrix.Rule rule : violation.getRules()) {
+                Integer count = counts.get(rule.getRuleId());
+                counts.put(rule.getRuleId(), count != null ? count + 1 : 1);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Summary suitable for task results and audit events
+     */
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("scanDate", scanDate);
+        summary.put("connectionsScanned", connectionsScanned);
+        summary.put("governedUsers", governedUsers);
+        summary.put("usersInViolation", violations.size());
+        summary.put("violationsByRule", getViolationCountsByRule());
+        summary.put("durationMillis", durationMillis);
+        return summary;
+    }
+
+    /**
+     * User Violation inner class - the rules one user breaks
+     */
+    public static class UserViolation {
+        private final String userId;
+        private final List<SoDConflictMatrix.Rule> rules;
+
+        public UserViolation(String userId, List<SoDConflictMatrix.Rule> rules) {
+            this.userId = userId;
+            this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        }
+
+        public String getUserId() { return userId; }
+        public List<SoDConflictMatrix.Rule> getRules() { return rules; }
+    }
+}
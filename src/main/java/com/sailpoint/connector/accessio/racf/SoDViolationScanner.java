@@ -0,0 +1,151 @@
+package com.sailpoint.connector.accessio.racf;
+
+import com.sailpoint.connector.accessio.racf.logging.ConnectorLog;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * SoD Violation Scanner for Accessio RACF Integration
+ *
+ * Finds existing Segregation of Duties violations across the whole directory:
+ * - Role-user connections are streamed from Garancy once
+ * - Inactive connections and connections to roles that appear in no rule
+ *   are dropped while streaming
+ * - Remaining roles are grouped per user as a BitSet over the conflict matrix
+ * - Users are evaluated against the compiled rules in parallel
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class SoDViolationScanner {
+
+    private static final ConnectorLog log = ConnectorLog.getLog(SoDViolationScanner.class);
+
+    private static final int USERS_PER_TASK = 10000;
+
+    private final GarancyAPIClient apiClient;
+    private final SoDConflictMatrix conflictMatrix;
+    private final int parallelism;
+
+    /**
+     * Constructor
+     *
+     * @param parallelism number of threads evaluating users; values below 1 use all processors
+     */
+    public SoDViolationScanner(GarancyAPIClient apiClient, SoDConflictMatrix conflictMatrix, int parallelism) {
+        this.apiClient = apiClient;
+        this.conflictMatrix = conflictMatrix;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Scan every role-user connection and report the users holding conflicting roles
+     */
+    public SoDViolationReport scan() throws Exception {
+        log.info("Starting SoD violation scan over {} rules", conflictMatrix.getRules().size());
+        long startTime = System.currentTimeMillis();
+
+        final Map<String, BitSet> rolesByUser = new HashMap<>();
+        final int roleCount = conflictMatrix.getRoleCount();
+
+        long connectionCount = apiClient.streamRoleUserConnections(new GarancyAPIClient.RoleUserConnectionHandler() {
+            @Override
+            public void onConnection(String userId, String roleId, String status) {
+                int index = conflictMatrix.indexOf(roleId);
+                if (index < 0 || userId == null || !GarancyAPIClient.isActiveConnection(status)) {
+                    return;
+                }
+
+                BitSet roles = rolesByUser.get(userId);
+                if (roles == null) {
+                    roles = new BitSet(roleCount);
+                    rolesByUser.put(userId, roles);
+                }
+                roles.set(index);
+            }
+        });
+
+        long streamedTime = System.currentTimeMillis();
+        log.debug("Streamed {} connections, {} users hold governed roles", connectionCount, rolesByUser.size());
+
+        List<SoDViolationReport.UserViolation> violations = evaluate(rolesByUser);
+
+        SoDViolationReport report = new SoDViolationReport(new Date(startTime), connectionCount, rolesByUser.size(),
+                violations, System.currentTimeMillis() - startTime);
+
+        if (log.isInfoEnabled()) {
+            log.info("SoD violation scan completed: {} users in violation out of {} governed users, " +
+                     "{} connections (stream {} ms, evaluate {} ms)",
+                     violations.size(), rolesByUser.size(), connectionCount,
+                     streamedTime - startTime, System.currentTimeMillis() - streamedTime);
+        }
+        return report;
+    }
+
+    private List<SoDViolationReport.UserViolation> evaluate(Map<String, BitSet> rolesByUser) throws Exception {
+        final List<Map.Entry<String, BitSet>> entries = new ArrayList<>(rolesByUser.entrySet());
+        List<SoDViolationReport.UserViolation> violations = new ArrayList<>();
+
+        if (parallelism == 1 || entries.size() <= USERS_PER_TASK) {
+            violations.addAll(evaluateRange(entries, 0, entries.size()));
+            return violations;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            private int count;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "accessio-racf-sod-scan-" + (++count));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            List<Future<List<SoDViolationReport.UserViolation>>> futures = new ArrayList<>();
+            for (int from = 0; from < entries.size(); from += USERS_PER_TASK) {
+                final int start = from;
+                final int end = Math.min(from + USERS_PER_TASK, entries.size());
+                futures.add(executor.submit(new Callable<List<SoDViolationReport.UserViolation>>() {
+                    @Override
+                    public List<SoDViolationReport.UserViolation> call() {
+                        return evaluateRange(entries, start, end);
+                    }
+                }));
+            }
+
+            for (Future<List<SoDViolationReport.UserViolation>> future : futures) {
+                try {
+                    violations.addAll(future.get());
+                } catch (ExecutionException e) {
+                    throw new Exception("SoD violation scan failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return violations;
+    }
+
+    private List<SoDViolationReport.UserViolation> evaluateRange(List<Map.Entry<String, BitSet>> entries, int start, int end) {
+        List<SoDViolationReport.UserViolation> violations = new ArrayList<>();
+
+        for (int i = start; i < end; i++) {
+            Map.Entry<String, BitSet> entry = entries.get(i);
+            BitSet roles = entry.getValue();
+            if (roles.cardinality() < 2) {
+                continue;
+            }
+
+            List<SoDConflictMatrix.Rule> violated = conflictMatrix.findViolations(roles);
+            if (!violated.isEmpty()) {
+                violations.add(new SoDViolationReport.UserViolation(entry.getKey(), violated));
+            }
+        }
+
+        return violations;
+    }
+}
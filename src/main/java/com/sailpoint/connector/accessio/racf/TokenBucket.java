@@ -0,0 +1,89 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Bucket rate limiter for Garancy API calls
+ *
+ * Permits are refilled continuously at a fixed rate up to the bucket
+ * capacity, so short bursts are allowed while the sustained call rate
+ * never exceeds the configured limit.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    /**
+     * Constructor
+     *
+     * @param permitsPerSecond sustained rate
+     * @param burstCapacity maximum number of permits that can accumulate
+     */
+    public TokenBucket(double permitsPerSecond, int burstCapacity) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burstCapacity <= 0) {
+            throw new IllegalArgumentException("burstCapacity must be positive");
+        }
+
+        this.capacity = burstCapacity;
+        this.refillPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.availableTokens = burstCapacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Acquire one permit, blocking until it is available
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (availableTokens >= 1.0) {
+                    availableTokens -= 1.0;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1.0 - availableTokens) / refillPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1L));
+        }
+    }
+
+    /**
+     * Acquire one permit if immediately available
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (availableTokens >= 1.0) {
+            availableTokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get currently available permits
+     */
+    public synchronized double getAvailableTokens() {
+        refill();
+        return availableTokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            availableTokens = Math.min(capacity, availableTokens + elapsed * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads
+ *
+ * This is the Java 8 version of the class, used on runtimes without virtual
+ * threads. Builds on JDK 21 produce a multi-release jar that also carries a
+ * Java 21 version under META-INF/versions/21, which the runtime picks up
+ * instead (see the java21 profile in pom.xml and src/main/java21).
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether this runtime and build support virtual threads
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for every task
+     *
+     * @param namePrefix thread name prefix; threads are numbered from 1
+     * @throws UnsupportedOperationException if virtual threads are not available
+     */
+    static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        throw new UnsupportedOperationException("Virtual threads require a Java 21 runtime");
+    }
+}
@@ -0,0 +1,212 @@
+package com.sailpoint.connector.accessio.racf.logging;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Level-guarded, parameterized logging for the connector's hot paths
+ *
+ * Wraps a commons-logging Log. Messages use {} placeholders and are only
+ * formatted when the level is enabled, so a disabled debug statement costs
+ * one level check and no string building. The fixed-arity overloads avoid
+ * the varargs array as well; the varargs overloads are for messages with
+ * more than three values and allocate only when the level is enabled. Like SLF4J, a Throwable passed as the last
+ * argument without a placeholder of its own is logged as the exception.
+ *
+ * Work needed only to produce a message, such as redacting parameters,
+ * belongs behind isDebugEnabled().
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public final class ConnectorLog {
+
+    private final Log log;
+
+    private ConnectorLog(Log log) {
+        this.log = log;
+    }
+
+    public static ConnectorLog getLog(Class<?> type) {
+        return new ConnectorLog(LogFactory.getLog(type));
+    }
+
+    public static ConnectorLog wrap(Log log) {
+        return new ConnectorLog(log);
+    }
+
+    public boolean isTraceEnabled() { return log.isTraceEnabled(); }
+    public boolean isDebugEnabled() { return log.isDebugEnabled(); }
+    public boolean isInfoEnabled() { return log.isInfoEnabled(); }
+    public boolean isWarnEnabled() { return log.isWarnEnabled(); }
+
+    public void trace(String message) {
+        log.trace(message);
+    }
+
+    public void trace(String pattern, Object arg) {
+        if (log.isTraceEnabled()) {
+            logFormatted(Level.TRACE, pattern, new Object[] {arg});
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2) {
+        if (log.isTraceEnabled()) {
+            logFormatted(Level.TRACE, pattern, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void debug(String message) {
+        log.debug(message);
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (log.isDebugEnabled()) {
+            logFormatted(Level.DEBUG, pattern, new Object[] {arg});
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (log.isDebugEnabled()) {
+            logFormatted(Level.DEBUG, pattern, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (log.isDebugEnabled()) {
+            logFormatted(Level.DEBUG, pattern, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    public void debug(String pattern, Object... args) {
+        if (log.isDebugEnabled()) {
+            logFormatted(Level.DEBUG, pattern, args);
+        }
+    }
+
+    public void info(String message) {
+        log.info(message);
+    }
+
+    public void info(String pattern, Object arg) {
+        if (log.isInfoEnabled()) {
+            logFormatted(Level.INFO, pattern, new Object[] {arg});
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (log.isInfoEnabled()) {
+            logFormatted(Level.INFO, pattern, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (log.isInfoEnabled()) {
+            logFormatted(Level.INFO, pattern, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    public void info(String pattern, Object... args) {
+        if (log.isInfoEnabled()) {
+            logFormatted(Level.INFO, pattern, args);
+        }
+    }
+
+    public void warn(String message) {
+        log.warn(message);
+    }
+
+    public void warn(String message, Throwable t) {
+        log.warn(message, t);
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (log.isWarnEnabled()) {
+            logFormatted(Level.WARN, pattern, new Object[] {arg});
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (log.isWarnEnabled()) {
+            logFormatted(Level.WARN, pattern, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (log.isWarnEnabled()) {
+            logFormatted(Level.WARN, pattern, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    public void warn(String pattern, Object... args) {
+        if (log.isWarnEnabled()) {
+            logFormatted(Level.WARN, pattern, args);
+        }
+    }
+
+    public void error(String message) {
+        log.error(message);
+    }
+
+    public void error(String message, Throwable t) {
+        log.error(message, t);
+    }
+
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (log.isErrorEnabled()) {
+            logFormatted(Level.ERROR, pattern, new Object[] {arg1, arg2});
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (log.isErrorEnabled()) {
+            logFormatted(Level.ERROR, pattern, new Object[] {arg1, arg2, arg3});
+        }
+    }
+
+    public void error(String pattern, Object... args) {
+        if (log.isErrorEnabled()) {
+            logFormatted(Level.ERROR, pattern, args);
+        }
+    }
+
+    private void logFormatted(Level level, String pattern, Object[] args) {
+        int count = args.length;
+
+        StringBuilder message = new StringBuilder(pattern.length() + 32);
+        int used = format(message, pattern, args, count);
+
+        Throwable t = null;
+        if (used < count && args[count - 1] instanceof Throwable) {
+            t = (Throwable) args[count - 1];
+        }
+
+        String text = message.toString();
+        switch (level) {
+            case TRACE: log.trace(text, t); break;
+            case DEBUG: log.debug(text, t); break;
+            case INFO: log.info(text, t); break;
+            case WARN: log.warn(text, t); break;
+            default: log.error(text, t); break;
+        }
+    }
+
+    /**
+     * Substitute {} placeholders in order
+     *
+     * @return number of arguments consumed
+     */
+    static int format(StringBuilder message, String pattern, Object[] args, int count) {
+        int used = 0;
+        int from = 0;
+        int at;
+        while (used < count && (at = pattern.indexOf("{}", from)) >= 0) {
+            message.append(pattern, from, at).append(args[used++]);
+            from = at + 2;
+        }
+        message.append(pattern, from, pattern.length());
+        return used;
+    }
+
+    private enum Level { TRACE, DEBUG, INFO, WARN, ERROR }
+}
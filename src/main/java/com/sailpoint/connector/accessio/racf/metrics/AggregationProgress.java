@@ -0,0 +1,333 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress of one aggregation run
+ *
+ * Follows an account or role aggregation through its stages:
+ * - FETCHING: the list response is downloaded; bytes read grow as it arrives
+ * - PARSING: the response is parsed into records
+ * - CONVERTING: records are converted, filtered and handed to IdentityIQ
+ * - COMPLETED or FAILED
+ *
+ * Counters and per-stage rates are readable at any time, over JMX once
+ * registered, and are pushed as a progress string to an optional listener,
+ * such as the progress of the task running the aggregation, at most once
+ * per report interval.
+ *
+ * Each stage is driven by a single thread; readers on other threads see
+ * the latest values.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class AggregationProgress implements AggregationProgressMBean {
+
+    private static final Log log = LogFactory.getLog(AggregationProgress.class);
+
+    public static final String STAGE_STARTING = "STARTING";
+    public static final String STAGE_FETCHING = "FETCHING";
+    public static final String STAGE_PARSING = "PARSING";
+    public static final String STAGE_CONVERTING = "CONVERTING";
+    public static final String STAGE_COMPLETED = "COMPLETED";
+    public static final String STAGE_FAILED = "FAILED";
+
+    public static final long DEFAULT_REPORT_INTERVAL_MILLIS = 2000;
+
+    private final String objectType;
+    private final Listener listener;
+    private final long reportIntervalNanos;
+
+    private volatile String stage = STAGE_STARTING;
+    private volatile String failure;
+    private final long startNanos = System.nanoTime();
+    private volatile long fetchStartNanos = -1;
+    private volatile long parseStartNanos = -1;
+    private volatile long convertStartNanos = -1;
+    private volatile long firstRecordNanos = -1;
+    private volatile long endNanos = -1;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong fetched = new AtomicLong();
+    private final AtomicLong converted = new AtomicLong();
+    private final AtomicLong filtered = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    private volatile long lastReportNanos = System.nanoTime();
+    private ObjectName registeredName;
+
+    /**
+     * Receives progress strings while the aggregation runs
+     */
+    public interface Listener {
+        void progressUpdated(String progress);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param objectType aggregated object type, e.g. account or group
+     * @param listener receives progress strings, may be null
+     * @param reportIntervalMillis minimum time between two progress strings
+     */
+    public AggregationProgress(String objectType, Listener listener, long reportIntervalMillis) {
+        this.objectType = objectType;
+        this.listener = listener;
+        this.reportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, reportIntervalMillis));
+    }
+
+    public AggregationProgress(String objectType, Listener listener) {
+        this(objectType, listener, DEFAULT_REPORT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * The list request is being sent
+     */
+    public void fetchStarted() {
+        fetchStartNanos = System.nanoTime();
+        changeStage(STAGE_FETCHING);
+    }
+
+    /**
+     * Part of the list response has been read
+     */
+    public void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+        maybeReport();
+    }
+
+    /**
+     * The list response has been read completely and is being parsed
+     */
+    public void parseStarted() {
+        parseStartNanos = System.nanoTime();
+        changeStage(STAGE_PARSING);
+    }
+
+    /**
+     * The list response has been parsed into records
+     */
+    public void parseCompleted(long records) {
+        fetched.set(records);
+        convertStartNanos = System.nanoTime();
+        changeStage(STAGE_CONVERTING);
+    }
+
+    /**
+     * A record was converted to a ResourceObject
+     */
+    public void recordConverted() {
+        converted.incrementAndGet();
+    }
+
+    /**
+     * A record was dropped by conversion or the aggregation filter
+     */
+    public void recordFiltered() {
+        filtered.incrementAndGet();
+    }
+
+    /**
+     * A record was handed to IdentityIQ
+     */
+    public void recordDelivered() {
+        if (delivered.incrementAndGet() == 1) {
+            firstRecordNanos = System.nanoTime();
+        }
+        maybeReport();
+    }
+
+    /**
+     * All records have been handed over
+     */
+    public void completed() {
+        endNanos = System.nanoTime();
+        changeStage(STAGE_COMPLETED);
+        log.info("Aggregation of " + objectType + " completed: " + getProgress());
+    }
+
+    /**
+     * The aggregation failed
+     */
+    public void failed(Exception e) {
+        failure = e != null ? e.getMessage() : null;
+        endNanos = System.nanoTime();
+        changeStage(STAGE_FAILED);
+    }
+
+    /**
+     * Publish the progress over JMX as the latest run of the application's object type
+     */
+    public void registerMBean(String applicationKey) {
+        try {
+            ObjectName name = new ObjectName(GarancyClientMetrics.JMX_DOMAIN + ":type=Aggregation,application=" +
+                    ObjectName.quote(applicationKey) + ",objectType=" + ObjectName.quote(objectType));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            synchronized (AggregationProgress.class) {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(this, name);
+            }
+            registeredName = name;
+        } catch (Exception e) {
+            log.warn("Failed to register aggregation progress MBean for " + objectType, e);
+        }
+    }
+
+    /**
+     * Get the name the progress was registered under, null if not registered
+     */
+    public ObjectName getRegisteredName() {
+        return registeredName;
+    }
+
+    @Override
+    public String getObjectType() { return objectType; }
+
+    @Override
+    public String getStage() { return stage; }
+
+    @Override
+    public long getBytesRead() { return bytesRead.get(); }
+
+    @Override
+    public long getRecordsFetched() { return fetched.get(); }
+
+    @Override
+    public long getRecordsConverted() { return converted.get(); }
+
+    @Override
+    public long getRecordsFiltered() { return filtered.get(); }
+
+    @Override
+    public long getRecordsDelivered() { return delivered.get(); }
+
+    @Override
+    public double getElapsedSeconds() {
+        return seconds(startNanos, endOrNow());
+    }
+
+    @Override
+    public double getFetchSeconds() {
+        return fetchStartNanos < 0 ? 0.0 : seconds(fetchStartNanos, parseStartNanos >= 0 ? parseStartNanos : endOrNow());
+    }
+
+    @Override
+    public double getTimeToFirstRecordSeconds() {
+        return firstRecordNanos < 0 ? -1.0 : seconds(startNanos, firstRecordNanos);
+    }
+
+    @Override
+    public double getFetchBytesPerSecond() {
+        return rate(bytesRead.get(), getFetchSeconds());
+    }
+
+    @Override
+    public double getParseRecordsPerSecond() {
+        if (parseStartNanos < 0 || convertStartNanos < 0) {
+            return 0.0;
+        }
+        return rate(fetched.get(), seconds(parseStartNanos, convertStartNanos));
+    }
+
+    @Override
+    public double getConvertRecordsPerSecond() {
+        return convertStartNanos < 0 ? 0.0 : rate(converted.get(), seconds(convertStartNanos, endOrNow()));
+    }
+
+    @Override
+    public double getDeliverRecordsPerSecond() {
+        return firstRecordNanos < 0 ? 0.0 : rate(delivered.get(), seconds(firstRecordNanos, endOrNow()));
+    }
+
+    /**
+     * Describe the progress in one line
+     */
+    @Override
+    public String getProgress() {
+        StringBuilder progress = new StringBuilder();
+        progress.append(objectType).append(' ').append(stage);
+        progress.append(": read ").append(formatBytes(bytesRead.get()));
+        if (STAGE_FETCHING.equals(stage)) {
+            progress.append(String.format(" (%s/s)", formatBytes((long) getFetchBytesPerSecond())));
+        }
+        progress.append(", parsed ").append(fetched.get());
+        if (parseStartNanos >= 0 && convertStartNanos >= 0) {
+            progress.append(String.format(" (%.0f/s)", getParseRecordsPerSecond()));
+        }
+        progress.append(", converted ").append(converted.get());
+        if (convertStartNanos >= 0) {
+            progress.append(String.format(" (%.0f/s)", getConvertRecordsPerSecond()));
+        }
+        progress.append(", filtered ").append(filtered.get());
+        progress.append(", delivered ").append(delivered.get());
+        if (firstRecordNanos >= 0) {
+            progress.append(String.format(", first record after %.1fs", getTimeToFirstRecordSeconds()));
+        }
+        progress.append(String.format(", elapsed %.1fs", getElapsedSeconds()));
+        if (failure != null) {
+            progress.append(", failed: ").append(failure);
+        }
+        return progress.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getProgress();
+    }
+
+    private void changeStage(String newStage) {
+        stage = newStage;
+        report();
+    }
+
+    private void maybeReport() {
+        if (listener != null && System.nanoTime() - lastReportNanos >= reportIntervalNanos) {
+            report();
+        }
+    }
+
+    private void report() {
+        lastReportNanos = System.nanoTime();
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.progressUpdated(getProgress());
+        } catch (Exception e) {
+            log.debug("Progress listener failed: " + e.getMessage());
+        }
+    }
+
+    private long endOrNow() {
+        long end = endNanos;
+        return end >= 0 ? end : System.nanoTime();
+    }
+
+    private static double seconds(long fromNanos, long toNanos) {
+        return Math.max(0, toNanos - fromNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static double rate(long count, double seconds) {
+        return seconds > 0 ? count / seconds : 0.0;
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
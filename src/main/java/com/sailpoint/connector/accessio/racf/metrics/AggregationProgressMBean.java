@@ -0,0 +1,40 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+/**
+ * JMX view of the progress of an aggregation run
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public interface AggregationProgressMBean {
+
+    String getObjectType();
+
+    String getStage();
+
+    String getProgress();
+
+    long getBytesRead();
+
+    long getRecordsFetched();
+
+    long getRecordsConverted();
+
+    long getRecordsFiltered();
+
+    long getRecordsDelivered();
+
+    double getElapsedSeconds();
+
+    double getFetchSeconds();
+
+    double getTimeToFirstRecordSeconds();
+
+    double getFetchBytesPerSecond();
+
+    double getParseRecordsPerSecond();
+
+    double getConvertRecordsPerSecond();
+
+    double getDeliverRecordsPerSecond();
+}
@@ -0,0 +1,69 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Forwards Garancy client metrics to several registries
+ *
+ * Used when a custom registry is configured next to the built-in JMX
+ * metrics.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class CompositeMetricsRegistry implements GarancyMetricsRegistry {
+
+    private static final Log log = LogFactory.getLog(CompositeMetricsRegistry.class);
+
+    private final List<GarancyMetricsRegistry> registries;
+
+    public CompositeMetricsRegistry(GarancyMetricsRegistry... registries) {
+        this.registries = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(registries)));
+    }
+
+    public List<GarancyMetricsRegistry> getRegistries() {
+        return registries;
+    }
+
+    @Override
+    public void requestStarted(String operation) {
+        for (GarancyMetricsRegistry registry : registries) {
+            registry.requestStarted(operation);
+        }
+    }
+
+    @Override
+    public void requestCompleted(String operation, long latencyNanos, long requestBytes, long responseBytes) {
+        for (GarancyMetricsRegistry registry : registries) {
+            registry.requestCompleted(operation, latencyNanos, requestBytes, responseBytes);
+        }
+    }
+
+    @Override
+    public void requestFailed(String operation, long latencyNanos, boolean fault) {
+        for (GarancyMetricsRegistry registry : registries) {
+            registry.requestFailed(operation, latencyNanos, fault);
+        }
+    }
+
+    @Override
+    public void retryScheduled(String operation, int attempt) {
+        for (GarancyMetricsRegistry registry : registries) {
+            registry.retryScheduled(operation, attempt);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (GarancyMetricsRegistry registry : registries) {
+            try {
+                registry.close();
+            } catch (Exception e) {
+                log.warn("Error closing metrics registry " + registry.getClass().getName(), e);
+            }
+        }
+    }
+}
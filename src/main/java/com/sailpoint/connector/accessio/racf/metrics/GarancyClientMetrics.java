@@ -0,0 +1,146 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory Garancy client metrics with JMX publication
+ *
+ * Default GarancyMetricsRegistry. Keeps one GarancyOperationMetrics per
+ * operation and, once registerMBeans() is called, publishes each of them as
+ * an MBean named
+ *
+ *   com.sailpoint.connector.accessio.racf:type=GarancyAPIClient,application=<app>,operation=<op>
+ *
+ * When an application's components are rebuilt the new metrics take over
+ * the MBean names; closing the replaced metrics leaves them in place.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class GarancyClientMetrics implements GarancyMetricsRegistry {
+
+    private static final Log log = LogFactory.getLog(GarancyClientMetrics.class);
+
+    public static final String JMX_DOMAIN = "com.sailpoint.connector.accessio.racf";
+
+    // Current owner of each registered MBean name, shared by all instances
+    private static final Map<ObjectName, GarancyClientMetrics> mbeanOwners = new ConcurrentHashMap<>();
+
+    private final Map<String, GarancyOperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Object registrationLock = new Object();
+    private String applicationKey;
+
+    /**
+     * Get the metrics of an operation, creating them on first use
+     */
+    public GarancyOperationMetrics getOperationMetrics(String operation) {
+        GarancyOperationMetrics metrics = operations.get(operation);
+        if (metrics == null) {
+            GarancyOperationMetrics created = new GarancyOperationMetrics(operation);
+            metrics = operations.putIfAbsent(operation, created);
+            if (metrics == null) {
+                metrics = created;
+                registerMBean(created);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Get the metrics of all operations seen so far, by operation name
+     */
+    public Map<String, GarancyOperationMetrics> getAllOperationMetrics() {
+        return Collections.unmodifiableMap(new TreeMap<>(operations));
+    }
+
+    @Override
+    public void requestStarted(String operation) {
+        getOperationMetrics(operation).requestStarted();
+    }
+
+    @Override
+    public void requestCompleted(String operation, long latencyNanos, long requestBytes, long responseBytes) {
+        getOperationMetrics(operation).requestCompleted(latencyNanos, requestBytes, responseBytes);
+    }
+
+    @Override
+    public void requestFailed(String operation, long latencyNanos, boolean fault) {
+        getOperationMetrics(operation).requestFailed(latencyNanos, fault);
+    }
+
+    @Override
+    public void retryScheduled(String operation, int attempt) {
+        getOperationMetrics(operation).retryScheduled();
+    }
+
+    /**
+     * Publish the metrics of every operation, now and as new operations are seen,
+     * under the given application's name
+     */
+    public void registerMBeans(String applicationKey) {
+        synchronized (registrationLock) {
+            this.applicationKey = applicationKey;
+        }
+        for (GarancyOperationMetrics metrics : operations.values()) {
+            registerMBean(metrics);
+        }
+    }
+
+    /**
+     * Remove the MBeans still owned by this instance
+     */
+    @Override
+    public void close() {
+        synchronized (registrationLock) {
+            if (applicationKey == null) {
+                return;
+            }
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (String operation : operations.keySet()) {
+                try {
+                    ObjectName name = objectName(applicationKey, operation);
+                    if (mbeanOwners.remove(name, this) && server.isRegistered(name)) {
+                        server.unregisterMBean(name);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to unregister metrics MBean for " + operation, e);
+                }
+            }
+            applicationKey = null;
+        }
+    }
+
+    /**
+     * Build the MBean name of an operation's metrics
+     */
+    public static ObjectName objectName(String applicationKey, String operation) throws Exception {
+        return new ObjectName(JMX_DOMAIN + ":type=GarancyAPIClient,application=" + ObjectName.quote(applicationKey) +
+                              ",operation=" + ObjectName.quote(operation));
+    }
+
+    private void registerMBean(GarancyOperationMetrics metrics) {
+        synchronized (registrationLock) {
+            if (applicationKey == null) {
+                return;
+            }
+            try {
+                ObjectName name = objectName(applicationKey, metrics.getOperation());
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(metrics, name);
+                mbeanOwners.put(name, this);
+            } catch (Exception e) {
+                log.warn("Failed to register metrics MBean for " + metrics.getOperation(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+/**
+ * Receives request metrics from GarancyAPIClient
+ *
+ * The client reports every HTTP attempt against a Garancy operation. The
+ * default implementation, GarancyClientMetrics, keeps counters and latency
+ * histograms in memory and publishes them over JMX; other implementations
+ * can forward the same events to an external metrics system.
+ *
+ * Implementations are called on the request path and must be thread-safe
+ * and cheap.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public interface GarancyMetricsRegistry {
+
+    /**
+     * Registry that discards everything, used when metrics are disabled
+     */
+    GarancyMetricsRegistry NOOP = new GarancyMetricsRegistry() {
+        @Override
+        public void requestStarted(String operation) {
+        }
+
+        @Override
+        public void requestCompleted(String operation, long latencyNanos, long requestBytes, long responseBytes) {
+        }
+
+        @Override
+        public void requestFailed(String operation, long latencyNanos, boolean fault) {
+        }
+
+        @Override
+        public void retryScheduled(String operation, int attempt) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * An attempt was sent; paired with exactly one requestCompleted or requestFailed
+     */
+    void requestStarted(String operation);
+
+    /**
+     * An attempt succeeded
+     *
+     * @param requestBytes size of the request body
+     * @param responseBytes size of the response body read
+     */
+    void requestCompleted(String operation, long latencyNanos, long requestBytes, long responseBytes);
+
+    /**
+     * An attempt failed
+     *
+     * @param fault true if Garancy answered with a SOAP fault, false for transport errors
+     */
+    void requestFailed(String operation, long latencyNanos, boolean fault);
+
+    /**
+     * A failed attempt will be retried
+     *
+     * @param attempt number of the attempt that failed
+     */
+    void retryScheduled(String operation, int attempt);
+
+    /**
+     * Release resources held by the registry, such as JMX registrations
+     */
+    void close();
+}
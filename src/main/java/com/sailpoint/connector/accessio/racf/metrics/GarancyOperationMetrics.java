@@ -0,0 +1,156 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request metrics of one Garancy operation
+ *
+ * Counts attempts, successes, failures, SOAP faults and retries, tracks the
+ * attempts currently in flight and payload sizes, and records the latency of
+ * every attempt, successful or not, in a LatencyHistogram.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class GarancyOperationMetrics implements GarancyOperationMetricsMBean {
+
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final AtomicLong maxResponseBytes = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long startedAt = System.nanoTime();
+
+    public GarancyOperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void requestStarted() {
+        requests.increment();
+        inFlight.incrementAndGet();
+    }
+
+    void requestCompleted(long latencyNanos, long requestSize, long responseSize) {
+        inFlight.decrementAndGet();
+        successes.increment();
+        latency.recordNanos(latencyNanos);
+        requestBytes.add(Math.max(0, requestSize));
+        responseBytes.add(Math.max(0, responseSize));
+
+        long max = maxResponseBytes.get();
+        while (responseSize > max && !maxResponseBytes.compareAndSet(max, responseSize)) {
+            max = maxResponseBytes.get();
+        }
+    }
+
+    void requestFailed(long latencyNanos, boolean fault) {
+        inFlight.decrementAndGet();
+        failures.increment();
+        if (fault) {
+            faults.increment();
+        }
+        latency.recordNanos(latencyNanos);
+    }
+
+    void retryScheduled() {
+        retries.increment();
+    }
+
+    /**
+     * Get the latency histogram of all attempts
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    @Override
+    public String getOperation() { return operation; }
+
+    @Override
+    public long getRequestCount() { return requests.sum(); }
+
+    @Override
+    public long getSuccessCount() { return successes.sum(); }
+
+    @Override
+    public long getFailureCount() { return failures.sum(); }
+
+    @Override
+    public long getFaultCount() { return faults.sum(); }
+
+    @Override
+    public long getRetryCount() { return retries.sum(); }
+
+    @Override
+    public int getInFlight() { return inFlight.get(); }
+
+    @Override
+    public long getRequestBytes() { return requestBytes.sum(); }
+
+    @Override
+    public long getResponseBytes() { return responseBytes.sum(); }
+
+    @Override
+    public long getMaxResponseBytes() { return maxResponseBytes.get(); }
+
+    /**
+     * Completed attempts per second since creation or the last reset
+     */
+    @Override
+    public double getThroughputPerSecond() {
+        double seconds = (System.nanoTime() - startedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+        return seconds > 0 ? (successes.sum() + failures.sum()) / seconds : 0.0;
+    }
+
+    @Override
+    public double getMeanLatencyMillis() { return latency.getMeanMicros() / 1000.0; }
+
+    @Override
+    public double getP50LatencyMillis() { return latency.getPercentileMicros(50.0) / 1000.0; }
+
+    @Override
+    public double getP90LatencyMillis() { return latency.getPercentileMicros(90.0) / 1000.0; }
+
+    @Override
+    public double getP99LatencyMillis() { return latency.getPercentileMicros(99.0) / 1000.0; }
+
+    @Override
+    public double getP999LatencyMillis() { return latency.getPercentileMicros(99.9) / 1000.0; }
+
+    @Override
+    public double getMaxLatencyMillis() { return latency.getMaxMicros() / 1000.0; }
+
+    /**
+     * Clear counters and latencies; attempts in flight are kept
+     */
+    @Override
+    public void reset() {
+        latency.reset();
+        requests.reset();
+        successes.reset();
+        failures.reset();
+        faults.reset();
+        retries.reset();
+        requestBytes.reset();
+        responseBytes.reset();
+        maxResponseBytes.set(0);
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public String toString() {
+        return operation + ": requests=" + getRequestCount() + ", failures=" + getFailureCount() +
+               ", faults=" + getFaultCount() + ", retries=" + getRetryCount() + ", inFlight=" + getInFlight() +
+               ", p50=" + getP50LatencyMillis() + "ms, p99=" + getP99LatencyMillis() + "ms, max=" +
+               getMaxLatencyMillis() + "ms";
+    }
+}
@@ -0,0 +1,46 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+/**
+ * JMX view of the metrics of one Garancy operation
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public interface GarancyOperationMetricsMBean {
+
+    String getOperation();
+
+    long getRequestCount();
+
+    long getSuccessCount();
+
+    long getFailureCount();
+
+    long getFaultCount();
+
+    long getRetryCount();
+
+    int getInFlight();
+
+    double getThroughputPerSecond();
+
+    double getMeanLatencyMillis();
+
+    double getP50LatencyMillis();
+
+    double getP90LatencyMillis();
+
+    double getP99LatencyMillis();
+
+    double getP999LatencyMillis();
+
+    double getMaxLatencyMillis();
+
+    long getRequestBytes();
+
+    long getResponseBytes();
+
+    long getMaxResponseBytes();
+
+    void reset();
+}
@@ -0,0 +1,151 @@
+package com.sailpoint.connector.accessio.racf.security;
+
+import java.util.*;
+
+/**
+ * Result of validating a batch of records with BatchInputValidator
+ *
+ * Errors are kept in parallel primitive arrays ordered by row and column,
+ * so a report over a large file with many bad rows stays small and holds
+ * no exception or message objects. Messages are only built when asked for.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class BatchValidationReport {
+
+    private final List<String> columnNames;
+    private final int rowCount;
+    private final int errorCount;
+    private final int[] errorRows;
+    private final short[] errorColumns;
+    private final byte[] errorCodes;
+    private final long durationMillis;
+
+    BatchValidationReport(List<String> columnNames, int rowCount, int errorCount, int[] errorRows,
+                          short[] errorColumns, byte[] errorCodes, long durationMillis) {
+        this.columnNames = Collections.unmodifiableList(new ArrayList<>(columnNames));
+        this.rowCount = rowCount;
+        this.errorCount = errorCount;
+        this.errorRows = errorRows;
+        this.errorColumns = errorColumns;
+        this.errorCodes = errorCodes;
+        this.durationMillis = durationMillis;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public boolean isValid() {
+        return errorCount == 0;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Get the zero-based row of an error
+     */
+    public int getErrorRow(int index) {
+        checkIndex(index);
+        return errorRows[index];
+    }
+
+    /**
+     * Get the column name of an error
+     */
+    public String getErrorColumn(int index) {
+        checkIndex(index);
+        return columnNames.get(errorColumns[index]);
+    }
+
+    /**
+     * Get the reason of an error
+     */
+    public ValidationError getError(int index) {
+        checkIndex(index);
+        return ValidationError.fromOrdinal(errorCodes[index]);
+    }
+
+    /**
+     * Whether a row passed validation
+     */
+    public boolean isRowValid(int row) {
+        return Arrays.binarySearch(errorRows, 0, errorCount, row) < 0;
+    }
+
+    /**
+     * Get the rows with at least one error
+     */
+    public BitSet getInvalidRows() {
+        BitSet rows = new BitSet(rowCount);
+        for (int i = 0; i < errorCount; i++) {
+            rows.set(errorRows[i]);
+        }
+        return rows;
+    }
+
+    public int getInvalidRowCount() {
+        int count = 0;
+        for (int i = 0; i < errorCount; i++) {
+            if (i == 0 || errorRows[i] != errorRows[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of errors per reason
+     */
+    public Map<ValidationError, Integer> getErrorCounts() {
+        int[] counts = new int[ValidationError.values().length];
+        for (int i = 0; i < errorCount; i++) {
+            counts[errorCodes[i]]++;
+        }
+        Map<ValidationError, Integer> errorCounts = new EnumMap<>(ValidationError.class);
+        for (ValidationError error : ValidationError.values()) {
+            if (counts[error.ordinal()] > 0) {
+                errorCounts.put(error, counts[error.ordinal()]);
+            }
+        }
+        return errorCounts;
+    }
+
+    /**
+     * Describe the first errors, e.g. "Row 12, BASEUS_SAM_ID: exceeds maximum length"
+     *
+     * @param limit maximum number of messages
+     */
+    public List<String> getMessages(int limit) {
+        int count = Math.min(Math.max(0, limit), errorCount);
+        List<String> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add("Row " + errorRows[i] + ", " + columnNames.get(errorColumns[i]) + ": " +
+                         ValidationError.fromOrdinal(errorCodes[i]).getDescription());
+        }
+        return messages;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchValidationReport{rows=" + rowCount + ", errors=" + errorCount +
+               ", invalidRows=" + getInvalidRowCount() + ", durationMillis=" + durationMillis + "}";
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= errorCount) {
+            throw new IndexOutOfBoundsException("Error " + index + " of " + errorCount);
+        }
+    }
+}
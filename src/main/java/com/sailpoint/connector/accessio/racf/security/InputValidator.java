@@ -13,58 +13,60 @@ public class InputValidator {
     
     // Safe string pattern - alphanumeric, dots, underscores, at signs, hyphens
     private static final Pattern SAFE_STRING_PATTERN = Pattern.compile("^[a-zA-Z0-9._@-]+$");
-    private static final Pattern USER_ID_PATTERN = Pattern.compile("^[a-zA-Z0-9._-]{1,32}$");
-    private static final Pattern ROLE_ID_PATTERN = Pattern.compile("^[a-zA-Z0-9._-]{1,32}$");
-    private static final Pattern ORG_UNIT_PATTERN = Pattern.compile("^[a-zA-Z0-9._-]{1,50}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+    
+    // Patterns stripped from descriptions
+    private static final Pattern HTML_TAG_PATTERN = Pattern.compile("<[^>]*>");
+    private static final Pattern JAVASCRIPT_URL_PATTERN = Pattern.compile("javascript:", Pattern.LITERAL);
+    private static final Pattern VBSCRIPT_URL_PATTERN = Pattern.compile("vbscript:", Pattern.LITERAL);
+    
+    // Characters and keywords removed from SQL-like input
+    private static final Pattern SQL_CHARACTER_PATTERN = Pattern.compile("[';\"\\\\]");
+    private static final Pattern SQL_KEYWORD_PATTERN =
+            Pattern.compile("(?i)(union|select|insert|update|delete|drop|create|alter|exec|execute)");
+    
+    // Common injection patterns, matched case-insensitively in a single pass
+    private static final MultiPatternMatcher MALICIOUS_PATTERNS = MultiPatternMatcher.compile(
+        "<script", "javascript:", "vbscript:", "onload=", "onerror=",
+        "eval(", "expression(", "url(", "import(", "\\x", "&#x",
+        "union select", "drop table", "insert into", "delete from",
+        "../", "..\\", "%2e%2e", "%252e", "file://", "ftp://",
+        "data:", "blob:", "filesystem:"
+    );
     
     // Maximum field lengths
     private static final int MAX_STRING_LENGTH = 255;
     private static final int MAX_USER_ID_LENGTH = 32;
     private static final int MAX_ROLE_ID_LENGTH = 32;
+    private static final int MAX_ORG_UNIT_ID_LENGTH = 50;
     private static final int MAX_DESCRIPTION_LENGTH = 500;
     
     /**
      * Sanitize general string input
      */
     public static String sanitizeInput(String input, String fieldName) {
-        if (input == null) return null;
-        
-        // Trim whitespace
-        input = input.trim();
-        
-        // Check for empty string after trim
-        if (input.isEmpty()) {
+        ValidationError error = checkInput(input);
+        if (error == ValidationError.EMPTY) {
             throw new IllegalArgumentException(fieldName + " cannot be empty");
-        }
-        
-        // Check length
-        if (input.length() > MAX_STRING_LENGTH) {
+        } else if (error == ValidationError.TOO_LONG) {
             throw new IllegalArgumentException(fieldName + " exceeds maximum length of " + MAX_STRING_LENGTH);
-        }
-        
-        // Check for potentially malicious patterns
-        if (containsMaliciousPatterns(input)) {
+        } else if (error != null) {
             throw new IllegalArgumentException(fieldName + " contains potentially malicious content");
         }
         
-        return input;
+        return input != null ? input.trim() : null;
     }
     
     /**
      * Validate user ID format and content
      */
     public static void validateUserId(String userId) {
-        if (Util.isNullOrEmpty(userId)) {
+        ValidationError error = checkUserId(userId);
+        if (error == ValidationError.EMPTY) {
             throw new IllegalArgumentException("User ID cannot be null or empty");
-        }
-        
-        userId = userId.trim();
-        
-        if (userId.length() > MAX_USER_ID_LENGTH) {
+        } else if (error == ValidationError.TOO_LONG) {
             throw new IllegalArgumentException("User ID exceeds maximum length of " + MAX_USER_ID_LENGTH);
-        }
-        
-        if (!USER_ID_PATTERN.matcher(userId).matches()) {
+        } else if (error != null) {
             throw new IllegalArgumentException("User ID contains invalid characters. Only alphanumeric, dots, underscores, and hyphens allowed");
         }
     }
@@ -73,17 +75,12 @@ public class InputValidator {
      * Validate role ID format and content
      */
     public static void validateRoleId(String roleId) {
-        if (Util.isNullOrEmpty(roleId)) {
+        ValidationError error = checkRoleId(roleId);
+        if (error == ValidationError.EMPTY) {
             throw new IllegalArgumentException("Role ID cannot be null or empty");
-        }
-        
-        roleId = roleId.trim();
-        
-        if (roleId.length() > MAX_ROLE_ID_LENGTH) {
+        } else if (error == ValidationError.TOO_LONG) {
             throw new IllegalArgumentException("Role ID exceeds maximum length of " + MAX_ROLE_ID_LENGTH);
-        }
-        
-        if (!ROLE_ID_PATTERN.matcher(roleId).matches()) {
+        } else if (error != null) {
             throw new IllegalArgumentException("Role ID contains invalid characters. Only alphanumeric, dots, underscores, and hyphens allowed");
         }
     }
@@ -92,13 +89,10 @@ public class InputValidator {
      * Validate organizational unit ID
      */
     public static void validateOrgUnitId(String orgUnitId) {
-        if (Util.isNullOrEmpty(orgUnitId)) {
+        ValidationError error = checkOrgUnitId(orgUnitId);
+        if (error == ValidationError.EMPTY) {
             throw new IllegalArgumentException("Org Unit ID cannot be null or empty");
-        }
-        
-        orgUnitId = orgUnitId.trim();
-        
-        if (!ORG_UNIT_PATTERN.matcher(orgUnitId).matches()) {
+        } else if (error != null) {
             throw new IllegalArgumentException("Org Unit ID contains invalid characters");
         }
     }
@@ -107,20 +101,126 @@ public class InputValidator {
      * Validate email address format
      */
     public static void validateEmail(String email) {
+        ValidationError error = checkEmail(email);
+        if (error == ValidationError.INVALID_FORMAT) {
+            throw new IllegalArgumentException("Invalid email format");
+        } else if (error != null) {
+            throw new IllegalArgumentException("Email exceeds maximum length");
+        }
+    }
+    
+    /*
+     * Non-throwing checks behind the validate methods, also used by BatchInputValidator.
+     * Each returns null for valid input. Leading and trailing whitespace is ignored
+     * without trimming a copy of the input.
+     */
+    
+    static ValidationError checkInput(String input) {
+        if (input == null) return null;
+        
+        int start = trimStart(input);
+        int end = trimEnd(input, start);
+        if (start == end) {
+            return ValidationError.EMPTY;
+        }
+        if (end - start > MAX_STRING_LENGTH) {
+            return ValidationError.TOO_LONG;
+        }
+        if (MALICIOUS_PATTERNS.containsAny(input, start, end)) {
+            return ValidationError.MALICIOUS_CONTENT;
+        }
+        return null;
+    }
+    
+    static ValidationError checkUserId(String userId) {
+        return checkIdentifier(userId, MAX_USER_ID_LENGTH, true);
+    }
+    
+    static ValidationError checkRoleId(String roleId) {
+        return checkIdentifier(roleId, MAX_ROLE_ID_LENGTH, true);
+    }
+    
+    static ValidationError checkOrgUnitId(String orgUnitId) {
+        return checkIdentifier(orgUnitId, MAX_ORG_UNIT_ID_LENGTH, false);
+    }
+    
+    static ValidationError checkEmail(String email) {
         if (Util.isNullOrEmpty(email)) {
-            return; // Email is optional in many cases
+            return null; // Email is optional in many cases
         }
         
-        email = email.trim();
+        int start = trimStart(email);
+        int end = trimEnd(email, start);
         
         // Basic email validation
-        if (!email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$")) {
-            throw new IllegalArgumentException("Invalid email format");
+        if (!EMAIL_PATTERN.matcher(email).region(start, end).matches()) {
+            return ValidationError.INVALID_FORMAT;
+        }
+        if (end - start > MAX_STRING_LENGTH) {
+            return ValidationError.TOO_LONG;
+        }
+        return null;
+    }
+    
+    static ValidationError checkWorkflowId(String workflowId) {
+        if (Util.isNullOrEmpty(workflowId)) {
+            return ValidationError.EMPTY;
+        }
+        for (int i = 0; i < workflowId.length(); i++) {
+            char c = workflowId.charAt(i);
+            if (c == '.' || !isIdentifierChar(c)) {
+                return ValidationError.INVALID_CHARACTERS;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check a trimmed identifier of 1 to maxLength alphanumerics, dots, underscores and hyphens
+     *
+     * @param reportLength whether an overlong identifier is TOO_LONG rather than INVALID_CHARACTERS
+     */
+    private static ValidationError checkIdentifier(String id, int maxLength, boolean reportLength) {
+        if (Util.isNullOrEmpty(id)) {
+            return ValidationError.EMPTY;
         }
         
-        if (email.length() > MAX_STRING_LENGTH) {
-            throw new IllegalArgumentException("Email exceeds maximum length");
+        int start = trimStart(id);
+        int end = trimEnd(id, start);
+        if (end - start > maxLength) {
+            return reportLength ? ValidationError.TOO_LONG : ValidationError.INVALID_CHARACTERS;
+        }
+        if (start == end) {
+            return ValidationError.INVALID_CHARACTERS;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isIdentifierChar(id.charAt(i))) {
+                return ValidationError.INVALID_CHARACTERS;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isIdentifierChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') ||
+               c == '.' || c == '_' || c == '-';
+    }
+    
+    // Bounds of the input as String.trim() would return it
+    private static int trimStart(String input) {
+        int start = 0;
+        while (start < input.length() && input.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+    
+    private static int trimEnd(String input, int start) {
+        int end = input.length();
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
         }
+        return end;
     }
     
     /**
@@ -136,39 +236,13 @@ public class InputValidator {
         }
         
         // Remove potentially dangerous HTML/script content
-        description = description.replaceAll("<[^>]*>", ""); // Strip HTML tags
-        description = description.replaceAll("javascript:", ""); // Remove javascript: URLs
-        description = description.replaceAll("vbscript:", ""); // Remove vbscript: URLs
+        description = HTML_TAG_PATTERN.matcher(description).replaceAll(""); // Strip HTML tags
+        description = JAVASCRIPT_URL_PATTERN.matcher(description).replaceAll(""); // Remove javascript: URLs
+        description = VBSCRIPT_URL_PATTERN.matcher(description).replaceAll(""); // Remove vbscript: URLs
         
         return description;
     }
     
-    /**
-     * Check for malicious patterns in input
-     */
-    private static boolean containsMaliciousPatterns(String input) {
-        if (input == null) return false;
-        
-        String lowerInput = input.toLowerCase();
-        
-        // Check for common injection patterns
-        String[] maliciousPatterns = {
-            "<script", "javascript:", "vbscript:", "onload=", "onerror=",
-            "eval(", "expression(", "url(", "import(", "\\x", "&#x",
-            "union select", "drop table", "insert into", "delete from",
-            "../", "..\\", "%2e%2e", "%252e", "file://", "ftp://",
-            "data:", "blob:", "filesystem:"
-        };
-        
-        for (String pattern : maliciousPatterns) {
-            if (lowerInput.contains(pattern)) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
     /**
      * Sanitize SQL-like input to prevent injection
      */
@@ -176,8 +250,8 @@ public class InputValidator {
         if (input == null) return null;
         
         // Remove dangerous SQL characters and keywords
-        input = input.replaceAll("[';\"\\\\]", "");
-        input = input.replaceAll("(?i)(union|select|insert|update|delete|drop|create|alter|exec|execute)", "");
+        input = SQL_CHARACTER_PATTERN.matcher(input).replaceAll("");
+        input = SQL_KEYWORD_PATTERN.matcher(input).replaceAll("");
         
         return input.trim();
     }
@@ -186,11 +260,10 @@ public class InputValidator {
      * Validate workflow ID format
      */
     public static void validateWorkflowId(String workflowId) {
-        if (Util.isNullOrEmpty(workflowId)) {
+        ValidationError error = checkWorkflowId(workflowId);
+        if (error == ValidationError.EMPTY) {
             throw new IllegalArgumentException("Workflow ID cannot be null or empty");
-        }
-        
-        if (!workflowId.matches("^[a-zA-Z0-9_-]+$")) {
+        } else if (error != null) {
             throw new IllegalArgumentException("Workflow ID contains invalid characters");
         }
     }
@@ -0,0 +1,186 @@
+package com.sailpoint.connector.accessio.racf.security;
+
+import java.util.*;
+
+/**
+ * Case-insensitive multi-pattern substring matcher
+ *
+ * Compiles a fixed set of ASCII patterns into an Aho-Corasick automaton
+ * with every failure transition resolved ahead of time, so scanning is one
+ * table lookup per input character regardless of how many patterns there
+ * are. ASCII letters are folded to lower case while scanning; the input is
+ * never copied or lowercased, and non-ASCII characters simply restart the
+ * match since no pattern contains them.
+ *
+ * Instances are immutable and safe to share between threads.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public final class MultiPatternMatcher {
+
+    private static final int ASCII = 128;
+    private static final int NO_MATCH = -1;
+
+    private final String[] patterns;
+    // Character class per folded ASCII character; 0 for characters no pattern uses
+    private final byte[] charClass;
+    private final int classCount;
+    // transitions[state * classCount + class] -> next state
+    private final int[] transitions;
+    // Index of a pattern ending in each state, or NO_MATCH
+    private final int[] output;
+
+    private MultiPatternMatcher(String[] patterns, byte[] charClass, int classCount,
+                                int[] transitions, int[] output) {
+        this.patterns = patterns;
+        this.charClass = charClass;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.output = output;
+    }
+
+    /**
+     * Compile a matcher for the given patterns
+     *
+     * @throws IllegalArgumentException if a pattern is empty or contains non-ASCII characters
+     */
+    public static MultiPatternMatcher compile(String... patterns) {
+        String[] folded = new String[patterns.length];
+        byte[] charClass = new byte[ASCII];
+        int classCount = 1;
+        for (int p = 0; p < patterns.length; p++) {
+            String pattern = patterns[p];
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern cannot be empty");
+            }
+            StringBuilder lower = new StringBuilder(pattern.length());
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("Pattern is not ASCII: " + pattern);
+                }
+                c = fold(c);
+                if (charClass[c] == 0) {
+                    if (classCount > Byte.MAX_VALUE) {
+                        throw new IllegalArgumentException("Too many distinct pattern characters");
+                    }
+                    charClass[c] = (byte) classCount++;
+                }
+                lower.append(c);
+            }
+            folded[p] = lower.toString();
+        }
+
+        // Trie of the folded patterns
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        gotoTable.add(newRow(classCount));
+        outputs.add(NO_MATCH);
+        for (int p = 0; p < folded.length; p++) {
+            int state = 0;
+            for (int i = 0; i < folded[p].length(); i++) {
+                int cls = charClass[folded[p].charAt(i)];
+                int next = gotoTable.get(state)[cls];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.add(newRow(classCount));
+                    outputs.add(NO_MATCH);
+                    gotoTable.get(state)[cls] = next;
+                }
+                state = next;
+            }
+            if (outputs.get(state) == NO_MATCH) {
+                outputs.set(state, p);
+            }
+        }
+
+        // Breadth-first failure links, folded straight into the transition table
+        int stateCount = gotoTable.size();
+        int[] transitions = new int[stateCount * classCount];
+        int[] output = new int[stateCount];
+        int[] failure = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int cls = 0; cls < classCount; cls++) {
+            int next = gotoTable.get(0)[cls];
+            if (next > 0) {
+                failure[next] = 0;
+                transitions[cls] = next;
+                queue.add(next);
+            } else {
+                transitions[cls] = 0;
+            }
+        }
+        output[0] = outputs.get(0);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] = outputs.get(state) != NO_MATCH ? outputs.get(state) : output[failure[state]];
+            for (int cls = 0; cls < classCount; cls++) {
+                int next = gotoTable.get(state)[cls];
+                if (next > 0) {
+                    failure[next] = transitions[failure[state] * classCount + cls];
+                    transitions[state * classCount + cls] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * classCount + cls] = transitions[failure[state] * classCount + cls];
+                }
+            }
+        }
+
+        return new MultiPatternMatcher(patterns.clone(), charClass, classCount, transitions, output);
+    }
+
+    /**
+     * Whether the input contains any of the patterns, ignoring ASCII case
+     */
+    public boolean containsAny(CharSequence input) {
+        return input != null && scan(input, 0, input.length()) != NO_MATCH;
+    }
+
+    /**
+     * Whether the given range of the input contains any of the patterns, ignoring ASCII case
+     */
+    public boolean containsAny(CharSequence input, int start, int end) {
+        return input != null && scan(input, start, end) != NO_MATCH;
+    }
+
+    /**
+     * Get the first pattern found in the input, ignoring ASCII case, or null if there is none
+     */
+    public String findFirst(CharSequence input) {
+        int match = input != null ? scan(input, 0, input.length()) : NO_MATCH;
+        return match != NO_MATCH ? patterns[match] : null;
+    }
+
+    /**
+     * Get the patterns this matcher was compiled from
+     */
+    public List<String> getPatterns() {
+        return Collections.unmodifiableList(Arrays.asList(patterns));
+    }
+
+    private int scan(CharSequence input, int start, int end) {
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            int cls = c < ASCII ? charClass[fold(c)] : 0;
+            state = transitions[state * classCount + cls];
+            if (output[state] != NO_MATCH) {
+                return output[state];
+            }
+        }
+        return NO_MATCH;
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static int[] newRow(int classCount) {
+        int[] row = new int[classCount];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
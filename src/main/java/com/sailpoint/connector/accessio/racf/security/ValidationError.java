@@ -0,0 +1,35 @@
+package com.sailpoint.connector.accessio.racf.security;
+
+/**
+ * Reasons a field fails input validation
+ *
+ * Returned by the non-throwing checks behind InputValidator and recorded
+ * per field in a BatchValidationReport.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public enum ValidationError {
+
+    EMPTY("cannot be null or empty"),
+    TOO_LONG("exceeds maximum length"),
+    INVALID_CHARACTERS("contains invalid characters"),
+    INVALID_FORMAT("has an invalid format"),
+    MALICIOUS_CONTENT("contains potentially malicious content");
+
+    private static final ValidationError[] VALUES = values();
+
+    private final String description;
+
+    ValidationError(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    static ValidationError fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
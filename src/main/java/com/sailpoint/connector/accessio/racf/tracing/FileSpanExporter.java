@@ -0,0 +1,71 @@
+package com.sailpoint.connector.accessio.racf.tracing;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Appends spans to a local file, one JSON object per line
+ *
+ * Output is buffered and flushed whenever a root span ends, so a complete
+ * trace reaches the file in one write.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Log log = LogFactory.getLog(FileSpanExporter.class);
+
+    private final File file;
+    private Writer writer;
+
+    public FileSpanExporter(File file) throws IOException {
+        this.file = file;
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create trace directory " + directory);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(span.toJson());
+            writer.write('\n');
+            if (span.isRoot()) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write span to " + file + ", disabling file export", e);
+            closeQuietly();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.debug("Error closing trace file " + file + ": " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+}
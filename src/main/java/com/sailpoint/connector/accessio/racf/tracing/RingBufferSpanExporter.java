@@ -0,0 +1,79 @@
+package com.sailpoint.connector.accessio.racf.tracing;
+
+import java.util.*;
+
+/**
+ * Keeps the most recent spans in memory
+ *
+ * Holds a fixed number of spans, overwriting the oldest, so recent traces
+ * can be inspected from a rule or debug page without any file or network
+ * output.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class RingBufferSpanExporter implements SpanExporter {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Span[] buffer;
+    private int next;
+    private long exported;
+
+    public RingBufferSpanExporter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.buffer = new Span[capacity];
+    }
+
+    @Override
+    public synchronized void export(Span span) {
+        buffer[next] = span;
+        next = (next + 1) % buffer.length;
+        exported++;
+    }
+
+    /**
+     * Get the buffered spans, oldest first
+     */
+    public synchronized List<Span> getSpans() {
+        List<Span> spans = new ArrayList<>(buffer.length);
+        for (int i = 0; i < buffer.length; i++) {
+            Span span = buffer[(next + i) % buffer.length];
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Get the buffered spans of one trace, in the order they ended
+     */
+    public List<Span> getTrace(long traceId) {
+        List<Span> trace = new ArrayList<>();
+        for (Span span : getSpans()) {
+            if (span.getTraceId() == traceId) {
+                trace.add(span);
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Get the number of spans exported since creation, including overwritten ones
+     */
+    public synchronized long getExportedCount() {
+        return exported;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        next = 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,186 @@
+package com.sailpoint.connector.accessio.racf.tracing;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timed unit of work within a trace
+ *
+ * Spans are started by a Tracer, which makes the new span the current span
+ * of the thread so that spans started below it become its children. Ending
+ * the span restores its parent and, if the trace is sampled, hands the span
+ * to the exporter. Unsampled spans only carry context and record nothing.
+ *
+ * Always end a span in a finally block.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class Span {
+
+    /**
+     * Span returned while tracing is disabled; every method is a no-op
+     */
+    public static final Span NOOP = new Span(null, "noop", 0L, 0L, null, false);
+
+    private final Tracer tracer;
+    private final String name;
+    private final long traceId;
+    private final long spanId;
+    private final Span parent;
+    private final boolean sampled;
+    private final long startEpochMillis;
+    private final long startNanos;
+    private final String threadName;
+
+    private Map<String, Object> attributes;
+    private String error;
+    private volatile long durationNanos = -1;
+
+    Span(Tracer tracer, String name, long traceId, long spanId, Span parent, boolean sampled) {
+        this.tracer = tracer;
+        this.name = name;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.sampled = sampled;
+        this.startEpochMillis = sampled ? System.currentTimeMillis() : 0L;
+        this.startNanos = sampled ? System.nanoTime() : 0L;
+        this.threadName = sampled ? Thread.currentThread().getName() : null;
+    }
+
+    /**
+     * Attach an attribute; ignored for unsampled spans
+     */
+    public Span setAttribute(String key, Object value) {
+        if (sampled && key != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed
+     */
+    public Span setError(Throwable t) {
+        if (sampled && t != null) {
+            error = t.getClass().getSimpleName() + ": " + t.getMessage();
+        }
+        return this;
+    }
+
+    /**
+     * End the span; further calls have no effect
+     */
+    public void end() {
+        if (tracer == null || durationNanos >= 0) {
+            return;
+        }
+        durationNanos = sampled ? Math.max(0, System.nanoTime() - startNanos) : 0L;
+        tracer.spanEnded(this);
+    }
+
+    public String getName() { return name; }
+    public long getTraceId() { return traceId; }
+    public long getSpanId() { return spanId; }
+    public long getParentSpanId() { return parent != null ? parent.spanId : 0L; }
+    public boolean isSampled() { return sampled; }
+    public boolean isRoot() { return parent == null; }
+    public boolean isEnded() { return durationNanos >= 0; }
+    public long getStartEpochMillis() { return startEpochMillis; }
+    public long getDurationNanos() { return durationNanos; }
+    public String getThreadName() { return threadName; }
+    public String getError() { return error; }
+
+    Span getParent() {
+        return parent;
+    }
+
+    /**
+     * Get the attributes attached to the span
+     */
+    public Map<String, Object> getAttributes() {
+        return attributes != null ? Collections.unmodifiableMap(attributes) : Collections.<String, Object>emptyMap();
+    }
+
+    /**
+     * Render the span as a single-line JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"traceId\":\"").append(toHex(traceId)).append('"');
+        json.append(",\"spanId\":\"").append(toHex(spanId)).append('"');
+        if (parent != null) {
+            json.append(",\"parentSpanId\":\"").append(toHex(parent.spanId)).append('"');
+        }
+        json.append(",\"name\":");
+        appendString(json, name);
+        json.append(",\"start\":").append(startEpochMillis);
+        json.append(",\"durationMicros\":").append(TimeUnit.NANOSECONDS.toMicros(Math.max(0, durationNanos)));
+        json.append(",\"thread\":");
+        appendString(json, threadName);
+        if (error != null) {
+            json.append(",\"error\":");
+            appendString(json, error);
+        }
+        if (attributes != null && !attributes.isEmpty()) {
+            json.append(",\"attributes\":{");
+            boolean first = true;
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendString(json, attribute.getKey());
+                json.append(':');
+                Object value = attribute.getValue();
+                if (value instanceof Number || value instanceof Boolean) {
+                    json.append(value);
+                } else {
+                    appendString(json, value != null ? value.toString() : null);
+                }
+            }
+            json.append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + toHex(traceId) + "/" + toHex(spanId) + "] " +
+               TimeUnit.NANOSECONDS.toMicros(Math.max(0, durationNanos)) + "us";
+    }
+
+    static String toHex(long id) {
+        String hex = Long.toHexString(id);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,17 @@
+package com.sailpoint.connector.accessio.racf.tracing;
+
+/**
+ * Receives sampled spans as they end
+ *
+ * Called on the thread that ended the span; implementations must be
+ * thread-safe.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public interface SpanExporter {
+
+    void export(Span span);
+
+    void close();
+}
@@ -0,0 +1,131 @@
+package com.sailpoint.connector.accessio.racf.tracing;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lightweight sampling tracer
+ *
+ * Tracks the current span per thread, so spans started by the connector,
+ * the managers and the API client while handling one request form a single
+ * trace. The sampling decision is taken once per trace, when its root span
+ * starts; children follow it. With a sample rate of zero startSpan returns
+ * Span.NOOP without touching any state.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+public class Tracer {
+
+    private static final Log log = LogFactory.getLog(Tracer.class);
+
+    /**
+     * Tracer that never records
+     */
+    public static final Tracer DISABLED = new Tracer(0.0, null);
+
+    private final double sampleRate;
+    private final SpanExporter exporter;
+    private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+
+    /**
+     * Constructor
+     *
+     * @param sampleRate share of traces recorded, 0.0 to 1.0
+     * @param exporter receives the spans of sampled traces
+     */
+    public Tracer(double sampleRate, SpanExporter exporter) {
+        this.sampleRate = exporter != null ? Math.min(1.0, Math.max(0.0, sampleRate)) : 0.0;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Start a span as child of the thread's current span, or as root of a new trace
+     */
+    public Span startSpan(String name) {
+        Span span = newSpan(name);
+        if (span != Span.NOOP) {
+            currentSpan.set(span);
+        }
+        return span;
+    }
+
+    /**
+     * Start a span as child of the thread's current span without making it current,
+     * for work that is handed to another thread and may end there
+     */
+    public Span startDetachedSpan(String name) {
+        return newSpan(name);
+    }
+
+    /**
+     * Get the thread's current span, or Span.NOOP if there is none
+     */
+    public Span currentSpan() {
+        Span span = currentSpan.get();
+        return span != null ? span : Span.NOOP;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public SpanExporter getExporter() {
+        return exporter;
+    }
+
+    public boolean isEnabled() {
+        return sampleRate > 0.0;
+    }
+
+    /**
+     * Close the exporter
+     */
+    public void close() {
+        if (exporter != null) {
+            exporter.close();
+        }
+    }
+
+    void spanEnded(Span span) {
+        if (currentSpan.get() == span) {
+            Span parent = span.getParent();
+            if (parent != null) {
+                currentSpan.set(parent);
+            } else {
+                currentSpan.remove();
+            }
+        }
+
+        if (span.isSampled()) {
+            try {
+                exporter.export(span);
+            } catch (Exception e) {
+                log.debug("Span export failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private Span newSpan(String name) {
+        if (sampleRate <= 0.0) {
+            return Span.NOOP;
+        }
+
+        Span parent = currentSpan.get();
+        if (parent != null) {
+            return new Span(this, name, parent.getTraceId(), nextId(), parent, parent.isSampled());
+        }
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        return new Span(this, name, nextId(), nextId(), null, sampled);
+    }
+
+    private static long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        return id;
+    }
+}
@@ -0,0 +1,36 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads
+ *
+ * Java 21 version of the class, packaged under META-INF/versions/21 of the
+ * multi-release jar. It must keep the same signatures as the Java 8 version
+ * in src/main/java.
+ *
+ * @author SailPoint Professional Services
+ * @version 1.0.0
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether this runtime and build support virtual threads
+     */
+    static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Create an executor starting a new virtual thread for every task
+     *
+     * @param namePrefix thread name prefix; threads are numbered from 1
+     */
+    static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 1).factory());
+    }
+}
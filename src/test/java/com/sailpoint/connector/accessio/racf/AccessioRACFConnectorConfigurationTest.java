@@ -0,0 +1,131 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import sailpoint.connector.ConnectorException;
+import sailpoint.object.Configuration;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the configuration handling of AccessioRACFConnector
+ */
+@ExtendWith(MockitoExtension.class)
+public class AccessioRACFConnectorConfigurationTest {
+
+    @Mock
+    private Configuration mockConfiguration;
+
+    private AccessioRACFConnector connector;
+
+    @BeforeEach
+    void setUp() {
+        connector = new AccessioRACFConnector() {
+            @Override
+            public Configuration getConfiguration() {
+                return mockConfiguration;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectorComponentRegistry.clear();
+    }
+
+    @Test
+    void testConfiguredSecurityOfficerIsReturned() throws Exception {
+        when(mockConfiguration.getString(AccessioRACFConnector.CONFIG_SECURITY_OFFICER))
+            .thenReturn("racf-security-officer@accessio.com");
+
+        assertEquals("racf-security-officer@accessio.com", connector.getSecurityOfficer());
+    }
+
+    @Test
+    void testMissingSecurityOfficerFailsClosed() {
+        when(mockConfiguration.getString(AccessioRACFConnector.CONFIG_SECURITY_OFFICER)).thenReturn(null);
+        assertThrows(ConnectorException.class, () -> connector.getSecurityOfficer());
+
+        when(mockConfiguration.getString(AccessioRACFConnector.CONFIG_SECURITY_OFFICER)).thenReturn("");
+        assertThrows(ConnectorException.class, () -> connector.getSecurityOfficer());
+    }
+
+    @Test
+    void testComponentsSharedAcrossConnectorInstances() throws Exception {
+        Map<String, Object> attributes = createAttributes();
+        AccessioRACFConnector first = createConnector(attributes);
+        AccessioRACFConnector second = createConnector(new HashMap<>(attributes));
+
+        assertSame(first.getGarancyAPIClient(), second.getGarancyAPIClient());
+        assertSame(first.getRoleManager(), second.getRoleManager());
+        assertSame(first.getRecertificationManager(), second.getRecertificationManager());
+
+        // Aggregation state written back to the application is no configuration change
+        Map<String, Object> aggregated = new HashMap<>(attributes);
+        aggregated.put("acctAggregationEnd", new Date());
+        assertSame(first.getGarancyAPIClient(), createConnector(aggregated).getGarancyAPIClient());
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void testConfigurationChangeRebuildsComponents() throws Exception {
+        Map<String, Object> attributes = createAttributes();
+        AccessioRACFConnector before = createConnector(attributes);
+        GarancyAPIClient original = before.getGarancyAPIClient();
+
+        Map<String, Object> changed = new HashMap<>(attributes);
+        changed.put(AccessioRACFConnector.CONFIG_TIMEOUT, 60000);
+        AccessioRACFConnector after = createConnector(changed);
+
+        assertNotSame(original, after.getGarancyAPIClient());
+        assertSame(after.getGarancyAPIClient(), createConnector(new HashMap<>(changed)).getGarancyAPIClient());
+
+        // The connector created before the change keeps working with its own components
+        assertSame(original, before.getGarancyAPIClient());
+
+        before.close();
+        after.close();
+    }
+
+    private Map<String, Object> createAttributes() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(AccessioRACFConnector.CONFIG_SERVER_URL, "http://localhost:1/garancy");
+        attributes.put(AccessioRACFConnector.CONFIG_USERNAME, "sailpoint_service");
+        attributes.put(AccessioRACFConnector.CONFIG_PASSWORD, "secret");
+        attributes.put(AccessioRACFConnector.CONFIG_TIMEOUT, 30000);
+        attributes.put(AccessioRACFConnector.CONFIG_METRICS_ENABLED, "false");
+        return attributes;
+    }
+
+    // Helper method to create a connector reading the given application attributes
+    private AccessioRACFConnector createConnector(final Map<String, Object> attributes) {
+        final Configuration configuration = mock(Configuration.class);
+        lenient().when(configuration.getAttributes()).thenReturn(attributes);
+        lenient().when(configuration.getString(anyString())).thenAnswer(invocation -> {
+            Object value = attributes.get(invocation.<String>getArgument(0));
+            return value != null ? value.toString() : null;
+        });
+        lenient().when(configuration.getInt(anyString(), anyInt())).thenAnswer(invocation -> {
+            Object value = attributes.get(invocation.<String>getArgument(0));
+            return value != null ? Integer.parseInt(value.toString()) : invocation.<Integer>getArgument(1);
+        });
+
+        return new AccessioRACFConnector() {
+            @Override
+            public Configuration getConfiguration() {
+                return configuration;
+            }
+        };
+    }
+}
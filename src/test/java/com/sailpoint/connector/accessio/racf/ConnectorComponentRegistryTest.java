@@ -0,0 +1,197 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import sailpoint.connector.ConnectorException;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConnectorComponentRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+public class ConnectorComponentRegistryTest {
+
+    @Mock
+    private GarancyAPIClient mockApiClient;
+
+    @Mock
+    private RecertificationManager mockRecertificationManager;
+
+    private int created;
+
+    @AfterEach
+    void tearDown() {
+        ConnectorComponentRegistry.clear();
+    }
+
+    @Test
+    void testComponentsReusedForSameConfiguration() throws Exception {
+        ConnectorComponentRegistry.ComponentFactory factory = countingFactory();
+
+        ConnectorComponents first = ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory);
+        ConnectorComponents second = ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory);
+
+        assertSame(first, second);
+        assertEquals(1, created);
+    }
+
+    @Test
+    void testReplacedComponentsClosedAfterLastRelease() throws Exception {
+        ConnectorComponentRegistry.ComponentFactory factory = countingFactory();
+
+        ConnectorComponents first = ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory);
+        ConnectorComponents shared = ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory);
+        ConnectorComponents second = ConnectorComponentRegistry.getComponents("Accessio RACF", "hash2", factory);
+
+        assertNotSame(first, second);
+        assertEquals("hash2", second.getConfigurationHash());
+        assertEquals(2, created);
+        assertTrue(first.isRetired());
+
+        // Still used by two connectors
+        first.release();
+        verify(mockRecertificationManager, never()).shutdown();
+        shared.release();
+        verify(mockRecertificationManager, times(1)).shutdown();
+    }
+
+    @Test
+    void testUnusedComponentsClosedWhenReplaced() throws Exception {
+        ConnectorComponentRegistry.ComponentFactory factory = countingFactory();
+
+        ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory).release();
+        verify(mockRecertificationManager, never()).shutdown();
+
+        ConnectorComponentRegistry.getComponents("Accessio RACF", "hash2", factory);
+        verify(mockRecertificationManager, times(1)).shutdown();
+    }
+
+    @Test
+    void testBuildDoesNotBlockOtherApplications() throws Exception {
+        final CountDownLatch building = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<ConnectorComponents> slow = executor.submit(() ->
+                ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", configurationHash -> {
+                    building.countDown();
+                    try {
+                        assertTrue(release.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new ConnectorException("Interrupted while building");
+                    }
+                    return new ConnectorComponents(configurationHash, mockApiClient, null, null, null, null);
+                }));
+            assertTrue(building.await(10, TimeUnit.SECONDS));
+
+            ConnectorComponents other = ConnectorComponentRegistry.getComponents("Accessio RACF Test", "hash1",
+                                                                                countingFactory());
+            assertNotNull(other);
+            assertFalse(slow.isDone());
+
+            release.countDown();
+            assertNotSame(other, slow.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testApplicationsKeptApart() throws Exception {
+        ConnectorComponentRegistry.ComponentFactory factory = countingFactory();
+
+        ConnectorComponents first = ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory);
+        ConnectorComponents second = ConnectorComponentRegistry.getComponents("Accessio RACF Test", "hash1", factory);
+
+        assertNotSame(first, second);
+        verify(mockRecertificationManager, never()).shutdown();
+    }
+
+    @Test
+    void testConcurrentCallersShareOneBuild() throws Exception {
+        final ConnectorComponentRegistry.ComponentFactory factory = countingFactory();
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<ConnectorComponents>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<ConnectorComponents>() {
+                    @Override
+                    public ConnectorComponents call() throws Exception {
+                        start.await();
+                        return ConnectorComponentRegistry.getComponents("Accessio RACF", "hash1", factory);
+                    }
+                }));
+            }
+            start.countDown();
+
+            ConnectorComponents first = futures.get(0).get();
+            for (Future<ConnectorComponents> future : futures) {
+                assertSame(first, future.get());
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConfigurationHashIgnoresEntryOrder() {
+        List<String> keys = Arrays.asList("serverUrl", "timeout");
+        Map<String, Object> config1 = new LinkedHashMap<>();
+        config1.put("serverUrl", "https://garancy.accessio.com/api/soap");
+        config1.put("timeout", 30000);
+        Map<String, Object> config2 = new LinkedHashMap<>();
+        config2.put("timeout", 30000);
+        config2.put("serverUrl", "https://garancy.accessio.com/api/soap");
+
+        assertEquals(ConnectorComponentRegistry.hashConfiguration(config1, keys),
+                     ConnectorComponentRegistry.hashConfiguration(config2, keys));
+
+        config2.put("timeout", 60000);
+        assertNotEquals(ConnectorComponentRegistry.hashConfiguration(config1, keys),
+                        ConnectorComponentRegistry.hashConfiguration(config2, keys));
+    }
+
+    @Test
+    void testConfigurationHashCoversOnlyComponentEntries() {
+        Map<String, Object> config = new HashMap<>();
+        config.put("serverUrl", "https://garancy.accessio.com/api/soap");
+        config.put("password", "secret");
+        String hash = ConnectorComponentRegistry.hashConfiguration(config,
+                AccessioRACFConnector.COMPONENT_CONFIGURATION_KEYS);
+
+        // Aggregation state written back to the application
+        config.put("acctAggregationEnd", new Date());
+        config.put("deltaAggregation", "USER01");
+        assertEquals(hash, ConnectorComponentRegistry.hashConfiguration(config,
+                AccessioRACFConnector.COMPONENT_CONFIGURATION_KEYS));
+
+        config.put("password", "rotated");
+        assertNotEquals(hash, ConnectorComponentRegistry.hashConfiguration(config,
+                AccessioRACFConnector.COMPONENT_CONFIGURATION_KEYS));
+    }
+
+    private ConnectorComponentRegistry.ComponentFactory countingFactory() {
+        return new ConnectorComponentRegistry.ComponentFactory() {
+            @Override
+            public ConnectorComponents create(String configurationHash) {
+                created++;
+                return new ConnectorComponents(configurationHash, mockApiClient, null, null, null,
+                                               mockRecertificationManager);
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GarancyAsyncExecutor
+ */
+public class GarancyAsyncExecutorTest {
+
+    @Test
+    void testPlatformThreadsStayWithinInFlightLimit() throws Exception {
+        assertInFlightLimited(new GarancyAsyncExecutor(3, false));
+    }
+
+    @Test
+    void testVirtualThreadsStayWithinInFlightLimit() throws Exception {
+        if (!VirtualThreads.isAvailable()) {
+            // Only the multi-release jar on a Java 21 runtime provides virtual threads
+            assertThrows(UnsupportedOperationException.class, () -> new GarancyAsyncExecutor(3, true));
+            return;
+        }
+        GarancyAsyncExecutor executor = new GarancyAsyncExecutor(3, true);
+        assertTrue(executor.isVirtualThreads());
+        assertInFlightLimited(executor);
+    }
+
+    @Test
+    void testShutdownRunsPendingRetries() throws Exception {
+        GarancyAsyncExecutor executor = new GarancyAsyncExecutor(1, false);
+        AtomicBoolean retried = new AtomicBoolean();
+        executor.schedule(() -> retried.set(true), TimeUnit.MINUTES.toMillis(5));
+
+        executor.shutdown();
+
+        assertTrue(retried.get());
+        assertThrows(java.util.concurrent.RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    @Test
+    void testInFlightLimitCanBeRaised() throws Exception {
+        GarancyAsyncExecutor executor = new GarancyAsyncExecutor(1, false);
+        executor.setMaxInFlight(4);
+        assertEquals(4, executor.getMaxInFlight());
+        assertInFlightLimited(executor, 4);
+    }
+
+    private static void assertInFlightLimited(GarancyAsyncExecutor executor) throws Exception {
+        assertInFlightLimited(executor, 3);
+    }
+
+    private static void assertInFlightLimited(GarancyAsyncExecutor executor, int limit) throws Exception {
+        int requests = 40;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+        try {
+            for (int i = 0; i < requests; i++) {
+                executor.execute(() -> {
+                    int now = running.incrementAndGet();
+                    peak.accumulateAndGet(now, Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+            assertEquals(limit, peak.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GarancyOutcome and the fault classification of GarancyAPIClient
+ */
+public class GarancyOutcomeTest {
+
+    @Test
+    void testClientFaultsAreFatal() {
+        GarancyOutcome auth = GarancyAPIClient.classifyFault(500, "soapenv:Client", "Authentication failed", 0);
+        assertEquals(GarancyOutcome.Kind.FATAL_FAULT, auth.getKind());
+        assertTrue(auth.isFault());
+        assertFalse(auth.isRetryable());
+        assertEquals("soapenv:Client", auth.getFaultCode());
+
+        assertFalse(GarancyAPIClient.classifyFault(500, "env:Sender", "Invalid request", 0).isRetryable());
+        assertFalse(GarancyAPIClient.classifyHttpStatus(404, 0, "HTTP 404 from /listUser").isRetryable());
+    }
+
+    @Test
+    void testServerFaultsAndThrottlingAreRetryable() {
+        assertTrue(GarancyAPIClient.classifyFault(500, "soapenv:Server", "Injected failure", 0).isRetryable());
+        assertTrue(GarancyAPIClient.classifyFault(500, null, "Database unavailable", 0).isRetryable());
+        assertTrue(GarancyAPIClient.classifyHttpStatus(503, 0, "HTTP 503 from /listUser").isRetryable());
+
+        GarancyOutcome throttled = GarancyAPIClient.classifyFault(500, "soapenv:Client", "Throttled: request limit exceeded",
+                                                                  GarancyAPIClient.parseRetryAfter("2"));
+        assertTrue(throttled.isRetryable());
+        assertEquals(2000, throttled.getRetryAfterMillis());
+
+        assertTrue(GarancyAPIClient.classifyFault(429, "soapenv:Client", "Request limit exceeded", 0).isRetryable());
+        assertTrue(GarancyAPIClient.classifyFault(503, "soapenv:Client", "Service unavailable", 0).isRetryable());
+
+        assertEquals(0, GarancyAPIClient.parseRetryAfter("Wed, 21 Oct 2026 07:28:00 GMT"));
+        assertEquals(0, GarancyAPIClient.parseRetryAfter(null));
+    }
+
+    @Test
+    void testThrottledFaultStringIsOnlyAFallback() {
+        // Older gateways report throttling only in the fault string of a plain HTTP 500 fault
+        assertTrue(GarancyAPIClient.classifyFault(500, "soapenv:Client", "Throttled: request limit exceeded", 0)
+                                   .isRetryable());
+
+        // Any other client fault stays fatal, whatever its wording
+        assertFalse(GarancyAPIClient.classifyFault(500, "soapenv:Client", "Request throttled by policy", 0)
+                                    .isRetryable());
+    }
+
+    @Test
+    void testLegacyMapShape() {
+        GarancyOutcome success = GarancyOutcome.success("Operation completed", "REQ-1", "2026-01-01T00:00:00");
+        Map<String, Object> map = success.toMap();
+        assertEquals("SUCCESS", map.get("status"));
+        assertEquals("REQ-1", map.get("requestId"));
+
+        GarancyOutcome rejected = GarancyOutcome.rejected("User not found", "REQ-2", null);
+        assertTrue(rejected.isRejected());
+        assertFalse(rejected.isFault());
+        assertEquals("FAILED", rejected.toMap().get("status"));
+
+        GarancyOutcome fault = GarancyOutcome.retryableFault("soapenv:Server", "Injected failure", 0, null).withAttempts(3);
+        assertEquals(3, fault.getAttempts());
+        assertEquals("SOAP Fault: Injected failure", fault.toException().getMessage());
+    }
+}
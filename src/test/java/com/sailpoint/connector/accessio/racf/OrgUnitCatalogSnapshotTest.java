@@ -0,0 +1,57 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrgUnitCatalogSnapshot
+ */
+public class OrgUnitCatalogSnapshotTest {
+
+    private OrgUnitCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<Map<String, Object>> orgUnits = new ArrayList<>();
+        orgUnits.add(createMockOrgUnit("$F000UDF", "owner1", "deputy1"));
+        orgUnits.add(createMockOrgUnit("$F000FIN", null, "deputy2"));
+        orgUnits.add(createMockOrgUnit("$F000OPS", "", null));
+
+        snapshot = new OrgUnitCatalogSnapshot(orgUnits);
+    }
+
+    @Test
+    void testOrgUnitLookup() {
+        assertEquals(3, snapshot.size());
+        assertTrue(snapshot.containsOrgUnit("$F000UDF"));
+        assertFalse(snapshot.containsOrgUnit("$F000XXX"));
+        assertFalse(snapshot.containsOrgUnit(null));
+        assertEquals("$F000FIN", snapshot.getOrgUnit("$F000FIN").get("BASEORG_ID"));
+    }
+
+    @Test
+    void testOwnersPrimaryFirst() {
+        assertEquals(Arrays.asList("owner1", "deputy1"), snapshot.getOwners("$F000UDF"));
+        assertEquals("owner1", snapshot.getOwner("$F000UDF"));
+    }
+
+    @Test
+    void testDeputyUsedWithoutPrimaryOwner() {
+        assertEquals("deputy2", snapshot.getOwner("$F000FIN"));
+        assertNull(snapshot.getOwner("$F000OPS"));
+        assertTrue(snapshot.getOwners("$F000XXX").isEmpty());
+    }
+
+    // Helper method to create mock org unit data
+    private Map<String, Object> createMockOrgUnit(String orgUnitId, String owner, String deputy) {
+        Map<String, Object> orgUnit = new HashMap<>();
+        orgUnit.put("BASEORG_ID", orgUnitId);
+        orgUnit.put("BASEORG_C_C32_05", owner);
+        orgUnit.put("BASEORG_C_C78_01", deputy);
+        return orgUnit;
+    }
+}
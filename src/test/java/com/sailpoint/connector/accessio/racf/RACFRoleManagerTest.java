@@ -0,0 +1,194 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import sailpoint.object.Configuration;
+
+import java.util.*;
+
+import static com.sailpoint.connector.accessio.racf.RACFTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RACFRoleManager
+ */
+@ExtendWith(MockitoExtension.class)
+public class RACFRoleManagerTest {
+
+    @Mock
+    private GarancyAPIClient mockApiClient;
+
+    @Mock
+    private Configuration mockConfiguration;
+
+    private RACFRoleManager roleManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        List<Map<String, Object>> roles = new ArrayList<>();
+        for (String roleId : Arrays.asList("RACF_USER_BASIC", "FINANCIAL_APPROVER", "FINANCIAL_PROCESSOR",
+                                           "BACKUP_OPERATOR", "RESTORE_OPERATOR")) {
+            roles.add(createMockRole(roleId, null));
+        }
+        lenient().when(mockApiClient.listRoles()).thenReturn(roles);
+
+        final List<Map<String, Object>> connections = Arrays.asList(
+            createMockConnection("user1", "RACF_USER_BASIC"),
+            createMockConnection("user1", "FINANCIAL_PROCESSOR")
+        );
+        lenient().when(mockApiClient.listRoleUserConnections()).thenReturn(connections);
+        lenient().when(mockApiClient.streamRoleUserConnections(any())).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                GarancyAPIClient.RoleUserConnectionHandler handler = invocation.getArgument(0);
+                for (Map<String, Object> connection : connections) {
+                    handler.onConnection((String) connection.get("BASEUS_SAM_ID"),
+                                         (String) connection.get("BASEUSRC_ROLE"),
+                                         (String) connection.get("CONNECTION_STATUS"));
+                }
+                return (long) connections.size();
+            }
+        });
+
+        lenient().when(mockConfiguration.getInt(eq(RACFRoleManager.CONFIG_ROLE_CATALOG_CACHE_SECONDS), anyInt()))
+            .thenReturn(300);
+
+        roleManager = new RACFRoleManager(mockApiClient, mockConfiguration);
+    }
+
+    @Test
+    void testValidRoleRequestHasNoConflicts() throws Exception {
+        assertTrue(roleManager.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR")).isEmpty());
+        assertTrue(roleManager.isRoleAssignmentValid("user1", "RESTORE_OPERATOR"));
+    }
+
+    @Test
+    void testWholeRequestEvaluatedInOnePass() throws Exception {
+        List<RACFRoleManager.RoleAssignmentConflict> conflicts = roleManager.evaluateRoleAssignment("user1",
+            Arrays.asList("UNKNOWN_ROLE", "RACF_USER_BASIC", "FINANCIAL_APPROVER", "BACKUP_OPERATOR",
+                          "RESTORE_OPERATOR", "BACKUP_OPERATOR"));
+
+        Map<String, RACFRoleManager.RoleAssignmentConflict> byType = new HashMap<>();
+        for (RACFRoleManager.RoleAssignmentConflict conflict : conflicts) {
+            byType.put(conflict.getConflictType() + ":" + conflict.getRoleId(), conflict);
+        }
+
+        assertEquals(5, conflicts.size());
+        assertTrue(byType.get("ROLE_NOT_FOUND:UNKNOWN_ROLE").isHighRisk());
+        assertEquals(RACFRoleManager.RISK_LOW, byType.get("ALREADY_ASSIGNED:RACF_USER_BASIC").getRiskLevel());
+        assertEquals(RACFRoleManager.RISK_LOW, byType.get("DUPLICATE_REQUEST:BACKUP_OPERATOR").getRiskLevel());
+        assertEquals(RACFRoleManager.RISK_MEDIUM, byType.get("SOD_VIOLATION:FINANCIAL_APPROVER").getRiskLevel());
+        assertEquals("FINANCIAL_PROCESSOR", byType.get("SOD_VIOLATION:FINANCIAL_APPROVER").getConflictingRoleId());
+        assertTrue(byType.get("SOD_VIOLATION:RESTORE_OPERATOR").isHighRisk());
+
+        // The unknown role reloads the catalog once before it is reported
+        verify(mockApiClient, times(2)).listRoles();
+        verify(mockApiClient, times(1)).streamRoleUserConnections(any());
+        verify(mockApiClient, never()).listRoleUserConnections();
+    }
+
+    @Test
+    void testConnectionIndexReusedUntilConnectionsChange() throws Exception {
+        roleManager.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR"));
+        roleManager.validateRoleAssignment("user2", Arrays.asList("RESTORE_OPERATOR"));
+        roleManager.findSoDViolations("user1", Arrays.asList("FINANCIAL_APPROVER"));
+        verify(mockApiClient, times(1)).streamRoleUserConnections(any());
+
+        // A role connection change sent through the client makes the index stale
+        when(mockApiClient.getRoleConnectionChangeCount()).thenReturn(1L);
+        roleManager.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR"));
+        roleManager.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR"));
+        verify(mockApiClient, times(2)).streamRoleUserConnections(any());
+        verify(mockApiClient, never()).listRoleUserConnections();
+    }
+
+    @Test
+    void testConflictMessagesCarryRiskLevel() throws Exception {
+        List<String> conflicts = roleManager.validateRoleAssignment("user2",
+            Arrays.asList("BACKUP_OPERATOR", "RESTORE_OPERATOR"));
+
+        assertEquals(1, conflicts.size());
+        assertTrue(conflicts.get(0).startsWith("HIGH_RISK: "));
+    }
+
+    @Test
+    void testRoleCatalogCachedAcrossValidations() throws Exception {
+        roleManager.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR"));
+        roleManager.validateRoleAssignment("user2", Arrays.asList("RESTORE_OPERATOR"));
+        verify(mockApiClient, times(1)).listRoles();
+
+        roleManager.invalidateRoleCatalog();
+        roleManager.validateRoleAssignment("user2", Arrays.asList("RESTORE_OPERATOR"));
+        verify(mockApiClient, times(2)).listRoles();
+    }
+
+    @Test
+    void testRoleLookupsServedFromCatalog() throws Exception {
+        assertTrue(roleManager.roleExists("FINANCIAL_APPROVER"));
+        assertFalse(roleManager.roleExists("UNKNOWN_ROLE"));
+        assertEquals(RACFRoleManager.ROLE_CATEGORY_HIGH_PRIVILEGE, roleManager.getRoleType("BACKUP_OPERATOR"));
+        assertEquals(RACFRoleManager.ROLE_CATEGORY_STANDARD, roleManager.getRoleType("RACF_USER_BASIC"));
+        assertNull(roleManager.getRoleType("UNKNOWN_ROLE"));
+
+        // Known roles are served from the catalog; each miss reloads it once
+        verify(mockApiClient, times(3)).listRoles();
+    }
+
+    @Test
+    void testRoleCreatedAfterCatalogLoadIsFound() throws Exception {
+        assertTrue(roleManager.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR")).isEmpty());
+
+        List<Map<String, Object>> roles = new ArrayList<>(mockApiClient.listRoles());
+        roles.add(createMockRole("RACF_NEW_ROLE", null));
+        when(mockApiClient.listRoles()).thenReturn(roles);
+
+        assertTrue(roleManager.validateRoleAssignment("user1", Arrays.asList("RACF_NEW_ROLE")).isEmpty());
+        assertTrue(roleManager.roleExists("RACF_NEW_ROLE"));
+    }
+
+    @Test
+    void testZeroCacheSecondsDisablesCaching() throws Exception {
+        when(mockConfiguration.getInt(eq(RACFRoleManager.CONFIG_ROLE_CATALOG_CACHE_SECONDS), anyInt()))
+            .thenReturn(0);
+        RACFRoleManager uncached = new RACFRoleManager(mockApiClient, mockConfiguration);
+
+        uncached.validateRoleAssignment("user1", Arrays.asList("BACKUP_OPERATOR"));
+        uncached.validateRoleAssignment("user2", Arrays.asList("RESTORE_OPERATOR"));
+
+        verify(mockApiClient, times(2)).listRoles();
+        verify(mockApiClient, times(2)).streamRoleUserConnections(any());
+    }
+
+    @Test
+    void testConnectionIndexStreamedOnceAndReused() throws Exception {
+        doAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                GarancyAPIClient.RoleUserConnectionHandler handler = invocation.getArgument(0);
+                handler.onConnection("user1", "RACF_USER_BASIC", "ACTIVE");
+                handler.onConnection("user2", "RACF_USER_BASIC", "ACTIVE");
+                handler.onConnection("user1", "FINANCIAL_PROCESSOR", "ACTIVE");
+                return 3L;
+            }
+        }).when(mockApiClient).streamRoleUserConnections(any());
+
+        RoleConnectionIndex index = roleManager.getRoleConnectionIndex();
+        assertSame(index, roleManager.getRoleConnectionIndex());
+        assertEquals(Arrays.asList("user1", "user2"), index.getUsersForRole("RACF_USER_BASIC"));
+        assertEquals(Arrays.asList("RACF_USER_BASIC", "FINANCIAL_PROCESSOR"), index.getRolesForUser("user1"));
+        assertTrue(index.getUsersForRole("BACKUP_OPERATOR").isEmpty());
+        verify(mockApiClient, times(1)).streamRoleUserConnections(any());
+
+        roleManager.invalidateRoleConnectionIndex();
+        roleManager.getRoleConnectionIndex();
+        verify(mockApiClient, times(2)).streamRoleUserConnections(any());
+    }
+}
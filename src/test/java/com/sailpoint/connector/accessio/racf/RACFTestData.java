@@ -0,0 +1,39 @@
+package com.sailpoint.connector.accessio.racf;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Garancy records shared by the unit tests, in the shape GarancyAPIClient returns them
+ */
+final class RACFTestData {
+
+    private RACFTestData() {
+    }
+
+    // Helper method to create mock role data
+    static Map<String, Object> createMockRole(String roleId, String name, String roleType, boolean recertify,
+                                              String ownerEmail) {
+        Map<String, Object> role = new HashMap<>();
+        role.put("BASEUSRC_ROLE", roleId);
+        role.put("TECHDSP_NAME", name);
+        role.put("BASEUS_C_C_78_001", ownerEmail);
+        role.put("roleType", roleType);
+        role.put("requiresRecertification", recertify);
+        return role;
+    }
+
+    // Helper method to create a standard role that needs no recertification
+    static Map<String, Object> createMockRole(String roleId, String ownerEmail) {
+        return createMockRole(roleId, roleId, RACFRoleManager.ROLE_TYPE_STANDARD, false, ownerEmail);
+    }
+
+    // Helper method to create mock role-user connection data
+    static Map<String, Object> createMockConnection(String userId, String roleId) {
+        Map<String, Object> connection = new HashMap<>();
+        connection.put("BASEUS_SAM_ID", userId);
+        connection.put("BASEUSRC_ROLE", roleId);
+        connection.put("CONNECTION_STATUS", GarancyAPIClient.CONNECTION_STATUS_ACTIVE);
+        return connection;
+    }
+}
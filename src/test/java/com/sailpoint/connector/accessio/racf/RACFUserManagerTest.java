@@ -0,0 +1,99 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import sailpoint.object.Configuration;
+import sailpoint.object.Result;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RACFUserManager
+ */
+@ExtendWith(MockitoExtension.class)
+public class RACFUserManagerTest {
+
+    @Mock
+    private GarancyAPIClient mockApiClient;
+
+    @Mock
+    private Configuration mockConfiguration;
+
+    private ApprovalWorkflowHandler workflowHandler;
+    private RACFUserManager userManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        List<Map<String, Object>> users = Arrays.asList(
+            createMockUser("user1", AccessioRACFConnector.USER_TYPE_AARID, "$F000UDF"),
+            createMockUser("stc1", AccessioRACFConnector.USER_TYPE_STC, "$F000UDF")
+        );
+        lenient().when(mockApiClient.listUsers()).thenReturn(users);
+
+        Map<String, Object> orgUnit = new HashMap<>();
+        orgUnit.put("BASEORG_ID", "$F000UDF");
+        orgUnit.put("BASEORG_C_C32_05", "owner1");
+        lenient().when(mockApiClient.getOrgUnitCatalog())
+            .thenReturn(new OrgUnitCatalogSnapshot(Collections.singletonList(orgUnit)));
+
+        workflowHandler = new ApprovalWorkflowHandler(mockApiClient, mockConfiguration);
+        userManager = new RACFUserManager(mockApiClient, mockConfiguration, workflowHandler);
+    }
+
+    @Test
+    void testApprovalsVisibleThroughSharedHandler() {
+        Result result = userManager.deleteUser("user1", null);
+
+        assertEquals(RACFUserManager.RESULT_PENDING_APPROVAL, result.getStatus());
+        String workflowId = (String) result.getAttribute("workflowId");
+        ApprovalWorkflowHandler.WorkflowInstance workflow = workflowHandler.getWorkflowStatus(workflowId);
+        assertNotNull(workflow);
+        assertEquals(Collections.singletonList("owner1"), workflow.getApprovers());
+        assertEquals(1, workflowHandler.getPendingWorkflows("owner1").size());
+    }
+
+    @Test
+    void testUserDirectoryCachedAcrossLookups() throws Exception {
+        assertNotNull(userManager.getUser("user1"));
+        assertNotNull(userManager.getUser("stc1"));
+        assertNull(userManager.getUser("unknown"));
+        verify(mockApiClient, times(1)).listUsers();
+
+        userManager.invalidateUserDirectory();
+        userManager.getUser("user1");
+        verify(mockApiClient, times(2)).listUsers();
+    }
+
+    @Test
+    void testEnableAndDisableRefreshUserDirectory() throws Exception {
+        when(mockApiClient.suspendUser("user1")).thenReturn(GarancyOutcome.success("Operation completed", "REQ-1", null));
+        when(mockApiClient.resumeUser("user1")).thenReturn(GarancyOutcome.success("Operation completed", "REQ-2", null));
+
+        userManager.getUser("user1");
+        verify(mockApiClient, times(1)).listUsers();
+
+        assertEquals(RACFUserManager.RESULT_SUCCESS, userManager.disableUser("user1", null).getStatus());
+        userManager.getUser("user1");
+        verify(mockApiClient, times(2)).listUsers();
+
+        assertEquals(RACFUserManager.RESULT_SUCCESS, userManager.enableUser("user1", null).getStatus());
+        userManager.getUser("user1");
+        verify(mockApiClient, times(3)).listUsers();
+    }
+
+    // Helper method to create mock user data
+    private Map<String, Object> createMockUser(String userId, String userType, String orgUnitId) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("BASEUS_SAM_ID", userId);
+        user.put("BASEUS_C_C01_001", userType);
+        user.put("BASEORG_ID", orgUnitId);
+        return user;
+    }
+}
@@ -0,0 +1,232 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecertificationJournal
+ */
+public class RecertificationJournalTest {
+
+    @TempDir
+    File journalDirectory;
+
+    @Test
+    void testReplayRestoresCampaignAndDecisions() throws Exception {
+        RecertificationJournal journal = new RecertificationJournal(journalDirectory, false, 0);
+        journal.recover();
+
+        RecertificationManager.RecertificationCampaign campaign = createCampaign("CAMP-1", "ITEM-1", "ITEM-2");
+        journal.appendCampaign(campaign);
+
+        RecertificationManager.RecertificationItem decided = campaign.getItems().get(0);
+        decided.setStatus(RecertificationManager.STATUS_REVOKED);
+        decided.setDecision(createDecision(false, "not needed"));
+        journal.appendItem(decided);
+        journal.close();
+
+        RecertificationJournal.RecoveredState state = new RecertificationJournal(journalDirectory, false, 0).recover();
+
+        assertEquals(1, state.getCampaigns().size());
+        assertEquals(2, state.getCampaigns().get("CAMP-1").getItems().size());
+
+        RecertificationManager.RecertificationItem recovered = state.getItems().get("ITEM-1");
+        assertEquals(RecertificationManager.STATUS_REVOKED, recovered.getStatus());
+        assertEquals("not needed", recovered.getDecision().getComments());
+        assertFalse(recovered.getDecision().isCertified());
+        assertNull(recovered.getRevocationDate());
+        assertEquals(RecertificationManager.STATUS_PENDING, state.getItems().get("ITEM-2").getStatus());
+    }
+
+    @Test
+    void testCommentsLargerThan64KbAreJournaled() throws Exception {
+        RecertificationJournal journal = new RecertificationJournal(journalDirectory, false, 0);
+        journal.recover();
+
+        RecertificationManager.RecertificationCampaign campaign = createCampaign("CAMP-1", "ITEM-1");
+        journal.appendCampaign(campaign);
+
+        StringBuilder comments = new StringBuilder();
+        while (comments.length() < 40 * 1024) {
+            comments.append("Zugriff bestätigt für Prüfung ");
+        }
+        RecertificationManager.RecertificationItem decided = campaign.getItems().get(0);
+        decided.setStatus(RecertificationManager.STATUS_EXCEPTION);
+        decided.setDecision(createDecision(false, comments.toString() + comments));
+        decided.setExceptionReason(comments.toString() + comments);
+        journal.appendItems(campaign.getItems());
+        journal.close();
+
+        RecertificationManager.RecertificationItem recovered =
+            new RecertificationJournal(journalDirectory, false, 0).recover().getItems().get("ITEM-1");
+
+        assertTrue(recovered.getDecision().getComments().getBytes("UTF-8").length > 64 * 1024);
+        assertEquals(decided.getDecision().getComments(), recovered.getDecision().getComments());
+        assertEquals(decided.getExceptionReason(), recovered.getExceptionReason());
+        assertEquals(RecertificationManager.STATUS_EXCEPTION, recovered.getStatus());
+    }
+
+    @Test
+    void testTornTailIsDiscarded() throws Exception {
+        RecertificationJournal journal = new RecertificationJournal(journalDirectory, false, 0);
+        journal.recover();
+        journal.appendCampaign(createCampaign("CAMP-1", "ITEM-1"));
+        journal.close();
+
+        File journalFile = new File(journalDirectory, "recert-journal-0.log");
+        long validLength = journalFile.length();
+        RandomAccessFile file = new RandomAccessFile(journalFile, "rw");
+        try {
+            file.seek(validLength);
+            file.writeInt(100);
+            file.writeInt(0);
+            file.write(new byte[] { 'I', 0, 1 });
+        } finally {
+            file.close();
+        }
+
+        RecertificationJournal.RecoveredState state = new RecertificationJournal(journalDirectory, false, 0).recover();
+
+        assertEquals(1, state.getItems().size());
+        assertEquals(validLength, journalFile.length());
+    }
+
+    @Test
+    void testCompactionStartsNewGeneration() throws Exception {
+        RecertificationJournal journal = new RecertificationJournal(journalDirectory, false, 2);
+        journal.recover();
+
+        RecertificationManager.RecertificationCampaign campaign = createCampaign("CAMP-1", "ITEM-1", "ITEM-2");
+        journal.appendCampaign(campaign);
+        assertTrue(journal.isCompactionDue());
+
+        campaign.getItems().get(1).setStatus(RecertificationManager.STATUS_CERTIFIED);
+        journal.compact(Collections.singletonList(campaign));
+        assertFalse(journal.isCompactionDue());
+        journal.close();
+
+        assertFalse(new File(journalDirectory, "recert-journal-0.log").exists());
+        assertTrue(new File(journalDirectory, "recert-snapshot-1.dat").exists());
+
+        RecertificationJournal.RecoveredState state = new RecertificationJournal(journalDirectory, false, 2).recover();
+        assertEquals(RecertificationManager.STATUS_CERTIFIED, state.getItems().get("ITEM-2").getStatus());
+        assertEquals(2, state.getCampaigns().get("CAMP-1").getItems().size());
+    }
+
+    @Test
+    void testFailedCommitIsNotPersistedByLaterCommit() throws Exception {
+        FailingSyncJournal journal = new FailingSyncJournal(journalDirectory);
+        journal.recover();
+
+        RecertificationManager.RecertificationCampaign campaign = createCampaign("CAMP-1", "ITEM-1", "ITEM-2");
+        journal.appendCampaign(campaign);
+
+        RecertificationManager.RecertificationItem rolledBack = campaign.getItems().get(0);
+        rolledBack.setStatus(RecertificationManager.STATUS_REVOKED);
+        rolledBack.setDecision(createDecision(false, "not needed"));
+        journal.failNextSync = true;
+        assertThrows(IOException.class, () -> journal.appendItem(rolledBack));
+
+        // The caller reverts the item; a later decision commits normally
+        rolledBack.setStatus(RecertificationManager.STATUS_PENDING);
+        rolledBack.setDecision(null);
+        RecertificationManager.RecertificationItem decided = campaign.getItems().get(1);
+        decided.setStatus(RecertificationManager.STATUS_CERTIFIED);
+        decided.setDecision(createDecision(true, "still needed"));
+        journal.appendItem(decided);
+        journal.close();
+
+        RecertificationJournal.RecoveredState state = new RecertificationJournal(journalDirectory, false, 0).recover();
+
+        assertEquals(RecertificationManager.STATUS_PENDING, state.getItems().get("ITEM-1").getStatus());
+        assertNull(state.getItems().get("ITEM-1").getDecision());
+        assertEquals(RecertificationManager.STATUS_CERTIFIED, state.getItems().get("ITEM-2").getStatus());
+    }
+
+    @Test
+    void testOversizedItemLeavesNothingOfTheBatch() throws Exception {
+        RecertificationJournal journal = new RecertificationJournal(journalDirectory, false, 0);
+        journal.recover();
+
+        RecertificationManager.RecertificationCampaign campaign = createCampaign("CAMP-1", "ITEM-1", "ITEM-2", "ITEM-3");
+        journal.appendCampaign(campaign);
+
+        char[] oversized = new char[17 * 1024 * 1024];
+        Arrays.fill(oversized, 'x');
+        campaign.getItems().get(0).setStatus(RecertificationManager.STATUS_REVOKED);
+        campaign.getItems().get(1).setExceptionReason(new String(oversized));
+        assertThrows(IOException.class, () -> journal.appendItems(campaign.getItems().subList(0, 2)));
+
+        campaign.getItems().get(2).setStatus(RecertificationManager.STATUS_CERTIFIED);
+        journal.appendItem(campaign.getItems().get(2));
+        journal.close();
+
+        RecertificationJournal.RecoveredState state = new RecertificationJournal(journalDirectory, false, 0).recover();
+
+        assertEquals(RecertificationManager.STATUS_PENDING, state.getItems().get("ITEM-1").getStatus());
+        assertNull(state.getItems().get("ITEM-2").getExceptionReason());
+        assertEquals(RecertificationManager.STATUS_CERTIFIED, state.getItems().get("ITEM-3").getStatus());
+    }
+
+    // Journal whose next sync can be made to fail, as a full disk would
+    private static class FailingSyncJournal extends RecertificationJournal {
+        private boolean failNextSync;
+
+        FailingSyncJournal(File directory) throws IOException {
+            super(directory, true, 0);
+        }
+
+        @Override
+        void sync(FileOutputStream file) throws IOException {
+            if (failNextSync) {
+                failNextSync = false;
+                throw new IOException("No space left on device");
+            }
+            super.sync(file);
+        }
+    }
+
+    // Helper method to create a campaign with pending items
+    private RecertificationManager.RecertificationCampaign createCampaign(String campaignId, String... itemIds) {
+        RecertificationManager.RecertificationCampaign campaign = new RecertificationManager.RecertificationCampaign();
+        campaign.setCampaignId(campaignId);
+        campaign.setCampaignType(RecertificationManager.TYPE_PERIODIC);
+        campaign.setStartDate(new Date());
+        campaign.setStatus(RecertificationManager.STATUS_PENDING);
+
+        List<RecertificationManager.RecertificationItem> items = new ArrayList<>();
+        for (String itemId : itemIds) {
+            RecertificationManager.RecertificationItem item = new RecertificationManager.RecertificationItem();
+            item.setItemId(itemId);
+            item.setCampaignId(campaignId);
+            item.setUserId("user-" + itemId);
+            item.setRoleId("RACF_USER_BASIC");
+            item.setRecertificationType(RecertificationManager.TYPE_PERIODIC);
+            item.setStatus(RecertificationManager.STATUS_PENDING);
+            item.setCreatedDate(new Date());
+            item.setDueDate(new Date());
+            item.setCertifierId("owner@accessio.com");
+            items.add(item);
+        }
+        campaign.setItems(items);
+        return campaign;
+    }
+
+    // Helper method to create a decision
+    private RecertificationManager.RecertificationDecision createDecision(boolean certified, String comments) {
+        RecertificationManager.RecertificationDecision decision = new RecertificationManager.RecertificationDecision();
+        decision.setCertifierId("owner@accessio.com");
+        decision.setCertified(certified);
+        decision.setComments(comments);
+        decision.setDecisionDate(new Date());
+        return decision;
+    }
+}
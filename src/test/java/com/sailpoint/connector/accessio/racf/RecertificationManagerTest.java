@@ -0,0 +1,371 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import sailpoint.object.Configuration;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static com.sailpoint.connector.accessio.racf.RACFTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RecertificationManager
+ */
+@ExtendWith(MockitoExtension.class)
+public class RecertificationManagerTest {
+
+    @Mock
+    private GarancyAPIClient mockApiClient;
+
+    @Mock
+    private RACFRoleManager mockRoleManager;
+
+    @Mock
+    private Configuration mockConfiguration;
+
+    private RecertificationManager recertificationManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        List<Map<String, Object>> roles = Arrays.asList(
+            createMockRole("RACF_USER_BASIC", "owner.a@accessio.com"),
+            createMockRole("RACF_IT_USER", "owner.b@accessio.com")
+        );
+        lenient().when(mockRoleManager.getRoleCatalog()).thenReturn(new RoleCatalogSnapshot(roles));
+
+        List<Map<String, Object>> connections = Arrays.asList(
+            createMockConnection("user1", "RACF_USER_BASIC"),
+            createMockConnection("user2", "RACF_USER_BASIC"),
+            createMockConnection("user3", "RACF_IT_USER")
+        );
+        lenient().when(mockRoleManager.getRoleConnectionIndex()).thenReturn(RoleConnectionIndex.fromConnections(connections));
+        lenient().when(mockApiClient.removeRoleConnectionAsync(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(GarancyOutcome.success("Operation completed", "REQ-1", null)));
+
+        recertificationManager = new RecertificationManager(mockApiClient, mockRoleManager, mockConfiguration);
+    }
+
+    @Test
+    void testCampaignGenerationUsesSharedCatalogAndConnectionIndex() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        assertNotNull(campaignId);
+        assertEquals(3, recertificationManager.getCampaignStatus(campaignId).getItems().size());
+
+        verify(mockRoleManager, times(1)).getRoleCatalog();
+        verify(mockRoleManager, times(1)).getRoleConnectionIndex();
+        verify(mockRoleManager, never()).getRoleOwnership(anyString());
+        verify(mockRoleManager, never()).getUsersForRole(anyString());
+        verify(mockApiClient, never()).listRoleUserConnections();
+    }
+
+    @Test
+    void testRecertificationCycleStartsRequestedCampaigns() throws Exception {
+        Map<String, String> campaigns = recertificationManager.runRecertificationCycle(
+            Arrays.asList("Periodic", "High-Privilege", "Quarterly"));
+
+        assertEquals(2, campaigns.size());
+        assertNotNull(recertificationManager.getCampaignStatus(campaigns.get(RecertificationManager.TYPE_PERIODIC)));
+        assertNotNull(recertificationManager.getCampaignStatus(campaigns.get(RecertificationManager.TYPE_HIGH_PRIVILEGE)));
+        assertEquals(RecertificationManager.TYPE_HIGH_PRIVILEGE, RecertificationManager.toCampaignType("High-Privilege"));
+        assertNull(RecertificationManager.toCampaignType("Quarterly"));
+    }
+
+    @Test
+    void testRecertificationCycleSkipsCampaignsNotDue() throws Exception {
+        List<String> types = Arrays.asList("Periodic", "High-Privilege");
+        assertEquals(2, recertificationManager.runRecertificationCycle(types).size());
+
+        assertTrue(recertificationManager.runRecertificationCycle(types).isEmpty());
+        assertEquals(2, recertificationManager.getActiveCampaigns().size());
+
+        // Completing the periodic campaign does not make the next one due before its cycle
+        recertificationManager.certifyAllRemaining("owner.a@accessio.com", "Reviewed");
+        recertificationManager.certifyAllRemaining("owner.b@accessio.com", "Reviewed");
+        assertTrue(recertificationManager.runRecertificationCycle(types).isEmpty());
+        assertEquals(2, recertificationManager.getActiveCampaigns().size());
+    }
+
+    @Test
+    void testPendingItemsIndexedByCertifier() throws Exception {
+        recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        assertEquals(2, recertificationManager.getPendingRecertifications("owner.a@accessio.com").size());
+        assertEquals(1, recertificationManager.getPendingRecertifications("owner.b@accessio.com").size());
+        assertTrue(recertificationManager.getPendingRecertifications("nobody@accessio.com").isEmpty());
+    }
+
+    @Test
+    void testDecisionUpdatesCountersIncrementally() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        List<RecertificationManager.RecertificationItem> pending =
+            recertificationManager.getPendingRecertifications("owner.a@accessio.com");
+
+        assertTrue(recertificationManager.processRecertificationDecision(
+            pending.get(0).getItemId(), "owner.a@accessio.com", true, "ok"));
+        assertFalse(recertificationManager.processRecertificationDecision(
+            pending.get(0).getItemId(), "owner.a@accessio.com", true, "again"));
+
+        RecertificationManager.CampaignStatistics statistics =
+            recertificationManager.getCampaignStatistics(campaignId);
+        assertEquals(3, statistics.getTotalItems());
+        assertEquals(1, statistics.getCount(RecertificationManager.STATUS_CERTIFIED));
+        assertEquals(2, statistics.getCount(RecertificationManager.STATUS_PENDING));
+        assertEquals(1, recertificationManager.getPendingRecertifications("owner.a@accessio.com").size());
+
+        Map<String, Object> report = recertificationManager.generateComplianceReport(campaignId);
+        assertEquals(1, report.get("certifiedItems"));
+        assertEquals(2, report.get("pendingItems"));
+        assertEquals(1, recertificationManager.getCampaignStatus(campaignId).getCompletedItems());
+    }
+
+    @Test
+    void testDecisionRejectedForOtherCertifier() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        String otherCertifiersItem =
+            recertificationManager.getPendingRecertifications("owner.b@accessio.com").get(0).getItemId();
+
+        assertFalse(recertificationManager.processRecertificationDecision(
+            otherCertifiersItem, "owner.a@accessio.com", false, "revoke"));
+        assertFalse(recertificationManager.processRecertificationDecision(
+            otherCertifiersItem, null, false, "revoke"));
+        assertFalse(recertificationManager.processRecertificationDecision(null, "owner.a@accessio.com", true, "ok"));
+
+        assertEquals(3, recertificationManager.getCampaignStatistics(campaignId)
+            .getCount(RecertificationManager.STATUS_PENDING));
+    }
+
+    @Test
+    void testBulkDecisionsWithoutItemIdsAreRejected() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        assertTrue(recertificationManager.processBulkRecertificationDecisions("owner.a@accessio.com", null).isApplied());
+        assertTrue(recertificationManager.processBulkRecertificationDecisions(
+            "owner.a@accessio.com", new ArrayList<RecertificationManager.ItemDecision>()).isApplied());
+
+        List<RecertificationManager.ItemDecision> decisions = Arrays.asList(
+            new RecertificationManager.ItemDecision(
+                recertificationManager.getPendingRecertifications("owner.a@accessio.com").get(0).getItemId(), true, "ok"),
+            new RecertificationManager.ItemDecision(null, true, "ok"),
+            null
+        );
+
+        RecertificationManager.BulkDecisionResult rejected =
+            recertificationManager.processBulkRecertificationDecisions("owner.a@accessio.com", decisions);
+
+        assertFalse(rejected.isApplied());
+        assertEquals(Arrays.asList(null, null), rejected.getRejectedItemIds());
+        assertEquals(3, recertificationManager.getCampaignStatistics(campaignId)
+            .getCount(RecertificationManager.STATUS_PENDING));
+    }
+
+    @Test
+    void testDecisionsCommittedAfterRevocationEngineShutdown(@TempDir File journalDirectory) throws Exception {
+        RecertificationManager manager = new RecertificationManager(mockApiClient, mockRoleManager, mockConfiguration,
+            new RecertificationJournal(journalDirectory, false, 0));
+        String campaignId = manager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+        manager.getRevocationEngine().shutdown();
+
+        List<RecertificationManager.ItemDecision> decisions = new ArrayList<>();
+        for (RecertificationManager.RecertificationItem item : manager.getPendingRecertifications("owner.a@accessio.com")) {
+            decisions.add(new RecertificationManager.ItemDecision(item.getItemId(), false, "no longer needed"));
+        }
+
+        RecertificationManager.BulkDecisionResult result =
+            manager.processBulkRecertificationDecisions("owner.a@accessio.com", decisions);
+
+        assertTrue(result.isApplied());
+        assertEquals(2, manager.getCampaignStatistics(campaignId).getCount(RecertificationManager.STATUS_REVOKED));
+        verify(mockApiClient, never()).removeRoleConnectionAsync(anyString(), anyString());
+        manager.shutdown();
+
+        // The committed revocations are resumed from the journal on the next start
+        RecertificationManager restarted = new RecertificationManager(mockApiClient, mockRoleManager, mockConfiguration,
+            new RecertificationJournal(journalDirectory, false, 0));
+        assertTrue(restarted.getRevocationEngine().awaitCompletion(10, java.util.concurrent.TimeUnit.SECONDS));
+        verify(mockApiClient).removeRoleConnectionAsync("user1", "RACF_USER_BASIC");
+        verify(mockApiClient).removeRoleConnectionAsync("user2", "RACF_USER_BASIC");
+        restarted.shutdown();
+    }
+
+    @Test
+    void testBulkDecisionsApplyAtomically() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        List<RecertificationManager.RecertificationItem> pending =
+            recertificationManager.getPendingRecertifications("owner.a@accessio.com");
+
+        List<RecertificationManager.ItemDecision> decisions = Arrays.asList(
+            new RecertificationManager.ItemDecision(pending.get(0).getItemId(), true, "ok"),
+            new RecertificationManager.ItemDecision("ITEM-UNKNOWN", true, "ok")
+        );
+
+        RecertificationManager.BulkDecisionResult rejected =
+            recertificationManager.processBulkRecertificationDecisions("owner.a@accessio.com", decisions);
+
+        assertFalse(rejected.isApplied());
+        assertEquals(Arrays.asList("ITEM-UNKNOWN"), rejected.getRejectedItemIds());
+        assertEquals(3, recertificationManager.getCampaignStatistics(campaignId)
+            .getCount(RecertificationManager.STATUS_PENDING));
+    }
+
+    @Test
+    void testBulkDecisionsRejectItemsOfOtherCertifiers() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        String otherCertifiersItem =
+            recertificationManager.getPendingRecertifications("owner.b@accessio.com").get(0).getItemId();
+        List<RecertificationManager.ItemDecision> decisions = Arrays.asList(
+            new RecertificationManager.ItemDecision(
+                recertificationManager.getPendingRecertifications("owner.a@accessio.com").get(0).getItemId(), true, "ok"),
+            new RecertificationManager.ItemDecision(otherCertifiersItem, false, "revoke")
+        );
+
+        RecertificationManager.BulkDecisionResult rejected =
+            recertificationManager.processBulkRecertificationDecisions("owner.a@accessio.com", decisions);
+
+        assertFalse(rejected.isApplied());
+        assertEquals(Arrays.asList(otherCertifiersItem), rejected.getRejectedItemIds());
+        assertEquals(3, recertificationManager.getCampaignStatistics(campaignId)
+            .getCount(RecertificationManager.STATUS_PENDING));
+        verify(mockApiClient, never()).removeRoleConnectionAsync(anyString(), anyString());
+    }
+
+    @Test
+    void testBulkDecisionsRolledBackWhenJournalWriteFails(@TempDir File journalDirectory) throws Exception {
+        RecertificationJournal failingJournal = new RecertificationJournal(journalDirectory, false, 0) {
+            @Override
+            public synchronized void appendItems(Collection<RecertificationManager.RecertificationItem> items)
+                    throws java.io.IOException {
+                throw new java.io.IOException("No space left on device");
+            }
+        };
+        failingJournal.recover();
+        RecertificationManager manager =
+            new RecertificationManager(mockApiClient, mockRoleManager, mockConfiguration, failingJournal);
+        String campaignId = manager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        List<RecertificationManager.ItemDecision> decisions = new ArrayList<>();
+        for (RecertificationManager.RecertificationItem item : manager.getPendingRecertifications("owner.a@accessio.com")) {
+            decisions.add(new RecertificationManager.ItemDecision(item.getItemId(), false, "no longer needed"));
+        }
+
+        assertThrows(IllegalStateException.class,
+            () -> manager.processBulkRecertificationDecisions("owner.a@accessio.com", decisions));
+
+        assertEquals(3, manager.getCampaignStatistics(campaignId).getCount(RecertificationManager.STATUS_PENDING));
+        assertEquals(2, manager.getPendingRecertifications("owner.a@accessio.com").size());
+        for (RecertificationManager.RecertificationItem item : manager.getPendingRecertifications("owner.a@accessio.com")) {
+            assertNull(item.getDecision());
+        }
+        assertEquals(0, manager.getRevocationEngine().getOutstandingCount());
+        verify(mockApiClient, never()).removeRoleConnectionAsync(anyString(), anyString());
+        manager.shutdown();
+    }
+
+    @Test
+    void testBulkRevocationsHandedToRevocationEngine() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        List<RecertificationManager.ItemDecision> decisions = new ArrayList<>();
+        for (RecertificationManager.RecertificationItem item :
+                recertificationManager.getPendingRecertifications("owner.a@accessio.com")) {
+            decisions.add(new RecertificationManager.ItemDecision(item.getItemId(), false, "no longer needed"));
+        }
+
+        RecertificationManager.BulkDecisionResult result =
+            recertificationManager.processBulkRecertificationDecisions("owner.a@accessio.com", decisions);
+
+        assertTrue(result.isApplied());
+        assertEquals(2, result.getRevokedCount());
+        assertTrue(recertificationManager.getRevocationEngine().awaitCompletion(10, java.util.concurrent.TimeUnit.SECONDS));
+
+        verify(mockApiClient).removeRoleConnectionAsync("user1", "RACF_USER_BASIC");
+        verify(mockApiClient).removeRoleConnectionAsync("user2", "RACF_USER_BASIC");
+        assertEquals(2, recertificationManager.getCampaignStatistics(campaignId)
+            .getCount(RecertificationManager.STATUS_REVOKED));
+    }
+
+    @Test
+    void testCertifyAllRemaining() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        RecertificationManager.BulkDecisionResult result =
+            recertificationManager.certifyAllRemaining("owner.a@accessio.com", "bulk certify");
+
+        assertTrue(result.isApplied());
+        assertEquals(2, result.getCertifiedCount());
+        assertTrue(recertificationManager.getPendingRecertifications("owner.a@accessio.com").isEmpty());
+        assertEquals(2, recertificationManager.getCampaignStatus(campaignId).getCompletedItems());
+    }
+
+    @Test
+    void testExpiredHighPrivilegeItemsRevokedThroughEngine() throws Exception {
+        String campaignId = recertificationManager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+
+        Date yesterday = new Date(System.currentTimeMillis() - 24L * 60 * 60 * 1000);
+        for (RecertificationManager.RecertificationItem item :
+                recertificationManager.getCampaignStatus(campaignId).getItems()) {
+            item.setDueDate(yesterday);
+            if ("user3".equals(item.getUserId())) {
+                item.setRecertificationType(RecertificationManager.TYPE_HIGH_PRIVILEGE);
+            }
+        }
+
+        recertificationManager.processExpiredRecertifications();
+        assertTrue(recertificationManager.getRevocationEngine().awaitCompletion(10, java.util.concurrent.TimeUnit.SECONDS));
+
+        verify(mockApiClient, times(1)).removeRoleConnectionAsync(anyString(), anyString());
+        verify(mockApiClient).removeRoleConnectionAsync("user3", "RACF_IT_USER");
+        assertEquals(3, recertificationManager.getCampaignStatistics(campaignId)
+            .getCount(RecertificationManager.STATUS_EXPIRED));
+        assertEquals(100.0, recertificationManager.getCampaignStatus(campaignId).getProgress(), 0.001);
+    }
+
+    @Test
+    void testStateRecoveredFromJournalAfterRestart(@TempDir File journalDirectory) throws Exception {
+        lenient().when(mockConfiguration.getString(RecertificationManager.CONFIG_JOURNAL_DIRECTORY))
+            .thenReturn(journalDirectory.getAbsolutePath());
+        lenient().when(mockConfiguration.getString(RecertificationManager.CONFIG_JOURNAL_SYNC)).thenReturn("false");
+
+        RecertificationManager manager = new RecertificationManager(mockApiClient, mockRoleManager, mockConfiguration);
+        String campaignId = manager.startRecertificationCampaign(
+            RecertificationManager.TYPE_PERIODIC, "Periodic", new Date());
+        List<RecertificationManager.RecertificationItem> pending =
+            manager.getPendingRecertifications("owner.a@accessio.com");
+        manager.processRecertificationDecision(pending.get(0).getItemId(), "owner.a@accessio.com", true, "ok");
+        manager.shutdown();
+
+        RecertificationManager restarted = new RecertificationManager(mockApiClient, mockRoleManager, mockConfiguration);
+
+        assertEquals(3, restarted.getCampaignStatus(campaignId).getItems().size());
+        assertEquals(1, restarted.getCampaignStatistics(campaignId).getCount(RecertificationManager.STATUS_CERTIFIED));
+        assertEquals(1, restarted.getPendingRecertifications("owner.a@accessio.com").size());
+        assertEquals(1, restarted.getCampaignStatus(campaignId).getCompletedItems());
+        restarted.shutdown();
+    }
+}
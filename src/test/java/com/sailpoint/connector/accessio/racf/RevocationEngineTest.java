@@ -0,0 +1,71 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RevocationEngine
+ */
+@ExtendWith(MockitoExtension.class)
+public class RevocationEngineTest {
+
+    @Mock
+    private GarancyAPIClient mockApiClient;
+
+    @Test
+    void testFailingListenerDoesNotStallTheQueue() throws Exception {
+        lenient().when(mockApiClient.removeRoleConnectionAsync(anyString(), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(GarancyOutcome.success("Operation completed", "REQ-1", null)));
+        lenient().when(mockApiClient.removeRoleConnectionAsync(eq("user2"), anyString()))
+            .thenReturn(CompletableFuture.completedFuture(GarancyOutcome.rejected("User not found", "REQ-2", null)));
+
+        final List<String> batches = new ArrayList<>();
+        RevocationEngine engine = new RevocationEngine(mockApiClient, null, new RevocationEngine.RevocationListener() {
+            @Override
+            public void onRevoked(RecertificationManager.RecertificationItem item) {
+                throw new IllegalStateException("journal unavailable");
+            }
+
+            @Override
+            public void onRevocationFailed(RecertificationManager.RecertificationItem item, String reason) {
+                throw new IllegalStateException("journal unavailable");
+            }
+
+            @Override
+            public void onBatchCompleted(List<RecertificationManager.RecertificationItem> batch) {
+                batches.add(batch.get(0).getItemId());
+            }
+        });
+
+        try {
+            engine.submit(Arrays.asList(createItem("ITEM-1", "user1"), createItem("ITEM-2", "user2"),
+                                        createItem("ITEM-3", "user3")));
+
+            assertTrue(engine.awaitCompletion(10, TimeUnit.SECONDS));
+            assertEquals(0, engine.getOutstandingCount());
+            assertEquals(2L, engine.getStatistics().get("completed"));
+            assertEquals(1L, engine.getStatistics().get("failed"));
+            assertFalse(batches.isEmpty());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private RecertificationManager.RecertificationItem createItem(String itemId, String userId) {
+        RecertificationManager.RecertificationItem item = new RecertificationManager.RecertificationItem();
+        item.setItemId(itemId);
+        item.setUserId(userId);
+        item.setRoleId("RACF_USER_BASIC");
+        return item;
+    }
+}
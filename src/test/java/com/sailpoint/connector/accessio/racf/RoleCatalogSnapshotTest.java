@@ -0,0 +1,61 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.sailpoint.connector.accessio.racf.RACFTestData.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RoleCatalogSnapshot
+ */
+public class RoleCatalogSnapshotTest {
+
+    private RoleCatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<Map<String, Object>> roles = new ArrayList<>();
+        roles.add(createMockRole("RACF_USER_BASIC", "Basic User", RACFRoleManager.ROLE_TYPE_STANDARD, false, "basic.owner@accessio.com"));
+        roles.add(createMockRole("RACF_GUARDIAN_01", "ISO_GUARDIAN Role", RACFRoleManager.ROLE_TYPE_GUARDIAN, true, "guardian.owner@accessio.com"));
+        roles.add(createMockRole("RACF_SECURITY_ADMIN", "Security Admin", RACFRoleManager.ROLE_TYPE_STANDARD, true, null));
+
+        snapshot = new RoleCatalogSnapshot(roles);
+    }
+
+    @Test
+    void testRoleLookup() {
+        assertEquals(3, snapshot.size());
+        assertTrue(snapshot.containsRole("RACF_USER_BASIC"));
+        assertFalse(snapshot.containsRole("UNKNOWN_ROLE"));
+        assertFalse(snapshot.containsRole(null));
+        assertEquals("Basic User", snapshot.getRole("RACF_USER_BASIC").get("TECHDSP_NAME"));
+    }
+
+    @Test
+    void testCertifierMap() {
+        assertEquals("basic.owner@accessio.com", snapshot.getCertifier("RACF_USER_BASIC"));
+        assertEquals("guardian.owner@accessio.com", snapshot.getCertifier("RACF_GUARDIAN_01"));
+        assertNull(snapshot.getCertifier("RACF_SECURITY_ADMIN"));
+        assertEquals(2, snapshot.getCertifierMap().size());
+    }
+
+    @Test
+    void testRoleOwnership() {
+        Map<String, Object> ownership = snapshot.getRoleOwnership("RACF_GUARDIAN_01");
+
+        assertNotNull(ownership);
+        assertEquals("RACF_GUARDIAN_01", ownership.get("roleId"));
+        assertEquals("guardian.owner@accessio.com", ownership.get("ownerEmail"));
+    }
+
+    @Test
+    void testRolesByType() {
+        assertEquals(1, snapshot.getRolesByType(RACFRoleManager.ROLE_TYPE_GUARDIAN).size());
+        assertEquals(2, snapshot.getRolesByType(RACFRoleManager.ROLE_TYPE_STANDARD).size());
+        assertTrue(snapshot.getRolesByType(RACFRoleManager.ROLE_TYPE_MONITOR).isEmpty());
+        assertEquals(2, snapshot.getRolesRequiringRecertification().size());
+    }
+}
@@ -0,0 +1,112 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight
+ */
+public class SingleFlightTest {
+
+    private final SingleFlight<List<String>> flight = new SingleFlight<>(records -> new ArrayList<>(records));
+
+    @Test
+    void testConcurrentCallsShareOneCall() throws Exception {
+        int callers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<SingleFlight.Result<List<String>>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute("listUser", () -> {
+                    calls.incrementAndGet();
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                    List<String> users = new ArrayList<>();
+                    users.add("USER01");
+                    return users;
+                })));
+            }
+            // Let every caller join before the first call completes
+            while (flight.getSharedCount() < callers - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            List<List<String>> values = new ArrayList<>();
+            int shared = 0;
+            for (Future<SingleFlight.Result<List<String>>> result : results) {
+                values.add(result.get(10, TimeUnit.SECONDS).getValue());
+                shared += result.get().isShared() ? 1 : 0;
+            }
+            assertEquals(1, calls.get());
+            assertEquals(callers - 1, shared);
+
+            // Every caller got its own copy
+            values.get(0).add("USER02");
+            assertEquals(1, values.get(1).size());
+            assertNotSame(values.get(1), values.get(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCompletedCallsAreNotReused() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            SingleFlight.Result<List<String>> result = flight.execute("listRole", () -> {
+                calls.incrementAndGet();
+                return new ArrayList<>();
+            });
+            assertFalse(result.isShared());
+        }
+        assertEquals(3, calls.get());
+        assertEquals(0, flight.getSharedCount());
+    }
+
+    @Test
+    void testFailureIsSharedAndNextCallRetries() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leader = executor.submit(() -> flight.execute("listOrgUnit", () -> {
+                started.countDown();
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                throw new IllegalStateException("Database unavailable");
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<?> follower = executor.submit(() -> flight.execute("listOrgUnit", () -> {
+                throw new AssertionError("should have joined the call in flight");
+            }));
+            while (flight.getSharedCount() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            ExecutionException leaderFailure =
+                    assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+            assertTrue(leaderFailure.getCause() instanceof IllegalStateException);
+            ExecutionException followerFailure =
+                    assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS));
+            assertEquals("Database unavailable", followerFailure.getCause().getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> retried = flight.execute("listOrgUnit", () -> new ArrayList<>()).getValue();
+        assertTrue(retried.isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sailpoint.object.Configuration;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SoDConflictMatrix
+ */
+public class SoDConflictMatrixTest {
+
+    private SoDConflictMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new SoDConflictMatrix(SoDConflictMatrix.getDefaultConflictRules());
+    }
+
+    @Test
+    void testConflictsAreSymmetric() {
+        assertTrue(matrix.conflicts("FINANCIAL_APPROVER", "PAYMENT_PROCESSOR"));
+        assertTrue(matrix.conflicts("PAYMENT_PROCESSOR", "FINANCIAL_APPROVER"));
+        assertFalse(matrix.conflicts("FINANCIAL_PROCESSOR", "PAYMENT_PROCESSOR"));
+        assertFalse(matrix.conflicts("RACF_USER_BASIC", "FINANCIAL_APPROVER"));
+        assertEquals(5, matrix.getRules().size());
+    }
+
+    @Test
+    void testProposedRolesCheckedAgainstCurrentRoles() {
+        List<String> current = Arrays.asList("RACF_USER_BASIC", "AUDIT_REVIEWER");
+
+        assertTrue(matrix.hasConflict(current, Arrays.asList("SECURITY_ADMIN")));
+        assertFalse(matrix.hasConflict(current, Arrays.asList("BACKUP_OPERATOR", "RACF_IT_USER")));
+    }
+
+    @Test
+    void testConflictsWithinProposedRoles() {
+        List<String> proposed = Arrays.asList("BACKUP_OPERATOR", "RESTORE_OPERATOR");
+
+        assertTrue(matrix.hasConflict(Collections.<String>emptyList(), proposed));
+
+        List<SoDConflictMatrix.Violation> violations =
+            matrix.findViolations(Collections.<String>emptyList(), proposed);
+        assertEquals(1, violations.size());
+        assertEquals("BACKUP_OPERATOR/RESTORE_OPERATOR", violations.get(0).getRule().getRuleId());
+        assertFalse(violations.get(0).isConflictingRoleHeld());
+    }
+
+    @Test
+    void testViolatedRulesReported() {
+        List<SoDConflictMatrix.Violation> violations = matrix.findViolations(
+            Arrays.asList("FINANCIAL_PROCESSOR", "PAYMENT_PROCESSOR"), Arrays.asList("FINANCIAL_APPROVER"));
+
+        assertEquals(2, violations.size());
+        Set<String> ruleIds = new HashSet<>();
+        for (SoDConflictMatrix.Violation violation : violations) {
+            assertEquals("FINANCIAL_APPROVER", violation.getProposedRole());
+            assertTrue(violation.isConflictingRoleHeld());
+            ruleIds.add(violation.getRule().getRuleId());
+        }
+        assertTrue(ruleIds.contains("FINANCIAL_APPROVER/FINANCIAL_PROCESSOR"));
+        assertTrue(ruleIds.contains("FINANCIAL_APPROVER/PAYMENT_PROCESSOR"));
+    }
+
+    @Test
+    void testRulesLoadedFromConfiguredMap() {
+        Map<String, Object> configured = new HashMap<>();
+        configured.put("ROLE_A", "ROLE_B, ROLE_C");
+
+        Configuration configuration = mock(Configuration.class);
+        when(configuration.get(SoDConflictMatrix.CONFIG_SOD_CONFLICT_RULES)).thenReturn(configured);
+
+        SoDConflictMatrix custom = SoDConflictMatrix.fromConfiguration(configuration);
+
+        assertTrue(custom.conflicts("ROLE_C", "ROLE_A"));
+        assertFalse(custom.conflicts("FINANCIAL_APPROVER", "PAYMENT_PROCESSOR"));
+        assertFalse(custom.isGoverned("FINANCIAL_APPROVER"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.sailpoint.connector.accessio.racf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SoDViolationScanner
+ */
+@ExtendWith(MockitoExtension.class)
+public class SoDViolationScannerTest {
+
+    @Mock
+    private GarancyAPIClient mockApiClient;
+
+    @Test
+    void testScanReportsUsersHoldingConflictingRoles() throws Exception {
+        final String[][] connections = {
+            { "user1", "FINANCIAL_APPROVER" },
+            { "user1", "RACF_USER_BASIC" },
+            { "user1", "PAYMENT_PROCESSOR" },
+            { "user2", "BACKUP_OPERATOR" },
+            { "user2", "RACF_IT_USER" },
+            { "user3", "RESTORE_OPERATOR" },
+            { "user3", "BACKUP_OPERATOR" },
+            { "user3", "FINANCIAL_PROCESSOR" }
+        };
+        when(mockApiClient.streamRoleUserConnections(any())).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                GarancyAPIClient.RoleUserConnectionHandler handler = invocation.getArgument(0);
+                for (String[] connection : connections) {
+                    handler.onConnection(connection[0], connection[1], "ACTIVE");
+                }
+                return (long) connections.length;
+            }
+        });
+
+        SoDViolationScanner scanner = new SoDViolationScanner(mockApiClient,
+            new SoDConflictMatrix(SoDConflictMatrix.getDefaultConflictRules()), 2);
+        SoDViolationReport report = scanner.scan();
+
+        assertEquals(8, report.getConnectionsScanned());
+        assertEquals(3, report.getGovernedUsers());
+        assertEquals(2, report.getUsersInViolation());
+
+        Map<String, Integer> byRule = report.getViolationCountsByRule();
+        assertEquals(Integer.valueOf(1), byRule.get("FINANCIAL_APPROVER/PAYMENT_PROCESSOR"));
+        assertEquals(Integer.valueOf(1), byRule.get("BACKUP_OPERATOR/RESTORE_OPERATOR"));
+        verify(mockApiClient, never()).listRoleUserConnections();
+    }
+
+    @Test
+    void testInactiveConnectionsDoNotConflict() throws Exception {
+        final String[][] connections = {
+            { "user1", "FINANCIAL_APPROVER", "ACTIVE" },
+            { "user1", "PAYMENT_PROCESSOR", "INACTIVE" },
+            { "user2", "BACKUP_OPERATOR", "EXPIRED" },
+            { "user2", "RESTORE_OPERATOR", "ACTIVE" },
+            { "user3", "BACKUP_OPERATOR", "active" },
+            { "user3", "RESTORE_OPERATOR", null }
+        };
+        when(mockApiClient.streamRoleUserConnections(any())).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                GarancyAPIClient.RoleUserConnectionHandler handler = invocation.getArgument(0);
+                for (String[] connection : connections) {
+                    handler.onConnection(connection[0], connection[1], connection[2]);
+                }
+                return (long) connections.length;
+            }
+        });
+
+        SoDViolationScanner scanner = new SoDViolationScanner(mockApiClient,
+            new SoDConflictMatrix(SoDConflictMatrix.getDefaultConflictRules()), 1);
+        SoDViolationReport report = scanner.scan();
+
+        assertEquals(6, report.getConnectionsScanned());
+        assertEquals(1, report.getUsersInViolation());
+        assertEquals("user3", report.getViolations().get(0).getUserId());
+    }
+
+    @Test
+    void testConnectionStreamParsedIncrementally() throws Exception {
+        String response =
+            "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>" +
+            "<listRoleToUserConnectionResponse>" +
+            "<Connection><BASEUS_SAM_ID>user1</BASEUS_SAM_ID><BASEUSRC_ROLE>ROLE_A</BASEUSRC_ROLE>" +
+            "<CONNECTION_STATUS>ACTIVE</CONNECTION_STATUS></Connection>" +
+            "<Connection><BASEUS_SAM_ID>user2</BASEUS_SAM_ID><BASEUSRC_ROLE>ROLE_B</BASEUSRC_ROLE></Connection>" +
+            "</listRoleToUserConnectionResponse></soapenv:Body></soapenv:Envelope>";
+
+        final List<String> received = new ArrayList<>();
+        long[] delivered = new long[1];
+        GarancyAPIClient.parseRoleUserConnectionStream(
+            new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)),
+            new GarancyAPIClient.RoleUserConnectionHandler() {
+                @Override
+                public void onConnection(String userId, String roleId, String status) {
+                    received.add(userId + ":" + roleId + ":" + status);
+                }
+            }, delivered);
+
+        assertEquals(Arrays.asList("user1:ROLE_A:ACTIVE", "user2:ROLE_B:null"), received);
+        assertEquals(2, delivered[0]);
+    }
+
+    @Test
+    void testSoapFaultInStreamRaisesException() {
+        String fault =
+            "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>" +
+            "<soapenv:Fault><faultcode>soapenv:Server</faultcode><faultstring>Throttled</faultstring></soapenv:Fault>" +
+            "</soapenv:Body></soapenv:Envelope>";
+
+        Exception e = assertThrows(Exception.class, () -> GarancyAPIClient.parseRoleUserConnectionStream(
+            new ByteArrayInputStream(fault.getBytes(StandardCharsets.UTF_8)),
+            mock(GarancyAPIClient.RoleUserConnectionHandler.class), new long[1]));
+        assertTrue(e.getMessage().contains("Throttled"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.sailpoint.connector.accessio.racf.logging;
+
+import org.apache.commons.logging.Log;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectorLog
+ */
+public class ConnectorLogTest {
+
+    @Test
+    void testPlaceholdersAreSubstitutedInOrder() {
+        RecordingLog recording = new RecordingLog(true);
+        ConnectorLog log = ConnectorLog.wrap(recording);
+
+        log.debug("Adding role {} to user {}", "RACF_IT_0", "U100001");
+        log.info("Parsed {} users", 42);
+        log.debug("Unmatched {} {} {}", "a", null, "c");
+        log.debug("No placeholder", "ignored");
+
+        assertEquals("Adding role RACF_IT_0 to user U100001", recording.messages.get(0));
+        assertEquals("Parsed 42 users", recording.messages.get(1));
+        assertEquals("Unmatched a null c", recording.messages.get(2));
+        assertEquals("No placeholder", recording.messages.get(3));
+    }
+
+    @Test
+    void testMoreThanThreeArgumentsUseVarargs() {
+        RecordingLog recording = new RecordingLog(true);
+        ConnectorLog log = ConnectorLog.wrap(recording);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        log.info("Revocation batch completed: {} revoked, {} failed; progress {}/{}", 9, 1, 10, 40);
+        log.warn("Batch {} of {} failed for {} on {}", 2, 5, "RACF_IT_0", "U100001", failure);
+
+        assertEquals("Revocation batch completed: 9 revoked, 1 failed; progress 10/40", recording.messages.get(0));
+        assertEquals("Batch 2 of 5 failed for RACF_IT_0 on U100001", recording.messages.get(1));
+        assertSame(failure, recording.throwables.get(1));
+    }
+
+    @Test
+    void testTrailingThrowableIsLoggedAsException() {
+        RecordingLog recording = new RecordingLog(true);
+        ConnectorLog log = ConnectorLog.wrap(recording);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        log.warn("Failed to get org unit owners for {}", "$F001UDF", failure);
+
+        assertEquals("Failed to get org unit owners for $F001UDF", recording.messages.get(0));
+        assertSame(failure, recording.throwables.get(0));
+    }
+
+    @Test
+    void testDisabledLevelFormatsNothing() {
+        RecordingLog recording = new RecordingLog(false);
+        ConnectorLog log = ConnectorLog.wrap(recording);
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                fail("Argument formatted while debug is disabled");
+                return null;
+            }
+        };
+
+        log.debug("Sending SOAP request to {} (attempt {})", argument, 1);
+
+        assertTrue(recording.messages.isEmpty());
+    }
+
+    private static class RecordingLog implements Log {
+        private final boolean debugEnabled;
+        private final List<String> messages = new ArrayList<>();
+        private final List<Throwable> throwables = new ArrayList<>();
+
+        RecordingLog(boolean debugEnabled) {
+            this.debugEnabled = debugEnabled;
+        }
+
+        private void record(Object message, Throwable t) {
+            messages.add(String.valueOf(message));
+            throwables.add(t);
+        }
+
+        public boolean isTraceEnabled() { return debugEnabled; }
+        public boolean isDebugEnabled() { return debugEnabled; }
+        public boolean isInfoEnabled() { return true; }
+        public boolean isWarnEnabled() { return true; }
+        public boolean isErrorEnabled() { return true; }
+        public boolean isFatalEnabled() { return true; }
+
+        public void trace(Object message) { record(message, null); }
+        public void trace(Object message, Throwable t) { record(message, t); }
+        public void debug(Object message) { record(message, null); }
+        public void debug(Object message, Throwable t) { record(message, t); }
+        public void info(Object message) { record(message, null); }
+        public void info(Object message, Throwable t) { record(message, t); }
+        public void warn(Object message) { record(message, null); }
+        public void warn(Object message, Throwable t) { record(message, t); }
+        public void error(Object message) { record(message, null); }
+        public void error(Object message, Throwable t) { record(message, t); }
+        public void fatal(Object message) { record(message, null); }
+        public void fatal(Object message, Throwable t) { record(message, t); }
+    }
+}
@@ -0,0 +1,105 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AggregationProgress
+ */
+public class AggregationProgressTest {
+
+    @Test
+    void testStagesAndCounters() {
+        final List<String> reports = new ArrayList<>();
+        AggregationProgress progress = new AggregationProgress("account", new AggregationProgress.Listener() {
+            @Override
+            public void progressUpdated(String message) {
+                reports.add(message);
+            }
+        }, 60000);
+
+        assertEquals(AggregationProgress.STAGE_STARTING, progress.getStage());
+        progress.fetchStarted();
+        progress.addBytesRead(4096);
+        progress.addBytesRead(4096);
+        assertEquals(AggregationProgress.STAGE_FETCHING, progress.getStage());
+
+        progress.parseStarted();
+        progress.parseCompleted(3);
+        assertEquals(AggregationProgress.STAGE_CONVERTING, progress.getStage());
+        assertEquals(-1.0, progress.getTimeToFirstRecordSeconds(), 0.0);
+
+        progress.recordConverted();
+        progress.recordDelivered();
+        progress.recordConverted();
+        progress.recordFiltered();
+        progress.recordFiltered();
+        progress.completed();
+
+        assertEquals(AggregationProgress.STAGE_COMPLETED, progress.getStage());
+        assertEquals(8192, progress.getBytesRead());
+        assertEquals(3, progress.getRecordsFetched());
+        assertEquals(2, progress.getRecordsConverted());
+        assertEquals(2, progress.getRecordsFiltered());
+        assertEquals(1, progress.getRecordsDelivered());
+        assertTrue(progress.getTimeToFirstRecordSeconds() >= 0.0);
+
+        // One report per stage change; byte and record updates are held back by the interval
+        assertEquals(4, reports.size());
+        assertTrue(reports.get(0).startsWith("account FETCHING"));
+        assertTrue(reports.get(3).contains("delivered 1"), reports.get(3));
+    }
+
+    @Test
+    void testReportsEveryUpdateWithoutInterval() {
+        final List<String> reports = new ArrayList<>();
+        AggregationProgress progress = new AggregationProgress("group", new AggregationProgress.Listener() {
+            @Override
+            public void progressUpdated(String message) {
+                reports.add(message);
+            }
+        }, 0);
+
+        progress.fetchStarted();
+        progress.addBytesRead(100);
+        progress.addBytesRead(100);
+
+        assertEquals(3, reports.size());
+        assertTrue(reports.get(2).contains("read 200 B"), reports.get(2));
+    }
+
+    @Test
+    void testFailureIsReported() {
+        AggregationProgress progress = new AggregationProgress("account", null);
+        progress.fetchStarted();
+        progress.failed(new Exception("HTTP 503 from /listUser"));
+
+        assertEquals(AggregationProgress.STAGE_FAILED, progress.getStage());
+        assertTrue(progress.getProgress().contains("failed: HTTP 503 from /listUser"));
+    }
+
+    @Test
+    void testPublishedOverJmx() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        AggregationProgress first = new AggregationProgress("account", null);
+        first.registerMBean("Progress Test App");
+        AggregationProgress second = new AggregationProgress("account", null);
+        second.registerMBean("Progress Test App");
+        second.fetchStarted();
+        second.addBytesRead(10);
+
+        try {
+            assertEquals(first.getRegisteredName(), second.getRegisteredName());
+            assertEquals(10L, server.getAttribute(second.getRegisteredName(), "BytesRead"));
+            assertEquals(AggregationProgress.STAGE_FETCHING, server.getAttribute(second.getRegisteredName(), "Stage"));
+        } finally {
+            server.unregisterMBean(second.getRegisteredName());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GarancyClientMetrics
+ */
+public class GarancyClientMetricsTest {
+
+    private static final String APPLICATION = "Metrics Test App";
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ObjectName name : server.queryNames(new ObjectName(GarancyClientMetrics.JMX_DOMAIN + ":*"), null)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    void testCountersPerOperation() {
+        GarancyClientMetrics metrics = new GarancyClientMetrics();
+
+        metrics.requestStarted("listUser");
+        assertEquals(1, metrics.getOperationMetrics("listUser").getInFlight());
+        metrics.requestFailed("listUser", TimeUnit.MILLISECONDS.toNanos(40), true);
+        metrics.retryScheduled("listUser", 1);
+        metrics.requestStarted("listUser");
+        metrics.requestCompleted("listUser", TimeUnit.MILLISECONDS.toNanos(20), 300, 5000);
+        metrics.requestStarted("createUser");
+        metrics.requestFailed("createUser", TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        GarancyOperationMetrics listUser = metrics.getOperationMetrics("listUser");
+        assertEquals(2, listUser.getRequestCount());
+        assertEquals(1, listUser.getSuccessCount());
+        assertEquals(1, listUser.getFailureCount());
+        assertEquals(1, listUser.getFaultCount());
+        assertEquals(1, listUser.getRetryCount());
+        assertEquals(0, listUser.getInFlight());
+        assertEquals(300, listUser.getRequestBytes());
+        assertEquals(5000, listUser.getResponseBytes());
+        assertEquals(40.0, listUser.getMaxLatencyMillis(), 0.001);
+
+        GarancyOperationMetrics createUser = metrics.getOperationMetrics("createUser");
+        assertEquals(1, createUser.getFailureCount());
+        assertEquals(0, createUser.getFaultCount());
+        assertEquals(2, metrics.getAllOperationMetrics().size());
+    }
+
+    @Test
+    void testOperationsPublishedOverJmx() throws Exception {
+        GarancyClientMetrics metrics = new GarancyClientMetrics();
+        metrics.requestStarted("listRole");
+        metrics.requestCompleted("listRole", TimeUnit.MILLISECONDS.toNanos(10), 100, 200);
+        metrics.registerMBeans(APPLICATION);
+        metrics.requestStarted("listUser");
+
+        ObjectName listRole = GarancyClientMetrics.objectName(APPLICATION, "listRole");
+        ObjectName listUser = GarancyClientMetrics.objectName(APPLICATION, "listUser");
+        assertEquals(1L, server.getAttribute(listRole, "SuccessCount"));
+        assertEquals(1, server.getAttribute(listUser, "InFlight"));
+
+        metrics.close();
+        assertFalse(server.isRegistered(listRole));
+        assertFalse(server.isRegistered(listUser));
+    }
+
+    @Test
+    void testReplacementKeepsMBeansWhenOldMetricsClosed() throws Exception {
+        GarancyClientMetrics replaced = new GarancyClientMetrics();
+        replaced.registerMBeans(APPLICATION);
+        replaced.requestStarted("listUser");
+
+        GarancyClientMetrics current = new GarancyClientMetrics();
+        current.registerMBeans(APPLICATION);
+        current.requestStarted("listUser");
+        current.requestStarted("listUser");
+        replaced.close();
+
+        ObjectName listUser = GarancyClientMetrics.objectName(APPLICATION, "listUser");
+        assertTrue(server.isRegistered(listUser));
+        assertEquals(2L, server.getAttribute(listUser, "RequestCount"));
+    }
+
+    @Test
+    void testCompositeForwardsToAllRegistries() {
+        GarancyClientMetrics first = new GarancyClientMetrics();
+        GarancyClientMetrics second = new GarancyClientMetrics();
+        CompositeMetricsRegistry composite = new CompositeMetricsRegistry(first, second);
+
+        composite.requestStarted("deleteUser");
+        composite.requestCompleted("deleteUser", 1000, 10, 20);
+
+        assertEquals(1, first.getOperationMetrics("deleteUser").getSuccessCount());
+        assertEquals(1, second.getOperationMetrics("deleteUser").getSuccessCount());
+    }
+}
@@ -0,0 +1,65 @@
+package com.sailpoint.connector.accessio.racf.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100000; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000, histogram.getMaxMicros());
+        assertEquals(50000.5, histogram.getMeanMicros(), 0.001);
+        assertWithinPrecision(50000, histogram.getPercentileMicros(50.0));
+        assertWithinPrecision(99000, histogram.getPercentileMicros(99.0));
+        assertWithinPrecision(99900, histogram.getPercentileMicros(99.9));
+        assertEquals(100000, histogram.getPercentileMicros(100.0));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(3);
+        histogram.recordMicros(7);
+        histogram.recordMicros(63);
+
+        assertEquals(3, histogram.getPercentileMicros(10.0));
+        assertEquals(7, histogram.getPercentileMicros(50.0));
+        assertEquals(63, histogram.getPercentileMicros(99.0));
+    }
+
+    @Test
+    void testBucketsAreContiguous() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+        }
+        assertTrue(LatencyHistogram.bucketIndex(Long.MAX_VALUE) >= 0);
+    }
+
+    @Test
+    void testReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(5000000);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMicros());
+        assertEquals(0, histogram.getPercentileMicros(99.0));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32,
+                   "Expected " + expected + " within 1/32, was " + actual);
+    }
+}
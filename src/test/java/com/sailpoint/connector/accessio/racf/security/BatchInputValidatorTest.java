@@ -0,0 +1,110 @@
+package com.sailpoint.connector.accessio.racf.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchInputValidator
+ */
+public class BatchInputValidatorTest {
+
+    private static final String[] USER_IDS = {
+        "U100001", " U100002 ", "", null, "bad id", "U1234567890123456789012345678901234", "   "
+    };
+    private static final String[] EMAILS = {
+        "john.doe@accessio.com", null, "not-an-email", "", " jane@accessio.com ", "a@b", "x@y.io"
+    };
+    private static final String[] DESCRIPTIONS = {
+        "Quarterly review", null, "  ", "<SCRIPT>alert(1)", "ok", "../../etc/passwd", "Union Select"
+    };
+
+    @Test
+    void testReportsEveryFailingField() throws Exception {
+        Map<String, String[]> columns = new HashMap<>();
+        columns.put("BASEUS_SAM_ID", USER_IDS);
+        columns.put("email", EMAILS);
+        columns.put("description", DESCRIPTIONS);
+
+        BatchValidationReport report = new BatchInputValidator(1)
+                .addColumn("BASEUS_SAM_ID", BatchInputValidator.FieldType.USER_ID)
+                .addColumn("email", BatchInputValidator.FieldType.EMAIL)
+                .addColumn("description", BatchInputValidator.FieldType.TEXT)
+                .validate(columns);
+
+        assertEquals(7, report.getRowCount());
+        assertTrue(report.isRowValid(0));
+        assertTrue(report.isRowValid(1));
+        assertFalse(report.isRowValid(2));
+        assertEquals(ValidationError.EMPTY, report.getError(0));
+        assertEquals("BASEUS_SAM_ID", report.getErrorColumn(0));
+        assertEquals("Row 2, BASEUS_SAM_ID: cannot be null or empty", report.getMessages(1).get(0));
+
+        // Every recorded error must match what the throwing validators reject
+        int expected = 0;
+        for (int row = 0; row < 7; row++) {
+            final int r = row;
+            expected += rejects(() -> InputValidator.validateUserId(USER_IDS[r])) ? 1 : 0;
+            expected += rejects(() -> InputValidator.validateEmail(EMAILS[r])) ? 1 : 0;
+            expected += rejects(() -> InputValidator.sanitizeInput(DESCRIPTIONS[r], "description")) ? 1 : 0;
+        }
+        assertEquals(expected, report.getErrorCount());
+        assertEquals(Integer.valueOf(3), report.getErrorCounts().get(ValidationError.MALICIOUS_CONTENT));
+    }
+
+    @Test
+    void testParallelValidationMatchesSerial() throws Exception {
+        int rows = 50000;
+        String[] userIds = new String[rows];
+        String[] orgUnits = new String[rows];
+        int invalidRows = 0;
+        for (int i = 0; i < rows; i++) {
+            userIds[i] = i % 97 == 0 ? "bad/" + i : "U" + (100000 + i);
+            orgUnits[i] = i % 101 == 0 ? null : String.format("F%03dUDF", i % 1000);
+            invalidRows += i % 97 == 0 || i % 101 == 0 ? 1 : 0;
+        }
+        Map<String, String[]> columns = new HashMap<>();
+        columns.put("BASEUS_SAM_ID", userIds);
+        columns.put("BASEORG_ID", orgUnits);
+
+        BatchValidationReport serial = newValidator(1).validate(columns);
+        BatchValidationReport parallel = newValidator(4).validate(columns);
+
+        assertEquals(serial.getErrorCount(), parallel.getErrorCount());
+        for (int i = 0; i < serial.getErrorCount(); i++) {
+            assertEquals(serial.getErrorRow(i), parallel.getErrorRow(i));
+            assertEquals(serial.getErrorColumn(i), parallel.getErrorColumn(i));
+            assertEquals(serial.getError(i), parallel.getError(i));
+        }
+        assertEquals(serial.getInvalidRows(), parallel.getInvalidRows());
+        assertEquals(invalidRows, parallel.getInvalidRowCount());
+    }
+
+    @Test
+    void testColumnsMustHaveSameLength() {
+        Map<String, String[]> columns = new HashMap<>();
+        columns.put("BASEUS_SAM_ID", new String[] {"U1", "U2"});
+        columns.put("email", new String[] {"a@b.com"});
+
+        assertThrows(IllegalArgumentException.class, () -> newValidator(1).validate(columns));
+    }
+
+    private static BatchInputValidator newValidator(int parallelism) {
+        return new BatchInputValidator(parallelism)
+                .addColumn("BASEUS_SAM_ID", BatchInputValidator.FieldType.USER_ID)
+                .addColumn("BASEORG_ID", BatchInputValidator.FieldType.ORG_UNIT_ID)
+                .addColumn("email", BatchInputValidator.FieldType.EMAIL)
+                .addColumn("description", BatchInputValidator.FieldType.TEXT);
+    }
+
+    private static boolean rejects(Runnable validation) {
+        try {
+            validation.run();
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.sailpoint.connector.accessio.racf.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MultiPatternMatcher
+ */
+public class MultiPatternMatcherTest {
+
+    private static final String[] PATTERNS = {
+        "<script", "javascript:", "union select", "../", "..\\", "%2e%2e", "%252e", "data:", "blob:"
+    };
+
+    @Test
+    void testFindsPatternsIgnoringAsciiCase() {
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(PATTERNS);
+
+        assertEquals("<script", matcher.findFirst("<SCRIPT>alert(1)</script>"));
+        assertEquals("javascript:", matcher.findFirst("href=JavaScript:void(0)"));
+        assertEquals("union select", matcher.findFirst("x' UNION SELECT *"));
+        assertEquals("..\\", matcher.findFirst("..\\windows"));
+        assertNull(matcher.findFirst("U100042"));
+        assertFalse(matcher.containsAny(null));
+        assertFalse(matcher.containsAny(""));
+    }
+
+    @Test
+    void testOverlappingPatternsUseFailureLinks() {
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile("%252e", "%2e%2e", "he", "she", "hers");
+
+        assertEquals("%2e%2e", matcher.findFirst("%25%2e%2e"));
+        assertEquals("%252e", matcher.findFirst("%%252e"));
+        assertEquals("she", matcher.findFirst("ushers"));
+        assertFalse(matcher.containsAny("%25%2e"));
+    }
+
+    @Test
+    void testNonAsciiInputRestartsMatch() {
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(PATTERNS);
+
+        assertFalse(matcher.containsAny("blob\u00e9:"));
+        assertTrue(matcher.containsAny("\u00e9blob:"));
+        assertThrows(IllegalArgumentException.class, () -> MultiPatternMatcher.compile("caf\u00e9"));
+        assertThrows(IllegalArgumentException.class, () -> MultiPatternMatcher.compile(""));
+    }
+
+    @Test
+    void testAgreesWithLowercaseContains() {
+        MultiPatternMatcher matcher = MultiPatternMatcher.compile(PATTERNS);
+        String alphabet = "<>scriptSCRIPTjavJAV:.\\/%25eE unionSELECTdatblob";
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            String lower = input.toString().toLowerCase(Locale.ROOT);
+            boolean expected = false;
+            for (String pattern : PATTERNS) {
+                expected |= lower.contains(pattern);
+            }
+            assertEquals(expected, matcher.containsAny(input), input.toString());
+        }
+    }
+}
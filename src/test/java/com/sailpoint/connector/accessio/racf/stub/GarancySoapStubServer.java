@@ -0,0 +1,576 @@
+package com.sailpoint.connector.accessio.racf.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.xml.stream.*;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process Garancy SOAP stand-in for load and latency testing
+ *
+ * Serves the eleven Garancy operations used by GarancyAPIClient over plain
+ * HTTP on a loopback port, backed by a GarancyStubDataset. Point a client or
+ * connector at getServerUrl() to run aggregation, provisioning and
+ * recertification end to end without a Garancy installation.
+ *
+ * Faults can be injected to exercise the client's retry handling:
+ * - Latency: every request waits between a minimum and maximum delay
+ * - Errors: a share of requests, or the next n requests, answer with a SOAP fault
+ * - Throttling: requests beyond a rate or concurrency limit answer with a
+ *   HTTP 429, a "Throttled" SOAP fault and a Retry-After header
+ *
+ * List responses are streamed, so datasets of a million rows do not have to
+ * be rendered in memory.
+ */
+public class GarancySoapStubServer {
+
+    private static final Log log = LogFactory.getLog(GarancySoapStubServer.class);
+
+    public static final String OPERATION_LIST_ORGUNIT = "listOrgUnit";
+    public static final String OPERATION_LIST_ROLE = "listRole";
+    public static final String OPERATION_LIST_USER = "listUser";
+    public static final String OPERATION_LIST_ROLE_USER_CONNECTION = "listRoleToUserConnection";
+    public static final String OPERATION_CREATE_USER = "createUser";
+    public static final String OPERATION_MODIFY_USER = "modifyUser";
+    public static final String OPERATION_SUSPEND_USER = "suspendUser";
+    public static final String OPERATION_RESUME_USER = "resumeUser";
+    public static final String OPERATION_DELETE_USER = "deleteUser";
+    public static final String OPERATION_ADD_ROLE_CONNECTION = "addRoleConnection";
+    public static final String OPERATION_REMOVE_ROLE_CONNECTION = "removeRoleConnection";
+
+    public static final List<String> OPERATIONS = Collections.unmodifiableList(Arrays.asList(
+        OPERATION_LIST_ORGUNIT, OPERATION_LIST_ROLE, OPERATION_LIST_USER, OPERATION_LIST_ROLE_USER_CONNECTION,
+        OPERATION_CREATE_USER, OPERATION_MODIFY_USER, OPERATION_SUSPEND_USER, OPERATION_RESUME_USER,
+        OPERATION_DELETE_USER, OPERATION_ADD_ROLE_CONNECTION, OPERATION_REMOVE_ROLE_CONNECTION));
+
+    public static final String FAULT_THROTTLED = "Throttled";
+    public static final String FAULT_INJECTED = "Injected failure";
+    public static final String FAULT_AUTHENTICATION = "Authentication failed";
+
+    // Server faults may succeed when retried, client faults never will
+    private static final String FAULT_CODE_SERVER = "soapenv:Server";
+    private static final String FAULT_CODE_CLIENT = "soapenv:Client";
+
+    private static final String SOAP_ENV_NAMESPACE = "http://schemas.xmlsoap.org/soap/envelope/";
+    private static final String RESULT_SUCCESS = "SUCCESS";
+    private static final String RESULT_FAILED = "FAILED";
+
+    private final GarancyStubDataset dataset;
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    // Fault injection, adjustable while the server is running
+    private volatile String username;
+    private volatile String password;
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double errorRate;
+    private volatile int maxRequestsPerSecond;
+    private volatile int maxConcurrentRequests;
+    private final AtomicInteger forcedFailures = new AtomicInteger();
+
+    // Rate limit window
+    private final Object rateLock = new Object();
+    private long rateWindowStart = System.nanoTime();
+    private int rateWindowCount;
+
+    // Statistics
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong faultCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructor
+     *
+     * @param dataset data served and modified by the stub
+     */
+    public GarancySoapStubServer(GarancyStubDataset dataset) {
+        this.dataset = dataset;
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        this.inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        this.outputFactory = XMLOutputFactory.newInstance();
+
+        for (String operation : OPERATIONS) {
+            requestCounts.put(operation, new AtomicLong());
+        }
+    }
+
+    /**
+     * Start the server on a free loopback port
+     */
+    public void start() throws IOException {
+        start(0);
+    }
+
+    /**
+     * Start the server on the given loopback port, 0 for any free port
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Stub server already started");
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 128);
+        for (String operation : OPERATIONS) {
+            server.createContext("/" + operation, new OperationHandler(operation));
+        }
+
+        executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "garancy-stub-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+
+        log.info("Garancy SOAP stub listening on " + getServerUrl());
+    }
+
+    /**
+     * Stop the server
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Get the base URL to configure as the Garancy server URL
+     */
+    public synchronized String getServerUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Stub server not started");
+        }
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    public GarancyStubDataset getDataset() {
+        return dataset;
+    }
+
+    /**
+     * Require these credentials in the Authentication header; null accepts any
+     */
+    public void setCredentials(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Delay every request by a random time between the given bounds
+     */
+    public void setLatency(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid latency range " + minMillis + ".." + maxMillis);
+        }
+        this.minLatencyMillis = minMillis;
+        this.maxLatencyMillis = maxMillis;
+    }
+
+    /**
+     * Answer this share of requests (0.0 to 1.0) with a SOAP fault
+     */
+    public void setErrorRate(double errorRate) {
+        if (errorRate < 0.0 || errorRate > 1.0) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        }
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Answer the next requests with a SOAP fault, regardless of the error rate
+     */
+    public void failNextRequests(int count) {
+        forcedFailures.set(Math.max(0, count));
+    }
+
+    /**
+     * Throttle requests beyond this many per second; 0 disables the limit
+     */
+    public void setMaxRequestsPerSecond(int maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = Math.max(0, maxRequestsPerSecond);
+    }
+
+    /**
+     * Throttle requests beyond this many in flight; 0 disables the limit
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = Math.max(0, maxConcurrentRequests);
+    }
+
+    /**
+     * Get the number of requests received for an operation, including faulted ones
+     */
+    public long getRequestCount(String operation) {
+        AtomicLong count = requestCounts.get(operation);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Get the number of requests received for all operations
+     */
+    public long getTotalRequestCount() {
+        long total = 0;
+        for (AtomicLong count : requestCounts.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of injected and authentication faults
+     */
+    public long getFaultCount() {
+        return faultCount.get();
+    }
+
+    /**
+     * Get the number of throttled requests
+     */
+    public long getThrottledCount() {
+        return throttledCount.get();
+    }
+
+    public void resetStatistics() {
+        for (AtomicLong count : requestCounts.values()) {
+            count.set(0);
+        }
+        faultCount.set(0);
+        throttledCount.set(0);
+    }
+
+    /**
+     * Handles one operation path
+     */
+    private class OperationHandler implements HttpHandler {
+        private final String operation;
+
+        OperationHandler(String operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            requestCounts.get(operation).incrementAndGet();
+            int concurrent = inFlight.incrementAndGet();
+            try {
+                if (!"POST".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+
+                SoapRequest request = readRequest(exchange.getRequestBody());
+                simulateLatency();
+
+                if (isThrottled(concurrent)) {
+                    throttledCount.incrementAndGet();
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                    sendFault(exchange, 429, FAULT_CODE_SERVER, FAULT_THROTTLED + ": request limit exceeded");
+                    return;
+                }
+
+                if (!isAuthenticated(request)) {
+                    faultCount.incrementAndGet();
+                    sendFault(exchange, FAULT_CODE_CLIENT, FAULT_AUTHENTICATION);
+                    return;
+                }
+
+                if (shouldFail()) {
+                    faultCount.incrementAndGet();
+                    sendFault(exchange, FAULT_CODE_SERVER, FAULT_INJECTED + " in " + operation);
+                    return;
+                }
+
+                sendResponse(exchange, operation, request.parameters);
+
+            } catch (Exception e) {
+                log.warn("Stub failed to handle " + operation, e);
+                sendFault(exchange, FAULT_CODE_SERVER, "Stub error: " + e.getMessage());
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long min = minLatencyMillis;
+        long max = maxLatencyMillis;
+        long delay = max > min ? min + ThreadLocalRandom.current().nextLong(max - min + 1) : min;
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    private boolean isThrottled(int concurrent) {
+        int maxConcurrent = maxConcurrentRequests;
+        if (maxConcurrent > 0 && concurrent > maxConcurrent) {
+            return true;
+        }
+
+        int maxRate = maxRequestsPerSecond;
+        if (maxRate <= 0) {
+            return false;
+        }
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            if (now - rateWindowStart >= TimeUnit.SECONDS.toNanos(1)) {
+                rateWindowStart = now;
+                rateWindowCount = 0;
+            }
+            return ++rateWindowCount > maxRate;
+        }
+    }
+
+    private boolean isAuthenticated(SoapRequest request) {
+        String expectedUsername = username;
+        String expectedPassword = password;
+        return expectedUsername == null
+            || (expectedUsername.equals(request.username) && Objects.equals(expectedPassword, request.password));
+    }
+
+    private boolean shouldFail() {
+        while (true) {
+            int remaining = forcedFailures.get();
+            if (remaining <= 0) {
+                break;
+            }
+            if (forcedFailures.compareAndSet(remaining, remaining - 1)) {
+                return true;
+            }
+        }
+        double rate = errorRate;
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Operation parameters and credentials of a request
+     */
+    private static class SoapRequest {
+        String username;
+        String password;
+        final Map<String, String> parameters = new HashMap<>();
+    }
+
+    /**
+     * Read the Authentication header and the parameters of the operation element
+     */
+    private SoapRequest readRequest(InputStream in) throws XMLStreamException {
+        SoapRequest request = new SoapRequest();
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            boolean inBody = false;
+            int operationDepth = -1;
+            int depth = 0;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+
+                    if ("Body".equals(name) && SOAP_ENV_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        inBody = true;
+                    } else if (inBody && operationDepth < 0) {
+                        operationDepth = depth;
+                    } else if (inBody && depth == operationDepth + 1) {
+                        request.parameters.put(name, reader.getElementText());
+                        depth--;
+                    } else if ("Username".equals(name)) {
+                        request.username = reader.getElementText();
+                        depth--;
+                    } else if ("Password".equals(name)) {
+                        request.password = reader.getElementText();
+                        depth--;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return request;
+    }
+
+    private void sendResponse(HttpExchange exchange, String operation, Map<String, String> parameters)
+            throws IOException, XMLStreamException {
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+
+        OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 64 * 1024);
+        XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out, "UTF-8");
+        try {
+            startEnvelope(writer);
+            writer.writeStartElement(operation + "Response");
+
+            if (OPERATION_LIST_ORGUNIT.equals(operation)) {
+                writeRecords(writer, "OrgUnit", dataset.getOrgUnits());
+            } else if (OPERATION_LIST_ROLE.equals(operation)) {
+                writeRecords(writer, "Role", dataset.getRoles());
+            } else if (OPERATION_LIST_USER.equals(operation)) {
+                writeRecords(writer, "User", dataset.getUsers());
+            } else if (OPERATION_LIST_ROLE_USER_CONNECTION.equals(operation)) {
+                writeConnections(writer);
+            } else {
+                writeResult(writer, applyOperation(operation, parameters));
+            }
+
+            writer.writeEndElement();
+            endEnvelope(writer);
+        } finally {
+            writer.close();
+            out.close();
+        }
+    }
+
+    /**
+     * Apply a provisioning operation to the dataset
+     *
+     * @return null on success, otherwise the failure message
+     */
+    private String applyOperation(String operation, Map<String, String> parameters) {
+        String userId = parameters.get("BASEUS_SAM_ID");
+        String roleId = parameters.get("BASEUSRC_ROLE");
+
+        if (OPERATION_CREATE_USER.equals(operation)) {
+            return dataset.createUser(parameters) ? null : "User " + userId + " already exists";
+        }
+        if (dataset.getUser(userId) == null) {
+            return "User " + userId + " not found";
+        }
+        if (OPERATION_MODIFY_USER.equals(operation)) {
+            dataset.modifyUser(userId, parameters);
+        } else if (OPERATION_SUSPEND_USER.equals(operation)) {
+            dataset.setUserStatus(userId, GarancyStubDataset.STATUS_SUSPENDED);
+        } else if (OPERATION_RESUME_USER.equals(operation)) {
+            dataset.setUserStatus(userId, GarancyStubDataset.STATUS_ACTIVE);
+        } else if (OPERATION_DELETE_USER.equals(operation)) {
+            dataset.deleteUser(userId);
+        } else if (OPERATION_ADD_ROLE_CONNECTION.equals(operation)) {
+            if (!dataset.addRoleConnection(userId, roleId)) {
+                return "Role " + roleId + " already connected to " + userId;
+            }
+        } else if (OPERATION_REMOVE_ROLE_CONNECTION.equals(operation)) {
+            if (!dataset.removeRoleConnection(userId, roleId)) {
+                return "Role " + roleId + " not connected to " + userId;
+            }
+        }
+        return null;
+    }
+
+    private void writeRecords(XMLStreamWriter writer, String elementName, Collection<Map<String, String>> records)
+            throws XMLStreamException {
+        for (Map<String, String> record : records) {
+            writer.writeStartElement(elementName);
+            for (Map.Entry<String, String> field : record.entrySet()) {
+                writeElement(writer, field.getKey(), field.getValue());
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    private void writeConnections(XMLStreamWriter writer) throws XMLStreamException {
+        for (Map.Entry<String, Set<String>> entry : dataset.getRoleConnections().entrySet()) {
+            for (String roleId : entry.getValue()) {
+                writer.writeStartElement("Connection");
+                writeElement(writer, "BASEUS_SAM_ID", entry.getKey());
+                writeElement(writer, "BASEUSRC_ROLE", roleId);
+                writeElement(writer, "CONNECTION_STATUS", GarancyStubDataset.STATUS_ACTIVE);
+                writeElement(writer, "ASSIGNED_DATE", "2024-03-01");
+                writer.writeEndElement();
+            }
+        }
+    }
+
+    private void writeResult(XMLStreamWriter writer, String failure) throws XMLStreamException {
+        writer.writeStartElement("Result");
+        writeElement(writer, "Status", failure == null ? RESULT_SUCCESS : RESULT_FAILED);
+        writeElement(writer, "Message", failure == null ? "Operation completed" : failure);
+        writeElement(writer, "RequestId", UUID.randomUUID().toString());
+        writeElement(writer, "Timestamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date()));
+        writer.writeEndElement();
+    }
+
+    private void sendFault(HttpExchange exchange, String faultCode, String faultString) throws IOException {
+        sendFault(exchange, 500, faultCode, faultString);
+    }
+
+    private void sendFault(HttpExchange exchange, int httpStatus, String faultCode, String faultString)
+            throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=utf-8");
+            exchange.sendResponseHeaders(httpStatus, 0);
+
+            XMLStreamWriter writer = outputFactory.createXMLStreamWriter(exchange.getResponseBody(), "UTF-8");
+            try {
+                startEnvelope(writer);
+                writer.writeStartElement("soapenv", "Fault", SOAP_ENV_NAMESPACE);
+                writeElement(writer, "faultcode", faultCode);
+                writeElement(writer, "faultstring", faultString);
+                writer.writeEndElement();
+                endEnvelope(writer);
+            } finally {
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write SOAP fault", e);
+        } catch (IOException e) {
+            // Headers were already sent for a failed streaming response; the client sees a truncated body
+            log.debug("Could not send SOAP fault: " + e.getMessage());
+        }
+    }
+
+    private static void startEnvelope(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeStartElement("soapenv", "Envelope", SOAP_ENV_NAMESPACE);
+        writer.writeNamespace("soapenv", SOAP_ENV_NAMESPACE);
+        writer.writeStartElement("soapenv", "Body", SOAP_ENV_NAMESPACE);
+    }
+
+    private static void endEnvelope(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndDocument();
+    }
+
+    private static void writeElement(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeStartElement(name);
+        if (value != null) {
+            writer.writeCharacters(value);
+        }
+        writer.writeEndElement();
+    }
+}
@@ -0,0 +1,247 @@
+package com.sailpoint.connector.accessio.racf.stub;
+
+import com.sailpoint.connector.accessio.racf.GarancyAPIClient;
+import com.sailpoint.connector.accessio.racf.GarancyOutcome;
+import com.sailpoint.connector.accessio.racf.RACFRoleManager;
+import com.sailpoint.connector.accessio.racf.RecertificationManager;
+import com.sailpoint.connector.accessio.racf.RevocationEngine;
+import com.sailpoint.connector.accessio.racf.metrics.GarancyClientMetrics;
+import com.sailpoint.connector.accessio.racf.metrics.GarancyOperationMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GarancySoapStubServer, driven through the real GarancyAPIClient
+ */
+public class GarancySoapStubServerTest {
+
+    private GarancyStubDataset dataset;
+    private GarancySoapStubServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataset = GarancyStubDataset.generate(500);
+        server = new GarancySoapStubServer(dataset);
+        server.setCredentials("stubuser", "stubpass");
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testListOperationsServeDataset() throws Exception {
+        GarancyAPIClient apiClient = createClient(1);
+
+        assertEquals(dataset.getOrgUnits().size(), apiClient.listOrgUnits().size());
+        assertEquals(dataset.getRoles().size(), apiClient.listRoles().size());
+        assertEquals(500, apiClient.listUsers().size());
+        assertEquals(dataset.getConnectionCount(), apiClient.listRoleUserConnections().size());
+
+        final AtomicLong streamed = new AtomicLong();
+        long delivered = apiClient.streamRoleUserConnections(new GarancyAPIClient.RoleUserConnectionHandler() {
+            @Override
+            public void onConnection(String userId, String roleId, String status) {
+                streamed.incrementAndGet();
+            }
+        });
+        assertEquals(dataset.getConnectionCount(), delivered);
+        assertEquals(delivered, streamed.get());
+        assertEquals(2, server.getRequestCount(GarancySoapStubServer.OPERATION_LIST_ROLE_USER_CONNECTION));
+    }
+
+    @Test
+    void testProvisioningOperationsModifyDataset() throws Exception {
+        GarancyAPIClient apiClient = createClient(1);
+        String roleId = GarancyStubDataset.roleId(0);
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("BASEUS_SAM_ID", "NEWUSER1");
+        attributes.put("BASEORG_ID", GarancyStubDataset.orgUnitId(0));
+        assertEquals("SUCCESS", apiClient.createUser(attributes).getStatus());
+        assertEquals("FAILED", apiClient.createUser(attributes).getStatus());
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("BASEUS_C_C01_009", "Renamed User");
+        assertEquals("SUCCESS", apiClient.modifyUser("NEWUSER1", changes).getStatus());
+        assertEquals("Renamed User", dataset.getUser("NEWUSER1").get("BASEUS_C_C01_009"));
+
+        apiClient.suspendUser("NEWUSER1");
+        assertEquals(GarancyStubDataset.STATUS_SUSPENDED, dataset.getUser("NEWUSER1").get("BASEUS_C_C01_010"));
+        apiClient.resumeUser("NEWUSER1");
+        assertEquals(GarancyStubDataset.STATUS_ACTIVE, dataset.getUser("NEWUSER1").get("BASEUS_C_C01_010"));
+
+        assertEquals("SUCCESS", apiClient.addRoleConnection("NEWUSER1", roleId).getStatus());
+        assertTrue(dataset.getRolesForUser("NEWUSER1").contains(roleId));
+        assertEquals("SUCCESS", apiClient.removeRoleConnection("NEWUSER1", roleId).getStatus());
+        assertFalse(dataset.getRolesForUser("NEWUSER1").contains(roleId));
+
+        assertEquals("SUCCESS", apiClient.deleteUser("NEWUSER1").getStatus());
+        assertNull(dataset.getUser("NEWUSER1"));
+        assertEquals("FAILED", apiClient.deleteUser("NEWUSER1").getStatus());
+    }
+
+    @Test
+    void testInjectedFailureIsRetried() throws Exception {
+        GarancyAPIClient apiClient = createClient(2);
+        server.failNextRequests(1);
+
+        assertEquals(dataset.getOrgUnits().size(), apiClient.listOrgUnits().size());
+        assertEquals(2, server.getRequestCount(GarancySoapStubServer.OPERATION_LIST_ORGUNIT));
+        assertEquals(1, server.getFaultCount());
+    }
+
+    @Test
+    void testRequestsBeyondRateLimitAreThrottled() throws Exception {
+        GarancyAPIClient apiClient = createClient(1);
+        server.setMaxRequestsPerSecond(1);
+
+        apiClient.listRoles();
+        Exception e = assertThrows(Exception.class, apiClient::listRoles);
+
+        assertTrue(String.valueOf(e.getCause().getMessage()).contains(GarancySoapStubServer.FAULT_THROTTLED));
+        assertEquals(1, server.getThrottledCount());
+    }
+
+    @Test
+    void testWrongCredentialsRejected() {
+        GarancyAPIClient apiClient = new GarancyAPIClient(server.getServerUrl(), "stubuser", "wrong", 5000, 1);
+
+        assertThrows(Exception.class, apiClient::listOrgUnits);
+        assertEquals(1, server.getFaultCount());
+    }
+
+    @Test
+    void testFatalFaultsAreNotRetried() {
+        GarancyAPIClient apiClient = new GarancyAPIClient(server.getServerUrl(), "stubuser", "wrong", 5000, 3);
+
+        assertThrows(Exception.class, apiClient::listOrgUnits);
+        assertEquals(1, server.getFaultCount());
+
+        GarancyOutcome outcome = apiClient.suspendUser(GarancyStubDataset.userId(0));
+        assertEquals(GarancyOutcome.Kind.FATAL_FAULT, outcome.getKind());
+        assertEquals(1, outcome.getAttempts());
+        assertEquals(2, server.getFaultCount());
+    }
+
+    @Test
+    void testBusinessRejectionIsReturnedNotThrown() {
+        GarancyAPIClient apiClient = createClient(3);
+
+        GarancyOutcome outcome = apiClient.deleteUser("NOSUCHUSER");
+
+        assertTrue(outcome.isRejected());
+        assertEquals("FAILED", outcome.getStatus());
+        assertNotNull(outcome.getMessage());
+        assertEquals(1, server.getRequestCount(GarancySoapStubServer.OPERATION_DELETE_USER));
+    }
+
+    @Test
+    void testAsyncRequestsStayWithinInFlightLimit() throws Exception {
+        GarancyAPIClient apiClient = createClient(1);
+        apiClient.setAsyncMaxInFlight(2);
+        server.setMaxConcurrentRequests(2);
+        server.setLatency(20, 20);
+
+        List<CompletableFuture<GarancyOutcome>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(apiClient.suspendUserAsync(GarancyStubDataset.userId(i)));
+        }
+        CompletableFuture<List<Map<String, Object>>> users = apiClient.listUsersAsync();
+
+        for (CompletableFuture<GarancyOutcome> future : futures) {
+            assertTrue(future.get(30, TimeUnit.SECONDS).isSuccess());
+        }
+        assertEquals(500, users.get(30, TimeUnit.SECONDS).size());
+        assertEquals(0, server.getThrottledCount());
+        assertEquals(GarancyStubDataset.STATUS_SUSPENDED,
+                     dataset.getUser(GarancyStubDataset.userId(19)).get("BASEUS_C_C01_010"));
+
+        apiClient.close();
+        assertEquals(GarancyOutcome.Kind.FATAL_FAULT,
+                     apiClient.resumeUserAsync(GarancyStubDataset.userId(0)).get(5, TimeUnit.SECONDS).getKind());
+    }
+
+    @Test
+    void testLatencyIsApplied() throws Exception {
+        GarancyAPIClient apiClient = createClient(1);
+        server.setLatency(50, 50);
+
+        long start = System.nanoTime();
+        apiClient.listOrgUnits();
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+
+        assertTrue(elapsedMillis >= 50, "Expected at least 50ms, took " + elapsedMillis);
+    }
+
+    @Test
+    void testClientMetricsRecordRetriesAndPayloads() throws Exception {
+        GarancyAPIClient apiClient = createClient(2);
+        GarancyClientMetrics metrics = new GarancyClientMetrics();
+        apiClient.setMetricsRegistry(metrics);
+        server.failNextRequests(1);
+
+        apiClient.listUsers();
+
+        GarancyOperationMetrics listUser = metrics.getOperationMetrics("listUser");
+        assertEquals(2, listUser.getRequestCount());
+        assertEquals(1, listUser.getSuccessCount());
+        assertEquals(1, listUser.getFaultCount());
+        assertEquals(1, listUser.getRetryCount());
+        assertEquals(0, listUser.getInFlight());
+        assertTrue(listUser.getRequestBytes() > 0);
+        assertTrue(listUser.getResponseBytes() > 0);
+    }
+
+    @Test
+    void testRevocationRefreshesRoleConnectionIndex() throws Exception {
+        GarancyAPIClient apiClient = createClient(1);
+        RACFRoleManager roleManager = new RACFRoleManager(apiClient, null);
+        String userId = GarancyStubDataset.userId(0);
+        String roleId = GarancyStubDataset.roleId(0);
+        dataset.addRoleConnection(userId, roleId);
+
+        assertTrue(roleManager.getRoleConnectionIndex().getRolesForUser(userId).contains(roleId));
+
+        RecertificationManager.RecertificationItem item = new RecertificationManager.RecertificationItem();
+        item.setItemId("ITEM-1");
+        item.setUserId(userId);
+        item.setRoleId(roleId);
+        RevocationEngine engine = new RevocationEngine(apiClient, null, new RevocationEngine.RevocationListener() {
+            @Override
+            public void onRevoked(RecertificationManager.RecertificationItem revoked) {
+            }
+
+            @Override
+            public void onRevocationFailed(RecertificationManager.RecertificationItem failed, String reason) {
+            }
+
+            @Override
+            public void onBatchCompleted(List<RecertificationManager.RecertificationItem> batch) {
+            }
+        });
+        try {
+            engine.submit(Collections.singletonList(item));
+            assertTrue(engine.awaitCompletion(10, TimeUnit.SECONDS));
+        } finally {
+            engine.shutdown();
+        }
+
+        assertFalse(roleManager.getRoleConnectionIndex().getRolesForUser(userId).contains(roleId));
+        assertEquals(2, server.getRequestCount(GarancySoapStubServer.OPERATION_LIST_ROLE_USER_CONNECTION));
+    }
+
+    private GarancyAPIClient createClient(int retryAttempts) {
+        return new GarancyAPIClient(server.getServerUrl(), "stubuser", "stubpass", 5000, retryAttempts);
+    }
+}
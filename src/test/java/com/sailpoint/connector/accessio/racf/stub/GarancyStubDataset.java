@@ -0,0 +1,213 @@
+package com.sailpoint.connector.accessio.racf.stub;
+
+import com.sailpoint.connector.accessio.racf.AccessioRACFConnector;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Synthetic Garancy data served by GarancySoapStubServer
+ *
+ * Holds org units, roles, users and role-user connections shaped like the
+ * Garancy records parsed by GarancyAPIClient. The dataset is generated from
+ * a seed, so the same size always yields the same data, and is mutable so
+ * provisioning calls against the stub are visible to later list calls.
+ */
+public class GarancyStubDataset {
+
+    public static final String STATUS_ACTIVE = "ACTIVE";
+    public static final String STATUS_SUSPENDED = "SUSPENDED";
+
+    private static final String[] ROLE_PREFIXES = {
+        "RACF_USER", "RACF_IT", "FINANCIAL_APPROVER", "PAYMENT_PROCESSOR", "BACKUP_OPERATOR",
+        "RESTORE_OPERATOR", "SECURITY_ADMIN", "ISO_GUARDIAN", "MONITOR"
+    };
+
+    private final Map<String, Map<String, String>> orgUnits = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<String, String>> roles = new ConcurrentSkipListMap<>();
+    private final Map<String, Map<String, String>> users = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> rolesByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Create an empty dataset
+     */
+    public GarancyStubDataset() {
+    }
+
+    /**
+     * Generate a dataset with one org unit per 200 users, one role per 50 users
+     * and three role connections per user
+     */
+    public static GarancyStubDataset generate(int userCount) {
+        return generate(userCount, Math.max(10, userCount / 50), Math.max(5, userCount / 200), 3, 42L);
+    }
+
+    /**
+     * Generate a dataset of the given size
+     */
+    public static GarancyStubDataset generate(int userCount, int roleCount, int orgUnitCount,
+                                              int rolesPerUser, long seed) {
+        GarancyStubDataset dataset = new GarancyStubDataset();
+        Random random = new Random(seed);
+
+        for (int i = 0; i < orgUnitCount; i++) {
+            Map<String, String> orgUnit = new HashMap<>();
+            String orgUnitId = orgUnitId(i);
+            orgUnit.put("BASEORG_ID", orgUnitId);
+            orgUnit.put("BASEORG_KEY", "OU" + i);
+            orgUnit.put("BASEORG_ACTSTA", STATUS_ACTIVE);
+            orgUnit.put("BASEORG_C_C32_05", "owner" + i + "@accessio.com");
+            orgUnit.put("BASEORG_C_C78_01", "deputy" + i + "@accessio.com");
+            orgUnit.put("BASEORG_EMAIL", "ou" + i + "@accessio.com");
+            dataset.orgUnits.put(orgUnitId, orgUnit);
+        }
+
+        for (int i = 0; i < roleCount; i++) {
+            Map<String, String> role = new HashMap<>();
+            String roleId = roleId(i);
+            role.put("BASEUSRC_ROLE", roleId);
+            role.put("TECHDSP_NAME", roleId.replace('_', ' '));
+            role.put("BASEUS_C_C_08_004", "Synthetic role " + i);
+            role.put("BASEUS_C_C_78_001", "roleowner" + (i % 25) + "@accessio.com");
+            role.put("BASEUS_C_C_78_003", "roledeputy" + (i % 25) + "@accessio.com");
+            dataset.roles.put(roleId, role);
+        }
+
+        for (int i = 0; i < userCount; i++) {
+            Map<String, String> user = new HashMap<>();
+            String userId = userId(i);
+            user.put("BASEUS_SAM_ID", userId);
+            user.put("BASEORG_ID", orgUnitId(random.nextInt(Math.max(1, orgUnitCount))));
+            user.put("BASEUS_C_C01_001", i % 20 == 0 ? AccessioRACFConnector.USER_TYPE_TECHNICAL
+                                                     : AccessioRACFConnector.USER_TYPE_AARID);
+            user.put("BASEUS_C_C01_009", "Employee " + i);
+            user.put("BASEUS_C_C01_010", i % 50 == 0 ? STATUS_SUSPENDED : STATUS_ACTIVE);
+            user.put("BASEUS_C_C01_011", "2024-01-15");
+            user.put("BASEUS_C_C01_004", "2024-06-01");
+            dataset.users.put(userId, user);
+
+            for (int r = 0; r < rolesPerUser && roleCount > 0; r++) {
+                dataset.addRoleConnection(userId, roleId(random.nextInt(roleCount)));
+            }
+        }
+
+        return dataset;
+    }
+
+    public static String userId(int index) {
+        return "U" + (100000 + index);
+    }
+
+    public static String roleId(int index) {
+        return ROLE_PREFIXES[index % ROLE_PREFIXES.length] + "_" + (index / ROLE_PREFIXES.length);
+    }
+
+    public static String orgUnitId(int index) {
+        return String.format("$F%03dUDF", index);
+    }
+
+    public Collection<Map<String, String>> getOrgUnits() {
+        return Collections.unmodifiableCollection(orgUnits.values());
+    }
+
+    public Collection<Map<String, String>> getRoles() {
+        return Collections.unmodifiableCollection(roles.values());
+    }
+
+    public Collection<Map<String, String>> getUsers() {
+        return Collections.unmodifiableCollection(users.values());
+    }
+
+    public Map<String, String> getUser(String userId) {
+        return userId != null ? users.get(userId) : null;
+    }
+
+    /**
+     * Get the roles connected to a user
+     */
+    public Set<String> getRolesForUser(String userId) {
+        Set<String> userRoles = userId != null ? rolesByUser.get(userId) : null;
+        return userRoles != null ? Collections.unmodifiableSet(userRoles) : Collections.<String>emptySet();
+    }
+
+    /**
+     * Get all role connections as user -> roles
+     */
+    public Map<String, Set<String>> getRoleConnections() {
+        return Collections.unmodifiableMap(rolesByUser);
+    }
+
+    public int getConnectionCount() {
+        int count = 0;
+        for (Set<String> userRoles : rolesByUser.values()) {
+            count += userRoles.size();
+        }
+        return count;
+    }
+
+    /**
+     * Create a user; fails if the ID is already taken
+     */
+    public boolean createUser(Map<String, String> attributes) {
+        String userId = attributes.get("BASEUS_SAM_ID");
+        if (userId == null) {
+            return false;
+        }
+        Map<String, String> user = new HashMap<>(attributes);
+        if (!user.containsKey("BASEUS_C_C01_010")) {
+            user.put("BASEUS_C_C01_010", STATUS_ACTIVE);
+        }
+        return users.putIfAbsent(userId, user) == null;
+    }
+
+    /**
+     * Replace the given attributes of an existing user
+     */
+    public boolean modifyUser(String userId, Map<String, String> attributes) {
+        Map<String, String> user = getUser(userId);
+        if (user == null) {
+            return false;
+        }
+        Map<String, String> modified = new HashMap<>(user);
+        modified.putAll(attributes);
+        modified.put("BASEUS_SAM_ID", userId);
+        users.put(userId, modified);
+        return true;
+    }
+
+    public boolean setUserStatus(String userId, String status) {
+        return modifyUser(userId, Collections.singletonMap("BASEUS_C_C01_010", status));
+    }
+
+    /**
+     * Delete a user together with its role connections
+     */
+    public boolean deleteUser(String userId) {
+        if (userId == null || users.remove(userId) == null) {
+            return false;
+        }
+        rolesByUser.remove(userId);
+        return true;
+    }
+
+    public boolean addRoleConnection(String userId, String roleId) {
+        if (userId == null || roleId == null) {
+            return false;
+        }
+        Set<String> userRoles = rolesByUser.get(userId);
+        if (userRoles == null) {
+            Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            userRoles = rolesByUser.putIfAbsent(userId, created);
+            if (userRoles == null) {
+                userRoles = created;
+            }
+        }
+        return userRoles.add(roleId);
+    }
+
+    public boolean removeRoleConnection(String userId, String roleId) {
+        Set<String> userRoles = userId != null ? rolesByUser.get(userId) : null;
+        return userRoles != null && userRoles.remove(roleId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.sailpoint.connector.accessio.racf.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Tracer, Span and the span exporters
+ */
+public class TracerTest {
+
+    @Test
+    void testChildSpansJoinTheCurrentTrace() {
+        RingBufferSpanExporter exporter = new RingBufferSpanExporter(16);
+        Tracer tracer = new Tracer(1.0, exporter);
+
+        Span root = tracer.startSpan("connector.update");
+        Span lookup = tracer.startSpan("user.lookup");
+        assertSame(lookup, tracer.currentSpan());
+        lookup.setAttribute("cacheHit", false);
+        lookup.end();
+        assertSame(root, tracer.currentSpan());
+
+        Span write = tracer.startSpan("user.write");
+        write.setError(new IllegalStateException("rejected"));
+        write.end();
+        root.end();
+        assertSame(Span.NOOP, tracer.currentSpan());
+
+        List<Span> trace = exporter.getTrace(root.getTraceId());
+        assertEquals(3, trace.size());
+        assertEquals("user.lookup", trace.get(0).getName());
+        assertEquals(root.getSpanId(), trace.get(0).getParentSpanId());
+        assertEquals(Boolean.FALSE, trace.get(0).getAttributes().get("cacheHit"));
+        assertEquals("IllegalStateException: rejected", trace.get(1).getError());
+        assertTrue(trace.get(2).isRoot());
+        assertTrue(root.getDurationNanos() >= write.getDurationNanos());
+    }
+
+    @Test
+    void testDetachedSpanCanEndOnAnotherThread() throws Exception {
+        RingBufferSpanExporter exporter = new RingBufferSpanExporter(16);
+        Tracer tracer = new Tracer(1.0, exporter);
+
+        Span root = tracer.startSpan("workflow.execute");
+        final Span request = tracer.startDetachedSpan("garancy.suspendUser");
+        assertSame(root, tracer.currentSpan());
+        assertEquals(root.getTraceId(), request.getTraceId());
+
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                request.end();
+            }
+        });
+        worker.start();
+        worker.join();
+        root.end();
+
+        assertSame(Span.NOOP, tracer.currentSpan());
+        assertEquals(2, exporter.getTrace(root.getTraceId()).size());
+    }
+
+    @Test
+    void testSamplingDecidedPerTrace() {
+        RingBufferSpanExporter exporter = new RingBufferSpanExporter(16);
+        Tracer tracer = new Tracer(0.0, exporter);
+
+        Span span = tracer.startSpan("connector.create");
+        assertSame(Span.NOOP, span);
+        span.setAttribute("status", "SUCCESS");
+        span.end();
+        assertFalse(tracer.isEnabled());
+        assertEquals(0, exporter.getExportedCount());
+
+        Tracer sampled = new Tracer(0.5, exporter);
+        for (int i = 0; i < 200; i++) {
+            Span root = sampled.startSpan("root");
+            Span child = sampled.startSpan("child");
+            assertEquals(root.isSampled(), child.isSampled());
+            assertEquals(root.getTraceId(), child.getTraceId());
+            child.end();
+            root.end();
+        }
+        assertEquals(0, exporter.getExportedCount() % 2);
+        assertTrue(exporter.getExportedCount() > 0 && exporter.getExportedCount() < 400);
+    }
+
+    @Test
+    void testRingBufferKeepsMostRecentSpans() {
+        RingBufferSpanExporter exporter = new RingBufferSpanExporter(3);
+        Tracer tracer = new Tracer(1.0, exporter);
+
+        for (int i = 0; i < 5; i++) {
+            tracer.startSpan("span" + i).end();
+        }
+
+        List<Span> spans = exporter.getSpans();
+        assertEquals(3, spans.size());
+        assertEquals("span2", spans.get(0).getName());
+        assertEquals("span4", spans.get(2).getName());
+        assertEquals(5, exporter.getExportedCount());
+
+        exporter.clear();
+        assertTrue(exporter.getSpans().isEmpty());
+    }
+
+    @Test
+    void testFileExporterWritesJsonLines() throws Exception {
+        File file = File.createTempFile("racf-trace", ".jsonl");
+        file.deleteOnExit();
+        Tracer tracer = new Tracer(1.0, new FileSpanExporter(file));
+
+        Span root = tracer.startSpan("connector.delete");
+        Span child = tracer.startSpan("garancy.deleteUser");
+        child.setAttribute("attempts", 2).setAttribute("identity", "U\"1");
+        child.end();
+        root.end();
+        tracer.close();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"traceId\":\"" + Span.toHex(root.getTraceId()) + "\""));
+        assertTrue(lines.get(0).contains("\"parentSpanId\":\"" + Span.toHex(root.getSpanId()) + "\""));
+        assertTrue(lines.get(0).contains("\"attributes\":{\"attempts\":2,\"identity\":\"U\\\"1\"}"));
+        assertFalse(lines.get(1).contains("parentSpanId"));
+    }
+}